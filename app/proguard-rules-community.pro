@@ -0,0 +1,6 @@
+# Strip verbose and debug logging from community release builds. Internal release builds keep it,
+# see TreeModule.
+-assumenosideeffects class timber.log.Timber {
+    public static void v(...);
+    public static void d(...);
+}
@@ -7,4 +7,4 @@
 # Facebook Conceal proguard config
 -keep class com.facebook.crypto.** { *; }
 -keep class com.facebook.jni.** { *; }
--keepclassmembers class com.facebook.cipher.jni.** { *; }
\ No newline at end of file
+-keepclassmembers class com.facebook.cipher.jni.** { *; }
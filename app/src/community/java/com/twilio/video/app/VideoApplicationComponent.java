@@ -24,6 +24,7 @@ import com.twilio.video.app.ui.CommunityScreenSelectorModule;
 import com.twilio.video.app.ui.login.CommunityLoginActivityModule;
 import com.twilio.video.app.ui.room.RoomActivityModule;
 import com.twilio.video.app.ui.room.VideoServiceModule;
+import com.twilio.video.app.ui.settings.AdvancedSettingsFragmentModule;
 import com.twilio.video.app.ui.settings.SettingsActivityModule;
 import com.twilio.video.app.ui.settings.SettingsFragmentModule;
 import com.twilio.video.app.ui.splash.SplashActivityModule;
@@ -44,6 +45,7 @@ import dagger.android.AndroidInjectionModule;
             RoomActivityModule.class,
             SettingsActivityModule.class,
             SettingsFragmentModule.class,
+            AdvancedSettingsFragmentModule.class,
             VideoServiceModule.class,
             CommunityVideoSdkModule.class,
             SecurityModule.class,
@@ -21,6 +21,7 @@ import com.twilio.video.app.data.AuthServiceModule
 import com.twilio.video.app.data.api.TokenService
 import com.twilio.video.app.security.SecurePreferences
 import com.twilio.video.app.security.SecurityModule
+import dagger.Lazy
 import dagger.Module
 import dagger.Provides
 
@@ -34,7 +35,7 @@ class CommunityAuthModule {
     fun providesCommunityAuthenticator(
         preferences: SharedPreferences,
         securePreferences: SecurePreferences,
-        tokenService: TokenService
+        tokenService: Lazy<TokenService>
     ): Authenticator {
         return CommunityAuthenticator(preferences, securePreferences, tokenService)
     }
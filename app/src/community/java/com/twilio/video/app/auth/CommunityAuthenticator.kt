@@ -25,6 +25,7 @@ import com.twilio.video.app.data.Preferences.DISPLAY_NAME
 import com.twilio.video.app.data.api.AuthServiceException
 import com.twilio.video.app.data.api.TokenService
 import com.twilio.video.app.security.SecurePreferences
+import dagger.Lazy
 import io.reactivex.Observable
 import kotlin.coroutines.CoroutineContext
 import kotlinx.coroutines.Dispatchers
@@ -34,7 +35,7 @@ import timber.log.Timber
 class CommunityAuthenticator constructor(
     private val sharedPreferences: SharedPreferences,
     private val securePreferences: SecurePreferences,
-    private val tokenService: TokenService,
+    private val tokenService: Lazy<TokenService>,
     private val coroutineContext: CoroutineContext = Dispatchers.IO
 ) : Authenticator {
 
@@ -46,7 +47,7 @@ class CommunityAuthenticator constructor(
         return rxSingle(coroutineContext) {
             if (loginEvent is LoginEvent.CommunityLoginEvent) {
                 try {
-                    tokenService.getToken(identity = loginEvent.identity, passcode = loginEvent.passcode)
+                    tokenService.get().getToken(identity = loginEvent.identity, passcode = loginEvent.passcode)
 
                     sharedPreferences.edit { putString(DISPLAY_NAME, loginEvent.identity) }
                     securePreferences.putSecureString(PASSCODE, loginEvent.passcode)
@@ -66,8 +67,12 @@ class CommunityAuthenticator constructor(
         return !securePreferences.getSecureString(PASSCODE).isNullOrEmpty()
     }
 
+    override suspend fun isLoggedIn(): Boolean {
+        return !securePreferences.loadSecureString(PASSCODE).isNullOrEmpty()
+    }
+
     override fun logout() {
         sharedPreferences.edit { remove(DISPLAY_NAME) }
-        sharedPreferences.edit { remove(PASSCODE) }
+        securePreferences.removeSecureString(PASSCODE)
     }
 }
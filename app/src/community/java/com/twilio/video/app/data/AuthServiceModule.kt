@@ -15,7 +15,6 @@
  */
 package com.twilio.video.app.data
 
-import android.content.SharedPreferences
 import com.twilio.video.app.android.SharedPreferencesWrapper
 import com.twilio.video.app.data.api.AuthService
 import com.twilio.video.app.data.api.AuthServiceRepository
@@ -65,8 +64,8 @@ class AuthServiceModule {
     fun providesTokenService(
         authService: AuthService,
         securePreferences: SecurePreferences,
-        sharedPreferences: SharedPreferences
+        sharedPreferences: SharedPreferencesWrapper
     ): TokenService {
-        return AuthServiceRepository(authService, securePreferences, SharedPreferencesWrapper(sharedPreferences))
+        return AuthServiceRepository(authService, securePreferences, sharedPreferences)
     }
 }
@@ -91,16 +91,19 @@ class AuthServiceRepository(
                 val isTopologyChange =
                         sharedPreferences.getString(TOPOLOGY, null) != serverTopology.value
                 if (isTopologyChange) {
-                    sharedPreferences.edit { putString(TOPOLOGY, serverTopology.value) }
                     val (enableSimulcast, videoDimensionsIndex) = when (serverTopology) {
                         GROUP, GROUP_SMALL -> true to VIDEO_CAPTURE_RESOLUTION_DEFAULT
                         PEER_TO_PEER, GO -> false to VIDEO_DIMENSIONS.indexOf(HD_720P_VIDEO_DIMENSIONS).toString()
                     }
                     Timber.d("Server topology has changed to %s. Setting the codec to Vp8 with simulcast set to %s",
                             serverTopology, enableSimulcast)
-                    sharedPreferences.edit { putString(VIDEO_CODEC, Vp8Codec.NAME) }
-                    sharedPreferences.edit { putBoolean(VP8_SIMULCAST, enableSimulcast) }
-                    sharedPreferences.edit { putString(VIDEO_CAPTURE_RESOLUTION, videoDimensionsIndex) }
+                    // Write the related settings as one transaction so they are persisted together
+                    sharedPreferences.edit {
+                        putString(TOPOLOGY, serverTopology.value)
+                        putString(VIDEO_CODEC, Vp8Codec.NAME)
+                        putBoolean(VP8_SIMULCAST, enableSimulcast)
+                        putString(VIDEO_CAPTURE_RESOLUTION, videoDimensionsIndex)
+                    }
                 }
             }
             token
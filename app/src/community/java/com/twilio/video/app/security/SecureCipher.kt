@@ -0,0 +1,42 @@
+package com.twilio.video.app.security
+
+import android.content.Context
+import android.util.Base64
+import com.facebook.android.crypto.keychain.AndroidConceal
+import com.facebook.android.crypto.keychain.SharedPrefsBackedKeyChain
+import com.facebook.crypto.Crypto
+import com.facebook.crypto.CryptoConfig
+import com.facebook.crypto.Entity
+import com.facebook.soloader.SoLoader
+
+interface SecureCipher {
+
+    fun encrypt(plainText: String): String
+
+    fun decrypt(encryptedText: String): String
+}
+
+/*
+ * Encrypts strings with Conceal. Construction loads the native library and sets up the key chain
+ * so it should not happen on the main thread.
+ */
+class ConcealCipher(context: Context) : SecureCipher {
+
+    private val entity: Entity = Entity.create(context.packageName)
+    private val crypto: Crypto
+
+    init {
+        SoLoader.init(context, false)
+        val keyChain = SharedPrefsBackedKeyChain(context, CryptoConfig.KEY_256)
+        crypto = AndroidConceal.get().createCrypto256Bits(keyChain)
+    }
+
+    override fun encrypt(plainText: String): String {
+        val cipherText = crypto.encrypt(plainText.toByteArray(), entity)
+        return Base64.encodeToString(cipherText, Base64.DEFAULT)
+    }
+
+    override fun decrypt(encryptedText: String): String {
+        return String(crypto.decrypt(Base64.decode(encryptedText, Base64.DEFAULT), entity))
+    }
+}
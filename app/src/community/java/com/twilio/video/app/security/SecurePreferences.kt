@@ -5,4 +5,12 @@ interface SecurePreferences {
     fun putSecureString(key: String, value: String)
 
     fun getSecureString(key: String): String?
+
+    fun removeSecureString(key: String)
+
+    /*
+     * Reads the secure string on a background thread so callers on the main thread do not wait
+     * on loading the preferences or initializing the native crypto library.
+     */
+    suspend fun loadSecureString(key: String): String?
 }
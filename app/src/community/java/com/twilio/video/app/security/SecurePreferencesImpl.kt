@@ -1,44 +1,59 @@
 package com.twilio.video.app.security
 
-import android.content.Context
-import android.content.SharedPreferences
-import android.util.Base64
-import com.facebook.android.crypto.keychain.AndroidConceal
-import com.facebook.android.crypto.keychain.SharedPrefsBackedKeyChain
-import com.facebook.crypto.Crypto
-import com.facebook.crypto.CryptoConfig
-import com.facebook.crypto.Entity
-import com.facebook.soloader.SoLoader
-
+import com.twilio.video.app.android.SharedPreferencesWrapper
+import java.util.concurrent.ConcurrentHashMap
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
+
+/*
+ * Stores encrypted strings in SharedPreferences. The cipher is created lazily and warmed up on the
+ * io dispatcher as soon as this class is constructed. Decrypted values are cached together with
+ * the cipher text they came from, so a value that is changed or removed through any other path,
+ * such as clearing the preferences on logout, is decrypted again instead of served stale. Writes
+ * are applied to memory and persisted in the background.
+ */
 class SecurePreferencesImpl(
-    context: Context,
-    private val preferences: SharedPreferences
+    private val preferences: SharedPreferencesWrapper,
+    private val ioDispatcher: CoroutineDispatcher = Dispatchers.IO,
+    cipherFactory: () -> SecureCipher
 ) : SecurePreferences {
 
-    private val entity: Entity = Entity.create(context.packageName)
-    private val crypto: Crypto
+    private val cipher by lazy(cipherFactory)
+    private val decryptedValues = ConcurrentHashMap<String, DecryptedValue>()
 
     init {
-        SoLoader.init(context, false)
-        val keyChain = SharedPrefsBackedKeyChain(context, CryptoConfig.KEY_256)
-        crypto = AndroidConceal.get().createCrypto256Bits(keyChain)
+        CoroutineScope(ioDispatcher).launch { cipher }
     }
 
     override fun putSecureString(key: String, value: String) {
-        return preferences.edit().putString(key, encrypt(value)).apply()
+        val encryptedText = cipher.encrypt(value)
+        decryptedValues[key] = DecryptedValue(encryptedText, value)
+        preferences.edit { putString(key, encryptedText) }
     }
 
     override fun getSecureString(key: String): String? {
-        val encryptedText: String? = preferences.getString(key, null)
-        return if (encryptedText != null) decrypt(encryptedText) else null
+        val encryptedText = preferences.getString(key, null)
+        if (encryptedText == null) {
+            decryptedValues.remove(key)
+            return null
+        }
+        decryptedValues[key]?.let { if (it.encryptedText == encryptedText) return it.value }
+        return cipher.decrypt(encryptedText).also {
+            decryptedValues[key] = DecryptedValue(encryptedText, it)
+        }
     }
 
-    private fun encrypt(plainText: String): String {
-        val cipherText = crypto.encrypt(plainText.toByteArray(), entity)
-        return Base64.encodeToString(cipherText, Base64.DEFAULT)
+    override fun removeSecureString(key: String) {
+        decryptedValues.remove(key)
+        preferences.edit { remove(key) }
     }
 
-    private fun decrypt(encryptedText: String): String {
-        return String(crypto.decrypt(Base64.decode(encryptedText, Base64.DEFAULT), entity))
+    override suspend fun loadSecureString(key: String): String? {
+        return withContext(ioDispatcher) { getSecureString(key) }
     }
+
+    private class DecryptedValue(val encryptedText: String, val value: String)
 }
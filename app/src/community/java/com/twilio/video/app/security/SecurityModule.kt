@@ -1,9 +1,9 @@
 package com.twilio.video.app.security
 
 import android.app.Application
-import android.content.SharedPreferences
 import com.twilio.video.app.ApplicationModule
 import com.twilio.video.app.ApplicationScope
+import com.twilio.video.app.android.SharedPreferencesWrapper
 import com.twilio.video.app.data.DataModule
 import dagger.Module
 import dagger.Provides
@@ -16,7 +16,10 @@ class SecurityModule {
 
     @Provides
     @ApplicationScope
-    fun providesSecurePreferences(app: Application, preferences: SharedPreferences): SecurePreferences {
-        return SecurePreferencesImpl(app.applicationContext, preferences)
+    fun providesSecurePreferences(
+        app: Application,
+        preferences: SharedPreferencesWrapper
+    ): SecurePreferences {
+        return SecurePreferencesImpl(preferences) { ConcealCipher(app.applicationContext) }
     }
 }
@@ -24,6 +24,7 @@ import com.twilio.video.app.ui.ScreenSelectorModule;
 import com.twilio.video.app.ui.login.LoginActivityModule;
 import com.twilio.video.app.ui.room.RoomActivityModule;
 import com.twilio.video.app.ui.room.VideoServiceModule;
+import com.twilio.video.app.ui.settings.AdvancedSettingsFragmentModule;
 import com.twilio.video.app.ui.settings.SettingsActivityModule;
 import com.twilio.video.app.ui.settings.SettingsFragmentModule;
 import com.twilio.video.app.ui.splash.SplashActivityModule;
@@ -45,6 +46,7 @@ import dagger.android.AndroidInjectionModule;
             RoomActivityModule.class,
             SettingsActivityModule.class,
             SettingsFragmentModule.class,
+            AdvancedSettingsFragmentModule.class,
             VideoServiceModule.class,
             VideoSdkModule.class,
             AudioSwitchModule.class
@@ -0,0 +1,49 @@
+package com.twilio.video.app.benchmark
+
+import com.nhaarman.mockitokotlin2.mock
+import com.twilio.video.ConnectOptions
+import com.twilio.video.app.sdk.CallSettings
+import com.twilio.video.app.sdk.CallSettingsProvider
+import com.twilio.video.app.sdk.ConnectOptionsFactory
+import com.twilio.video.app.sdk.HardwareCodecSupport
+import com.twilio.video.app.sdk.VideoCodecPolicy
+import com.twilio.video.app.util.FakeSharedPreferences
+import dagger.Lazy
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+@State(Scope.Thread)
+open class ConnectOptionsBenchmark {
+
+    private val sharedPreferences = FakeSharedPreferences()
+    private lateinit var callSettings: CallSettings
+    private lateinit var connectOptionsFactory: ConnectOptionsFactory
+
+    @Setup
+    fun setUp() {
+        val callSettingsProvider = CallSettingsProvider(sharedPreferences)
+        callSettings = callSettingsProvider.callSettings
+        connectOptionsFactory = ConnectOptionsFactory(mock(), callSettingsProvider,
+                Lazy { mock() }, VideoCodecPolicy(SoftwareCodecSupport))
+    }
+
+    @Benchmark
+    fun assembleFromSnapshot(): ConnectOptions =
+            connectOptionsFactory.newInstance("token", "room", callSettings)
+
+    /*
+     * Reads and parses the preferences before assembling, as every connect used to.
+     */
+    @Benchmark
+    fun assembleFromPreferences(): ConnectOptions =
+            connectOptionsFactory.newInstance("token", "room",
+                    CallSettings.from(sharedPreferences))
+
+    private object SoftwareCodecSupport : HardwareCodecSupport {
+        override fun isHardwareEncoderAvailable(mimeType: String) = false
+
+        override fun isHardwareDecoderAvailable(mimeType: String) = false
+    }
+}
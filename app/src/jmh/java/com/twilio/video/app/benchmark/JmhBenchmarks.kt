@@ -0,0 +1,46 @@
+package com.twilio.video.app.benchmark
+
+import java.io.File
+import java.util.concurrent.TimeUnit
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Test
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.profile.GCProfiler
+import org.openjdk.jmh.results.format.ResultFormatType
+import org.openjdk.jmh.runner.Runner
+import org.openjdk.jmh.runner.options.OptionsBuilder
+import org.openjdk.jmh.runner.options.TimeValue
+
+/*
+ * Runs the JMH benchmarks of this package that match the jmh.include regular expression. The
+ * results include the throughput and, from the GC profiler, the allocation rate and bytes
+ * allocated per operation. They are written as JSON to the jmh.resultsDir directory.
+ */
+class JmhBenchmarks {
+
+    @Test
+    fun runBenchmarks() {
+        val resultsDir = File(System.getProperty("jmh.resultsDir", "build/reports/jmh"))
+        resultsDir.mkdirs()
+        val options = OptionsBuilder()
+                .include(JmhBenchmarks::class.java.`package`.name + ".*" +
+                        System.getProperty("jmh.include", ""))
+                .mode(Mode.Throughput)
+                .timeUnit(TimeUnit.MILLISECONDS)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                // A forked JVM cannot reproduce the classpath of the Gradle test worker
+                .forks(0)
+                .addProfiler(GCProfiler::class.java)
+                .resultFormat(ResultFormatType.JSON)
+                .result(File(resultsDir, "results.json").absolutePath)
+                .build()
+
+        val results = Runner(options).run()
+
+        assertThat(results.isEmpty(), equalTo(false))
+    }
+}
@@ -0,0 +1,63 @@
+package com.twilio.video.app.benchmark
+
+import android.util.Log
+import com.twilio.video.app.participant.ParticipantViewState
+import com.twilio.video.app.util.Logger
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.TearDown
+import timber.log.Timber
+
+/*
+ * Compares the cost of disabled debug logging in the participant hot paths. A tree that only
+ * accepts INFO and above is planted, as in release builds.
+ */
+@State(Scope.Thread)
+open class LoggingBenchmark {
+
+    private val participants = (0 until 50).map {
+        ParticipantViewState(sid = "PA$it", identity = "participant-$it")
+    }
+    private val releaseTree = object : Timber.Tree() {
+        override fun isLoggable(tag: String?, priority: Int) = priority >= Log.INFO
+
+        override fun log(priority: Int, tag: String?, message: String, t: Throwable?) {}
+    }
+    private var previousMinPriority = 0
+
+    @Setup
+    fun setUp() {
+        Timber.plant(releaseTree)
+        previousMinPriority = Logger.minPriority
+        Logger.minPriority = Log.INFO
+    }
+
+    @TearDown
+    fun tearDown() {
+        Timber.uproot(releaseTree)
+        Logger.minPriority = previousMinPriority
+    }
+
+    @Benchmark
+    fun baseline(): Int = participants.size
+
+    @Benchmark
+    fun timberStringTemplate(): Int {
+        Timber.d("Participant Cache: $participants")
+        return participants.size
+    }
+
+    @Benchmark
+    fun timberFormatArguments(): Int {
+        Timber.d("Participant Cache: %s", participants)
+        return participants.size
+    }
+
+    @Benchmark
+    fun loggerSupplier(): Int {
+        Logger.d { "Participant Cache: $participants" }
+        return participants.size
+    }
+}
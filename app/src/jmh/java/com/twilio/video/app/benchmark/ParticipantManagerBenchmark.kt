@@ -0,0 +1,58 @@
+package com.twilio.video.app.benchmark
+
+import com.twilio.video.NetworkQualityLevel
+import com.twilio.video.app.participant.ParticipantManager
+import com.twilio.video.app.participant.ParticipantViewState
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+@State(Scope.Thread)
+open class ParticipantManagerBenchmark {
+
+    @Param("10", "50")
+    @JvmField
+    var participantCount = 0
+
+    private val networkQualityLevels = NetworkQualityLevel.values()
+    private lateinit var participants: List<ParticipantViewState>
+    private lateinit var participantManager: ParticipantManager
+    private var eventCount = 0
+
+    @Setup
+    fun setUp() {
+        participants = (0 until participantCount).map {
+            ParticipantViewState(sid = "PA$it", identity = "participant-$it")
+        }
+        participantManager = ParticipantManager()
+        participants.forEach(participantManager::addParticipant)
+    }
+
+    /*
+     * Every participant joins the room and then leaves it.
+     */
+    @Benchmark
+    fun joinLeaveStorm(): ParticipantManager {
+        val participantManager = ParticipantManager()
+        participants.forEach(participantManager::addParticipant)
+        participants.forEach { participantManager.removeParticipant(it.sid!!) }
+        return participantManager
+    }
+
+    @Benchmark
+    fun dominantSpeakerChurn(): ParticipantViewState {
+        participantManager.changeDominantSpeaker(nextParticipant().sid)
+        return participantManager.primaryParticipant
+    }
+
+    @Benchmark
+    fun networkQualityFlood(): ParticipantViewState {
+        participantManager.updateNetworkQuality(nextParticipant().sid!!,
+                networkQualityLevels[eventCount % networkQualityLevels.size])
+        return participantManager.primaryParticipant
+    }
+
+    private fun nextParticipant() = participants[eventCount++ % participants.size]
+}
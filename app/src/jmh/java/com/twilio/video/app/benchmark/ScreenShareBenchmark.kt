@@ -0,0 +1,60 @@
+package com.twilio.video.app.benchmark
+
+import com.twilio.video.app.sdk.I420Frame
+import com.twilio.video.app.sdk.ScreenFrameGate
+import com.twilio.video.app.sdk.lumaHash
+import java.util.concurrent.TimeUnit
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+private const val SEQUENCE_LENGTH = 30
+
+/*
+ * Measures the cost of deciding whether a screen share frame is sent, for synthetic 30 fps
+ * sequences of frames at the 640 pixel wide size they are hashed at: static slides, typing
+ * that changes one character per frame and full motion video.
+ */
+@State(Scope.Thread)
+open class ScreenShareBenchmark {
+
+    @Param("slides", "typing", "video")
+    @JvmField
+    var sequence = ""
+
+    private lateinit var frames: List<I420Frame>
+    private val frameGate = ScreenFrameGate()
+    private val frameIntervalNs = TimeUnit.SECONDS.toNanos(1) / 30
+    private var frameIndex = 0L
+
+    @Setup
+    fun setUp() {
+        frames = (0 until SEQUENCE_LENGTH).map { index ->
+            I420Frame.allocate(640, 360).apply {
+                when (sequence) {
+                    "slides" -> fill(this) { x, y -> (x / 40 + y / 40) * 16 }
+                    "typing" -> fill(this) { x, y ->
+                        if (y in 100 until 116 && x < 200 + index * 8) 0 else 255
+                    }
+                    else -> fill(this) { x, y -> x + y + index * 7 }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    fun nextFrame(): ScreenFrameGate.Decision {
+        val frame = frames[(frameIndex % SEQUENCE_LENGTH).toInt()]
+        return frameGate.onFrame(frame.lumaHash(), frameIndex++ * frameIntervalNs)
+    }
+
+    private fun fill(frame: I420Frame, luma: (Int, Int) -> Int) {
+        for (y in 0 until frame.height) {
+            for (x in 0 until frame.width) {
+                frame.dataY.put(y * frame.strideY + x, luma(x, y).toByte())
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.twilio.video.app.benchmark
+
+import com.twilio.video.app.adapter.StatsTrackLabels
+import com.twilio.video.app.adapter.toStatsListItems
+import com.twilio.video.app.model.StatsListItem
+import com.twilio.video.app.sdk.RoomStats
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+@State(Scope.Thread)
+open class StatsListItemsBenchmark {
+
+    @Param("10", "50", "100")
+    @JvmField
+    var trackCount = 0
+
+    private val labels = StatsTrackLabels("Local Audio Track", "Local Video Track", "Audio Track",
+            "Video Track")
+    private lateinit var roomStats: RoomStats
+
+    @Setup
+    fun setUp() {
+        roomStats = RoomStats(emptyList(), emptyMap(),
+                listOf(StatsReportFixtures.statsReport(trackCount)))
+    }
+
+    @Benchmark
+    fun toStatsListItems(): List<StatsListItem> = roomStats.toStatsListItems(labels)
+}
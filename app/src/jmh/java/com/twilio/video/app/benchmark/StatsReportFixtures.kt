@@ -0,0 +1,66 @@
+package com.twilio.video.app.benchmark
+
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.whenever
+import com.twilio.video.LocalAudioTrackStats
+import com.twilio.video.LocalVideoTrackStats
+import com.twilio.video.RemoteAudioTrackStats
+import com.twilio.video.RemoteVideoTrackStats
+import com.twilio.video.StatsReport
+import com.twilio.video.VideoDimensions
+import org.objenesis.ObjenesisStd
+
+/*
+ * Builds stats reports without the native SDK. The track stats only expose public final fields
+ * and have no public constructors, so they are instantiated with Objenesis and the fields read by
+ * the app are set reflectively. Only the report's list accessors are mocked.
+ */
+object StatsReportFixtures {
+
+    private val objenesis = ObjenesisStd()
+
+    /*
+     * A report with one local audio and one local video track with the remaining tracks split
+     * evenly between remote audio and video tracks.
+     */
+    fun statsReport(trackCount: Int): StatsReport {
+        val remoteTrackCount = (trackCount - 2).coerceAtLeast(0)
+        val remoteAudioTrackStats = (0 until remoteTrackCount / 2).map {
+            trackStats<RemoteAudioTrackStats>("MTA$it", "opus")
+        }
+        val remoteVideoTrackStats = (0 until remoteTrackCount - remoteTrackCount / 2).map {
+            trackStats<RemoteVideoTrackStats>("MTV$it", "VP8", VideoDimensions.VGA_VIDEO_DIMENSIONS)
+        }
+        return mock {
+            whenever(mock.localAudioTrackStats)
+                    .thenReturn(listOf(trackStats<LocalAudioTrackStats>("MTLA", "opus")))
+            whenever(mock.localVideoTrackStats).thenReturn(listOf(trackStats<LocalVideoTrackStats>(
+                    "MTLV", "VP8", VideoDimensions.HD_720P_VIDEO_DIMENSIONS)))
+            whenever(mock.remoteAudioTrackStats).thenReturn(remoteAudioTrackStats)
+            whenever(mock.remoteVideoTrackStats).thenReturn(remoteVideoTrackStats)
+        }
+    }
+
+    private inline fun <reified T : Any> trackStats(
+        trackSid: String,
+        codec: String,
+        dimensions: VideoDimensions? = null
+    ): T = objenesis.newInstance(T::class.java).apply {
+        setField("trackSid", trackSid)
+        setField("codec", codec)
+        dimensions?.let { setField("dimensions", it) }
+    }
+
+    private fun Any.setField(name: String, value: Any) {
+        var type: Class<*>? = javaClass
+        while (type != null) {
+            type.declaredFields.find { it.name == name }?.let { field ->
+                field.isAccessible = true
+                field.set(this, value)
+                return
+            }
+            type = type.superclass
+        }
+        error("$javaClass has no field named $name")
+    }
+}
@@ -0,0 +1,51 @@
+package com.twilio.video.app.benchmark
+
+import com.twilio.video.app.sdk.CenterCropProcessor
+import com.twilio.video.app.sdk.DownscaleProcessor
+import com.twilio.video.app.sdk.I420Frame
+import com.twilio.video.app.sdk.VideoFrameProcessor
+import com.twilio.video.app.sdk.VideoProcessingPipeline
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+
+/*
+ * Measures the cost of processing one 720p camera frame with the reference processors. At 30 fps
+ * a frame has a budget of 33 ms, which the throughput in ops/ms can be compared to. The
+ * allocation rate reported by the GC profiler should stay near zero once the pool is warm.
+ */
+@State(Scope.Thread)
+open class VideoProcessingBenchmark {
+
+    @Param("crop", "downscale", "cropAndDownscale")
+    @JvmField
+    var processors = ""
+
+    private val frame = I420Frame.allocate(1280, 720).apply {
+        for (i in 0 until dataY.capacity()) dataY.put(i, i.toByte())
+        for (i in 0 until dataU.capacity()) {
+            dataU.put(i, (i / 3).toByte())
+            dataV.put(i, (i / 5).toByte())
+        }
+    }
+    private lateinit var pipeline: VideoProcessingPipeline
+
+    @Setup
+    fun setUp() {
+        pipeline = VideoProcessingPipeline(when (processors) {
+            "crop" -> listOf<VideoFrameProcessor>(CenterCropProcessor(4, 3))
+            "downscale" -> listOf(DownscaleProcessor(640, 360))
+            else -> listOf(CenterCropProcessor(4, 3), DownscaleProcessor(640, 480))
+        })
+    }
+
+    @Benchmark
+    fun processFrame(): Int {
+        val output = pipeline.process(frame)
+        val width = output.width
+        if (output !== frame) pipeline.framePool.release(output)
+        return width
+    }
+}
@@ -3,6 +3,8 @@ package com.twilio.video.app
 import android.app.Application
 import com.twilio.audioswitch.AudioDevice
 import com.twilio.audioswitch.AudioSwitch
+import com.twilio.video.app.audio.AudioRouter
+import com.twilio.video.app.sdk.RoomManager
 import dagger.Module
 import dagger.Provides
 
@@ -10,11 +12,17 @@ import dagger.Provides
 class AudioSwitchModule {
 
     @Provides
+    @ApplicationScope
     fun providesAudioDeviceSelector(application: Application): AudioSwitch =
             AudioSwitch(application,
-                    loggingEnabled = true,
+                    loggingEnabled = BuildConfig.DEBUG,
                     preferredDeviceList = listOf(AudioDevice.BluetoothHeadset::class.java,
                             AudioDevice.WiredHeadset::class.java,
                             AudioDevice.Speakerphone::class.java,
                             AudioDevice.Earpiece::class.java))
+
+    @Provides
+    @ApplicationScope
+    fun providesAudioRouter(audioSwitch: AudioSwitch, roomManager: RoomManager): AudioRouter =
+            AudioRouter(audioSwitch, roomManager.roomEvents)
 }
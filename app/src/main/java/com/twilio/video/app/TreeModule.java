@@ -21,7 +21,9 @@ import com.twilio.video.Video;
 import com.twilio.video.app.util.BuildConfigUtilsKt;
 import com.twilio.video.app.util.CrashlyticsTreeRanger;
 import com.twilio.video.app.util.DebugTree;
+import com.twilio.video.app.util.RateLimitedTreeRanger;
 import com.twilio.video.app.util.ReleaseTree;
+import com.twilio.video.app.util.TreeRanger;
 import dagger.Module;
 import dagger.Provides;
 import timber.log.Timber;
@@ -30,7 +32,8 @@ import timber.log.Timber;
 public class TreeModule {
     @Provides
     @ApplicationScope
-    Timber.Tree providesTree(CrashlyticsTreeRanger treeRanger) {
+    Timber.Tree providesTree(CrashlyticsTreeRanger crashlyticsTreeRanger) {
+        TreeRanger treeRanger = new RateLimitedTreeRanger(crashlyticsTreeRanger);
         if (BuildConfig.DEBUG || BuildConfigUtilsKt.isInternalFlavor()) {
             Video.setLogLevel(LogLevel.DEBUG);
             return new DebugTree(treeRanger);
@@ -19,6 +19,11 @@ package com.twilio.video.app
 import android.app.Application
 import android.content.Context
 import androidx.multidex.MultiDex
+import com.twilio.video.app.sdk.CodecCapabilityRepository
+import com.twilio.video.app.startup.StartupPhase
+import com.twilio.video.app.startup.StartupPipeline
+import com.twilio.video.app.util.CrashlyticsTreeRanger
+import dagger.Lazy
 import dagger.android.AndroidInjector
 import dagger.android.DispatchingAndroidInjector
 import dagger.android.HasAndroidInjector
@@ -32,6 +37,10 @@ class VideoApplication : Application(), HasAndroidInjector {
     lateinit var dispatchingAndroidInjector: DispatchingAndroidInjector<Any>
     @Inject
     lateinit var tree: Timber.Tree
+    @Inject
+    lateinit var crashlyticsTreeRanger: Lazy<CrashlyticsTreeRanger>
+    @Inject
+    lateinit var codecCapabilityRepository: Lazy<CodecCapabilityRepository>
 
     override fun attachBaseContext(base: Context) {
         super.attachBaseContext(base)
@@ -41,19 +50,28 @@ class VideoApplication : Application(), HasAndroidInjector {
     override fun onCreate() {
         super.onCreate()
 
-        if (!deviceIsBlacklistedForOpenSLESUsage()) {
-            setBlacklistDeviceForOpenSLESUsage(true)
-        }
-
-        DaggerVideoApplicationComponent
-                .builder()
-                .applicationModule(ApplicationModule(this))
-                .build()
-                .inject(this)
-
-        Timber.plant(tree)
-
-        startAppcenter(this)
+        StartupPipeline()
+                .add("OpenSL ES", StartupPhase.MAIN) {
+                    if (!deviceIsBlacklistedForOpenSLESUsage()) {
+                        setBlacklistDeviceForOpenSLESUsage(true)
+                    }
+                }
+                .add("Dagger", StartupPhase.MAIN) {
+                    DaggerVideoApplicationComponent
+                            .builder()
+                            .applicationModule(ApplicationModule(this))
+                            .build()
+                            .inject(this)
+                }
+                .add("Timber", StartupPhase.MAIN) { Timber.plant(tree) }
+                .add("Crashlytics", StartupPhase.BACKGROUND) {
+                    crashlyticsTreeRanger.get().start()
+                }
+                .add("Codec capabilities", StartupPhase.IDLE) {
+                    codecCapabilityRepository.get().loadInBackground()
+                }
+                .add("AppCenter", StartupPhase.IDLE) { startAppcenter(this) }
+                .start()
     }
 
     override fun androidInjector(): AndroidInjector<Any> {
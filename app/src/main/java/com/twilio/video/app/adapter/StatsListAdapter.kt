@@ -27,9 +27,6 @@ import android.widget.TextView
 import androidx.recyclerview.widget.RecyclerView
 import butterknife.BindView
 import butterknife.ButterKnife
-import com.twilio.video.RemoteAudioTrack
-import com.twilio.video.RemoteParticipant
-import com.twilio.video.RemoteVideoTrack
 import com.twilio.video.app.R
 import com.twilio.video.app.model.StatsListItem
 import com.twilio.video.app.sdk.RoomStats
@@ -38,6 +35,7 @@ class StatsListAdapter(private val context: Context) : RecyclerView.Adapter<Stat
 
     private val statsListItems = ArrayList<StatsListItem>()
     private val handler: Handler = Handler(Looper.getMainLooper())
+    private val statsTrackLabels = StatsTrackLabels.from(context)
 
     class ViewHolder(itemView: View) : RecyclerView.ViewHolder(itemView) {
         @BindView(R.id.stats_track_name)
@@ -140,136 +138,12 @@ class StatsListAdapter(private val context: Context) : RecyclerView.Adapter<Stat
          * Generate new items on a separate list to ensure statsListItems changes are only
          * performed on the UI thread to meet the threading requirement of RecyclerView.Adapter.
          */
-        val statsItemList = mutableListOf<StatsListItem>()
-
-        // Generate stats items list from reports
-        var localTracksAdded = false
-        roomStats?.statsReports?.let { statsReports ->
-            for (report in statsReports) {
-                if (!localTracksAdded) {
-                    // go trough local tracks
-                    for (localAudioTrackStats in report.localAudioTrackStats) {
-                        val item = StatsListItem.Builder()
-                                .baseTrackInfo(localAudioTrackStats)
-                                .bytes(localAudioTrackStats.bytesSent)
-                                .rtt(localAudioTrackStats.roundTripTime)
-                                .jitter(localAudioTrackStats.jitter)
-                                .audioLevel(localAudioTrackStats.audioLevel)
-                                .trackName(context.getString(R.string.local_audio_track))
-                                .isAudioTrack(true)
-                                .isLocalTrack(true)
-                                .build()
-                        statsItemList.add(item)
-                    }
-                    for (localVideoTrackStats in report.localVideoTrackStats) {
-                        var localVideoTrackName = roomStats.localVideoTrackNames[localVideoTrackStats.trackSid]
-                        if (localVideoTrackName == null) {
-                            localVideoTrackName = context.getString(R.string.local_video_track)
-                        }
-                        val item = StatsListItem.Builder()
-                                .baseTrackInfo(localVideoTrackStats)
-                                .bytes(localVideoTrackStats.bytesSent)
-                                .rtt(localVideoTrackStats.roundTripTime)
-                                .dimensions(localVideoTrackStats.dimensions.toString())
-                                .framerate(localVideoTrackStats.frameRate)
-                                .trackName(localVideoTrackName)
-                                .isAudioTrack(false)
-                                .isLocalTrack(true)
-                                .build()
-                        statsItemList.add(item)
-                    }
-                    localTracksAdded = true
-                }
-                var trackCount = 0
-                for (remoteAudioTrackStats in report.remoteAudioTrackStats) {
-                    val trackName = (getParticipantName(remoteAudioTrackStats.trackSid, true, roomStats.remoteParticipants) +
-                            " " +
-                            context.getString(R.string.audio_track) +
-                            " " +
-                            trackCount)
-                    val item = StatsListItem.Builder()
-                            .baseTrackInfo(remoteAudioTrackStats)
-                            .bytes(remoteAudioTrackStats.bytesReceived)
-                            .jitter(remoteAudioTrackStats.jitter)
-                            .audioLevel(remoteAudioTrackStats.audioLevel)
-                            .trackName(trackName)
-                            .isAudioTrack(true)
-                            .isLocalTrack(false)
-                            .build()
-                    statsItemList.add(item)
-                    trackCount++
-                }
-                trackCount = 0
-                for (remoteVideoTrackStats in report.remoteVideoTrackStats) {
-                    val trackName = (getParticipantName(
-                            remoteVideoTrackStats.trackSid, false, roomStats.remoteParticipants) +
-                            " " +
-                            context.getString(R.string.video_track) +
-                            " " +
-                            trackCount)
-                    val item = StatsListItem.Builder()
-                            .baseTrackInfo(remoteVideoTrackStats)
-                            .bytes(remoteVideoTrackStats.bytesReceived)
-                            .dimensions(remoteVideoTrackStats.dimensions.toString())
-                            .framerate(remoteVideoTrackStats.frameRate)
-                            .trackName(trackName)
-                            .isAudioTrack(false)
-                            .isLocalTrack(false)
-                            .build()
-                    statsItemList.add(item)
-                    trackCount++
-                }
-            }
-        }
+        val statsItemList = roomStats.toStatsListItems(statsTrackLabels)
 
         handler.post {
             statsListItems.clear()
-            statsListItems.addAll(statsItemList.toList())
+            statsListItems.addAll(statsItemList)
             notifyDataSetChanged()
         }
     }
-
-    private fun getParticipantName(
-        trackSid: String,
-        isAudioTrack: Boolean,
-        remoteParticipants: List<RemoteParticipant>
-    ): String {
-        for (remoteParticipant in remoteParticipants) {
-            if (isAudioTrack) {
-                val remoteAudioTrack = getAudioTrack(remoteParticipant, trackSid)
-                if (remoteAudioTrack != null) {
-                    return remoteParticipant.identity
-                }
-            } else {
-                val remoteVideoTrack = getRemoteVideoTrack(remoteParticipant, trackSid)
-                if (remoteVideoTrack != null) {
-                    return remoteParticipant.identity
-                }
-            }
-        }
-        return ""
-    }
-
-    private fun getAudioTrack(remoteParticipant: RemoteParticipant, trackSid: String): RemoteAudioTrack? {
-        for (remoteAudioTrackPublication in remoteParticipant.remoteAudioTracks) {
-            if (remoteAudioTrackPublication.trackSid == trackSid) {
-                return remoteAudioTrackPublication.remoteAudioTrack
-            }
-        }
-
-        return null
-    }
-
-    private fun getRemoteVideoTrack(
-        remoteParticipant: RemoteParticipant,
-        trackSid: String
-    ): RemoteVideoTrack? {
-        for (remoteVideoTrackPublication in remoteParticipant.remoteVideoTracks) {
-            if (remoteVideoTrackPublication.trackSid == trackSid) {
-                return remoteVideoTrackPublication.remoteVideoTrack
-            }
-        }
-
-        return null
-    }
 }
@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2019 Twilio, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.twilio.video.app.adapter
+
+import android.content.Context
+import com.twilio.video.RemoteParticipant
+import com.twilio.video.app.R
+import com.twilio.video.app.model.StatsListItem
+import com.twilio.video.app.sdk.RoomStats
+
+/*
+ * The track names of the stats list that come from string resources, resolved once instead of
+ * for every track of every stats report.
+ */
+data class StatsTrackLabels(
+    val localAudioTrack: String,
+    val localVideoTrack: String,
+    val audioTrack: String,
+    val videoTrack: String
+) {
+    companion object {
+        fun from(context: Context) = StatsTrackLabels(
+                context.getString(R.string.local_audio_track),
+                context.getString(R.string.local_video_track),
+                context.getString(R.string.audio_track),
+                context.getString(R.string.video_track))
+    }
+}
+
+/*
+ * Generates the stats list items of the local tracks, taken from the first report only, followed
+ * by the remote tracks of every report.
+ */
+fun RoomStats?.toStatsListItems(labels: StatsTrackLabels): List<StatsListItem> {
+    val statsItemList = mutableListOf<StatsListItem>()
+    val roomStats = this ?: return statsItemList
+    var localTracksAdded = false
+    roomStats.statsReports?.let { statsReports ->
+        for (report in statsReports) {
+            if (!localTracksAdded) {
+                // go trough local tracks
+                for (localAudioTrackStats in report.localAudioTrackStats) {
+                    val item = StatsListItem.Builder()
+                            .baseTrackInfo(localAudioTrackStats)
+                            .bytes(localAudioTrackStats.bytesSent)
+                            .rtt(localAudioTrackStats.roundTripTime)
+                            .jitter(localAudioTrackStats.jitter)
+                            .audioLevel(localAudioTrackStats.audioLevel)
+                            .trackName(labels.localAudioTrack)
+                            .isAudioTrack(true)
+                            .isLocalTrack(true)
+                            .build()
+                    statsItemList.add(item)
+                }
+                for (localVideoTrackStats in report.localVideoTrackStats) {
+                    val localVideoTrackName =
+                            roomStats.localVideoTrackNames[localVideoTrackStats.trackSid]
+                                    ?: labels.localVideoTrack
+                    val item = StatsListItem.Builder()
+                            .baseTrackInfo(localVideoTrackStats)
+                            .bytes(localVideoTrackStats.bytesSent)
+                            .rtt(localVideoTrackStats.roundTripTime)
+                            .dimensions(localVideoTrackStats.dimensions.toString())
+                            .framerate(localVideoTrackStats.frameRate)
+                            .trackName(localVideoTrackName)
+                            .isAudioTrack(false)
+                            .isLocalTrack(true)
+                            .build()
+                    statsItemList.add(item)
+                }
+                localTracksAdded = true
+            }
+            var trackCount = 0
+            for (remoteAudioTrackStats in report.remoteAudioTrackStats) {
+                val trackName = (getParticipantName(remoteAudioTrackStats.trackSid, true,
+                        roomStats.remoteParticipants) +
+                        " " +
+                        labels.audioTrack +
+                        " " +
+                        trackCount)
+                val item = StatsListItem.Builder()
+                        .baseTrackInfo(remoteAudioTrackStats)
+                        .bytes(remoteAudioTrackStats.bytesReceived)
+                        .jitter(remoteAudioTrackStats.jitter)
+                        .audioLevel(remoteAudioTrackStats.audioLevel)
+                        .trackName(trackName)
+                        .isAudioTrack(true)
+                        .isLocalTrack(false)
+                        .build()
+                statsItemList.add(item)
+                trackCount++
+            }
+            trackCount = 0
+            for (remoteVideoTrackStats in report.remoteVideoTrackStats) {
+                val trackName = (getParticipantName(remoteVideoTrackStats.trackSid, false,
+                        roomStats.remoteParticipants) +
+                        " " +
+                        labels.videoTrack +
+                        " " +
+                        trackCount)
+                val item = StatsListItem.Builder()
+                        .baseTrackInfo(remoteVideoTrackStats)
+                        .bytes(remoteVideoTrackStats.bytesReceived)
+                        .dimensions(remoteVideoTrackStats.dimensions.toString())
+                        .framerate(remoteVideoTrackStats.frameRate)
+                        .trackName(trackName)
+                        .isAudioTrack(false)
+                        .isLocalTrack(false)
+                        .build()
+                statsItemList.add(item)
+                trackCount++
+            }
+        }
+    }
+    return statsItemList
+}
+
+private fun getParticipantName(
+    trackSid: String,
+    isAudioTrack: Boolean,
+    remoteParticipants: List<RemoteParticipant>
+): String {
+    for (remoteParticipant in remoteParticipants) {
+        val isSubscribed = if (isAudioTrack) {
+            remoteParticipant.remoteAudioTracks.any {
+                it.trackSid == trackSid && it.remoteAudioTrack != null
+            }
+        } else {
+            remoteParticipant.remoteVideoTracks.any {
+                it.trackSid == trackSid && it.remoteVideoTrack != null
+            }
+        }
+        if (isSubscribed) return remoteParticipant.identity
+    }
+    return ""
+}
@@ -2,11 +2,59 @@ package com.twilio.video.app.android
 
 import android.content.SharedPreferences
 import androidx.core.content.edit
+import com.twilio.video.app.util.get
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.distinctUntilChanged
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.withContext
 
-class SharedPreferencesWrapper(private val sharedPreferences: SharedPreferences) :
-    SharedPreferences by sharedPreferences {
+/*
+ * Key value storage backed by SharedPreferences. Every edit block is a single transaction that is
+ * applied to memory immediately and persisted on a background thread with apply, which writes a
+ * new file that atomically replaces the previous one, so related values should be written in one
+ * block rather than one edit per value. Reads that may be the first access to the file, which
+ * blocks until it is loaded from disk, should use getValue or observe so they run on the io
+ * dispatcher.
+ */
+class SharedPreferencesWrapper(
+    private val sharedPreferences: SharedPreferences,
+    @PublishedApi internal val ioDispatcher: CoroutineDispatcher = Dispatchers.IO
+) : SharedPreferences by sharedPreferences {
 
     fun edit(action: SharedPreferences.Editor.() -> Unit) {
         sharedPreferences.edit(action = action)
     }
+
+    suspend inline fun <reified T> getValue(key: String, defaultValue: T): T {
+        return withContext(ioDispatcher) { get(key, defaultValue) }
+    }
+
+    /*
+     * Emits the current value of the preference followed by every change to it.
+     */
+    inline fun <reified T> observe(key: String, defaultValue: T): Flow<T> {
+        return observeKey(key) { get(key, defaultValue) }
+    }
+
+    @PublishedApi
+    internal fun <T> observeKey(key: String, read: () -> T): Flow<T> {
+        return flow {
+            val changes = Channel<Unit>(Channel.CONFLATED)
+            // SharedPreferences only keeps a weak reference to its listeners
+            val listener = SharedPreferences.OnSharedPreferenceChangeListener { _, changedKey ->
+                if (changedKey == key) changes.offer(Unit)
+            }
+            sharedPreferences.registerOnSharedPreferenceChangeListener(listener)
+            try {
+                emit(read())
+                for (change in changes) emit(read())
+            } finally {
+                sharedPreferences.unregisterOnSharedPreferenceChangeListener(listener)
+            }
+        }.flowOn(ioDispatcher).distinctUntilChanged()
+    }
 }
@@ -0,0 +1,75 @@
+package com.twilio.video.app.audio
+
+import com.twilio.audioswitch.AudioDevice
+import com.twilio.audioswitch.AudioSwitch
+import com.twilio.video.app.ui.room.RoomEvent
+import io.reactivex.Observable
+import io.reactivex.disposables.Disposable
+import io.reactivex.subjects.BehaviorSubject
+import timber.log.Timber
+
+/*
+ * Owns the single AudioSwitch of the app. It is started once and never stopped, so the Bluetooth
+ * profile connection, the headset receivers and the device list stay warm while room screens are
+ * recreated. Device changes are published as a stream that replays the latest state to new
+ * subscribers. Audio is routed while connected to a room, based on the room events rather than on
+ * an activity, so the routing survives the activity being recreated or finished during a call.
+ * Room events and AudioSwitch callbacks are both delivered on the main thread.
+ */
+class AudioRouter(
+    private val audioSwitch: AudioSwitch,
+    roomEvents: Observable<RoomEvent>
+) {
+
+    data class AudioDeviceState(
+        val availableAudioDevices: List<AudioDevice>,
+        val selectedDevice: AudioDevice?
+    )
+
+    private val audioDeviceStateSubject = BehaviorSubject.create<AudioDeviceState>()
+    private var isStarted = false
+
+    val audioDeviceStates: Observable<AudioDeviceState> = audioDeviceStateSubject
+
+    var isActivated = false
+        private set
+
+    /* Held for the lifetime of the application. */
+    private val roomEventsDisposable: Disposable = roomEvents.subscribe({ roomEvent ->
+        when (roomEvent) {
+            is RoomEvent.Connected -> activate()
+            RoomEvent.Disconnected,
+            RoomEvent.ConnectFailure,
+            RoomEvent.MaxParticipantFailure -> deactivate()
+            else -> Unit
+        }
+    }, {
+        Timber.e(it, "Error in the RoomEvent stream of the AudioRouter")
+    })
+
+    /*
+     * Enumerates the audio devices and starts listening for changes. Subsequent calls are no-ops.
+     */
+    fun start() {
+        if (isStarted) return
+        isStarted = true
+        audioSwitch.start { audioDevices, selectedDevice ->
+            audioDeviceStateSubject.onNext(AudioDeviceState(audioDevices, selectedDevice))
+        }
+    }
+
+    fun selectDevice(audioDevice: AudioDevice?) = audioSwitch.selectDevice(audioDevice)
+
+    private fun activate() {
+        start()
+        if (isActivated) return
+        isActivated = true
+        audioSwitch.activate()
+    }
+
+    private fun deactivate() {
+        if (!isActivated) return
+        isActivated = false
+        audioSwitch.deactivate()
+    }
+}
@@ -26,5 +26,11 @@ interface Authenticator {
 
     fun loggedIn(): Boolean
 
+    /*
+     * Suspending variant of loggedIn for callers on the main thread where checking the login
+     * state may require disk or crypto work.
+     */
+    suspend fun isLoggedIn(): Boolean = loggedIn()
+
     fun logout()
 }
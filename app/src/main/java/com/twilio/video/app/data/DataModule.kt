@@ -19,6 +19,7 @@ package com.twilio.video.app.data
 import android.app.Application
 import android.content.SharedPreferences
 import com.twilio.video.app.ApplicationScope
+import com.twilio.video.app.android.SharedPreferencesWrapper
 import com.twilio.video.app.util.getSharedPreferences
 import dagger.Module
 import dagger.Provides
@@ -30,4 +31,12 @@ class DataModule {
     internal fun provideSharedPreferences(app: Application): SharedPreferences {
         return getSharedPreferences(app)
     }
+
+    @Provides
+    @ApplicationScope
+    internal fun provideSharedPreferencesWrapper(
+        sharedPreferences: SharedPreferences
+    ): SharedPreferencesWrapper {
+        return SharedPreferencesWrapper(sharedPreferences)
+    }
 }
@@ -61,12 +61,40 @@ object Preferences {
     const val VIDEO_CODEC_DEFAULT = Vp8Codec.NAME
     const val VP8_SIMULCAST = "pref_vp8_simulcast"
     const val VP8_SIMULCAST_DEFAULT = false
+    const val AUTOMATIC_VIDEO_CODEC = "pref_automatic_video_codec"
+    const val AUTOMATIC_VIDEO_CODEC_DEFAULT = true
     const val AUDIO_CODEC = "pref_audio_codecs"
     const val AUDIO_CODEC_DEFAULT = OpusCodec.NAME
     const val MAX_AUDIO_BITRATE = "pref_max_audio_bitrate"
     const val MAX_AUDIO_BITRATE_DEFAULT = 16
     const val MAX_VIDEO_BITRATE = "pref_max_video_bitrate"
     const val MAX_VIDEO_BITRATE_DEFAULT = 0
+    const val ENABLE_ADAPTIVE_ENCODING = "pref_enable_adaptive_encoding"
+    const val ENABLE_ADAPTIVE_ENCODING_DEFAULT = true
+    const val AUTOMATIC_AUDIO_ONLY = "pref_automatic_audio_only"
+    const val AUTOMATIC_AUDIO_ONLY_DEFAULT = true
+    const val ENABLE_THERMAL_DEGRADATION = "pref_enable_thermal_degradation"
+    const val ENABLE_THERMAL_DEGRADATION_DEFAULT = true
+    const val PUBLISH_TRACKS_ON_CONNECT = "pref_publish_tracks_on_connect"
+    const val PUBLISH_TRACKS_ON_CONNECT_DEFAULT = false
+    const val AUTOMATIC_MEDIA_REGION = "pref_automatic_media_region"
+    const val AUTOMATIC_MEDIA_REGION_DEFAULT = true
+    const val ICE_RELAY_ONLY = "pref_ice_relay_only"
+    const val ICE_RELAY_ONLY_DEFAULT = false
+    const val PICTURE_IN_PICTURE = "pref_picture_in_picture"
+    const val PICTURE_IN_PICTURE_DEFAULT = true
+    const val LOCAL_PREVIEW_FRAME_RATE = "pref_local_preview_frame_rate"
+    const val LOCAL_PREVIEW_FRAME_RATE_DEFAULT = 15
+    const val SKIP_UNCHANGED_SCREEN_FRAMES = "pref_skip_unchanged_screen_frames"
+    const val SKIP_UNCHANGED_SCREEN_FRAMES_DEFAULT = true
+    const val LOCAL_SPEAKER_DETECTION = "pref_local_speaker_detection"
+    const val LOCAL_SPEAKER_DETECTION_DEFAULT = true
+    const val NETWORK_PROBE_URL = "pref_network_probe_url"
+    const val NETWORK_PROBE_URL_DEFAULT = ""
+    const val CPU_VIDEO_PROCESSING = "pref_cpu_video_processing"
+    const val CPU_VIDEO_PROCESSING_DEFAULT = false
+    const val ENABLE_JANK_MONITOR = "pref_enable_jank_monitor"
+    const val ENABLE_JANK_MONITOR_DEFAULT = false
     const val RECORD_PARTICIPANTS_ON_CONNECT = "pref_record_participants_on_connect"
     const val RECORD_PARTICIPANTS_ON_CONNECT_DEFAULT = false
     const val BANDWIDTH_PROFILE_MODE = "pref_bandwidth_profile_mode"
@@ -16,7 +16,7 @@
 
 package com.twilio.video.app.data.api
 
-import android.content.SharedPreferences
+import com.twilio.video.app.android.SharedPreferencesWrapper
 import com.twilio.video.app.data.Preferences.ENVIRONMENT
 import com.twilio.video.app.data.Preferences.ENVIRONMENT_DEFAULT
 import com.twilio.video.app.data.Preferences.RECORD_PARTICIPANTS_ON_CONNECT
@@ -26,23 +26,23 @@ import com.twilio.video.app.data.Preferences.TOPOLOGY_DEFAULT
 import timber.log.Timber
 
 class VideoAppServiceDelegate(
-    private val sharedPreferences: SharedPreferences,
+    private val sharedPreferences: SharedPreferencesWrapper,
     private val videoAppServiceDev: VideoAppService,
     private val videoAppServiceStage: VideoAppService,
     private val videoAppServiceProd: VideoAppService
 ) : TokenService {
 
     override suspend fun getToken(identity: String?, roomName: String?): String {
-        val topology = sharedPreferences.getString(
+        val topology = sharedPreferences.getValue(
                 TOPOLOGY,
                 TOPOLOGY_DEFAULT)
-        val isRecordParticipantsOnConnect = sharedPreferences.getBoolean(
+        val isRecordParticipantsOnConnect = sharedPreferences.getValue(
                 RECORD_PARTICIPANTS_ON_CONNECT,
                 RECORD_PARTICIPANTS_ON_CONNECT_DEFAULT)
-        val env = sharedPreferences.getString(
+        val env = sharedPreferences.getValue(
                 ENVIRONMENT, ENVIRONMENT_DEFAULT)
 
-        val videoAppService = resolveVideoAppService(env!!)
+        val videoAppService = resolveVideoAppService(env)
         Timber.d("app service env = $videoAppService")
         return videoAppService.getToken(
                 identity,
@@ -18,8 +18,8 @@ package com.twilio.video.app.data.api;
 
 import static com.twilio.video.app.util.BuildConfigUtilsKt.isReleaseBuildType;
 
-import android.content.SharedPreferences;
 import com.twilio.video.app.ApplicationScope;
+import com.twilio.video.app.android.SharedPreferencesWrapper;
 import dagger.Module;
 import dagger.Provides;
 import java.util.concurrent.TimeUnit;
@@ -98,7 +98,7 @@ public class VideoAppServiceModule {
     @Provides
     @ApplicationScope
     VideoAppServiceDelegate providesVideoAppServiceDelegate(
-            SharedPreferences sharedPreferences,
+            SharedPreferencesWrapper sharedPreferences,
             @Named("VideoAppServiceDev") VideoAppService videoAppServiceDev,
             @Named("VideoAppServiceStage") VideoAppService videoAppServiceStage,
             @Named("VideoAppServiceProd") VideoAppService videoAppServiceProd) {
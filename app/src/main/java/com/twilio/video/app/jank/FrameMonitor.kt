@@ -0,0 +1,76 @@
+package com.twilio.video.app.jank
+
+import android.annotation.TargetApi
+import android.os.Build
+import android.os.Handler
+import android.os.Looper
+import android.view.Choreographer
+import android.view.FrameMetrics
+import android.view.Window
+import java.util.concurrent.TimeUnit
+import kotlin.math.max
+import kotlin.math.roundToInt
+
+/*
+ * Reports the end time, duration and number of dropped vsyncs of every frame drawn by the window.
+ * Uses FrameMetrics where the intended vsync timestamp is available and falls back to measuring
+ * the interval between Choreographer callbacks on older releases. Frames are reported on the main
+ * thread.
+ */
+class FrameMonitor(
+    private val window: Window,
+    private val onFrame: (frameEndNs: Long, durationNs: Long, droppedFrames: Int) -> Unit
+) {
+
+    private val vsyncIntervalNs = (TimeUnit.SECONDS.toNanos(1) /
+            window.windowManager.defaultDisplay.refreshRate).toLong()
+    private var isStarted = false
+    private var lastFrameTimeNs = 0L
+    private val frameCallback = object : Choreographer.FrameCallback {
+        override fun doFrame(frameTimeNanos: Long) {
+            if (lastFrameTimeNs > 0) {
+                val intervalNs = frameTimeNanos - lastFrameTimeNs
+                val droppedFrames = (intervalNs.toDouble() / vsyncIntervalNs).roundToInt() - 1
+                onFrame(frameTimeNanos, intervalNs, max(0, droppedFrames))
+            }
+            lastFrameTimeNs = frameTimeNanos
+            Choreographer.getInstance().postFrameCallback(this)
+        }
+    }
+    private val frameMetricsListener by lazy { createFrameMetricsListener() }
+
+    fun start() {
+        if (isStarted) return
+        isStarted = true
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            window.addOnFrameMetricsAvailableListener(frameMetricsListener,
+                    Handler(Looper.getMainLooper()))
+        } else {
+            lastFrameTimeNs = 0
+            Choreographer.getInstance().postFrameCallback(frameCallback)
+        }
+    }
+
+    fun stop() {
+        if (!isStarted) return
+        isStarted = false
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            window.removeOnFrameMetricsAvailableListener(frameMetricsListener)
+        } else {
+            Choreographer.getInstance().removeFrameCallback(frameCallback)
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.O)
+    private fun createFrameMetricsListener() =
+            Window.OnFrameMetricsAvailableListener { _, frameMetrics, _ ->
+                // The first frame of a window includes inflation and is expected to be slow
+                if (frameMetrics.getMetric(FrameMetrics.FIRST_DRAW_FRAME) == 1L) {
+                    return@OnFrameMetricsAvailableListener
+                }
+                val startNs = frameMetrics.getMetric(FrameMetrics.INTENDED_VSYNC_TIMESTAMP)
+                val durationNs = frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION)
+                val droppedFrames = ((durationNs - 1) / vsyncIntervalNs).toInt()
+                onFrame(startNs + durationNs, durationNs, droppedFrames)
+            }
+}
@@ -0,0 +1,73 @@
+package com.twilio.video.app.jank
+
+import java.io.File
+import java.io.IOException
+import java.text.SimpleDateFormat
+import java.util.Date
+import java.util.Locale
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import timber.log.Timber
+
+const val JANK_LOG_FILE_NAME = "jank.log"
+private const val MAX_LOG_FILE_BYTES = 1024 * 1024L
+
+/*
+ * Shared by all JankLog instances, which are created per RoomViewModel, so that the log does not
+ * leave a thread behind for every room screen. The thread is a daemon so it never keeps the
+ * process alive.
+ */
+private val writeExecutor: ExecutorService by lazy {
+    Executors.newSingleThreadExecutor { runnable ->
+        Thread(runnable, "JankLog").apply { isDaemon = true }
+    }
+}
+
+/*
+ * Writes jank reports to logcat and appends them to a file that is rotated once it reaches
+ * 1 MB, keeping one previous file. File writes happen on a background thread so reporting never
+ * adds to the main thread work it is measuring.
+ */
+class JankLog(private val file: File) {
+
+    private val dateFormat = SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS", Locale.US)
+
+    fun report(jankReport: JankReport) {
+        val message = format(jankReport)
+        Timber.w(message)
+        val timestamp = System.currentTimeMillis()
+        writeExecutor.execute { append("${dateFormat.format(Date(timestamp))} $message\n") }
+    }
+
+    private fun append(line: String) {
+        try {
+            file.parentFile?.mkdirs()
+            if (file.length() + line.length > MAX_LOG_FILE_BYTES) {
+                file.renameTo(File(file.parentFile, "${file.name}.1"))
+            }
+            file.appendText(line)
+        } catch (e: IOException) {
+            Timber.e(e, "Failed to write jank report to %s", file)
+        }
+    }
+
+    private fun format(jankReport: JankReport): String = when (jankReport) {
+        is JankReport.SlowEvent -> String.format(Locale.US, "Slow event: %s took %.1f ms",
+                jankReport.eventType, jankReport.durationNs.nanosToMillis())
+        is JankReport.SlowFrame -> String.format(Locale.US,
+                "Slow frame: %.1f ms, %d dropped, %.1f ms handling events %s",
+                jankReport.durationNs.nanosToMillis(), jankReport.droppedFrames,
+                jankReport.eventDurationNs.nanosToMillis(), jankReport.eventCounts)
+        is JankReport.Summary -> buildString {
+            append(String.format(Locale.US, "Summary: %d frames, %d slow, %d dropped",
+                    jankReport.frameCount, jankReport.slowFrameCount,
+                    jankReport.droppedFrameCount))
+            jankReport.eventTypes.forEach {
+                append(String.format(Locale.US,
+                        "\n  %s: %d events, %.2f ms average, %.1f ms max, %d slow frames",
+                        it.eventType, it.count, it.averageMs, it.maxNs.nanosToMillis(),
+                        it.slowFrameCount))
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.twilio.video.app.jank
+
+import java.util.ArrayDeque
+import java.util.concurrent.TimeUnit
+
+/*
+ * Half of a 60 Hz frame. Handling a single event for longer than this leaves too little of the
+ * frame for layout and drawing.
+ */
+const val DEFAULT_EVENT_BUDGET_NS = 8_333_333L
+
+internal fun Long.nanosToMillis(): Double = toDouble() / TimeUnit.MILLISECONDS.toNanos(1)
+
+data class EventTypeSummary(
+    val eventType: String,
+    val count: Int,
+    val totalNs: Long,
+    val maxNs: Long,
+    val slowFrameCount: Int
+) {
+    val averageMs: Double get() = if (count > 0) (totalNs / count).nanosToMillis() else 0.0
+}
+
+sealed class JankReport {
+    data class SlowEvent(val eventType: String, val durationNs: Long) : JankReport()
+
+    /*
+     * A frame that missed one or more vsync deadlines together with the events that were handled
+     * on the main thread since the previous frame completed.
+     */
+    data class SlowFrame(
+        val durationNs: Long,
+        val droppedFrames: Int,
+        val eventCounts: Map<String, Int>,
+        val eventDurationNs: Long
+    ) : JankReport()
+
+    data class Summary(
+        val frameCount: Int,
+        val slowFrameCount: Int,
+        val droppedFrameCount: Int,
+        val eventTypes: List<EventTypeSummary>
+    ) : JankReport()
+}
+
+/*
+ * Measures how long each event takes to handle on the main thread and attributes slow frames to
+ * the event types handled while they were being produced. Timestamps use the System.nanoTime
+ * time base shared by Choreographer and FrameMetrics. Events are reported from the thread that
+ * handles them while frames are reported on the main thread.
+ */
+class JankTracker(
+    private val listener: (JankReport) -> Unit,
+    private val eventBudgetNs: Long = DEFAULT_EVENT_BUDGET_NS,
+    private val clock: () -> Long = System::nanoTime
+) {
+
+    private class EventTiming(val eventType: String, val startNs: Long, val durationNs: Long)
+
+    private class EventTypeStats {
+        var count = 0
+        var totalNs = 0L
+        var maxNs = 0L
+        var slowFrameCount = 0
+    }
+
+    private val pendingEvents = ArrayDeque<EventTiming>()
+    private val eventTypeStats = linkedMapOf<String, EventTypeStats>()
+    private var lastFrameEndNs = Long.MIN_VALUE
+    private var frameCount = 0
+    private var slowFrameCount = 0
+    private var droppedFrameCount = 0
+
+    fun measure(eventType: String, block: () -> Unit) {
+        val startNs = clock()
+        block()
+        onEventHandled(eventType, startNs, clock() - startNs)
+    }
+
+    @Synchronized
+    fun onEventHandled(eventType: String, startNs: Long, durationNs: Long) {
+        pendingEvents.add(EventTiming(eventType, startNs, durationNs))
+        eventTypeStats.getOrPut(eventType, ::EventTypeStats).apply {
+            count++
+            totalNs += durationNs
+            if (durationNs > maxNs) maxNs = durationNs
+        }
+        if (durationNs > eventBudgetNs) listener(JankReport.SlowEvent(eventType, durationNs))
+    }
+
+    @Synchronized
+    fun onFrame(frameEndNs: Long, durationNs: Long, droppedFrames: Int) {
+        frameCount++
+        val frameEvents = mutableListOf<EventTiming>()
+        while (pendingEvents.peekFirst()?.let { it.startNs <= frameEndNs } == true) {
+            val event = pendingEvents.pollFirst()!!
+            if (event.startNs >= lastFrameEndNs) frameEvents.add(event)
+        }
+        lastFrameEndNs = frameEndNs
+        if (droppedFrames <= 0) return
+
+        slowFrameCount++
+        droppedFrameCount += droppedFrames
+        val eventCounts = frameEvents.groupingBy { it.eventType }.eachCount()
+        eventCounts.keys.forEach { eventType ->
+            eventTypeStats[eventType]?.let { it.slowFrameCount++ }
+        }
+        listener(JankReport.SlowFrame(durationNs, droppedFrames, eventCounts,
+                frameEvents.fold(0L) { total, event -> total + event.durationNs }))
+    }
+
+    @Synchronized
+    fun reportSummary() {
+        listener(JankReport.Summary(frameCount, slowFrameCount, droppedFrameCount,
+                eventTypeStats.map { (eventType, stats) ->
+                    EventTypeSummary(eventType, stats.count, stats.totalNs, stats.maxNs,
+                            stats.slowFrameCount)
+                }.sortedByDescending { it.totalNs }))
+    }
+}
@@ -1,9 +1,14 @@
 package com.twilio.video.app.participant
 
 import com.twilio.video.NetworkQualityLevel
+import com.twilio.video.RemoteVideoTrack
 import com.twilio.video.TrackPriority.HIGH
+import com.twilio.video.TrackPriority.LOW
 import com.twilio.video.app.sdk.VideoTrackViewState
-import timber.log.Timber
+import com.twilio.video.app.ui.room.MediaMode
+import com.twilio.video.app.ui.room.MediaMode.FOREGROUND
+import com.twilio.video.app.ui.room.MediaMode.PICTURE_IN_PICTURE
+import com.twilio.video.app.util.Logger
 
 class ParticipantManager {
 
@@ -11,6 +16,11 @@ class ParticipantManager {
     val participantThumbnails: List<ParticipantViewState> get() = mutableParticipants.toList()
     var primaryParticipant: ParticipantViewState
         private set
+    var mediaMode = FOREGROUND
+        private set
+    var isAudioOnly = false
+        private set
+    private val isVideoShown: Boolean get() = mediaMode == FOREGROUND && !isAudioOnly
 
     init {
         val localParticipant = ParticipantViewState(isLocalParticipant = true)
@@ -19,7 +29,7 @@ class ParticipantManager {
     }
 
     fun addParticipant(participantViewState: ParticipantViewState) {
-        Timber.d("Adding participant: %s", participantViewState)
+        Logger.d { "Adding participant: $participantViewState" }
         mutableParticipants.add(participantViewState)
         updatePrimaryParticipant()
     }
@@ -40,7 +50,7 @@ class ParticipantManager {
 
         mutableParticipants.indexOfFirst(participantMatchPredicate).let { index ->
             if (index > -1) {
-                Timber.d("Updating participant: %s", participantViewState)
+                Logger.d { "Updating participant: $participantViewState" }
                 mutableParticipants[index] = participantViewState
                 updatePrimaryParticipant()
             }
@@ -48,7 +58,7 @@ class ParticipantManager {
     }
 
     fun removeParticipant(sid: String) {
-        Timber.d("Removing participant: %s", sid)
+        Logger.d { "Removing participant: $sid" }
         mutableParticipants.removeAll { it.sid == sid }
         updatePrimaryParticipant()
     }
@@ -90,7 +100,7 @@ class ParticipantManager {
     }
 
     fun changeDominantSpeaker(newDominantSpeakerSid: String?) {
-        Timber.d("new dominant speaker with sid: %s", newDominantSpeakerSid)
+        Logger.d { "new dominant speaker with sid: $newDominantSpeakerSid" }
         newDominantSpeakerSid?.let { sid ->
             clearDominantSpeaker()
 
@@ -101,6 +111,45 @@ class ParticipantManager {
         }
     }
 
+    /*
+     * Marks the participants heard speaking by the SpeakerDetector. Unlike the dominant speaker
+     * this does not reorder the thumbnails, as that would change the primary participant every
+     * time someone else starts to speak.
+     */
+    fun updateSpeakingParticipants(speakingParticipantSids: Set<String>) {
+        mutableParticipants.forEachIndexed { index, participant ->
+            val isSpeaking = participant.sid in speakingParticipantSids
+            if (participant.isSpeaking != isSpeaking) {
+                mutableParticipants[index] = participant.copy(isSpeaking = isSpeaking)
+            }
+        }
+        updatePrimaryParticipant()
+    }
+
+    /*
+     * Outside of the foreground every remote video and screen track is set to low priority so
+     * that the SFU switches them off first, except for the track shown in Picture-in-Picture.
+     * The primary participant priority is restored when the call returns to the foreground.
+     */
+    fun changeMediaMode(mediaMode: MediaMode) {
+        if (this.mediaMode == mediaMode) return
+        Logger.d { "Changing media mode to $mediaMode" }
+        this.mediaMode = mediaMode
+        applyTrackPriorities()
+    }
+
+    /*
+     * No video is shown in audio only mode, so every remote track is set to low priority in the
+     * same way as in the background. The bandwidth profile used at connect time does not apply to
+     * audio only mode entered during a call.
+     */
+    fun changeAudioOnly(isAudioOnly: Boolean) {
+        if (this.isAudioOnly == isAudioOnly) return
+        Logger.d { "Changing audio only mode to $isAudioOnly" }
+        this.isAudioOnly = isAudioOnly
+        applyTrackPriorities()
+    }
+
     internal fun updateLocalParticipant(participantViewState: ParticipantViewState) =
             updateParticipant(participantViewState) { it.isLocalParticipant }
 
@@ -123,9 +172,14 @@ class ParticipantManager {
     }
 
     private fun updatePrimaryParticipant() {
-        primaryParticipant = retrievePrimaryParticipant()
-        Timber.d("Participant Cache: $mutableParticipants")
-        Timber.d("Primary Participant: $primaryParticipant")
+        if (isVideoShown) {
+            primaryParticipant = retrievePrimaryParticipant()
+        } else {
+            primaryParticipant = determinePrimaryParticipant()
+            setBackgroundTrackPriorities()
+        }
+        Logger.d { "Participant Cache: $mutableParticipants" }
+        Logger.d { "Primary Participant: $primaryParticipant" }
     }
 
     private fun retrievePrimaryParticipant(): ParticipantViewState =
@@ -140,40 +194,66 @@ class ParticipantManager {
     }
 
     private fun setTrackPriority(participant: ParticipantViewState) {
-        if (participant.sid != primaryParticipant.sid) {
-            when {
-                participant.isScreenSharing -> {
-                    participant.getRemoteScreenTrack()?.let {
-                        it.priority = HIGH
-                        clearOldTrackPriorities()
-                        Timber.d("Setting screen track priority to high for participant with sid: ${participant.sid}")
-                    }
-                }
-                participant.isDominantSpeaker -> {
-                    participant.getRemoteVideoTrack()?.let {
-                        it.priority = null
-                        clearOldTrackPriorities()
-                        Timber.d("Clearing dominant speaker priority for participant with sid: ${participant.sid}")
-                    }
-                }
-                else -> {
-                    participant.getRemoteVideoTrack()?.let {
-                        it.priority = HIGH
-                        clearOldTrackPriorities()
-                        Timber.d("Setting video track priority to high for participant with sid: ${participant.sid}")
-                    }
-                }
-            }
+        if (participant.sid != primaryParticipant.sid && raiseTrackPriority(participant)) {
+            clearOldTrackPriorities()
         }
 
         if (participant.isLocalParticipant) clearOldTrackPriorities()
     }
 
+    /*
+     * Returns true if the priority of one of the participant tracks was changed.
+     */
+    private fun raiseTrackPriority(participant: ParticipantViewState): Boolean =
+        when {
+            participant.isScreenSharing -> {
+                participant.getRemoteScreenTrack()?.let {
+                    it.priority = HIGH
+                    Logger.d { "Setting screen track priority to high for participant with sid: ${participant.sid}" }
+                } != null
+            }
+            participant.isDominantSpeaker -> {
+                participant.getRemoteVideoTrack()?.let {
+                    it.priority = null
+                    Logger.d { "Clearing dominant speaker priority for participant with sid: ${participant.sid}" }
+                } != null
+            }
+            else -> {
+                participant.getRemoteVideoTrack()?.let {
+                    it.priority = HIGH
+                    Logger.d { "Setting video track priority to high for participant with sid: ${participant.sid}" }
+                } != null
+            }
+        }
+
+    private fun applyTrackPriorities() {
+        if (isVideoShown) {
+            forEachRemoteTrack { it.priority = null }
+            raiseTrackPriority(primaryParticipant)
+        } else {
+            setBackgroundTrackPriorities()
+        }
+    }
+
+    private fun setBackgroundTrackPriorities() {
+        val pictureInPictureTrack = if (mediaMode == PICTURE_IN_PICTURE && !isAudioOnly) {
+            primaryParticipant.run { getRemoteScreenTrack() ?: getRemoteVideoTrack() }
+        } else null
+        forEachRemoteTrack { it.priority = if (it == pictureInPictureTrack) null else LOW }
+    }
+
+    private inline fun forEachRemoteTrack(action: (RemoteVideoTrack) -> Unit) {
+        mutableParticipants.forEach { participant ->
+            participant.getRemoteVideoTrack()?.let(action)
+            participant.getRemoteScreenTrack()?.let(action)
+        }
+    }
+
     private fun clearOldTrackPriorities() {
         primaryParticipant.run {
             getRemoteVideoTrack()?.priority = null
             getRemoteScreenTrack()?.priority = null
-            Timber.d("Clearing video and screen track priorities for participant with sid: $sid")
+            Logger.d { "Clearing video and screen track priorities for participant with sid: $sid" }
         }
     }
 }
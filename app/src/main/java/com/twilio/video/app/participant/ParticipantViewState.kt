@@ -15,6 +15,7 @@ data class ParticipantViewState(
     val isMirrored: Boolean = false,
     val isPinned: Boolean = false,
     val isDominantSpeaker: Boolean = false,
+    val isSpeaking: Boolean = false,
     val isLocalParticipant: Boolean = false,
     val networkQualityLevel: NetworkQualityLevel = NETWORK_QUALITY_LEVEL_UNKNOWN
 ) {
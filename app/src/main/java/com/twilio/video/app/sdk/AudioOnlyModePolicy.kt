@@ -0,0 +1,81 @@
+package com.twilio.video.app.sdk
+
+import com.twilio.video.NetworkQualityLevel
+import com.twilio.video.NetworkQualityLevel.NETWORK_QUALITY_LEVEL_FIVE
+import com.twilio.video.NetworkQualityLevel.NETWORK_QUALITY_LEVEL_FOUR
+import com.twilio.video.NetworkQualityLevel.NETWORK_QUALITY_LEVEL_ONE
+import com.twilio.video.NetworkQualityLevel.NETWORK_QUALITY_LEVEL_THREE
+import com.twilio.video.NetworkQualityLevel.NETWORK_QUALITY_LEVEL_TWO
+import com.twilio.video.NetworkQualityLevel.NETWORK_QUALITY_LEVEL_UNKNOWN
+import com.twilio.video.NetworkQualityLevel.NETWORK_QUALITY_LEVEL_ZERO
+
+/*
+ * Decides when to automatically switch to and from audio only mode based on the local
+ * participant network quality level. Audio only mode is entered when the level drops to the
+ * enter level and only left automatically if it was entered automatically, the level has
+ * recovered to the exit level and the minimum dwell time has passed. The dwell time prevents
+ * flapping, since dropping video usually improves the reported level straight away. Once the
+ * user changes the mode manually the policy stays out of the way until it is reset.
+ */
+class AudioOnlyModePolicy(private val config: Config = Config()) {
+
+    data class Config(
+        val enterLevel: Int = 1,
+        val exitLevel: Int = 3,
+        val minDwellMs: Long = 30_000
+    )
+
+    private var automaticallyEnabledTimestamp: Long? = null
+    private var isOverridden = false
+
+    val isAutomaticallyEnabled: Boolean get() = automaticallyEnabledTimestamp != null
+
+    /*
+     * Returns true to enter audio only mode, false to leave it or null when the mode should not
+     * change.
+     */
+    fun onNetworkQualityLevel(
+        networkQualityLevel: NetworkQualityLevel,
+        isAudioOnly: Boolean,
+        timestampMs: Long
+    ): Boolean? {
+        if (isOverridden) return null
+        val level = networkQualityLevel.toInt() ?: return null
+        val enabledTimestamp = automaticallyEnabledTimestamp
+        return when {
+            !isAudioOnly && level <= config.enterLevel -> {
+                automaticallyEnabledTimestamp = timestampMs
+                true
+            }
+            isAudioOnly && enabledTimestamp != null && level >= config.exitLevel &&
+                    timestampMs - enabledTimestamp >= config.minDwellMs -> {
+                automaticallyEnabledTimestamp = null
+                false
+            }
+            else -> null
+        }
+    }
+
+    /*
+     * Called when the user changes the mode so that it is not automatically changed back.
+     */
+    fun onManualChange() {
+        automaticallyEnabledTimestamp = null
+        isOverridden = true
+    }
+
+    fun reset() {
+        automaticallyEnabledTimestamp = null
+        isOverridden = false
+    }
+}
+
+private fun NetworkQualityLevel.toInt() = when (this) {
+    NETWORK_QUALITY_LEVEL_ZERO -> 0
+    NETWORK_QUALITY_LEVEL_ONE -> 1
+    NETWORK_QUALITY_LEVEL_TWO -> 2
+    NETWORK_QUALITY_LEVEL_THREE -> 3
+    NETWORK_QUALITY_LEVEL_FOUR -> 4
+    NETWORK_QUALITY_LEVEL_FIVE -> 5
+    NETWORK_QUALITY_LEVEL_UNKNOWN -> null
+}
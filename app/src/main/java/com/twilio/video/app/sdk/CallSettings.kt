@@ -0,0 +1,247 @@
+package com.twilio.video.app.sdk
+
+import android.content.SharedPreferences
+import com.twilio.video.AudioCodec
+import com.twilio.video.BandwidthProfileMode
+import com.twilio.video.G722Codec
+import com.twilio.video.H264Codec
+import com.twilio.video.IceTransportPolicy
+import com.twilio.video.IsacCodec
+import com.twilio.video.OpusCodec
+import com.twilio.video.PcmaCodec
+import com.twilio.video.PcmuCodec
+import com.twilio.video.TrackPriority
+import com.twilio.video.TrackSwitchOffMode
+import com.twilio.video.VideoCodec
+import com.twilio.video.VideoDimensions
+import com.twilio.video.Vp8Codec
+import com.twilio.video.Vp9Codec
+import com.twilio.video.app.data.Preferences
+import com.twilio.video.app.data.api.model.Topology
+import com.twilio.video.app.util.get
+
+private val RENDER_DIMENSIONS_REGEX = Regex("(\\d+)x(\\d+)")
+
+/*
+ * An immutable snapshot of the preferences used to connect to a Room and to set up the local
+ * tracks. Values are parsed into the types the SDK expects once when the snapshot is built so
+ * that reading them is free.
+ */
+data class CallSettings(
+    val environment: String?,
+    val enableInsights: Boolean,
+    val enableAutomaticSubscription: Boolean,
+    val enableDominantSpeaker: Boolean,
+    val enableNetworkQuality: Boolean,
+    val topology: Topology?,
+    val isAutomaticVideoCodec: Boolean,
+    val videoCodec: VideoCodec,
+    val audioCodec: AudioCodec,
+    val bandwidthProfileMode: BandwidthProfileMode?,
+    val maxSubscriptionBitrate: Long,
+    val maxVideoTracks: Long,
+    val dominantSpeakerPriority: TrackPriority?,
+    val trackSwitchOffMode: TrackSwitchOffMode?,
+    val renderDimensions: Map<TrackPriority, VideoDimensions>,
+    val maxAudioBitrate: Int,
+    val maxVideoBitrate: Int,
+    val videoCaptureResolutionIndex: Int,
+    val isAdaptiveEncodingEnabled: Boolean,
+    val isAutomaticAudioOnlyEnabled: Boolean,
+    val isThermalDegradationEnabled: Boolean,
+    val isPublishTracksOnConnectEnabled: Boolean,
+    val isAutomaticMediaRegion: Boolean,
+    val iceTransportPolicy: IceTransportPolicy,
+    val networkProbeUrl: String?,
+    val isCpuVideoProcessingEnabled: Boolean,
+    val isSkipUnchangedScreenFramesEnabled: Boolean,
+    val isLocalSpeakerDetectionEnabled: Boolean
+) {
+
+    val videoCaptureDimensions: VideoDimensions
+        get() = Preferences.VIDEO_DIMENSIONS[videoCaptureResolutionIndex]
+
+    companion object {
+
+        fun from(sharedPreferences: SharedPreferences) = CallSettings(
+                environment = sharedPreferences.getString(
+                        Preferences.ENVIRONMENT, Preferences.ENVIRONMENT_DEFAULT),
+                enableInsights = sharedPreferences.get(
+                        Preferences.ENABLE_INSIGHTS,
+                        Preferences.ENABLE_INSIGHTS_DEFAULT),
+                enableAutomaticSubscription = sharedPreferences.get(
+                        Preferences.ENABLE_AUTOMATIC_TRACK_SUBSCRIPTION,
+                        Preferences.ENABLE_AUTOMATIC_TRACK_SUBSCRIPTION_DEFAULT),
+                enableDominantSpeaker = sharedPreferences.get(
+                        Preferences.ENABLE_DOMINANT_SPEAKER,
+                        Preferences.ENABLE_DOMINANT_SPEAKER_DEFAULT),
+                enableNetworkQuality = sharedPreferences.get(
+                        Preferences.ENABLE_NETWORK_QUALITY_LEVEL,
+                        Preferences.ENABLE_NETWORK_QUALITY_LEVEL_DEFAULT),
+                topology = getTopology(sharedPreferences.get(
+                        Preferences.TOPOLOGY, Preferences.TOPOLOGY_DEFAULT)),
+                isAutomaticVideoCodec = sharedPreferences.get(
+                        Preferences.AUTOMATIC_VIDEO_CODEC,
+                        Preferences.AUTOMATIC_VIDEO_CODEC_DEFAULT),
+                videoCodec = getVideoCodec(
+                        sharedPreferences.get(Preferences.VIDEO_CODEC, Preferences.VIDEO_CODEC_DEFAULT),
+                        sharedPreferences.get(Preferences.VP8_SIMULCAST, Preferences.VP8_SIMULCAST_DEFAULT)),
+                audioCodec = getAudioCodec(sharedPreferences.get(
+                        Preferences.AUDIO_CODEC, Preferences.AUDIO_CODEC_DEFAULT)),
+                bandwidthProfileMode = getBandwidthProfileMode(sharedPreferences.get(
+                        Preferences.BANDWIDTH_PROFILE_MODE,
+                        Preferences.BANDWIDTH_PROFILE_MODE_DEFAULT)),
+                maxSubscriptionBitrate = sharedPreferences.get(
+                        Preferences.BANDWIDTH_PROFILE_MAX_SUBSCRIPTION_BITRATE,
+                        Preferences.BANDWIDTH_PROFILE_MAX_SUBSCRIPTION_BITRATE_DEFAULT).toLong(),
+                maxVideoTracks = sharedPreferences.get(
+                        Preferences.BANDWIDTH_PROFILE_MAX_VIDEO_TRACKS,
+                        Preferences.BANDWIDTH_PROFILE_MAX_VIDEO_TRACKS_DEFAULT).toLong(),
+                dominantSpeakerPriority = getTrackPriority(sharedPreferences.get(
+                        Preferences.BANDWIDTH_PROFILE_DOMINANT_SPEAKER_PRIORITY,
+                        Preferences.BANDWIDTH_PROFILE_DOMINANT_SPEAKER_PRIORITY_DEFAULT)),
+                trackSwitchOffMode = getTrackSwitchOffMode(sharedPreferences.get(
+                        Preferences.BANDWIDTH_PROFILE_TRACK_SWITCH_OFF_MODE,
+                        Preferences.BANDWIDTH_PROFILE_TRACK_SWITCH_OFF_MODE_DEFAULT)),
+                renderDimensions = listOfNotNull(
+                        getRenderDimensions(sharedPreferences, TrackPriority.LOW,
+                                Preferences.BANDWIDTH_PROFILE_LOW_TRACK_PRIORITY_RENDER_DIMENSIONS,
+                                Preferences.BANDWIDTH_PROFILE_LOW_TRACK_PRIORITY_RENDER_DIMENSIONS_DEFAULT),
+                        getRenderDimensions(sharedPreferences, TrackPriority.STANDARD,
+                                Preferences.BANDWIDTH_PROFILE_STANDARD_TRACK_PRIORITY_RENDER_DIMENSIONS,
+                                Preferences.BANDWIDTH_PROFILE_STANDARD_TRACK_PRIORITY_RENDER_DIMENSIONS_DEFAULT),
+                        getRenderDimensions(sharedPreferences, TrackPriority.HIGH,
+                                Preferences.BANDWIDTH_PROFILE_HIGH_TRACK_PRIORITY_RENDER_DIMENSIONS,
+                                Preferences.BANDWIDTH_PROFILE_HIGH_TRACK_PRIORITY_RENDER_DIMENSIONS_DEFAULT)
+                ).toMap(),
+                maxAudioBitrate = sharedPreferences.get(
+                        Preferences.MAX_AUDIO_BITRATE, Preferences.MAX_AUDIO_BITRATE_DEFAULT),
+                maxVideoBitrate = sharedPreferences.get(
+                        Preferences.MAX_VIDEO_BITRATE, Preferences.MAX_VIDEO_BITRATE_DEFAULT),
+                videoCaptureResolutionIndex = sharedPreferences.get(
+                        Preferences.VIDEO_CAPTURE_RESOLUTION,
+                        Preferences.VIDEO_CAPTURE_RESOLUTION_DEFAULT).toIntOrNull()
+                        ?.coerceIn(0, Preferences.VIDEO_DIMENSIONS.lastIndex)
+                        ?: Preferences.VIDEO_CAPTURE_RESOLUTION_DEFAULT.toInt(),
+                isAdaptiveEncodingEnabled = sharedPreferences.get(
+                        Preferences.ENABLE_ADAPTIVE_ENCODING,
+                        Preferences.ENABLE_ADAPTIVE_ENCODING_DEFAULT),
+                isAutomaticAudioOnlyEnabled = sharedPreferences.get(
+                        Preferences.AUTOMATIC_AUDIO_ONLY,
+                        Preferences.AUTOMATIC_AUDIO_ONLY_DEFAULT),
+                isThermalDegradationEnabled = sharedPreferences.get(
+                        Preferences.ENABLE_THERMAL_DEGRADATION,
+                        Preferences.ENABLE_THERMAL_DEGRADATION_DEFAULT),
+                isPublishTracksOnConnectEnabled = sharedPreferences.get(
+                        Preferences.PUBLISH_TRACKS_ON_CONNECT,
+                        Preferences.PUBLISH_TRACKS_ON_CONNECT_DEFAULT),
+                isAutomaticMediaRegion = sharedPreferences.get(
+                        Preferences.AUTOMATIC_MEDIA_REGION,
+                        Preferences.AUTOMATIC_MEDIA_REGION_DEFAULT),
+                iceTransportPolicy = if (sharedPreferences.get(
+                                Preferences.ICE_RELAY_ONLY, Preferences.ICE_RELAY_ONLY_DEFAULT)) {
+                    IceTransportPolicy.RELAY
+                } else IceTransportPolicy.ALL,
+                networkProbeUrl = sharedPreferences.get(
+                        Preferences.NETWORK_PROBE_URL, Preferences.NETWORK_PROBE_URL_DEFAULT)
+                        .takeIf { it.isNotBlank() },
+                isCpuVideoProcessingEnabled = sharedPreferences.get(
+                        Preferences.CPU_VIDEO_PROCESSING,
+                        Preferences.CPU_VIDEO_PROCESSING_DEFAULT),
+                isSkipUnchangedScreenFramesEnabled = sharedPreferences.get(
+                        Preferences.SKIP_UNCHANGED_SCREEN_FRAMES,
+                        Preferences.SKIP_UNCHANGED_SCREEN_FRAMES_DEFAULT),
+                isLocalSpeakerDetectionEnabled = sharedPreferences.get(
+                        Preferences.LOCAL_SPEAKER_DETECTION,
+                        Preferences.LOCAL_SPEAKER_DETECTION_DEFAULT))
+
+        private fun getTopology(topologyValue: String) =
+                Topology.values().find { it.value == topologyValue }
+
+        private fun getVideoCodec(videoCodecName: String, simulcast: Boolean): VideoCodec {
+            return when (videoCodecName) {
+                Vp8Codec.NAME -> Vp8Codec(simulcast)
+                H264Codec.NAME -> H264Codec()
+                Vp9Codec.NAME -> Vp9Codec()
+                else -> Vp8Codec()
+            }
+        }
+
+        private fun getAudioCodec(audioCodecName: String): AudioCodec {
+            return when (audioCodecName) {
+                IsacCodec.NAME -> IsacCodec()
+                PcmaCodec.NAME -> PcmaCodec()
+                PcmuCodec.NAME -> PcmuCodec()
+                G722Codec.NAME -> G722Codec()
+                else -> OpusCodec()
+            }
+        }
+
+        private fun getTrackSwitchOffMode(trackSwitchOffModeString: String): TrackSwitchOffMode? {
+            return when (trackSwitchOffModeString) {
+                TrackSwitchOffMode.PREDICTED.name -> TrackSwitchOffMode.PREDICTED
+                TrackSwitchOffMode.DETECTED.name -> TrackSwitchOffMode.DETECTED
+                TrackSwitchOffMode.DISABLED.name -> TrackSwitchOffMode.DISABLED
+                else -> null
+            }
+        }
+
+        private fun getTrackPriority(trackPriorityString: String): TrackPriority? {
+            return when (trackPriorityString) {
+                TrackPriority.LOW.name -> TrackPriority.LOW
+                TrackPriority.STANDARD.name -> TrackPriority.STANDARD
+                TrackPriority.HIGH.name -> TrackPriority.HIGH
+                else -> null
+            }
+        }
+
+        private fun getBandwidthProfileMode(modeString: String): BandwidthProfileMode? {
+            return when (modeString) {
+                BandwidthProfileMode.COLLABORATION.name -> BandwidthProfileMode.COLLABORATION
+                BandwidthProfileMode.GRID.name -> BandwidthProfileMode.GRID
+                BandwidthProfileMode.PRESENTATION.name -> BandwidthProfileMode.PRESENTATION
+                else -> null
+            }
+        }
+
+        /*
+         * Extracts the VideoDimensions from a preference string in the format NxN. If the
+         * preference value does not match the NxN format, then no render dimensions are set for
+         * the track priority.
+         */
+        private fun getRenderDimensions(
+            sharedPreferences: SharedPreferences,
+            trackPriority: TrackPriority,
+            preferenceKey: String,
+            preferenceDefaultValue: String
+        ): Pair<TrackPriority, VideoDimensions>? {
+            return RENDER_DIMENSIONS_REGEX.find(
+                    sharedPreferences.get(preferenceKey, preferenceDefaultValue))?.let { match ->
+                val (width, height) = match.destructured
+                trackPriority to VideoDimensions(width.toInt(), height.toInt())
+            }
+        }
+    }
+}
+
+/*
+ * Keeps the current CallSettings snapshot, rebuilding it only when a preference changes.
+ */
+class CallSettingsProvider(private val sharedPreferences: SharedPreferences) {
+
+    // SharedPreferences only keeps a weak reference to its listeners
+    private val preferenceChangeListener =
+            SharedPreferences.OnSharedPreferenceChangeListener { _, _ -> rebuild() }
+
+    @Volatile
+    var callSettings: CallSettings = CallSettings.from(sharedPreferences)
+        private set
+
+    init {
+        sharedPreferences.registerOnSharedPreferenceChangeListener(preferenceChangeListener)
+    }
+
+    private fun rebuild() {
+        callSettings = CallSettings.from(sharedPreferences)
+    }
+}
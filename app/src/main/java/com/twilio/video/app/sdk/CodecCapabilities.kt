@@ -0,0 +1,86 @@
+package com.twilio.video.app.sdk
+
+private const val FORMAT_VERSION = "1"
+private const val ENCODER = "E"
+private const val DECODER = "D"
+private const val HARDWARE = "H"
+private const val SOFTWARE = "S"
+
+/*
+ * The best capabilities of all the codecs of the same kind available for a MIME type.
+ */
+data class CodecCapability(
+    val mimeType: String,
+    val isEncoder: Boolean,
+    val isHardwareAccelerated: Boolean,
+    val maxWidth: Int,
+    val maxHeight: Int,
+    val maxFrameRate: Int
+)
+
+/*
+ * The video codecs available on a device build identified by its fingerprint.
+ */
+data class CodecCapabilities(val fingerprint: String, val codecs: List<CodecCapability>) {
+
+    fun isHardwareEncoderAvailable(mimeType: String) = find(mimeType, true, true) != null
+
+    fun isHardwareDecoderAvailable(mimeType: String) = find(mimeType, false, true) != null
+
+    fun find(mimeType: String, isEncoder: Boolean, isHardwareAccelerated: Boolean) =
+            codecs.find {
+                it.mimeType == mimeType &&
+                        it.isEncoder == isEncoder &&
+                        it.isHardwareAccelerated == isHardwareAccelerated
+            }
+
+    /*
+     * Encodes the capabilities into a compact line based format with the format version and
+     * fingerprint on the first two lines followed by one comma separated line per codec.
+     */
+    fun encode(): String = buildString {
+        appendLine(FORMAT_VERSION)
+        appendLine(fingerprint)
+        codecs.forEach {
+            appendLine(listOf(
+                    if (it.isEncoder) ENCODER else DECODER,
+                    if (it.isHardwareAccelerated) HARDWARE else SOFTWARE,
+                    it.mimeType,
+                    it.maxWidth,
+                    it.maxHeight,
+                    it.maxFrameRate).joinToString(","))
+        }
+    }
+
+    companion object {
+
+        /*
+         * Decodes capabilities produced by encode. Returns null if the content is not in the
+         * expected format so that the caller can probe again.
+         */
+        fun decode(content: String): CodecCapabilities? {
+            val lines = content.lines().filter { it.isNotBlank() }
+            if (lines.size < 2 || lines[0] != FORMAT_VERSION) return null
+            val codecs = lines.drop(2).map { line ->
+                val fields = line.split(",")
+                if (fields.size != 6) return null
+                CodecCapability(
+                        mimeType = fields[2],
+                        isEncoder = when (fields[0]) {
+                            ENCODER -> true
+                            DECODER -> false
+                            else -> return null
+                        },
+                        isHardwareAccelerated = when (fields[1]) {
+                            HARDWARE -> true
+                            SOFTWARE -> false
+                            else -> return null
+                        },
+                        maxWidth = fields[3].toIntOrNull() ?: return null,
+                        maxHeight = fields[4].toIntOrNull() ?: return null,
+                        maxFrameRate = fields[5].toIntOrNull() ?: return null)
+            }
+            return CodecCapabilities(lines[1], codecs)
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.twilio.video.app.sdk
+
+import android.media.MediaCodecInfo
+import android.media.MediaCodecList
+import android.os.Build
+import timber.log.Timber
+
+interface CodecCapabilityProbe {
+
+    /*
+     * Returns the video codec capabilities, or an empty list if the codecs could not be listed.
+     */
+    fun probe(): List<CodecCapability>
+}
+
+/*
+ * Walks the MediaCodecList and merges the video codecs of the same MIME type, direction and
+ * acceleration into a single capability with the largest supported resolution and frame rate.
+ */
+class MediaCodecListCapabilityProbe : CodecCapabilityProbe {
+
+    override fun probe(): List<CodecCapability> {
+        val capabilities = mutableMapOf<Triple<String, Boolean, Boolean>, CodecCapability>()
+        try {
+            for (codecInfo in getCodecInfos()) {
+                val isHardwareAccelerated = isHardwareAccelerated(codecInfo)
+                codecInfo.supportedTypes
+                        .map { it.toLowerCase() }
+                        .filter { it.startsWith("video/") }
+                        .forEach { mimeType ->
+                            val capability = getCapability(codecInfo, mimeType, isHardwareAccelerated)
+                                    ?: return@forEach
+                            val key = Triple(mimeType, codecInfo.isEncoder, isHardwareAccelerated)
+                            capabilities[key] = capabilities[key]?.let { existing ->
+                                existing.copy(
+                                        maxWidth = maxOf(existing.maxWidth, capability.maxWidth),
+                                        maxHeight = maxOf(existing.maxHeight, capability.maxHeight),
+                                        maxFrameRate = maxOf(existing.maxFrameRate, capability.maxFrameRate))
+                            } ?: capability
+                        }
+            }
+        } catch (e: RuntimeException) {
+            Timber.e(e, "Failed to probe the available media codecs")
+            return emptyList()
+        }
+        return capabilities.values.toList()
+    }
+
+    @Suppress("DEPRECATION")
+    private fun getCodecInfos(): Array<MediaCodecInfo> {
+        return if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            MediaCodecList(MediaCodecList.REGULAR_CODECS).codecInfos
+        } else {
+            Array(MediaCodecList.getCodecCount()) { MediaCodecList.getCodecInfoAt(it) }
+        }
+    }
+
+    /*
+     * The video capabilities are only available from API 21, below that the dimensions and frame
+     * rate are recorded as 0.
+     */
+    private fun getCapability(
+        codecInfo: MediaCodecInfo,
+        mimeType: String,
+        isHardwareAccelerated: Boolean
+    ): CodecCapability? {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
+            return CodecCapability(mimeType, codecInfo.isEncoder, isHardwareAccelerated, 0, 0, 0)
+        }
+        return try {
+            val videoCapabilities = codecInfo.getCapabilitiesForType(mimeType).videoCapabilities
+            CodecCapability(
+                    mimeType,
+                    codecInfo.isEncoder,
+                    isHardwareAccelerated,
+                    videoCapabilities?.supportedWidths?.upper ?: 0,
+                    videoCapabilities?.supportedHeights?.upper ?: 0,
+                    videoCapabilities?.supportedFrameRates?.upper ?: 0)
+        } catch (e: IllegalArgumentException) {
+            Timber.w(e, "Failed to read the capabilities of %s for %s", codecInfo.name, mimeType)
+            null
+        }
+    }
+
+    private fun isHardwareAccelerated(codecInfo: MediaCodecInfo): Boolean {
+        return if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            codecInfo.isHardwareAccelerated
+        } else {
+            SOFTWARE_CODEC_PREFIXES.none { codecInfo.name.startsWith(it) }
+        }
+    }
+
+    companion object {
+        private val SOFTWARE_CODEC_PREFIXES = listOf("OMX.google.", "c2.android.", "c2.google.")
+    }
+}
@@ -0,0 +1,101 @@
+package com.twilio.video.app.sdk
+
+import java.io.File
+import java.io.IOException
+import java.util.concurrent.atomic.AtomicBoolean
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.launch
+import timber.log.Timber
+
+const val CODEC_CAPABILITIES_FILE_NAME = "codec_capabilities"
+
+/*
+ * Provides the video codec capabilities of the device. Walking the MediaCodecList is slow so the
+ * result is persisted to a file and only probed again when the device build fingerprint changes,
+ * such as after a system update. A probe that finds no video codecs has failed, as every device
+ * has at least a software decoder, so it is neither persisted nor kept and the next load probes
+ * again.
+ */
+class CodecCapabilityRepository(
+    private val file: File,
+    private val fingerprint: String,
+    private val probe: CodecCapabilityProbe,
+    private val coroutineScope: CoroutineScope = CoroutineScope(Dispatchers.IO)
+) : HardwareCodecSupport {
+
+    /*
+     * The capabilities if they have already been loaded, without blocking the caller.
+     */
+    @Volatile
+    var capabilities: CodecCapabilities? = null
+        private set
+    private val isLoading = AtomicBoolean(false)
+
+    /*
+     * Loads the capabilities in the background so they are ready before they are first needed.
+     */
+    fun loadInBackground() {
+        if (capabilities != null || !isLoading.compareAndSet(false, true)) return
+        coroutineScope.launch {
+            try {
+                load()
+            } finally {
+                isLoading.set(false)
+            }
+        }
+    }
+
+    /*
+     * Returns the capabilities from memory, from the file or from a new probe. This may block
+     * while probing so it should not be called from the main thread.
+     */
+    @Synchronized
+    fun load(): CodecCapabilities {
+        capabilities?.let { return it }
+        readFile()?.let {
+            capabilities = it
+            return it
+        }
+        val probedCapabilities = CodecCapabilities(fingerprint, probe.probe())
+        Timber.d("Probed video codec capabilities: %s", probedCapabilities.codecs)
+        if (probedCapabilities.codecs.isNotEmpty()) {
+            writeFile(probedCapabilities)
+            capabilities = probedCapabilities
+        }
+        return probedCapabilities
+    }
+
+    /*
+     * Hardware support is read from the loaded capabilities only, so that choosing codecs never
+     * blocks on a probe. Until they are loaded every codec is treated as software only.
+     */
+    override fun isHardwareEncoderAvailable(mimeType: String) =
+            getLoadedCapabilities()?.isHardwareEncoderAvailable(mimeType) ?: false
+
+    override fun isHardwareDecoderAvailable(mimeType: String) =
+            getLoadedCapabilities()?.isHardwareDecoderAvailable(mimeType) ?: false
+
+    private fun getLoadedCapabilities() = capabilities ?: run {
+        loadInBackground()
+        null
+    }
+
+    private fun readFile(): CodecCapabilities? {
+        if (!file.exists()) return null
+        return try {
+            CodecCapabilities.decode(file.readText())?.takeIf { it.fingerprint == fingerprint }
+        } catch (e: IOException) {
+            Timber.w(e, "Failed to read the video codec capabilities")
+            null
+        }
+    }
+
+    private fun writeFile(codecCapabilities: CodecCapabilities) {
+        try {
+            file.writeText(codecCapabilities.encode())
+        } catch (e: IOException) {
+            Timber.w(e, "Failed to write the video codec capabilities")
+        }
+    }
+}
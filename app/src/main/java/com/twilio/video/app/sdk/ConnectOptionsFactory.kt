@@ -1,207 +1,129 @@
 package com.twilio.video.app.sdk
 
 import android.content.Context
-import android.content.SharedPreferences
 import com.twilio.androidenv.Env
-import com.twilio.video.AudioCodec
-import com.twilio.video.BandwidthProfileMode
 import com.twilio.video.BandwidthProfileOptions
 import com.twilio.video.ConnectOptions
 import com.twilio.video.EncodingParameters
-import com.twilio.video.G722Codec
-import com.twilio.video.H264Codec
-import com.twilio.video.IsacCodec
+import com.twilio.video.IceOptions
 import com.twilio.video.NetworkQualityConfiguration
 import com.twilio.video.NetworkQualityVerbosity
-import com.twilio.video.OpusCodec
-import com.twilio.video.PcmaCodec
-import com.twilio.video.PcmuCodec
-import com.twilio.video.TrackPriority
 import com.twilio.video.TrackSwitchOffMode
 import com.twilio.video.VideoBandwidthProfileOptions
 import com.twilio.video.VideoCodec
-import com.twilio.video.VideoDimensions
-import com.twilio.video.Vp8Codec
-import com.twilio.video.Vp9Codec
-import com.twilio.video.app.data.Preferences
 import com.twilio.video.app.data.api.TokenService
 import com.twilio.video.app.util.EnvUtil
-import com.twilio.video.app.util.get
+import dagger.Lazy
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.async
+import kotlinx.coroutines.coroutineScope
+
+/*
+ * A subscription budget far below the lowest video layer so that the SFU switches off all remote
+ * video tracks while audio is unaffected.
+ */
+private const val AUDIO_ONLY_MAX_SUBSCRIPTION_BITRATE = 1L
 
 class ConnectOptionsFactory(
     private val context: Context,
-    private val sharedPreferences: SharedPreferences,
-    private val tokenService: TokenService
+    private val callSettingsProvider: CallSettingsProvider,
+    private val tokenService: Lazy<TokenService>,
+    private val videoCodecPolicy: VideoCodecPolicy,
+    private val mediaRegionSelector: MediaRegionSelector? = null
 ) {
 
-    suspend fun newInstance(identity: String, roomName: String): ConnectOptions {
-
-        setSdkEnvironment(sharedPreferences)
-        val token = tokenService.getToken(identity, roomName)
-        val enableInsights = sharedPreferences.getBoolean(
-                Preferences.ENABLE_INSIGHTS,
-                Preferences.ENABLE_INSIGHTS_DEFAULT)
-
-        val enableAutomaticTrackSubscription = sharedPreferences.get(
-                Preferences.ENABLE_AUTOMATIC_TRACK_SUBSCRIPTION,
-                Preferences.ENABLE_AUTOMATIC_TRACK_SUBSCRIPTION_DEFAULT)
-
-        val enableDominantSpeaker = sharedPreferences.get(
-                Preferences.ENABLE_DOMINANT_SPEAKER,
-                Preferences.ENABLE_DOMINANT_SPEAKER_DEFAULT)
-
-        val preferedVideoCodec: VideoCodec = getVideoCodecPreference(Preferences.VIDEO_CODEC)
+    suspend fun newInstance(
+        identity: String,
+        roomName: String,
+        expectedParticipantCount: Int? = null,
+        isAudioOnly: Boolean = false,
+        localTracks: Deferred<LocalTracks>? = null,
+        initialMediaSettings: InitialMediaSettings? = null
+    ): ConnectOptions = coroutineScope {
+
+        val callSettings = callSettingsProvider.callSettings
+        setSdkEnvironment(callSettings.environment)
+        // The region is selected and the local tracks are created while the token is fetched
+        val region = if (callSettings.isAutomaticMediaRegion) {
+            mediaRegionSelector?.let { async { it.selectRegion() } }
+        } else null
+        val token = tokenService.get().getToken(identity, roomName)
+        newInstance(token, roomName, callSettings, expectedParticipantCount, isAudioOnly,
+                localTracks?.await() ?: LocalTracks(), region?.await(), initialMediaSettings)
+    }
 
-        val preferredAudioCodec: AudioCodec = getAudioCodecPreference()
+    /*
+     * Assembles the ConnectOptions from a CallSettings snapshot without touching preferences.
+     */
+    fun newInstance(
+        token: String,
+        roomName: String,
+        callSettings: CallSettings,
+        expectedParticipantCount: Int? = null,
+        isAudioOnly: Boolean = false,
+        localTracks: LocalTracks = LocalTracks(),
+        mediaRegion: String? = null,
+        initialMediaSettings: InitialMediaSettings? = null
+    ): ConnectOptions {
+
+        val preferredVideoCodecs: List<VideoCodec> = getVideoCodecPreferences(callSettings,
+                expectedParticipantCount, initialMediaSettings?.isSimulcastAllowed ?: true)
 
         val configuration = NetworkQualityConfiguration(
                 NetworkQualityVerbosity.NETWORK_QUALITY_VERBOSITY_MINIMAL,
                 NetworkQualityVerbosity.NETWORK_QUALITY_VERBOSITY_MINIMAL)
 
         val videoBandwidthProfileOptionsBuilder = VideoBandwidthProfileOptions.Builder()
-
-        sharedPreferences.get(Preferences.BANDWIDTH_PROFILE_MODE,
-                Preferences.BANDWIDTH_PROFILE_MODE_DEFAULT).let {
-            videoBandwidthProfileOptionsBuilder.mode(getBandwidthProfileMode(it))
-        }
-        sharedPreferences.get(Preferences.BANDWIDTH_PROFILE_MAX_SUBSCRIPTION_BITRATE,
-                Preferences.BANDWIDTH_PROFILE_MAX_SUBSCRIPTION_BITRATE_DEFAULT).let {
-            videoBandwidthProfileOptionsBuilder.maxSubscriptionBitrate(it.toLong())
-        }
-        sharedPreferences.get(Preferences.BANDWIDTH_PROFILE_MAX_VIDEO_TRACKS,
-                Preferences.BANDWIDTH_PROFILE_MAX_VIDEO_TRACKS_DEFAULT).let {
-            videoBandwidthProfileOptionsBuilder.maxTracks(it.toLong())
-        }
-        sharedPreferences.get(Preferences.BANDWIDTH_PROFILE_DOMINANT_SPEAKER_PRIORITY,
-                Preferences.BANDWIDTH_PROFILE_DOMINANT_SPEAKER_PRIORITY_DEFAULT).let {
-            videoBandwidthProfileOptionsBuilder.dominantSpeakerPriority(getDominantSpeakerPriority(it))
+                .mode(callSettings.bandwidthProfileMode)
+                .maxSubscriptionBitrate(callSettings.maxSubscriptionBitrate)
+                .maxTracks(callSettings.maxVideoTracks)
+                .dominantSpeakerPriority(callSettings.dominantSpeakerPriority)
+                .trackSwitchOffMode(callSettings.trackSwitchOffMode)
+                .renderDimensions(callSettings.renderDimensions)
+        if (isAudioOnly) {
+            videoBandwidthProfileOptionsBuilder
+                    .maxSubscriptionBitrate(AUDIO_ONLY_MAX_SUBSCRIPTION_BITRATE)
+                    .trackSwitchOffMode(TrackSwitchOffMode.PREDICTED)
         }
-        sharedPreferences.get(Preferences.BANDWIDTH_PROFILE_TRACK_SWITCH_OFF_MODE,
-                Preferences.BANDWIDTH_PROFILE_TRACK_SWITCH_OFF_MODE_DEFAULT).let {
-            videoBandwidthProfileOptionsBuilder.trackSwitchOffMode(getTrackSwitchOffMode(it))
-        }
-        val renderDimensions = mutableMapOf<TrackPriority, VideoDimensions>()
-        setTrackPriorityRenderDimensions(renderDimensions,
-                TrackPriority.LOW,
-                Preferences.BANDWIDTH_PROFILE_LOW_TRACK_PRIORITY_RENDER_DIMENSIONS,
-                Preferences.BANDWIDTH_PROFILE_LOW_TRACK_PRIORITY_RENDER_DIMENSIONS_DEFAULT)
-        setTrackPriorityRenderDimensions(renderDimensions,
-                TrackPriority.STANDARD,
-                Preferences.BANDWIDTH_PROFILE_STANDARD_TRACK_PRIORITY_RENDER_DIMENSIONS,
-                Preferences.BANDWIDTH_PROFILE_STANDARD_TRACK_PRIORITY_RENDER_DIMENSIONS_DEFAULT)
-        setTrackPriorityRenderDimensions(renderDimensions,
-                TrackPriority.HIGH,
-                Preferences.BANDWIDTH_PROFILE_HIGH_TRACK_PRIORITY_RENDER_DIMENSIONS,
-                Preferences.BANDWIDTH_PROFILE_HIGH_TRACK_PRIORITY_RENDER_DIMENSIONS_DEFAULT)
-        videoBandwidthProfileOptionsBuilder.renderDimensions(renderDimensions)
         val bandwidthProfileOptions = BandwidthProfileOptions(videoBandwidthProfileOptionsBuilder.build())
 
-        val isNetworkQualityEnabled = sharedPreferences.get(
-                Preferences.ENABLE_NETWORK_QUALITY_LEVEL,
-                Preferences.ENABLE_NETWORK_QUALITY_LEVEL_DEFAULT)
+        val iceOptions = IceOptions.Builder()
+                .iceTransportPolicy(callSettings.iceTransportPolicy)
+                .build()
 
-        val connectOptionsBuilder = ConnectOptions.Builder(token)
+        return ConnectOptions.Builder(token)
                 .roomName(roomName)
-                .enableInsights(enableInsights)
-                .enableAutomaticSubscription(enableAutomaticTrackSubscription)
-                .enableDominantSpeaker(enableDominantSpeaker)
-                .enableNetworkQuality(isNetworkQualityEnabled)
+                .apply { mediaRegion?.let { region(it) } }
+                .iceOptions(iceOptions)
+                .enableInsights(callSettings.enableInsights)
+                .enableAutomaticSubscription(callSettings.enableAutomaticSubscription)
+                .enableDominantSpeaker(callSettings.enableDominantSpeaker)
+                .enableNetworkQuality(callSettings.enableNetworkQuality)
                 .networkQualityConfiguration(configuration)
                 .bandwidthProfile(bandwidthProfileOptions)
-
-        val maxVideoBitrate = sharedPreferences.get(
-                Preferences.MAX_VIDEO_BITRATE,
-                Preferences.MAX_VIDEO_BITRATE_DEFAULT)
-
-        val maxAudioBitrate = sharedPreferences.get(
-                Preferences.MAX_AUDIO_BITRATE,
-                Preferences.MAX_AUDIO_BITRATE_DEFAULT)
-        connectOptionsBuilder.encodingParameters(EncodingParameters(maxAudioBitrate, maxVideoBitrate))
-        connectOptionsBuilder.preferVideoCodecs(listOf(preferedVideoCodec))
-        connectOptionsBuilder.preferAudioCodecs(listOf(preferredAudioCodec))
-
-        return connectOptionsBuilder.build()
+                .encodingParameters(EncodingParameters(callSettings.maxAudioBitrate,
+                        initialMediaSettings?.maxVideoBitrate ?: callSettings.maxVideoBitrate))
+                .preferVideoCodecs(preferredVideoCodecs)
+                .preferAudioCodecs(listOf(callSettings.audioCodec))
+                .audioTracks(localTracks.audioTracks)
+                .videoTracks(localTracks.videoTracks)
+                .build()
     }
 
-    /*
-     * Utility method that extracts the VideoDimensions from a preference string in the format
-     * NxN. The resolution will be extracted and set to the render dimensions of the specified
-     * track priority. If the preference value does match the NxN format, then no render
-     * dimenions will be set for the track priority.
-     */
-    private fun setTrackPriorityRenderDimensions(
-        renderDimensions: MutableMap<TrackPriority, VideoDimensions>,
-        trackPriority: TrackPriority,
-        preferenceKey: String,
-        preferenceDefaultValue: String
-    ) {
-        sharedPreferences.get(preferenceKey, preferenceDefaultValue).let {
-            Regex("(\\d+)x(\\d+)").find(it)?.let { match ->
-                val (width, height) = match.destructured
-                renderDimensions[trackPriority] = VideoDimensions(width.toInt(), height.toInt())
-            }
-        }
-    }
-
-    private fun getTrackSwitchOffMode(trackSwitchOffModeString: String): TrackSwitchOffMode? {
-        return when (trackSwitchOffModeString) {
-            TrackSwitchOffMode.PREDICTED.name -> TrackSwitchOffMode.PREDICTED
-            TrackSwitchOffMode.DETECTED.name -> TrackSwitchOffMode.DETECTED
-            TrackSwitchOffMode.DISABLED.name -> TrackSwitchOffMode.DISABLED
-            else -> null
-        }
-    }
-
-    private fun getDominantSpeakerPriority(dominantSpeakerPriorityString: String): TrackPriority? {
-        return when (dominantSpeakerPriorityString) {
-            TrackPriority.LOW.name -> TrackPriority.LOW
-            TrackPriority.STANDARD.name -> TrackPriority.STANDARD
-            TrackPriority.HIGH.name -> TrackPriority.HIGH
-            else -> null
+    private fun getVideoCodecPreferences(
+        callSettings: CallSettings,
+        expectedParticipantCount: Int?,
+        isSimulcastAllowed: Boolean
+    ): List<VideoCodec> {
+        return if (callSettings.isAutomaticVideoCodec) {
+            videoCodecPolicy.getPreferredVideoCodecs(callSettings.topology,
+                    expectedParticipantCount, isSimulcastAllowed)
+        } else {
+            listOf(callSettings.videoCodec)
         }
     }
 
-    private fun getBandwidthProfileMode(modeString: String): BandwidthProfileMode? {
-        return when (modeString) {
-            BandwidthProfileMode.COLLABORATION.name -> BandwidthProfileMode.COLLABORATION
-            BandwidthProfileMode.GRID.name -> BandwidthProfileMode.GRID
-            BandwidthProfileMode.PRESENTATION.name -> BandwidthProfileMode.PRESENTATION
-            else -> null
-        }
-    }
-
-    private fun getVideoCodecPreference(key: String): VideoCodec {
-        return sharedPreferences.getString(key, Preferences.VIDEO_CODEC_DEFAULT)?.let { videoCodecName ->
-            when (videoCodecName) {
-                Vp8Codec.NAME -> {
-                    val simulcast = sharedPreferences.getBoolean(
-                            Preferences.VP8_SIMULCAST, Preferences.VP8_SIMULCAST_DEFAULT)
-                    Vp8Codec(simulcast)
-                }
-                H264Codec.NAME -> H264Codec()
-                Vp9Codec.NAME -> Vp9Codec()
-                else -> Vp8Codec()
-            }
-        } ?: Vp8Codec()
-    }
-
-    private fun getAudioCodecPreference(): AudioCodec {
-        return sharedPreferences.getString(
-                Preferences.AUDIO_CODEC, Preferences.AUDIO_CODEC_DEFAULT)?.let { audioCodecName ->
-
-            when (audioCodecName) {
-                IsacCodec.NAME -> IsacCodec()
-                PcmaCodec.NAME -> PcmaCodec()
-                PcmuCodec.NAME -> PcmuCodec()
-                G722Codec.NAME -> G722Codec()
-                else -> OpusCodec()
-            }
-        } ?: OpusCodec()
-    }
-
-    private fun setSdkEnvironment(sharedPreferences: SharedPreferences) {
-        val env = sharedPreferences.getString(
-                Preferences.ENVIRONMENT, Preferences.ENVIRONMENT_DEFAULT)
+    private fun setSdkEnvironment(env: String?) {
         val nativeEnvironmentVariableValue = EnvUtil.getNativeEnvironmentVariableValue(env)
         Env.set(
                 context,
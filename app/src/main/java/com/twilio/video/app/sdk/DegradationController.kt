@@ -0,0 +1,92 @@
+package com.twilio.video.app.sdk
+
+/*
+ * The values of the PowerManager THERMAL_STATUS constants, which are only defined from API 29.
+ */
+internal const val THERMAL_STATUS_NONE = 0
+internal const val THERMAL_STATUS_LIGHT = 1
+internal const val THERMAL_STATUS_MODERATE = 2
+internal const val THERMAL_STATUS_SEVERE = 3
+internal const val THERMAL_STATUS_CRITICAL = 4
+
+/*
+ * The steps of the degradation ladder. Each level includes the degradations of the levels below
+ * it.
+ */
+enum class DegradationLevel {
+    NONE,
+    REDUCED_CAPTURE,
+    REDUCED_RENDERING,
+    REDUCED_STATS,
+    AUDIO_ONLY
+}
+
+/*
+ * The device conditions reported by the PowerManager. The thermal status is one of the
+ * PowerManager THERMAL_STATUS constants.
+ */
+data class DeviceConditions(
+    val thermalStatus: Int = THERMAL_STATUS_NONE,
+    val isPowerSaveMode: Boolean = false
+)
+
+/*
+ * Walks the degradation ladder towards the level required by the current device conditions. The
+ * ladder is climbed one step at a time so each degradation has a chance to cool the device down
+ * before the next is applied, except for a critical thermal status which jumps straight to audio
+ * only. Recovering is slower than degrading so that the device is not heated up again right
+ * away.
+ */
+class DegradationController(private val config: Config = Config()) {
+
+    data class Config(
+        val minDegradeIntervalMs: Long = 10_000,
+        val minRecoverIntervalMs: Long = 60_000,
+        val powerSaveLevel: DegradationLevel = DegradationLevel.REDUCED_STATS
+    )
+
+    private var lastChangeTimestamp: Long? = null
+
+    var level = DegradationLevel.NONE
+        private set
+
+    /*
+     * Called when the device conditions change and periodically while they persist. Returns the
+     * new level when the ladder moves, otherwise null.
+     */
+    fun update(deviceConditions: DeviceConditions, timestampMs: Long): DegradationLevel? {
+        val targetLevel = getTargetLevel(deviceConditions)
+        val elapsed = lastChangeTimestamp?.let { timestampMs - it } ?: Long.MAX_VALUE
+        val newLevel = when {
+            targetLevel == level -> return null
+            deviceConditions.thermalStatus >= THERMAL_STATUS_CRITICAL -> targetLevel
+            targetLevel > level && elapsed >= config.minDegradeIntervalMs -> step(1)
+            targetLevel < level && elapsed >= config.minRecoverIntervalMs -> step(-1)
+            else -> return null
+        }
+        level = newLevel
+        lastChangeTimestamp = timestampMs
+        return newLevel
+    }
+
+    fun reset() {
+        level = DegradationLevel.NONE
+        lastChangeTimestamp = null
+    }
+
+    private fun step(direction: Int) = DegradationLevel.values()[level.ordinal + direction]
+
+    private fun getTargetLevel(deviceConditions: DeviceConditions): DegradationLevel {
+        val thermalLevel = when {
+            deviceConditions.thermalStatus >= THERMAL_STATUS_CRITICAL -> DegradationLevel.AUDIO_ONLY
+            deviceConditions.thermalStatus >= THERMAL_STATUS_SEVERE -> DegradationLevel.REDUCED_STATS
+            deviceConditions.thermalStatus >= THERMAL_STATUS_MODERATE -> DegradationLevel.REDUCED_RENDERING
+            deviceConditions.thermalStatus >= THERMAL_STATUS_LIGHT -> DegradationLevel.REDUCED_CAPTURE
+            else -> DegradationLevel.NONE
+        }
+        val powerSaveLevel = if (deviceConditions.isPowerSaveMode) {
+            config.powerSaveLevel
+        } else DegradationLevel.NONE
+        return maxOf(thermalLevel, powerSaveLevel)
+    }
+}
@@ -0,0 +1,85 @@
+package com.twilio.video.app.sdk
+
+import android.content.BroadcastReceiver
+import android.content.Context
+import android.content.Intent
+import android.content.IntentFilter
+import android.os.Build
+import android.os.Handler
+import android.os.Looper
+import android.os.PowerManager
+import timber.log.Timber
+
+private const val UPDATE_INTERVAL_MS = 5000L
+
+/*
+ * Reports the thermal status and battery saver state of the device on the main thread whenever
+ * either changes and periodically while started, so that time based decisions can be made even
+ * when the conditions stay the same.
+ */
+class DeviceConditionsMonitor(
+    private val context: Context,
+    private val listener: (DeviceConditions) -> Unit
+) {
+
+    private val powerManager = context.getSystemService(Context.POWER_SERVICE) as PowerManager
+    private val handler = Handler(Looper.getMainLooper())
+    // Typed as Any since OnThermalStatusChangedListener is only available from Android Q
+    private var thermalStatusListener: Any? = null
+    private val powerSaveModeReceiver = object : BroadcastReceiver() {
+        override fun onReceive(context: Context, intent: Intent) = notifyListener()
+    }
+    private val periodicUpdate = object : Runnable {
+        override fun run() {
+            notifyListener()
+            handler.postDelayed(this, UPDATE_INTERVAL_MS)
+        }
+    }
+    private var isStarted = false
+
+    val deviceConditions: DeviceConditions
+        get() = DeviceConditions(
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+                    powerManager.currentThermalStatus
+                } else THERMAL_STATUS_NONE,
+                if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+                    powerManager.isPowerSaveMode
+                } else false)
+
+    fun start() {
+        if (isStarted) return
+        isStarted = true
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            val listener = PowerManager.OnThermalStatusChangedListener { status ->
+                Timber.d("Thermal status changed to %d", status)
+                notifyListener()
+            }
+            powerManager.addThermalStatusListener(listener)
+            thermalStatusListener = listener
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            context.registerReceiver(powerSaveModeReceiver,
+                    IntentFilter(PowerManager.ACTION_POWER_SAVE_MODE_CHANGED))
+        }
+        handler.post(periodicUpdate)
+    }
+
+    fun stop() {
+        if (!isStarted) return
+        isStarted = false
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            (thermalStatusListener as PowerManager.OnThermalStatusChangedListener?)?.let {
+                powerManager.removeThermalStatusListener(it)
+            }
+            thermalStatusListener = null
+        }
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            context.unregisterReceiver(powerSaveModeReceiver)
+        }
+        handler.removeCallbacks(periodicUpdate)
+    }
+
+    private fun notifyListener() {
+        if (isStarted) listener(deviceConditions)
+    }
+}
@@ -0,0 +1,146 @@
+package com.twilio.video.app.sdk
+
+import com.twilio.video.LocalTrackStats
+import com.twilio.video.LocalVideoTrackStats
+import com.twilio.video.StatsReport
+import kotlin.math.abs
+import kotlin.math.max
+import kotlin.math.min
+import kotlin.math.roundToInt
+import timber.log.Timber
+
+/*
+ * A snapshot of the sender side stats of the local tracks. Packet counters are cumulative as
+ * reported by the SDK.
+ */
+data class SenderStats(
+    val roundTripTime: Long,
+    val packetsLost: Int,
+    val packetsSent: Int,
+    val frameRate: Int = 0
+)
+
+/*
+ * Bitrates in Kbps, using the same units and conventions as the max bitrate preferences where
+ * zero means unlimited.
+ */
+data class EncodingTarget(val maxAudioBitrate: Int, val maxVideoBitrate: Int)
+
+/*
+ * Closed loop controller that adjusts the maximum video send bitrate based on the local track
+ * stats reported by the StatsScheduler. Congestion (packet loss, high round trip time or a
+ * collapsing frame rate) backs off the bitrate multiplicatively while a healthy link probes it
+ * back up additively towards the configured maximum. Updates are rate limited and small changes
+ * are suppressed so the encoder is not reconfigured on every stats tick. The controller starts
+ * from the initial video bitrate when one was seeded from a network estimate.
+ */
+class EncodingParametersController(
+    private val maxAudioBitrate: Int,
+    private val maxVideoBitrate: Int,
+    private val config: Config = Config(),
+    initialVideoBitrate: Int? = null
+) {
+
+    data class Config(
+        val minVideoBitrate: Int = 150,
+        val unlimitedVideoBitrateCeiling: Int = 2000,
+        val smoothingFactor: Double = 0.3,
+        val congestedLossFraction: Double = 0.08,
+        val healthyLossFraction: Double = 0.02,
+        val congestedRoundTripTime: Long = 400,
+        val healthyRoundTripTime: Long = 250,
+        val congestedFrameRate: Int = 10,
+        val decreaseFactor: Double = 0.75,
+        val increaseStep: Int = 50,
+        val minDecreaseIntervalMs: Long = 1000,
+        val minIncreaseIntervalMs: Long = 3000,
+        val minChangeFraction: Double = 0.05
+    )
+
+    private val ceiling = if (maxVideoBitrate > 0) maxVideoBitrate else config.unlimitedVideoBitrateCeiling
+    private var previousStats: SenderStats? = null
+    private var smoothedLossFraction = 0.0
+    private var smoothedRoundTripTime = 0.0
+    private var targetVideoBitrate = initialVideoBitrate?.coerceIn(config.minVideoBitrate, ceiling)
+            ?: ceiling
+    private var appliedVideoBitrate = targetVideoBitrate
+    private var lastUpdateTimestamp = Long.MIN_VALUE / 2
+
+    val currentTarget: EncodingTarget get() = toEncodingTarget(appliedVideoBitrate)
+
+    /*
+     * Feeds the combined sender stats of all local tracks sampled at the given timestamp. Returns
+     * a new target when the encoding parameters should be updated, otherwise null.
+     */
+    fun onSenderStats(senderStats: SenderStats, timestampMs: Long): EncodingTarget? {
+        val lossFraction = previousStats?.let { previous ->
+            val sent = senderStats.packetsSent - previous.packetsSent
+            val lost = senderStats.packetsLost - previous.packetsLost
+            if (sent + lost > 0 && lost >= 0) lost.toDouble() / (sent + lost) else 0.0
+        } ?: 0.0
+        val isFirstSample = previousStats == null
+        previousStats = senderStats
+
+        if (isFirstSample) {
+            smoothedRoundTripTime = senderStats.roundTripTime.toDouble()
+            return null
+        }
+        smoothedLossFraction = smooth(smoothedLossFraction, lossFraction)
+        smoothedRoundTripTime = smooth(smoothedRoundTripTime, senderStats.roundTripTime.toDouble())
+
+        val isCongested = smoothedLossFraction >= config.congestedLossFraction ||
+                smoothedRoundTripTime >= config.congestedRoundTripTime ||
+                (senderStats.frameRate in 1 until config.congestedFrameRate)
+        val isHealthy = smoothedLossFraction <= config.healthyLossFraction &&
+                smoothedRoundTripTime <= config.healthyRoundTripTime
+
+        val elapsed = timestampMs - lastUpdateTimestamp
+        when {
+            isCongested && elapsed >= config.minDecreaseIntervalMs ->
+                targetVideoBitrate = max(config.minVideoBitrate,
+                        (targetVideoBitrate * config.decreaseFactor).roundToInt())
+            isHealthy && elapsed >= config.minIncreaseIntervalMs ->
+                targetVideoBitrate = min(ceiling, targetVideoBitrate + config.increaseStep)
+            else -> return null
+        }
+
+        return if (shouldApply(targetVideoBitrate)) {
+            Timber.d("Updating max video bitrate from %d to %d Kbps, loss: %.3f, rtt: %.0f ms",
+                    appliedVideoBitrate, targetVideoBitrate, smoothedLossFraction,
+                    smoothedRoundTripTime)
+            appliedVideoBitrate = targetVideoBitrate
+            lastUpdateTimestamp = timestampMs
+            toEncodingTarget(appliedVideoBitrate)
+        } else null
+    }
+
+    private fun shouldApply(newBitrate: Int): Boolean {
+        if (newBitrate == appliedVideoBitrate) return false
+        if (newBitrate == ceiling || newBitrate == config.minVideoBitrate) return true
+        val change = abs(newBitrate - appliedVideoBitrate).toDouble() / appliedVideoBitrate
+        return change >= config.minChangeFraction
+    }
+
+    private fun toEncodingTarget(videoBitrate: Int) = EncodingTarget(maxAudioBitrate,
+            if (videoBitrate == ceiling) maxVideoBitrate else videoBitrate)
+
+    private fun smooth(previous: Double, sample: Double) =
+            previous + config.smoothingFactor * (sample - previous)
+}
+
+/*
+ * Combines the local audio and video track stats of the reports into a single SenderStats
+ * sample. Losses and packets are summed across tracks while the worst round trip time wins. The
+ * screen track is left out of the frame rate, as it drops to a keep-alive rate when static.
+ */
+fun List<StatsReport>.toSenderStats(screenTrackSid: String? = null): SenderStats? {
+    val localTrackStats = flatMap { it.localAudioTrackStats + it.localVideoTrackStats }
+    if (localTrackStats.isEmpty()) return null
+    return SenderStats(
+            roundTripTime = localTrackStats.map(LocalTrackStats::roundTripTime).maxOrNull() ?: 0,
+            packetsLost = localTrackStats.sumBy { it.packetsLost },
+            packetsSent = localTrackStats.sumBy { it.packetsSent },
+            frameRate = localTrackStats.filterIsInstance<LocalVideoTrackStats>()
+                    .filter { it.trackSid != screenTrackSid }
+                    .map { it.frameRate }.maxOrNull() ?: 0)
+}
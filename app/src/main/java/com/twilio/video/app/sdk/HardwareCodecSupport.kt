@@ -0,0 +1,12 @@
+package com.twilio.video.app.sdk
+
+const val H264_MIME_TYPE = "video/avc"
+const val VP8_MIME_TYPE = "video/x-vnd.on2.vp8"
+const val VP9_MIME_TYPE = "video/x-vnd.on2.vp9"
+
+interface HardwareCodecSupport {
+
+    fun isHardwareEncoderAvailable(mimeType: String): Boolean
+
+    fun isHardwareDecoderAvailable(mimeType: String): Boolean
+}
@@ -0,0 +1,88 @@
+package com.twilio.video.app.sdk
+
+import java.nio.ByteBuffer
+import java.util.ArrayDeque
+
+/*
+ * The planes of an I420 frame. Planes are only accessed with absolute gets and puts so that the
+ * positions of buffers wrapped from the SDK are left untouched.
+ */
+class I420Frame(
+    val width: Int,
+    val height: Int,
+    val dataY: ByteBuffer,
+    val strideY: Int,
+    val dataU: ByteBuffer,
+    val strideU: Int,
+    val dataV: ByteBuffer,
+    val strideV: Int
+) {
+
+    val chromaWidth get() = (width + 1) / 2
+    val chromaHeight get() = (height + 1) / 2
+
+    companion object {
+        /*
+         * The planes share one direct buffer so that the frame can be handed to the SDK as is.
+         */
+        fun allocate(width: Int, height: Int): I420Frame {
+            val chromaWidth = (width + 1) / 2
+            val chromaHeight = (height + 1) / 2
+            val sizeY = width * height
+            val sizeChroma = chromaWidth * chromaHeight
+            val buffer = ByteBuffer.allocateDirect(sizeY + 2 * sizeChroma)
+            return I420Frame(width, height,
+                    buffer.slice(0, sizeY), width,
+                    buffer.slice(sizeY, sizeChroma), chromaWidth,
+                    buffer.slice(sizeY + sizeChroma, sizeChroma), chromaWidth)
+        }
+
+        private fun ByteBuffer.slice(offset: Int, length: Int): ByteBuffer {
+            clear()
+            position(offset)
+            limit(offset + length)
+            return slice().also { clear() }
+        }
+    }
+}
+
+/*
+ * Recycles I420 frames by size so that processing does not allocate once the pool holds a frame
+ * for every stage. Only frames acquired from the pool may be released to it, from any thread.
+ */
+class I420FramePool(private val maxFramesPerSize: Int = 4) {
+
+    private val buckets = ArrayList<Bucket>()
+
+    var allocatedFrameCount = 0
+        private set
+
+    @Synchronized
+    fun acquire(width: Int, height: Int): I420Frame =
+            bucket(width, height).frames.pollLast()
+                    ?: I420Frame.allocate(width, height).also { allocatedFrameCount++ }
+
+    @Synchronized
+    fun release(frame: I420Frame) {
+        val frames = bucket(frame.width, frame.height).frames
+        if (frames.size < maxFramesPerSize) frames.addLast(frame)
+    }
+
+    @Synchronized
+    fun clear() = buckets.clear()
+
+    /*
+     * An indexed loop, as there are only a few sizes in use and iterators would allocate.
+     */
+    private fun bucket(width: Int, height: Int): Bucket {
+        for (i in buckets.indices) {
+            val bucket = buckets[i]
+            if (bucket.width == width && bucket.height == height) return bucket
+        }
+        return Bucket(width, height).also { buckets.add(it) }
+    }
+
+    private class Bucket(val width: Int, val height: Int) {
+        val frames = ArrayDeque<I420Frame>()
+    }
+}
@@ -0,0 +1,48 @@
+package com.twilio.video.app.sdk
+
+import com.twilio.video.app.data.Preferences
+import kotlin.math.min
+import kotlin.math.roundToInt
+
+private const val UPLINK_HEADROOM = 0.7
+private const val HIGH_ROUND_TRIP_TIME_MS = 300L
+private const val MIN_VIDEO_BITRATE = 150
+private const val MIN_SIMULCAST_BITRATE = 1200
+private const val BITS_PER_PIXEL = 0.07
+private const val FRAME_RATE = 30
+
+/*
+ * The media settings for the start of a call, seeded from a NetworkEstimate so that the first
+ * seconds of a call are not spent sending more than the link can carry. Bitrates are in Kbps.
+ */
+data class InitialMediaSettings(
+    val maxVideoBitrate: Int,
+    val captureResolutionIndex: Int,
+    val isSimulcastAllowed: Boolean
+) {
+
+    companion object {
+
+        /*
+         * Budgets a share of the uplink for video, halved on high latency links, and picks the
+         * largest capture resolution up to the preferred one that fits the budget. The configured
+         * max video bitrate is never exceeded.
+         */
+        fun from(networkEstimate: NetworkEstimate, callSettings: CallSettings): InitialMediaSettings {
+            var videoBudget = networkEstimate.uplinkKbps * UPLINK_HEADROOM - callSettings.maxAudioBitrate
+            if (networkEstimate.roundTripTimeMs >= HIGH_ROUND_TRIP_TIME_MS) videoBudget /= 2
+            val maxVideoBitrate = videoBudget.roundToInt().coerceAtLeast(MIN_VIDEO_BITRATE).let {
+                if (callSettings.maxVideoBitrate > 0) min(it, callSettings.maxVideoBitrate) else it
+            }
+            val captureResolutionIndex = (callSettings.videoCaptureResolutionIndex downTo 1)
+                    .firstOrNull { requiredBitrate(it) <= maxVideoBitrate } ?: 0
+            return InitialMediaSettings(maxVideoBitrate, captureResolutionIndex,
+                    maxVideoBitrate >= MIN_SIMULCAST_BITRATE)
+        }
+
+        private fun requiredBitrate(resolutionIndex: Int) =
+                Preferences.VIDEO_DIMENSIONS[resolutionIndex].let {
+                    it.width * it.height * FRAME_RATE * BITS_PER_PIXEL / 1000
+                }
+    }
+}
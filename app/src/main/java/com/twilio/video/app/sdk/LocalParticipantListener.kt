@@ -19,9 +19,12 @@ class LocalParticipantListener(private val roomManager: RoomManager) : LocalPart
                 localParticipant.sid, networkQualityLevel)
 
         roomManager.sendRoomEvent(NetworkQualityLevelChange(localParticipant.sid, networkQualityLevel))
+        roomManager.onLocalNetworkQualityLevelChanged(networkQualityLevel)
     }
 
-    override fun onVideoTrackPublished(localParticipant: LocalParticipant, localVideoTrackPublication: LocalVideoTrackPublication) {}
+    override fun onVideoTrackPublished(localParticipant: LocalParticipant, localVideoTrackPublication: LocalVideoTrackPublication) {
+        roomManager.onLocalVideoTrackPublished(localVideoTrackPublication.trackName)
+    }
 
     override fun onVideoTrackPublicationFailed(localParticipant: LocalParticipant, localVideoTrack: LocalVideoTrack, twilioException: TwilioException) {}
 
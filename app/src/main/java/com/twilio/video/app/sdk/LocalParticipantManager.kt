@@ -2,17 +2,17 @@ package com.twilio.video.app.sdk
 
 import android.content.Context
 import android.content.Intent
-import android.content.SharedPreferences
+import com.twilio.video.EncodingParameters
 import com.twilio.video.LocalAudioTrack
 import com.twilio.video.LocalParticipant
 import com.twilio.video.LocalTrackPublicationOptions
 import com.twilio.video.LocalVideoTrack
 import com.twilio.video.ScreenCapturer
+import com.twilio.video.Track
 import com.twilio.video.TrackPriority
+import com.twilio.video.VideoCapturer
 import com.twilio.video.VideoFormat
 import com.twilio.video.app.R
-import com.twilio.video.app.data.Preferences.VIDEO_CAPTURE_RESOLUTION
-import com.twilio.video.app.data.Preferences.VIDEO_CAPTURE_RESOLUTION_DEFAULT
 import com.twilio.video.app.data.Preferences.VIDEO_DIMENSIONS
 import com.twilio.video.app.ui.room.RoomEvent.LocalParticipantEvent.AudioDisabled
 import com.twilio.video.app.ui.room.RoomEvent.LocalParticipantEvent.AudioEnabled
@@ -24,13 +24,19 @@ import com.twilio.video.app.ui.room.RoomEvent.LocalParticipantEvent.VideoDisable
 import com.twilio.video.app.ui.room.RoomEvent.LocalParticipantEvent.VideoEnabled
 import com.twilio.video.app.ui.room.RoomEvent.LocalParticipantEvent.VideoTrackUpdated
 import com.twilio.video.app.util.CameraCapturerCompat
-import com.twilio.video.app.util.get
+import kotlin.math.max
+import kotlin.math.min
 import timber.log.Timber
 
+private const val CAPTURE_FRAME_RATE = 30
+private const val DEGRADED_CAPTURE_FRAME_RATE = 15
+private const val SCREEN_MAX_FRAME_RATE = 15
+private const val SCREEN_KEEP_ALIVE_INTERVAL_MS = 1000L
+
 class LocalParticipantManager(
     private val context: Context,
     private val roomManager: RoomManager,
-    private val sharedPreferences: SharedPreferences
+    private val callSettingsProvider: CallSettingsProvider
 ) {
 
     private var localAudioTrack: LocalAudioTrack? = null
@@ -61,14 +67,25 @@ class LocalParticipantManager(
         }
     private var isAudioMuted = false
     private var isVideoMuted = false
+    private var isAudioOnly = false
+    private var isResumed = false
+    private var isCaptureDegraded = false
+    private var cameraCaptureResolutionIndex = 0
+    private var maxCaptureResolutionIndex: Int? = null
+    private val tracksPublishedOnConnect = mutableSetOf<Track>()
     internal val localVideoTrackNames: MutableMap<String, String> = HashMap()
+    val screenTrackSid: String?
+        get() = localParticipant?.localVideoTracks
+                ?.find { it.localVideoTrack == screenVideoTrack }?.trackSid
 
     fun onResume() {
+        isResumed = true
         if (!isAudioMuted) setupLocalAudioTrack()
-        if (!isVideoMuted) setupLocalVideoTrack()
+        if (!isVideoMuted && !isAudioOnly) setupLocalVideoTrack()
     }
 
     fun onPause() {
+        isResumed = false
         removeCameraTrack()
     }
 
@@ -78,6 +95,33 @@ class LocalParticipantManager(
             removeCameraTrack()
         } else {
             isVideoMuted = false
+            if (!isAudioOnly) setupLocalVideoTrack()
+        }
+    }
+
+    /*
+     * The camera is not captured at all in audio only mode, rather than just disabling the track,
+     * so that no CPU or bandwidth is spent on local video.
+     */
+    fun setAudioOnly(isAudioOnly: Boolean) {
+        if (this.isAudioOnly == isAudioOnly) return
+        this.isAudioOnly = isAudioOnly
+        if (isAudioOnly) {
+            removeCameraTrack()
+        } else if (isResumed && !isVideoMuted) {
+            setupLocalVideoTrack()
+        }
+    }
+
+    /*
+     * Captures at a lower resolution and frame rate to reduce the load on the device. The capture
+     * format can only be set when the track is created so an existing camera track is recreated.
+     */
+    fun setCaptureDegraded(isCaptureDegraded: Boolean) {
+        if (this.isCaptureDegraded == isCaptureDegraded) return
+        this.isCaptureDegraded = isCaptureDegraded
+        if (cameraVideoTrack != null) {
+            removeCameraTrack()
             setupLocalVideoTrack()
         }
     }
@@ -116,8 +160,11 @@ class LocalParticipantManager(
         screenCapturer = ScreenCapturer(context, captureResultCode, captureIntent,
                 screenCapturerListener)
         screenCapturer?.let { screenCapturer ->
-            screenVideoTrack = LocalVideoTrack.create(context, true, screenCapturer,
-                    SCREEN_TRACK_NAME)
+            val capturer = if (callSettingsProvider.callSettings.isSkipUnchangedScreenFramesEnabled) {
+                ScreenShareCapturer(screenCapturer,
+                        ScreenFrameGate(SCREEN_MAX_FRAME_RATE, SCREEN_KEEP_ALIVE_INTERVAL_MS))
+            } else screenCapturer
+            screenVideoTrack = LocalVideoTrack.create(context, true, capturer, SCREEN_TRACK_NAME)
             screenVideoTrack?.let { screenVideoTrack ->
                 localVideoTrackNames[screenVideoTrack.name] =
                         context.getString(R.string.screen_video_track)
@@ -136,13 +183,51 @@ class LocalParticipantManager(
         }
     }
 
+    /*
+     * Creates the local tracks, if they do not exist yet, for the ConnectOptions of a Room that
+     * is being connected. Tracks published this way are skipped by publishLocalTracks. They are
+     * published with the default priority, since ConnectOptions has no publication options. The
+     * capture resolution can be capped for the call, in which case a larger camera track is
+     * recreated.
+     */
+    fun createConnectTracks(maxCaptureResolutionIndex: Int? = null): LocalTracks {
+        this.maxCaptureResolutionIndex = maxCaptureResolutionIndex
+        if (isResumed) {
+            setupLocalAudioTrack()
+            if (cameraVideoTrack != null && cameraCaptureResolutionIndex > captureResolutionIndex()) {
+                removeCameraTrack()
+            }
+            if (cameraVideoTrack == null && !isVideoMuted && !isAudioOnly) setupLocalVideoTrack()
+        }
+        val connectTracks = LocalTracks(
+                listOfNotNull(localAudioTrack.takeUnless { isAudioMuted }),
+                listOfNotNull(cameraVideoTrack.takeUnless { isVideoMuted || isAudioOnly }))
+        tracksPublishedOnConnect.clear()
+        tracksPublishedOnConnect.addAll(connectTracks.audioTracks)
+        tracksPublishedOnConnect.addAll(connectTracks.videoTracks)
+        return connectTracks
+    }
+
+    /*
+     * Forgets the tracks handed to the ConnectOptions of a connect attempt that failed, so that
+     * the next attempt publishes them again.
+     */
+    fun clearConnectTracks() {
+        tracksPublishedOnConnect.clear()
+    }
+
     fun publishLocalTracks() {
-        publishAudioTrack(localAudioTrack)
-        publishCameraTrack(cameraVideoTrack)
+        publishAudioTrack(localAudioTrack?.takeUnless { it in tracksPublishedOnConnect })
+        publishCameraTrack(cameraVideoTrack?.takeUnless { it in tracksPublishedOnConnect })
+        tracksPublishedOnConnect.clear()
     }
 
     fun switchCamera() = cameraCapturer?.switchCamera()
 
+    fun setEncodingParameters(encodingParameters: EncodingParameters) {
+        localParticipant?.setEncodingParameters(encodingParameters)
+    }
+
     private fun setupLocalAudioTrack() {
         if (localAudioTrack == null && !isAudioMuted) {
             localAudioTrack = LocalAudioTrack.create(context, true, MICROPHONE_TRACK_NAME)
@@ -172,17 +257,27 @@ class LocalParticipantManager(
     private fun unpublishTrack(localAudioTrack: LocalAudioTrack?) =
             localAudioTrack?.let { localParticipant?.unpublishTrack(it) }
 
+    private fun captureResolutionIndex(): Int {
+        val preferredIndex = callSettingsProvider.callSettings.videoCaptureResolutionIndex
+        return maxCaptureResolutionIndex?.let { min(it, preferredIndex) } ?: preferredIndex
+    }
+
     private fun setupLocalVideoTrack() {
-        val dimensionsIndex = sharedPreferences.get(VIDEO_CAPTURE_RESOLUTION,
-                VIDEO_CAPTURE_RESOLUTION_DEFAULT).toInt()
-        val videoFormat = VideoFormat(VIDEO_DIMENSIONS[dimensionsIndex], 30)
+        val dimensionsIndex = captureResolutionIndex()
+        cameraCaptureResolutionIndex = dimensionsIndex
+        val videoFormat = if (isCaptureDegraded) {
+            VideoFormat(VIDEO_DIMENSIONS[max(0, dimensionsIndex - 1)], DEGRADED_CAPTURE_FRAME_RATE)
+        } else {
+            VideoFormat(VIDEO_DIMENSIONS[dimensionsIndex], CAPTURE_FRAME_RATE)
+        }
 
-        cameraCapturer = CameraCapturerCompat.newInstance(context)
+        // A recreated track keeps capturing from the camera that was selected
+        cameraCapturer = CameraCapturerCompat.newInstance(context, cameraCapturer?.cameraId)
         cameraVideoTrack = cameraCapturer?.let { cameraCapturer ->
             LocalVideoTrack.create(
                     context,
                     true,
-                    cameraCapturer,
+                    withVideoProcessing(cameraCapturer),
                     videoFormat,
                     CAMERA_TRACK_NAME)
         }
@@ -194,6 +289,17 @@ class LocalParticipantManager(
         }
     }
 
+    /*
+     * The reference processors run on the capturer thread and are meant to measure the cost of
+     * processing frames on the CPU.
+     */
+    private fun withVideoProcessing(cameraCapturer: CameraCapturerCompat): VideoCapturer =
+            if (callSettingsProvider.callSettings.isCpuVideoProcessingEnabled) {
+                ProcessingVideoCapturer(cameraCapturer, VideoProcessingPipeline(listOf(
+                        CenterCropProcessor(4, 3),
+                        DownscaleProcessor(640, 480))))
+            } else cameraCapturer
+
     private fun removeCameraTrack() {
         cameraVideoTrack?.let { cameraVideoTrack ->
             unpublishTrack(cameraVideoTrack)
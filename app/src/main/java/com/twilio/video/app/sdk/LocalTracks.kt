@@ -0,0 +1,13 @@
+package com.twilio.video.app.sdk
+
+import com.twilio.video.LocalAudioTrack
+import com.twilio.video.LocalVideoTrack
+
+/*
+ * The local tracks that are handed to ConnectOptions so that they are published as part of the
+ * initial negotiation with the Room.
+ */
+data class LocalTracks(
+    val audioTracks: List<LocalAudioTrack> = emptyList(),
+    val videoTracks: List<LocalVideoTrack> = emptyList()
+)
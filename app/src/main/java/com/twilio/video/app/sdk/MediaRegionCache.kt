@@ -0,0 +1,34 @@
+package com.twilio.video.app.sdk
+
+import android.content.SharedPreferences
+import java.util.concurrent.TimeUnit
+
+const val MEDIA_REGION_PREFERENCES_NAME = "media_regions"
+private const val KEY_PREFIX = "region_"
+private val DEFAULT_TTL_MS = TimeUnit.HOURS.toMillis(24)
+
+/*
+ * Remembers the lowest latency region per network. Entries are stored as "region,timestamp"
+ * using wall clock time so that they survive restarts, and are ignored once older than the TTL.
+ */
+class MediaRegionCache(
+    private val sharedPreferences: SharedPreferences,
+    private val ttlMs: Long = DEFAULT_TTL_MS,
+    private val clock: () -> Long = System::currentTimeMillis
+) {
+
+    fun get(networkKey: String): String? {
+        val fields = sharedPreferences.getString(KEY_PREFIX + networkKey, null)
+                ?.split(",") ?: return null
+        if (fields.size != 2) return null
+        val timestampMs = fields[1].toLongOrNull() ?: return null
+        val ageMs = clock() - timestampMs
+        return if (ageMs in 0 until ttlMs) fields[0] else null
+    }
+
+    fun put(networkKey: String, region: String) {
+        sharedPreferences.edit()
+                .putString(KEY_PREFIX + networkKey, "$region,${clock()}")
+                .apply()
+    }
+}
@@ -0,0 +1,58 @@
+package com.twilio.video.app.sdk
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.withContext
+import kotlinx.coroutines.withTimeoutOrNull
+import timber.log.Timber
+
+private const val PROBE_BUDGET_MS = 2000L
+
+/*
+ * Selects the region with the lowest latency for the current network. The regions are probed in
+ * parallel the first time a network is seen and the result is cached, so repeat joins on the same
+ * network do not wait for the probes. The probes block, so they run outside of the caller and the
+ * selection only waits for the results that arrive within the probe budget. Returns null to fall
+ * back to the server default when the network is unknown or no region could be reached within the
+ * probe budget.
+ */
+class MediaRegionSelector(
+    private val probe: RegionLatencyProbe,
+    private val cache: MediaRegionCache,
+    private val networkKey: () -> String?,
+    private val regions: List<String> = MEDIA_REGIONS,
+    private val probeBudgetMs: Long = PROBE_BUDGET_MS,
+    private val ioDispatcher: CoroutineDispatcher = Dispatchers.IO
+) {
+
+    suspend fun selectRegion(): String? = withContext(ioDispatcher) {
+        val key = networkKey() ?: return@withContext null
+        cache.get(key) ?: probeRegions()?.also { region ->
+            Timber.i("Selected media region %s for network %s", region, key)
+            cache.put(key, region)
+        }
+    }
+
+    /*
+     * Probes that are still running when the budget runs out are not waited for. They finish in
+     * the background and their results are dropped.
+     */
+    private suspend fun probeRegions(): String? {
+        val results = Channel<Pair<String, Long?>>(regions.size)
+        val probeScope = CoroutineScope(ioDispatcher)
+        regions.forEach { region ->
+            probeScope.launch { results.send(region to probe.probe(region)) }
+        }
+        val latencies = mutableMapOf<String, Long>()
+        withTimeoutOrNull(probeBudgetMs) {
+            repeat(regions.size) {
+                val (region, latencyMs) = results.receive()
+                latencyMs?.let { latencies[region] = it }
+            }
+        }
+        return latencies.minByOrNull { it.value }?.key
+    }
+}
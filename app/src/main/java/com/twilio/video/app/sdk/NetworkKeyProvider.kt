@@ -0,0 +1,37 @@
+package com.twilio.video.app.sdk
+
+import android.content.Context
+import android.net.ConnectivityManager
+import android.net.wifi.WifiManager
+import android.telephony.TelephonyManager
+
+private const val UNKNOWN_SSID = "<unknown ssid>"
+
+/*
+ * Identifies the network the device is connected to by the Wi-Fi SSID or the mobile carrier
+ * (MCC and MNC). The SSID is only available with the location permission, otherwise all Wi-Fi
+ * networks share one key.
+ */
+class NetworkKeyProvider(context: Context) {
+
+    private val connectivityManager =
+            context.getSystemService(Context.CONNECTIVITY_SERVICE) as ConnectivityManager
+    private val wifiManager =
+            context.applicationContext.getSystemService(Context.WIFI_SERVICE) as WifiManager
+    private val telephonyManager =
+            context.getSystemService(Context.TELEPHONY_SERVICE) as TelephonyManager
+
+    @Suppress("DEPRECATION")
+    fun currentNetworkKey(): String? {
+        val networkInfo = connectivityManager.activeNetworkInfo
+                ?.takeIf { it.isConnected } ?: return null
+        return when (networkInfo.type) {
+            ConnectivityManager.TYPE_WIFI -> {
+                val ssid = wifiManager.connectionInfo?.ssid?.trim('"')
+                if (ssid.isNullOrEmpty() || ssid == UNKNOWN_SSID) "wifi" else "wifi:$ssid"
+            }
+            ConnectivityManager.TYPE_MOBILE -> "cell:${telephonyManager.networkOperator}"
+            else -> "other:${networkInfo.typeName}"
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.twilio.video.app.sdk
+
+import android.os.SystemClock
+import java.io.IOException
+import java.net.HttpURLConnection
+import java.net.URL
+import timber.log.Timber
+
+private const val PROBE_PAYLOAD_BYTES = 256 * 1024
+private const val PROBE_TIMEOUT_MS = 3000
+
+/*
+ * An estimate of the link to the media servers. Throughputs are in Kbps to match the bitrate
+ * preferences.
+ */
+data class NetworkEstimate(val roundTripTimeMs: Long, val downlinkKbps: Int, val uplinkKbps: Int)
+
+interface NetworkProbe {
+
+    /*
+     * Estimates the link to the endpoint, or returns null if it could not be reached. This blocks
+     * so it should not be called from the main thread.
+     */
+    fun probe(endpoint: String): NetworkEstimate?
+}
+
+/*
+ * Estimates the round trip time with a HEAD request, the downlink by downloading
+ * "<endpoint>?bytes=<count>" and the uplink by posting the same number of bytes to the endpoint.
+ * The first request warms up the connection so that DNS and TLS setup are not measured.
+ */
+class HttpNetworkProbe(
+    private val payloadBytes: Int = PROBE_PAYLOAD_BYTES,
+    private val timeoutMs: Int = PROBE_TIMEOUT_MS,
+    private val clock: () -> Long = SystemClock::elapsedRealtime
+) : NetworkProbe {
+
+    override fun probe(endpoint: String): NetworkEstimate? {
+        return try {
+            val url = URL(endpoint)
+            request(url, "HEAD")
+            val roundTripTimeMs = measure { request(url, "HEAD") }
+            val downloadMs = measure {
+                request(URL("$endpoint?bytes=$payloadBytes"), "GET")
+            }
+            val uploadMs = measure { request(url, "POST", ByteArray(payloadBytes)) }
+            NetworkEstimate(roundTripTimeMs,
+                    toKbps(downloadMs - roundTripTimeMs),
+                    toKbps(uploadMs - roundTripTimeMs))
+        } catch (e: IOException) {
+            Timber.d(e, "Failed to probe the network")
+            null
+        }
+    }
+
+    private inline fun measure(block: () -> Unit): Long {
+        val startMs = clock()
+        block()
+        return clock() - startMs
+    }
+
+    private fun toKbps(elapsedMs: Long) = (payloadBytes * 8L / elapsedMs.coerceAtLeast(1)).toInt()
+
+    private fun request(url: URL, method: String, body: ByteArray? = null) {
+        val connection = url.openConnection() as HttpURLConnection
+        try {
+            connection.requestMethod = method
+            connection.connectTimeout = timeoutMs
+            connection.readTimeout = timeoutMs
+            body?.let {
+                connection.doOutput = true
+                connection.setFixedLengthStreamingMode(it.size)
+                connection.outputStream.use { outputStream -> outputStream.write(it) }
+            }
+            if (connection.responseCode >= HttpURLConnection.HTTP_BAD_REQUEST) {
+                throw IOException("HTTP ${connection.responseCode}")
+            }
+            if (method == "GET") {
+                connection.inputStream.use { inputStream ->
+                    val buffer = ByteArray(8192)
+                    while (inputStream.read(buffer) != -1) {}
+                }
+            }
+        } finally {
+            connection.disconnect()
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.twilio.video.app.sdk
+
+import android.os.SystemClock
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.launch
+import timber.log.Timber
+
+private val ESTIMATE_TTL_MS = TimeUnit.MINUTES.toMillis(5)
+private val FAILURE_BACKOFF_MS = TimeUnit.MINUTES.toMillis(1)
+
+/*
+ * Probes the network from the lobby so that the initial media settings of the next call can be
+ * seeded from the link rather than from static preferences. The probe is optional and only runs
+ * when a probe URL is configured. An estimate is used for five minutes and only on the network it
+ * was made on. After a failed probe the network is not probed again for a minute.
+ */
+class PreConnectProbe(
+    private val callSettingsProvider: CallSettingsProvider,
+    private val networkProbe: NetworkProbe,
+    private val networkKey: () -> String?,
+    private val coroutineScope: CoroutineScope = CoroutineScope(Dispatchers.IO),
+    private val clock: () -> Long = SystemClock::elapsedRealtime
+) {
+
+    private class Result(val networkKey: String?, val estimate: NetworkEstimate?, val timestampMs: Long)
+
+    @Volatile
+    private var result: Result? = null
+    private val isProbing = AtomicBoolean(false)
+
+    val estimate: NetworkEstimate?
+        get() = currentResult?.estimate
+
+    private val currentResult: Result?
+        get() = result?.takeIf {
+            val ttlMs = if (it.estimate != null) ESTIMATE_TTL_MS else FAILURE_BACKOFF_MS
+            clock() - it.timestampMs < ttlMs && it.networkKey == networkKey()
+        }
+
+    fun probeInBackground() {
+        val endpoint = callSettingsProvider.callSettings.networkProbeUrl ?: return
+        if (currentResult != null || !isProbing.compareAndSet(false, true)) return
+        coroutineScope.launch {
+            var estimate: NetworkEstimate? = null
+            try {
+                estimate = networkProbe.probe(endpoint)
+                Timber.i("Network estimate: %s", estimate)
+            } finally {
+                result = Result(networkKey(), estimate, clock())
+                isProbing.set(false)
+            }
+        }
+    }
+
+    fun getInitialMediaSettings(callSettings: CallSettings) =
+            estimate?.let { InitialMediaSettings.from(it, callSettings) }
+}
@@ -0,0 +1,77 @@
+package com.twilio.video.app.sdk
+
+import android.content.Context
+import com.twilio.video.VideoCapturer
+import java.util.concurrent.TimeUnit
+import timber.log.Timber
+import tvi.webrtc.CapturerObserver
+import tvi.webrtc.JavaI420Buffer
+import tvi.webrtc.SurfaceTextureHelper
+import tvi.webrtc.VideoFrame
+
+/*
+ * Passes the frames of the delegate capturer through a VideoProcessingPipeline before they reach
+ * the LocalVideoTrack. Frames are only converted to I420 when the pipeline has processors, and
+ * processed frames are handed to the SDK in pooled buffers that return to the pool on release.
+ */
+class ProcessingVideoCapturer(
+    private val delegate: VideoCapturer,
+    private val pipeline: VideoProcessingPipeline
+) : VideoCapturer {
+
+    override fun initialize(
+        surfaceTextureHelper: SurfaceTextureHelper,
+        context: Context,
+        capturerObserver: CapturerObserver
+    ) {
+        delegate.initialize(surfaceTextureHelper, context,
+                ProcessingCapturerObserver(capturerObserver))
+    }
+
+    override fun startCapture(width: Int, height: Int, framerate: Int) =
+            delegate.startCapture(width, height, framerate)
+
+    override fun stopCapture() {
+        delegate.stopCapture()
+        pipeline.stageMetrics.forEach {
+            Timber.i("Video processing stage %s: %d frames, average %d us, max %d us", it.name,
+                    it.frameCount, TimeUnit.NANOSECONDS.toMicros(it.averageNs),
+                    TimeUnit.NANOSECONDS.toMicros(it.maxNs))
+        }
+    }
+
+    override fun isScreencast() = delegate.isScreencast
+
+    private inner class ProcessingCapturerObserver(
+        private val capturerObserver: CapturerObserver
+    ) : CapturerObserver {
+
+        override fun onCapturerStarted(success: Boolean) =
+                capturerObserver.onCapturerStarted(success)
+
+        override fun onCapturerStopped() = capturerObserver.onCapturerStopped()
+
+        override fun onFrameCaptured(videoFrame: VideoFrame) {
+            if (pipeline.isEmpty) {
+                capturerObserver.onFrameCaptured(videoFrame)
+                return
+            }
+
+            val i420Buffer = videoFrame.buffer.toI420()
+            val input = i420Buffer.run {
+                I420Frame(width, height, dataY, strideY, dataU, strideU, dataV, strideV)
+            }
+            val output = pipeline.process(input)
+            val buffer = if (output === input) i420Buffer else {
+                i420Buffer.release()
+                output.run {
+                    JavaI420Buffer.wrap(width, height, dataY, strideY, dataU, strideU, dataV,
+                            strideV) { pipeline.framePool.release(output) }
+                }
+            }
+            val processedFrame = VideoFrame(buffer, videoFrame.rotation, videoFrame.timestampNs)
+            capturerObserver.onFrameCaptured(processedFrame)
+            processedFrame.release()
+        }
+    }
+}
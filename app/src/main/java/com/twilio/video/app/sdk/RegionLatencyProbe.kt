@@ -0,0 +1,64 @@
+package com.twilio.video.app.sdk
+
+import android.os.SystemClock
+import java.io.IOException
+import java.net.HttpURLConnection
+import java.net.URL
+import timber.log.Timber
+
+/*
+ * The regions that can be selected for the signaling and media servers of a Room.
+ */
+val MEDIA_REGIONS = listOf("us1", "us2", "ie1", "de1", "br1", "au1", "jp1", "sg1", "in1")
+
+const val REGION_PROBE_URL_TEMPLATE = "https://%s.vss.twilio.com"
+private const val REGION_PROBE_TIMEOUT_MS = 1500
+
+fun defaultRegionProbeEndpoints() =
+        MEDIA_REGIONS.associateWith { REGION_PROBE_URL_TEMPLATE.format(it) }
+
+interface RegionLatencyProbe {
+
+    /*
+     * Returns the round trip time to the region in milliseconds, or null if it could not be
+     * reached. This blocks so it should not be called from the main thread.
+     */
+    fun probe(region: String): Long?
+}
+
+/*
+ * Measures the time of a HEAD request to the signaling endpoint of each region. The endpoints are
+ * configurable so that tests can point them to a local server. The request is made twice and the
+ * second one is measured so that DNS and TLS setup are not part of the latency.
+ */
+class HttpRegionLatencyProbe(
+    private val endpoints: Map<String, String> = defaultRegionProbeEndpoints(),
+    private val timeoutMs: Int = REGION_PROBE_TIMEOUT_MS,
+    private val clock: () -> Long = SystemClock::elapsedRealtime
+) : RegionLatencyProbe {
+
+    override fun probe(region: String): Long? {
+        val url = endpoints[region]?.let { URL(it) } ?: return null
+        return try {
+            request(url)
+            val startMs = clock()
+            request(url)
+            clock() - startMs
+        } catch (e: IOException) {
+            Timber.d(e, "Failed to probe region %s", region)
+            null
+        }
+    }
+
+    private fun request(url: URL) {
+        val connection = url.openConnection() as HttpURLConnection
+        try {
+            connection.requestMethod = "HEAD"
+            connection.connectTimeout = timeoutMs
+            connection.readTimeout = timeoutMs
+            connection.responseCode
+        } finally {
+            connection.disconnect()
+        }
+    }
+}
@@ -14,21 +14,26 @@ import com.twilio.video.app.ui.room.RoomEvent.RemoteParticipantEvent.NetworkQual
 import com.twilio.video.app.ui.room.RoomEvent.RemoteParticipantEvent.ScreenTrackUpdated
 import com.twilio.video.app.ui.room.RoomEvent.RemoteParticipantEvent.TrackSwitchOff
 import com.twilio.video.app.ui.room.RoomEvent.RemoteParticipantEvent.VideoTrackUpdated
+import com.twilio.video.app.util.Logger
 import timber.log.Timber
 
 class RemoteParticipantListener(private val roomManager: RoomManager) : RemoteParticipant.Listener {
 
     override fun onVideoTrackSwitchedOff(remoteParticipant: RemoteParticipant, remoteVideoTrack: RemoteVideoTrack) {
-        Timber.i("RemoteVideoTrack switched off for RemoteParticipant sid: %s, RemoteVideoTrack sid: %s",
-                remoteParticipant.sid, remoteVideoTrack.sid)
+        Logger.d {
+            "RemoteVideoTrack switched off for RemoteParticipant sid: ${remoteParticipant.sid}, " +
+                    "RemoteVideoTrack sid: ${remoteVideoTrack.sid}"
+        }
 
         roomManager.sendRoomEvent(TrackSwitchOff(remoteParticipant.sid, remoteVideoTrack,
                 true))
     }
 
     override fun onVideoTrackSwitchedOn(remoteParticipant: RemoteParticipant, remoteVideoTrack: RemoteVideoTrack) {
-        Timber.i("RemoteVideoTrack switched on for RemoteParticipant sid: %s, RemoteVideoTrack sid: %s",
-                remoteParticipant.sid, remoteVideoTrack.sid)
+        Logger.d {
+            "RemoteVideoTrack switched on for RemoteParticipant sid: ${remoteParticipant.sid}, " +
+                    "RemoteVideoTrack sid: ${remoteVideoTrack.sid}"
+        }
 
         roomManager.sendRoomEvent(TrackSwitchOff(remoteParticipant.sid, remoteVideoTrack,
                 false))
@@ -55,8 +60,10 @@ class RemoteParticipantListener(private val roomManager: RoomManager) : RemotePa
     }
 
     override fun onNetworkQualityLevelChanged(remoteParticipant: RemoteParticipant, networkQualityLevel: NetworkQualityLevel) {
-        Timber.i("RemoteParticipant NetworkQualityLevel changed for RemoteParticipant sid: %s, NetworkQualityLevel: %s",
-                remoteParticipant.sid, networkQualityLevel)
+        Logger.d {
+            "RemoteParticipant NetworkQualityLevel changed for RemoteParticipant sid: " +
+                    "${remoteParticipant.sid}, NetworkQualityLevel: $networkQualityLevel"
+        }
 
         roomManager.sendRoomEvent(NetworkQualityLevelChange(remoteParticipant.sid,
                 networkQualityLevel))
@@ -2,9 +2,11 @@ package com.twilio.video.app.sdk
 
 import android.content.Context
 import android.content.Intent
-import android.content.SharedPreferences
+import android.os.SystemClock
 import androidx.annotation.VisibleForTesting
 import androidx.annotation.VisibleForTesting.PRIVATE
+import com.twilio.video.EncodingParameters
+import com.twilio.video.NetworkQualityLevel
 import com.twilio.video.Participant
 import com.twilio.video.RemoteParticipant
 import com.twilio.video.Room
@@ -13,20 +15,30 @@ import com.twilio.video.TwilioException
 import com.twilio.video.TwilioException.ROOM_MAX_PARTICIPANTS_EXCEEDED_EXCEPTION
 import com.twilio.video.app.data.api.AuthServiceError
 import com.twilio.video.app.data.api.AuthServiceException
+import com.twilio.video.app.ui.room.MediaMode
 import com.twilio.video.app.ui.room.RoomEvent
+import com.twilio.video.app.ui.room.RoomEvent.AudioOnlyModeChanged
 import com.twilio.video.app.ui.room.RoomEvent.ConnectFailure
 import com.twilio.video.app.ui.room.RoomEvent.Connected
 import com.twilio.video.app.ui.room.RoomEvent.Connecting
+import com.twilio.video.app.ui.room.RoomEvent.DegradationLevelChanged
 import com.twilio.video.app.ui.room.RoomEvent.Disconnected
 import com.twilio.video.app.ui.room.RoomEvent.DominantSpeakerChanged
 import com.twilio.video.app.ui.room.RoomEvent.MaxParticipantFailure
 import com.twilio.video.app.ui.room.RoomEvent.RemoteParticipantEvent.RemoteParticipantConnected
 import com.twilio.video.app.ui.room.RoomEvent.RemoteParticipantEvent.RemoteParticipantDisconnected
+import com.twilio.video.app.ui.room.RoomEvent.SpeakingParticipantsChanged
 import com.twilio.video.app.ui.room.RoomEvent.StatsUpdate
 import com.twilio.video.app.ui.room.VideoService.Companion.startService
 import com.twilio.video.app.ui.room.VideoService.Companion.stopService
 import io.reactivex.Observable
 import io.reactivex.subjects.PublishSubject
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.async
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.launch
 import timber.log.Timber
 
 const val MICROPHONE_TRACK_NAME = "microphone"
@@ -36,26 +48,59 @@ const val SCREEN_TRACK_NAME = "screen"
 class RoomManager(
     private val context: Context,
     private val videoClient: VideoClient,
-    sharedPreferences: SharedPreferences
+    private val callSettingsProvider: CallSettingsProvider,
+    private val clock: () -> Long = SystemClock::elapsedRealtime,
+    private val mainDispatcher: CoroutineDispatcher = Dispatchers.Main,
+    private val preConnectProbe: PreConnectProbe? = null
 ) {
 
     private var statsScheduler: StatsScheduler? = null
+    private var encodingParametersController: EncodingParametersController? = null
+    private val participantCounts = mutableMapOf<String, Int>()
+    private val audioOnlyModePolicy = AudioOnlyModePolicy()
+    private val degradationController = DegradationController()
+    private var deviceConditionsMonitor: DeviceConditionsMonitor? = null
+    private var isDegradedToAudioOnly = false
+    @Volatile private var mediaMode = MediaMode.FOREGROUND
+    private val mainScope = CoroutineScope(mainDispatcher)
     private val roomListener = RoomListener()
     private val roomEventSubject = PublishSubject.create<RoomEvent>()
+    @Volatile private var connectStartMs: Long? = null
+    private var initialMediaSettings: InitialMediaSettings? = null
     @VisibleForTesting(otherwise = PRIVATE)
     internal var localParticipantManager: LocalParticipantManager =
-            LocalParticipantManager(context, this, sharedPreferences)
+            LocalParticipantManager(context, this, callSettingsProvider)
     var room: Room? = null
     val roomEvents: Observable<RoomEvent> = roomEventSubject
+    @Volatile var isAudioOnly = false
+        private set
 
     fun disconnect() {
         room?.disconnect()
     }
 
+    /*
+     * The local tracks are created on the main thread while the token is fetched and are passed
+     * to the ConnectOptions, so that media is part of the initial negotiation.
+     */
     suspend fun connect(identity: String, roomName: String) {
         roomEventSubject.onNext(Connecting)
+        connectStartMs = clock()
+        val callSettings = callSettingsProvider.callSettings
+        val initialMediaSettings = preConnectProbe?.getInitialMediaSettings(callSettings)
+                ?.also { Timber.i("Seeding initial media settings: %s", it) }
+        this.initialMediaSettings = initialMediaSettings
         room = try {
-            videoClient.connect(identity, roomName, roomListener)
+            coroutineScope {
+                val localTracks = if (callSettings.isPublishTracksOnConnectEnabled) {
+                    async(mainDispatcher) {
+                        localParticipantManager.createConnectTracks(
+                                initialMediaSettings?.captureResolutionIndex)
+                    }
+                } else null
+                videoClient.connect(identity, roomName, roomListener, participantCounts[roomName],
+                        isAudioOnly, localTracks, initialMediaSettings)
+            }
         } catch (e: AuthServiceException) {
             handleTokenException(e, e.error)
         } catch (e: Exception) {
@@ -63,12 +108,34 @@ class RoomManager(
         }
     }
 
+    /*
+     * Logs the time from connect until the camera track is published, which is when the first
+     * local frame can be seen by the other participants.
+     */
+    fun onLocalVideoTrackPublished(trackName: String) {
+        if (trackName != CAMERA_TRACK_NAME) return
+        connectStartMs?.let { startMs ->
+            connectStartMs = null
+            Timber.i("Camera track published %d ms after connect, published on connect: %s",
+                    clock() - startMs,
+                    callSettingsProvider.callSettings.isPublishTracksOnConnectEnabled)
+        }
+    }
+
+    /*
+     * Probes the network from the lobby to seed the media settings of the next call.
+     */
+    fun probeNetwork() {
+        preConnectProbe?.probeInBackground()
+    }
+
     fun sendRoomEvent(roomEvent: RoomEvent) {
         roomEventSubject.onNext(roomEvent)
     }
 
     private fun handleTokenException(e: Exception, error: AuthServiceError? = null): Room? {
         Timber.e(e, "Failed to retrieve token")
+        localParticipantManager.clearConnectTracks()
         roomEventSubject.onNext(RoomEvent.TokenError(serviceError = error))
         return null
     }
@@ -99,6 +166,78 @@ class RoomManager(
 
     fun switchCamera() = localParticipantManager.switchCamera()
 
+    fun enableAudioOnlyMode() {
+        audioOnlyModePolicy.onManualChange()
+        isDegradedToAudioOnly = false
+        setAudioOnly(true)
+    }
+
+    fun disableAudioOnlyMode() {
+        audioOnlyModePolicy.onManualChange()
+        isDegradedToAudioOnly = false
+        setAudioOnly(false)
+    }
+
+    fun changeMediaMode(mediaMode: MediaMode) {
+        this.mediaMode = mediaMode
+        updateAudioLevelPolling()
+    }
+
+    fun onLocalNetworkQualityLevelChanged(networkQualityLevel: NetworkQualityLevel) {
+        if (!callSettingsProvider.callSettings.isAutomaticAudioOnlyEnabled) return
+        audioOnlyModePolicy.onNetworkQualityLevel(networkQualityLevel, isAudioOnly,
+                clock())?.let { setAudioOnly(it, isAutomatic = true) }
+    }
+
+    private fun createDeviceConditionsMonitor(): DeviceConditionsMonitor? {
+        return if (callSettingsProvider.callSettings.isThermalDegradationEnabled) {
+            DeviceConditionsMonitor(context) { deviceConditions ->
+                degradationController.update(deviceConditions, clock())
+                        ?.let { applyDegradationLevel(it) }
+            }
+        } else null
+    }
+
+    private fun applyDegradationLevel(degradationLevel: DegradationLevel) {
+        Timber.i("Applying degradation level %s", degradationLevel)
+        localParticipantManager.setCaptureDegraded(
+                degradationLevel >= DegradationLevel.REDUCED_CAPTURE)
+        statsScheduler?.pollingIntervalMs =
+                if (degradationLevel >= DegradationLevel.REDUCED_STATS) {
+                    DEGRADED_STATS_POLLING_INTERVAL_MS
+                } else STATS_POLLING_INTERVAL_MS
+        updateAudioLevelPolling()
+        if (degradationLevel >= DegradationLevel.AUDIO_ONLY && !isAudioOnly) {
+            isDegradedToAudioOnly = true
+            setAudioOnly(true, isAutomatic = true)
+        } else if (degradationLevel < DegradationLevel.AUDIO_ONLY && isDegradedToAudioOnly) {
+            isDegradedToAudioOnly = false
+            setAudioOnly(false)
+        }
+        // Thumbnail render rate degradation is applied by the view
+        sendRoomEvent(DegradationLevelChanged(degradationLevel))
+    }
+
+    private fun setAudioOnly(isAudioOnly: Boolean, isAutomatic: Boolean = false) {
+        if (this.isAudioOnly == isAudioOnly) return
+        Timber.i("Audio only mode %s, automatic: %s",
+                if (isAudioOnly) "enabled" else "disabled", isAutomatic)
+        this.isAudioOnly = isAudioOnly
+        localParticipantManager.setAudioOnly(isAudioOnly)
+        updateAudioLevelPolling()
+        sendRoomEvent(AudioOnlyModeChanged(isAudioOnly, isAutomatic))
+    }
+
+    /*
+     * The speaking participants are only detected while their thumbnails are shown and the call is
+     * not degraded, otherwise the stats are polled at the regular interval.
+     */
+    private fun updateAudioLevelPolling() {
+        statsScheduler?.isAudioLevelPollingEnabled = mediaMode == MediaMode.FOREGROUND &&
+                !isAudioOnly &&
+                degradationController.level < DegradationLevel.REDUCED_STATS
+    }
+
     fun sendStatsUpdate(statsReports: List<StatsReport>) {
         room?.let { room ->
             val roomStats = RoomStats(
@@ -108,6 +247,57 @@ class RoomManager(
             )
             sendRoomEvent(StatsUpdate(roomStats))
         }
+        updateEncodingParameters(statsReports)
+    }
+
+    /*
+     * Called from the stats thread with the audio tracks that are speaking. The SDK updates the
+     * Room on the main thread, so the tracks are mapped to their participants there before the
+     * event is sent.
+     */
+    fun sendSpeakingTracks(speakingTrackSids: Set<String>) {
+        mainScope.launch {
+            sendRoomEvent(SpeakingParticipantsChanged(
+                    findAudioTrackParticipantSids(speakingTrackSids)))
+        }
+    }
+
+    private fun findAudioTrackParticipantSids(audioTrackSids: Set<String>): Set<String> {
+        val room = room ?: return emptySet()
+        val participants = listOfNotNull(room.localParticipant) + room.remoteParticipants
+        return participants.filter { participant ->
+            participant.audioTracks.any { it.trackSid in audioTrackSids }
+        }.map { it.sid }.toSet()
+    }
+
+    private fun updateEncodingParameters(statsReports: List<StatsReport>) {
+        encodingParametersController?.let { controller ->
+            statsReports.toSenderStats(localParticipantManager.screenTrackSid)?.let { senderStats ->
+                controller.onSenderStats(senderStats, clock())?.let {
+                    localParticipantManager.setEncodingParameters(
+                            EncodingParameters(it.maxAudioBitrate, it.maxVideoBitrate))
+                }
+            }
+        }
+    }
+
+    /*
+     * Remembers the largest participant count seen per Room so that a subsequent connect to the
+     * same Room can select codecs based on the expected Room size.
+     */
+    private fun updateParticipantCount(room: Room) {
+        val participantCount = room.remoteParticipants.size + 1
+        participantCounts[room.name] = maxOf(participantCount, participantCounts[room.name] ?: 0)
+    }
+
+    private fun createEncodingParametersController(): EncodingParametersController? {
+        val callSettings = callSettingsProvider.callSettings
+        return if (callSettings.isAdaptiveEncodingEnabled) {
+            EncodingParametersController(
+                    callSettings.maxAudioBitrate,
+                    callSettings.maxVideoBitrate,
+                    initialVideoBitrate = initialMediaSettings?.maxVideoBitrate)
+        } else null
     }
 
     fun enableLocalAudio() = localParticipantManager.enableLocalAudio()
@@ -127,7 +317,14 @@ class RoomManager(
 
             setupParticipants(room)
 
-            statsScheduler = StatsScheduler(this@RoomManager, room).apply { start() }
+            encodingParametersController = createEncodingParametersController()
+            statsScheduler = StatsScheduler(this@RoomManager, room,
+                    if (callSettingsProvider.callSettings.isLocalSpeakerDetectionEnabled) {
+                        SpeakerDetector()
+                    } else null)
+            updateAudioLevelPolling()
+            statsScheduler?.start()
+            deviceConditionsMonitor = createDeviceConditionsMonitor()?.apply { start() }
         }
 
         override fun onDisconnected(room: Room, twilioException: TwilioException?) {
@@ -139,12 +336,26 @@ class RoomManager(
             roomEventSubject.onNext(Disconnected)
 
             localParticipantManager.localParticipant = null
+            connectStartMs = null
 
             statsScheduler?.stop()
             statsScheduler = null
+            encodingParametersController = null
+            deviceConditionsMonitor?.stop()
+            deviceConditionsMonitor = null
+            if (degradationController.level != DegradationLevel.NONE) {
+                degradationController.reset()
+                applyDegradationLevel(DegradationLevel.NONE)
+            }
+
+            // Audio only mode, automatic or not, only applies to the call it was entered in
+            setAudioOnly(false)
+            audioOnlyModePolicy.reset()
         }
 
         override fun onConnectFailure(room: Room, twilioException: TwilioException) {
+            connectStartMs = null
+            localParticipantManager.clearConnectTracks()
             Timber.e(
                     "Failed to connect to room -> sid: %s, state: %s, code: %d, error: %s",
                     room.sid,
@@ -164,6 +375,7 @@ class RoomManager(
                     room.sid, remoteParticipant.sid)
 
             remoteParticipant.setListener(RemoteParticipantListener(this@RoomManager))
+            updateParticipantCount(room)
             sendRoomEvent(RemoteParticipantConnected(remoteParticipant))
         }
 
@@ -205,6 +417,7 @@ class RoomManager(
                     participants.add(it)
                 }
 
+                updateParticipantCount(room)
                 roomEventSubject.onNext(Connected(participants, room, room.name))
                 localParticipantManager.publishLocalTracks()
             }
@@ -0,0 +1,86 @@
+package com.twilio.video.app.sdk
+
+import com.twilio.video.app.util.FrameRateLimiter
+import java.util.concurrent.TimeUnit
+
+private const val FNV_OFFSET_BASIS = -0x340d631b7bdddcdbL
+private const val FNV_PRIME = 0x100000001b3L
+
+/*
+ * Decides which screen share frames reach the encoder. Changed frames are forwarded at up to
+ * maxFrameRate and deferred in between, so that the last change always goes out. Unchanged frames
+ * are dropped except for one every keepAliveIntervalMs that keeps the track from being seen as
+ * stalled. Frames are identified by a hash of their content, see lumaHash.
+ */
+class ScreenFrameGate(
+    maxFrameRate: Int = 15,
+    keepAliveIntervalMs: Long = 1000
+) {
+
+    enum class Decision { FORWARD, DEFER, DROP }
+
+    private val frameRateLimiter = FrameRateLimiter(maxFrameRate)
+    private val keepAliveIntervalNs = TimeUnit.MILLISECONDS.toNanos(keepAliveIntervalMs)
+    private var lastForwardedHash = 0L
+
+    var forwardedFrameCount = 0L
+        private set
+    var droppedFrameCount = 0L
+        private set
+
+    fun onFrame(hash: Long, timestampNs: Long): Decision {
+        val isNewSession = frameRateLimiter.isNewSource(timestampNs)
+        val isChanged = isNewSession || hash != lastForwardedHash
+        val decision = when {
+            isNewSession -> Decision.FORWARD
+            isChanged && frameRateLimiter.isFrameDue(timestampNs) -> Decision.FORWARD
+            isChanged -> Decision.DEFER
+            frameRateLimiter.elapsedNs(timestampNs) >= keepAliveIntervalNs -> Decision.FORWARD
+            else -> Decision.DROP
+        }
+        when (decision) {
+            Decision.FORWARD -> onForwarded(hash, timestampNs)
+            Decision.DROP -> droppedFrameCount++
+            Decision.DEFER -> Unit
+        }
+        return decision
+    }
+
+    /*
+     * Records a deferred frame that was forwarded later on.
+     */
+    fun onForwarded(hash: Long, timestampNs: Long) {
+        frameRateLimiter.onFrame(timestampNs)
+        lastForwardedHash = hash
+        forwardedFrameCount++
+    }
+
+    /*
+     * Records a deferred frame that was replaced by a newer one before it could be forwarded.
+     */
+    fun onDeferredDropped() {
+        droppedFrameCount++
+    }
+
+    /*
+     * How long after the frame with the given timestamp a deferred frame can be forwarded.
+     */
+    fun deferralNs(timestampNs: Long) = frameRateLimiter.delayNs(timestampNs)
+}
+
+/*
+ * A 64 bit FNV-1a hash of every rowStep-th row of the luma plane. Rows are hashed in full, so a
+ * change as small as a typed character is seen as long as it spans rowStep rows.
+ */
+fun I420Frame.lumaHash(rowStep: Int = 2): Long {
+    var hash = FNV_OFFSET_BASIS
+    var row = 0
+    while (row < height) {
+        val offset = row * strideY
+        for (column in 0 until width) {
+            hash = (hash xor (dataY.get(offset + column).toLong() and 0xff)) * FNV_PRIME
+        }
+        row += rowStep
+    }
+    return hash
+}
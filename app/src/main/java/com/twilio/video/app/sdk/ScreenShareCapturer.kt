@@ -0,0 +1,111 @@
+package com.twilio.video.app.sdk
+
+import android.content.Context
+import android.os.Handler
+import com.twilio.video.VideoCapturer
+import java.util.concurrent.TimeUnit
+import timber.log.Timber
+import tvi.webrtc.CapturerObserver
+import tvi.webrtc.SurfaceTextureHelper
+import tvi.webrtc.VideoFrame
+
+private const val HASH_MAX_WIDTH = 640
+
+/*
+ * Skips the screen share frames that did not change, so that static content such as slides is
+ * not captured and encoded over and over, see ScreenFrameGate. Frames are compared by hashing a
+ * downscaled I420 copy. A deferred frame is retained and forwarded from the capture thread once
+ * the frame interval has passed.
+ */
+class ScreenShareCapturer(
+    private val delegate: VideoCapturer,
+    private val frameGate: ScreenFrameGate = ScreenFrameGate()
+) : VideoCapturer {
+
+    private var handler: Handler? = null
+    private var capturerObserver: CapturerObserver? = null
+    private var deferredFrame: VideoFrame? = null
+    private var deferredHash = 0L
+    private val forwardDeferredFrame = Runnable {
+        deferredFrame?.let { videoFrame ->
+            deferredFrame = null
+            frameGate.onForwarded(deferredHash, videoFrame.timestampNs)
+            capturerObserver?.onFrameCaptured(videoFrame)
+            videoFrame.release()
+        }
+    }
+
+    override fun initialize(
+        surfaceTextureHelper: SurfaceTextureHelper,
+        context: Context,
+        capturerObserver: CapturerObserver
+    ) {
+        handler = surfaceTextureHelper.handler
+        this.capturerObserver = capturerObserver
+        delegate.initialize(surfaceTextureHelper, context, GatingCapturerObserver(capturerObserver))
+    }
+
+    override fun startCapture(width: Int, height: Int, framerate: Int) =
+            delegate.startCapture(width, height, framerate)
+
+    override fun stopCapture() {
+        delegate.stopCapture()
+        handler?.post {
+            handler?.removeCallbacks(forwardDeferredFrame)
+            deferredFrame?.release()
+            deferredFrame = null
+        }
+        Timber.i("Screen share frames forwarded: %d, dropped: %d",
+                frameGate.forwardedFrameCount, frameGate.droppedFrameCount)
+    }
+
+    override fun isScreencast() = true
+
+    private fun VideoFrame.lumaHash(): Long {
+        val scale = minOf(1f, HASH_MAX_WIDTH.toFloat() / buffer.width)
+        val scaledBuffer = buffer.cropAndScale(0, 0, buffer.width, buffer.height,
+                (buffer.width * scale).toInt(), (buffer.height * scale).toInt())
+        val i420Buffer = scaledBuffer.toI420()
+        scaledBuffer.release()
+        return i420Buffer.run {
+            I420Frame(width, height, dataY, strideY, dataU, strideU, dataV, strideV).lumaHash()
+                    .also { release() }
+        }
+    }
+
+    private inner class GatingCapturerObserver(
+        private val capturerObserver: CapturerObserver
+    ) : CapturerObserver {
+
+        override fun onCapturerStarted(success: Boolean) =
+                capturerObserver.onCapturerStarted(success)
+
+        override fun onCapturerStopped() = capturerObserver.onCapturerStopped()
+
+        override fun onFrameCaptured(videoFrame: VideoFrame) {
+            val hash = videoFrame.lumaHash()
+            when (frameGate.onFrame(hash, videoFrame.timestampNs)) {
+                ScreenFrameGate.Decision.FORWARD -> {
+                    deferredFrame?.let {
+                        handler?.removeCallbacks(forwardDeferredFrame)
+                        frameGate.onDeferredDropped()
+                        it.release()
+                        deferredFrame = null
+                    }
+                    capturerObserver.onFrameCaptured(videoFrame)
+                }
+                ScreenFrameGate.Decision.DEFER -> {
+                    deferredFrame?.let {
+                        frameGate.onDeferredDropped()
+                        it.release()
+                    } ?: handler?.postDelayed(forwardDeferredFrame, TimeUnit.NANOSECONDS.toMillis(
+                            frameGate.deferralNs(videoFrame.timestampNs)))
+                    videoFrame.retain()
+                    deferredFrame = videoFrame
+                    deferredHash = hash
+                }
+                ScreenFrameGate.Decision.DROP -> Unit
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.twilio.video.app.sdk
+
+import kotlin.math.exp
+
+private const val SPEECH_TO_NOISE_RATIO = 2.5
+
+/*
+ * Detects who is speaking from the audio levels of the audio tracks, 0 to 32767, with a lower
+ * latency than the dominant speaker signaled by the server. Levels are smoothed per track with a
+ * fast attack and a slower release. A track speaks when its smoothed level is above both the
+ * noiseFloor and a multiple of its background noise, which is tracked as the minimum level,
+ * slowly rising over noiseRiseMs, so that a noisy microphone is not seen as speaking. A track keeps
+ * speaking for holdMs after its level drops to bridge the pauses between words.
+ *
+ * Levels are reported with onAudioLevel followed by endUpdate once per stats report. Tracks that
+ * are missing from a report are forgotten.
+ */
+class SpeakerDetector(
+    private val noiseFloor: Int = 400,
+    private val attackMs: Long = 30,
+    private val releaseMs: Long = 80,
+    private val holdMs: Long = 400,
+    private val noiseRiseMs: Long = 5000
+) {
+
+    private class TrackState(var smoothedLevel: Double, var noiseLevel: Double) {
+        var lastUpdateMs = 0L
+        var lastSpeechMs = Long.MIN_VALUE / 2
+        var generation = 0
+    }
+
+    private val trackStates = HashMap<String, TrackState>()
+    private val mutableSpeakingTrackSids = mutableSetOf<String>()
+    private var generation = 0
+    private var isChanged = false
+
+    val speakingTrackSids: Set<String> = mutableSpeakingTrackSids
+
+    fun onAudioLevel(trackSid: String, audioLevel: Int, timestampMs: Long) {
+        val level = audioLevel.toDouble()
+        val trackState = trackStates[trackSid]
+                ?: TrackState(level, 0.0).also {
+                    it.lastUpdateMs = timestampMs
+                    trackStates[trackSid] = it
+                }
+        trackState.generation = generation
+        val elapsedMs = (timestampMs - trackState.lastUpdateMs).coerceAtLeast(0)
+        trackState.lastUpdateMs = timestampMs
+
+        val smoothingMs = if (level > trackState.smoothedLevel) attackMs else releaseMs
+        trackState.smoothedLevel += (level - trackState.smoothedLevel) * weight(elapsedMs, smoothingMs)
+        trackState.noiseLevel = if (level < trackState.noiseLevel) {
+            level
+        } else {
+            trackState.noiseLevel + (level - trackState.noiseLevel) * weight(elapsedMs, noiseRiseMs)
+        }
+
+        val threshold = maxOf(noiseFloor.toDouble(), trackState.noiseLevel * SPEECH_TO_NOISE_RATIO)
+        if (trackState.smoothedLevel >= threshold) trackState.lastSpeechMs = timestampMs
+        val isSpeaking = timestampMs - trackState.lastSpeechMs <= holdMs
+        val wasSpeaking = trackSid in mutableSpeakingTrackSids
+        if (isSpeaking != wasSpeaking) {
+            if (isSpeaking) mutableSpeakingTrackSids.add(trackSid)
+            else mutableSpeakingTrackSids.remove(trackSid)
+            isChanged = true
+        }
+    }
+
+    /*
+     * Returns true if the speaking tracks changed since the previous update.
+     */
+    fun endUpdate(): Boolean {
+        val iterator = trackStates.entries.iterator()
+        while (iterator.hasNext()) {
+            val (trackSid, trackState) = iterator.next()
+            if (trackState.generation != generation) {
+                iterator.remove()
+                if (mutableSpeakingTrackSids.remove(trackSid)) isChanged = true
+            }
+        }
+        generation++
+        return isChanged.also { isChanged = false }
+    }
+
+    private fun weight(elapsedMs: Long, timeConstantMs: Long) =
+            1 - exp(-elapsedMs.toDouble() / timeConstantMs)
+}
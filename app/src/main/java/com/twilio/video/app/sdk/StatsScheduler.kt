@@ -17,18 +17,52 @@ package com.twilio.video.app.sdk
 
 import android.os.Handler
 import android.os.HandlerThread
+import android.os.SystemClock
 import com.twilio.video.Room
 import com.twilio.video.StatsListener
+import com.twilio.video.StatsReport
 import timber.log.Timber
 
-class StatsScheduler(private val roomManager: RoomManager, private val room: Room) {
+const val STATS_POLLING_INTERVAL_MS = 1000L
+const val DEGRADED_STATS_POLLING_INTERVAL_MS = 5000L
+const val AUDIO_LEVEL_POLLING_INTERVAL_MS = 100L
+
+/*
+ * Polls the Room stats. With a SpeakerDetector and while isAudioLevelPollingEnabled the stats are
+ * polled every AUDIO_LEVEL_POLLING_INTERVAL_MS to feed it the audio levels, and only every
+ * pollingIntervalMs are they sent as a stats update. The detector is only used from the scheduler
+ * thread and forgets every track while audio level polling is disabled.
+ */
+class StatsScheduler(
+    private val roomManager: RoomManager,
+    private val room: Room,
+    private val speakerDetector: SpeakerDetector? = null
+) {
     private var handlerThread: HandlerThread? = null
     private var handler: Handler? = null
+    private var lastStatsUpdateMs = Long.MIN_VALUE / 2
     private val statsListener: StatsListener = StatsListener { statsReports ->
-        roomManager.sendStatsUpdate(statsReports)
+        val nowMs = SystemClock.elapsedRealtime()
+        speakerDetector?.let { speakerDetector ->
+            val isChanged = if (isAudioLevelPollingEnabled) {
+                speakerDetector.update(statsReports, nowMs)
+            } else speakerDetector.endUpdate()
+            if (isChanged) {
+                roomManager.sendSpeakingTracks(speakerDetector.speakingTrackSids.toSet())
+            }
+        }
+        // Half a polling interval of slack absorbs the jitter of the audio level polls
+        if (nowMs - lastStatsUpdateMs >= pollingIntervalMs - AUDIO_LEVEL_POLLING_INTERVAL_MS / 2) {
+            lastStatsUpdateMs = nowMs
+            roomManager.sendStatsUpdate(statsReports)
+        }
     }
     private val isRunning: Boolean
         get() = handlerThread?.isAlive ?: false
+    @Volatile
+    var pollingIntervalMs = STATS_POLLING_INTERVAL_MS
+    @Volatile
+    var isAudioLevelPollingEnabled = true
 
     fun start() {
         if (isRunning) {
@@ -42,7 +76,10 @@ class StatsScheduler(private val roomManager: RoomManager, private val room: Roo
         val statsRunner: Runnable = object : Runnable {
             override fun run() {
                 room.getStats(statsListener)
-                handler.postDelayed(this, 1000)
+                val isPollingAudioLevels = speakerDetector != null && isAudioLevelPollingEnabled
+                handler.postDelayed(this, if (isPollingAudioLevels) {
+                    AUDIO_LEVEL_POLLING_INTERVAL_MS
+                } else pollingIntervalMs)
             }
         }
         handler.post(statsRunner)
@@ -60,3 +97,15 @@ class StatsScheduler(private val roomManager: RoomManager, private val room: Roo
         }
     }
 }
+
+private fun SpeakerDetector.update(statsReports: List<StatsReport>, timestampMs: Long): Boolean {
+    statsReports.forEach { statsReport ->
+        statsReport.localAudioTrackStats.forEach {
+            onAudioLevel(it.trackSid, it.audioLevel, timestampMs)
+        }
+        statsReport.remoteAudioTrackStats.forEach {
+            onAudioLevel(it.trackSid, it.audioLevel, timestampMs)
+        }
+    }
+    return endUpdate()
+}
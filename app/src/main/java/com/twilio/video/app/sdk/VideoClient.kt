@@ -3,6 +3,7 @@ package com.twilio.video.app.sdk
 import android.content.Context
 import com.twilio.video.Room
 import com.twilio.video.Video
+import kotlinx.coroutines.Deferred
 
 class VideoClient(
     private val context: Context,
@@ -12,12 +13,18 @@ class VideoClient(
     suspend fun connect(
         identity: String,
         roomName: String,
-        roomListener: Room.Listener
+        roomListener: Room.Listener,
+        expectedParticipantCount: Int? = null,
+        isAudioOnly: Boolean = false,
+        localTracks: Deferred<LocalTracks>? = null,
+        initialMediaSettings: InitialMediaSettings? = null
     ): Room {
 
             return Video.connect(
                     context,
-                    connectOptionsFactory.newInstance(identity, roomName),
+                    connectOptionsFactory.newInstance(identity, roomName,
+                            expectedParticipantCount, isAudioOnly, localTracks,
+                            initialMediaSettings),
                     roomListener)
     }
 }
@@ -0,0 +1,57 @@
+package com.twilio.video.app.sdk
+
+import com.twilio.video.H264Codec
+import com.twilio.video.VideoCodec
+import com.twilio.video.Vp8Codec
+import com.twilio.video.Vp9Codec
+import com.twilio.video.app.data.api.model.Topology
+import com.twilio.video.app.data.api.model.Topology.GO
+import com.twilio.video.app.data.api.model.Topology.PEER_TO_PEER
+
+/*
+ * Participant count from which publishing VP8 simulcast layers pays off in an SFU room.
+ */
+const val SIMULCAST_MIN_PARTICIPANTS = 3
+
+/*
+ * Chooses an ordered list of preferred video codecs for a Room. Simulcast is only worth its
+ * extra encoding cost when the Room is routed through an SFU and there are enough subscribers to
+ * benefit from different layers. Otherwise codecs that can be encoded and decoded in hardware
+ * are preferred to reduce CPU and battery usage, with software VP8 as the fallback.
+ */
+class VideoCodecPolicy(private val hardwareCodecSupport: HardwareCodecSupport) {
+
+    fun getPreferredVideoCodecs(
+        topology: Topology?,
+        expectedParticipantCount: Int? = null,
+        isSimulcastAllowed: Boolean = true
+    ): List<VideoCodec> {
+        return if (isSimulcastAllowed &&
+                isSimulcastBeneficial(topology, expectedParticipantCount)) {
+            listOfNotNull(
+                    Vp8Codec(true),
+                    if (isHardwareAccelerated(H264_MIME_TYPE)) H264Codec() else null)
+        } else {
+            val hardwareCodecs = listOf(
+                    H264_MIME_TYPE to H264Codec(),
+                    VP8_MIME_TYPE to Vp8Codec(),
+                    VP9_MIME_TYPE to Vp9Codec())
+                    .filter { isHardwareAccelerated(it.first) }
+                    .map { it.second }
+            // Software VP9 encoding is too expensive for mobile devices so it is never a fallback
+            val softwareCodecs = listOf(Vp8Codec(), H264Codec()).filter { softwareCodec ->
+                hardwareCodecs.none { it.name == softwareCodec.name }
+            }
+            hardwareCodecs + softwareCodecs
+        }
+    }
+
+    private fun isSimulcastBeneficial(topology: Topology?, expectedParticipantCount: Int?): Boolean {
+        if (topology == PEER_TO_PEER || topology == GO) return false
+        return (expectedParticipantCount ?: SIMULCAST_MIN_PARTICIPANTS) >= SIMULCAST_MIN_PARTICIPANTS
+    }
+
+    private fun isHardwareAccelerated(mimeType: String) =
+            hardwareCodecSupport.isHardwareEncoderAvailable(mimeType) &&
+                    hardwareCodecSupport.isHardwareDecoderAvailable(mimeType)
+}
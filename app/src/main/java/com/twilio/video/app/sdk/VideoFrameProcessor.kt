@@ -0,0 +1,116 @@
+package com.twilio.video.app.sdk
+
+import java.nio.ByteBuffer
+import kotlin.math.max
+import kotlin.math.min
+
+/*
+ * A stage of the local video processing pipeline. A processor returns the input frame when it has
+ * nothing to do, otherwise it writes the result to a frame acquired from the pool. Frames are in
+ * the orientation they were captured in.
+ */
+interface VideoFrameProcessor {
+    fun process(frame: I420Frame, framePool: I420FramePool): I420Frame
+}
+
+/*
+ * Crops frames around their center to aspectWidth:aspectHeight, for example to the aspect of the
+ * tiles the track is shown in.
+ */
+class CenterCropProcessor(
+    private val aspectWidth: Int,
+    private val aspectHeight: Int
+) : VideoFrameProcessor {
+
+    override fun process(frame: I420Frame, framePool: I420FramePool): I420Frame {
+        val isWider = frame.width.toLong() * aspectHeight > frame.height.toLong() * aspectWidth
+        val cropWidth = evenFloor(if (isWider) frame.height * aspectWidth / aspectHeight else frame.width)
+        val cropHeight = evenFloor(if (isWider) frame.height else frame.width * aspectHeight / aspectWidth)
+        if (cropWidth == frame.width && cropHeight == frame.height) return frame
+
+        val x = evenFloor((frame.width - cropWidth) / 2)
+        val y = evenFloor((frame.height - cropHeight) / 2)
+        val output = framePool.acquire(cropWidth, cropHeight)
+        copyPlane(frame.dataY, frame.strideY, x, y,
+                output.dataY, output.strideY, output.width, output.height)
+        copyPlane(frame.dataU, frame.strideU, x / 2, y / 2,
+                output.dataU, output.strideU, output.chromaWidth, output.chromaHeight)
+        copyPlane(frame.dataV, frame.strideV, x / 2, y / 2,
+                output.dataV, output.strideV, output.chromaWidth, output.chromaHeight)
+        return output
+    }
+
+    private fun copyPlane(
+        src: ByteBuffer,
+        srcStride: Int,
+        srcX: Int,
+        srcY: Int,
+        dst: ByteBuffer,
+        dstStride: Int,
+        width: Int,
+        height: Int
+    ) {
+        for (row in 0 until height) {
+            val srcOffset = (srcY + row) * srcStride + srcX
+            val dstOffset = row * dstStride
+            for (column in 0 until width) {
+                dst.put(dstOffset + column, src.get(srcOffset + column))
+            }
+        }
+    }
+}
+
+/*
+ * Scales frames down to fit within maxWidth x maxHeight, keeping their aspect. Each output pixel
+ * is the average of the 2x2 source pixels it maps to, which is enough for factors up to two.
+ */
+class DownscaleProcessor(
+    private val maxWidth: Int,
+    private val maxHeight: Int
+) : VideoFrameProcessor {
+
+    override fun process(frame: I420Frame, framePool: I420FramePool): I420Frame {
+        if (frame.width <= maxWidth && frame.height <= maxHeight) return frame
+
+        val scale = min(maxWidth.toFloat() / frame.width, maxHeight.toFloat() / frame.height)
+        val output = framePool.acquire(
+                max(2, evenFloor((frame.width * scale).toInt())),
+                max(2, evenFloor((frame.height * scale).toInt())))
+        scalePlane(frame.dataY, frame.strideY, frame.width, frame.height,
+                output.dataY, output.strideY, output.width, output.height)
+        scalePlane(frame.dataU, frame.strideU, frame.chromaWidth, frame.chromaHeight,
+                output.dataU, output.strideU, output.chromaWidth, output.chromaHeight)
+        scalePlane(frame.dataV, frame.strideV, frame.chromaWidth, frame.chromaHeight,
+                output.dataV, output.strideV, output.chromaWidth, output.chromaHeight)
+        return output
+    }
+
+    private fun scalePlane(
+        src: ByteBuffer,
+        srcStride: Int,
+        srcWidth: Int,
+        srcHeight: Int,
+        dst: ByteBuffer,
+        dstStride: Int,
+        dstWidth: Int,
+        dstHeight: Int
+    ) {
+        for (y in 0 until dstHeight) {
+            val srcY = y * srcHeight / dstHeight
+            val row0 = srcY * srcStride
+            val row1 = min(srcY + 1, srcHeight - 1) * srcStride
+            val dstOffset = y * dstStride
+            for (x in 0 until dstWidth) {
+                val x0 = x * srcWidth / dstWidth
+                val x1 = min(x0 + 1, srcWidth - 1)
+                val sum = (src.get(row0 + x0).toInt() and 0xff) +
+                        (src.get(row0 + x1).toInt() and 0xff) +
+                        (src.get(row1 + x0).toInt() and 0xff) +
+                        (src.get(row1 + x1).toInt() and 0xff)
+                dst.put(dstOffset + x, ((sum + 2) shr 2).toByte())
+            }
+        }
+    }
+}
+
+private fun evenFloor(value: Int) = value and 1.inv()
@@ -0,0 +1,60 @@
+package com.twilio.video.app.sdk
+
+/*
+ * Runs local video frames through a chain of processors and keeps timing metrics for each stage.
+ * Intermediate frames are returned to the pool as soon as the next stage is done with them, so a
+ * steady stream of frames of the same size does not allocate. Frames are processed on a single
+ * thread, the metrics can be read from any thread.
+ */
+class VideoProcessingPipeline(
+    processors: List<VideoFrameProcessor>,
+    val framePool: I420FramePool = I420FramePool()
+) {
+
+    private val stages = processors.map { Stage(it) }
+
+    val isEmpty get() = stages.isEmpty()
+
+    val stageMetrics: List<StageMetrics> get() = stages.map { it.metrics() }
+
+    /*
+     * Returns the input frame if no stage changed it, otherwise a frame from the pool that the
+     * caller releases once it is done with it.
+     */
+    fun process(frame: I420Frame): I420Frame {
+        var current = frame
+        for (i in stages.indices) {
+            val stage = stages[i]
+            val startNs = System.nanoTime()
+            val output = stage.processor.process(current, framePool)
+            stage.record(System.nanoTime() - startNs)
+            if (output !== current && current !== frame) framePool.release(current)
+            current = output
+        }
+        return current
+    }
+
+    private class Stage(val processor: VideoFrameProcessor) {
+        private var frameCount = 0L
+        private var totalNs = 0L
+        private var maxNs = 0L
+
+        @Synchronized
+        fun record(elapsedNs: Long) {
+            frameCount++
+            totalNs += elapsedNs
+            if (elapsedNs > maxNs) maxNs = elapsedNs
+        }
+
+        @Synchronized
+        fun metrics() = StageMetrics(processor.javaClass.simpleName, frameCount,
+                if (frameCount > 0) totalNs / frameCount else 0, maxNs)
+    }
+}
+
+data class StageMetrics(
+    val name: String,
+    val frameCount: Long,
+    val averageNs: Long,
+    val maxNs: Long
+)
@@ -1,14 +1,18 @@
 package com.twilio.video.app.sdk
 
 import android.app.Application
+import android.content.Context
 import android.content.SharedPreferences
+import android.os.Build
 import com.twilio.video.app.ApplicationModule
 import com.twilio.video.app.ApplicationScope
 import com.twilio.video.app.data.DataModule
 import com.twilio.video.app.data.api.TokenService
 import com.twilio.video.app.data.api.VideoAppServiceModule
+import dagger.Lazy
 import dagger.Module
 import dagger.Provides
+import java.io.File
 
 @Module(includes = [
     ApplicationModule::class,
@@ -16,13 +20,49 @@ import dagger.Provides
     VideoAppServiceModule::class])
 class VideoSdkModule {
 
+    @Provides
+    @ApplicationScope
+    fun providesCodecCapabilityRepository(application: Application): CodecCapabilityRepository =
+            CodecCapabilityRepository(
+                    File(application.filesDir, CODEC_CAPABILITIES_FILE_NAME),
+                    Build.FINGERPRINT,
+                    MediaCodecListCapabilityProbe())
+
+    @Provides
+    fun providesHardwareCodecSupport(
+        codecCapabilityRepository: CodecCapabilityRepository
+    ): HardwareCodecSupport = codecCapabilityRepository
+
+    @Provides
+    fun providesVideoCodecPolicy(hardwareCodecSupport: HardwareCodecSupport): VideoCodecPolicy =
+            VideoCodecPolicy(hardwareCodecSupport)
+
+    @Provides
+    @ApplicationScope
+    fun providesCallSettingsProvider(sharedPreferences: SharedPreferences): CallSettingsProvider =
+            CallSettingsProvider(sharedPreferences)
+
+    @Provides
+    @ApplicationScope
+    fun providesMediaRegionSelector(application: Application): MediaRegionSelector {
+        val networkKeyProvider = NetworkKeyProvider(application)
+        return MediaRegionSelector(
+                HttpRegionLatencyProbe(),
+                MediaRegionCache(application.getSharedPreferences(
+                        MEDIA_REGION_PREFERENCES_NAME, Context.MODE_PRIVATE)),
+                networkKeyProvider::currentNetworkKey)
+    }
+
     @Provides
     fun providesConnectOptionsFactory(
         application: Application,
-        sharedPreferences: SharedPreferences,
-        tokenService: TokenService
+        callSettingsProvider: CallSettingsProvider,
+        tokenService: Lazy<TokenService>,
+        videoCodecPolicy: VideoCodecPolicy,
+        mediaRegionSelector: MediaRegionSelector
     ): ConnectOptionsFactory =
-            ConnectOptionsFactory(application, sharedPreferences, tokenService)
+            ConnectOptionsFactory(application, callSettingsProvider, tokenService,
+                    videoCodecPolicy, mediaRegionSelector)
 
     @Provides
     fun providesRoomFactory(
@@ -31,12 +71,25 @@ class VideoSdkModule {
     ): VideoClient =
             VideoClient(application, connectOptionsFactory)
 
+    @Provides
+    @ApplicationScope
+    fun providesPreConnectProbe(
+        application: Application,
+        callSettingsProvider: CallSettingsProvider
+    ): PreConnectProbe {
+        val networkKeyProvider = NetworkKeyProvider(application)
+        return PreConnectProbe(callSettingsProvider, HttpNetworkProbe(),
+                networkKeyProvider::currentNetworkKey)
+    }
+
     @Provides
     @ApplicationScope
     fun providesRoomManager(
         application: Application,
         videoClient: VideoClient,
-        sharedPreferences: SharedPreferences
+        callSettingsProvider: CallSettingsProvider,
+        preConnectProbe: PreConnectProbe
     ): RoomManager =
-            RoomManager(application, videoClient, sharedPreferences)
+            RoomManager(application, videoClient, callSettingsProvider,
+                    preConnectProbe = preConnectProbe)
 }
@@ -0,0 +1,92 @@
+package com.twilio.video.app.startup
+
+import android.os.Looper
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.launch
+import timber.log.Timber
+
+enum class StartupPhase {
+    /*
+     * Runs on the main thread before Application.onCreate returns. Only for work that must be
+     * complete before the first Activity is created.
+     */
+    MAIN,
+    /*
+     * Runs sequentially on a background thread, in the order the initializers were added.
+     */
+    BACKGROUND,
+    /*
+     * Runs on the main thread once it is idle, after the first frame has been drawn.
+     */
+    IDLE
+}
+
+data class InitializerTiming(val name: String, val phase: StartupPhase, val durationNs: Long) {
+    val durationMs: Double get() = durationNs.toDouble() / TimeUnit.MILLISECONDS.toNanos(1)
+}
+
+/*
+ * Runs the application initializers in phases so that only the work needed to show the first
+ * Activity happens on the main thread during cold start. Each initializer is timed and a summary
+ * is logged once all of them have run. Logging happens last because the Timber tree is itself
+ * planted by one of the initializers.
+ */
+class StartupPipeline(
+    private val backgroundScope: CoroutineScope = CoroutineScope(Dispatchers.Default),
+    private val idleScheduler: (() -> Unit) -> Unit = ::runWhenMainThreadIdle,
+    private val clock: () -> Long = System::nanoTime
+) {
+
+    private class Initializer(val name: String, val phase: StartupPhase, val initialize: () -> Unit)
+
+    private val initializers = mutableListOf<Initializer>()
+    private val timings = CopyOnWriteArrayList<InitializerTiming>()
+    private val remainingInitializers = AtomicInteger()
+
+    val initializerTimings: List<InitializerTiming> get() = timings.toList()
+
+    fun add(name: String, phase: StartupPhase, initialize: () -> Unit): StartupPipeline {
+        initializers.add(Initializer(name, phase, initialize))
+        return this
+    }
+
+    fun start() {
+        remainingInitializers.set(initializers.size)
+        initializers.filter { it.phase == StartupPhase.MAIN }.forEach(::run)
+        initializers.filter { it.phase == StartupPhase.BACKGROUND }.takeIf { it.isNotEmpty() }
+                ?.let { background -> backgroundScope.launch { background.forEach(::run) } }
+        initializers.filter { it.phase == StartupPhase.IDLE }.forEach { initializer ->
+            idleScheduler { run(initializer) }
+        }
+    }
+
+    private fun run(initializer: Initializer) {
+        val start = clock()
+        initializer.initialize()
+        timings.add(InitializerTiming(initializer.name, initializer.phase, clock() - start))
+        if (remainingInitializers.decrementAndGet() == 0) logTimings()
+    }
+
+    private fun logTimings() {
+        val timings = initializerTimings
+        val blockingMs = timings.filter { it.phase == StartupPhase.MAIN }
+                .sumByDouble { it.durationMs }
+        Timber.d("Startup initializers blocked the main thread for %.2f ms: %s", blockingMs,
+                timings.joinToString { "%s (%s) %.2f ms".format(it.name, it.phase, it.durationMs) })
+    }
+}
+
+/*
+ * Must be called from the main thread.
+ */
+private fun runWhenMainThreadIdle(action: () -> Unit) {
+    check(Looper.myLooper() == Looper.getMainLooper())
+    Looper.myQueue().addIdleHandler {
+        action()
+        false
+    }
+}
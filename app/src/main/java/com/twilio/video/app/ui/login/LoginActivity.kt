@@ -21,6 +21,7 @@ import android.content.Intent
 import android.content.SharedPreferences
 import android.os.Bundle
 import androidx.appcompat.app.AlertDialog
+import androidx.lifecycle.lifecycleScope
 import butterknife.ButterKnife
 import com.twilio.video.app.R
 import com.twilio.video.app.auth.Authenticator
@@ -37,6 +38,7 @@ import com.twilio.video.app.util.plus
 import io.reactivex.disposables.CompositeDisposable
 import io.reactivex.subjects.PublishSubject
 import javax.inject.Inject
+import kotlinx.coroutines.launch
 import timber.log.Timber
 
 internal const val GOOGLE_SIGN_IN = 4615
@@ -56,8 +58,8 @@ class LoginActivity : BaseActivity(), LoginLandingFragment.Listener, ExistingAcc
         super.onCreate(savedInstanceState)
 
         setContentView(R.layout.activity_login)
-        if (authenticator.loggedIn()) {
-            onSignInSuccess()
+        lifecycleScope.launch {
+            if (authenticator.isLoggedIn()) startLobbyActivity()
         }
         ButterKnife.bind(this)
         if (savedInstanceState == null) {
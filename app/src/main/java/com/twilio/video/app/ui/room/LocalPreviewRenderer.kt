@@ -0,0 +1,79 @@
+package com.twilio.video.app.ui.room
+
+import com.twilio.video.LocalVideoTrack
+import com.twilio.video.VideoTrack
+import com.twilio.video.app.util.FrameRateLimiter
+import java.util.concurrent.CopyOnWriteArrayList
+import tvi.webrtc.VideoFrame
+import tvi.webrtc.VideoSink
+
+/*
+ * Renders the local camera track once for all of the views showing it. The renderer is the only
+ * sink of the track and passes frames to the largest view at up to maxFrameRate, while the other
+ * views are given a single frame that they keep showing as a snapshot. A max frame rate of zero
+ * renders every frame. Remote tracks are attached to their views directly.
+ *
+ * Views are added and removed on the main thread, frames arrive on the capturer thread.
+ */
+internal class LocalPreviewRenderer(maxFrameRate: Int = 0) : VideoSink {
+
+    private val frameRateLimiter = FrameRateLimiter(maxFrameRate)
+    private val targets = CopyOnWriteArrayList<Target>()
+    private var localVideoTrack: LocalVideoTrack? = null
+
+    var maxFrameRate: Int
+        get() = frameRateLimiter.maxFrameRate
+        set(value) {
+            frameRateLimiter.maxFrameRate = value
+        }
+
+    fun addSink(videoTrack: VideoTrack, view: ParticipantView) {
+        if (videoTrack !is LocalVideoTrack) {
+            videoTrack.addSink(view)
+            return
+        }
+        if (localVideoTrack !== videoTrack) {
+            // The camera track was recreated so the views of the old one are dropped
+            detachLocalVideoTrack()
+            localVideoTrack = videoTrack
+            videoTrack.addSink(this)
+        }
+        if (targets.none { it.view === view }) targets.add(Target(view))
+    }
+
+    fun removeSink(videoTrack: VideoTrack?, view: ParticipantView) {
+        when {
+            videoTrack == null -> return
+            videoTrack !is LocalVideoTrack -> {
+                if (videoTrack.sinks.contains(view)) videoTrack.removeSink(view)
+            }
+            videoTrack === localVideoTrack -> {
+                targets.removeAll { it.view === view }
+                if (targets.isEmpty()) detachLocalVideoTrack()
+            }
+        }
+    }
+
+    override fun onFrame(videoFrame: VideoFrame) {
+        val largestTarget = targets.maxByOrNull { it.view.width * it.view.height } ?: return
+        val isFrameDue = frameRateLimiter.tryAcquire(videoFrame.timestampNs)
+
+        targets.forEach { target ->
+            if ((target === largestTarget && isFrameDue) || !target.hasFrame) {
+                target.hasFrame = true
+                target.view.onFrame(videoFrame)
+            }
+        }
+    }
+
+    private fun detachLocalVideoTrack() {
+        localVideoTrack?.let { if (it.sinks.contains(this)) it.removeSink(this) }
+        localVideoTrack = null
+        targets.clear()
+    }
+
+    private class Target(val view: ParticipantView) {
+        @Volatile
+        var hasFrame = false
+    }
+}
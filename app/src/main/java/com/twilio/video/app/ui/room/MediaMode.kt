@@ -0,0 +1,11 @@
+package com.twilio.video.app.ui.room
+
+/*
+ * Describes how much of the room is visible. Outside of the foreground all video work is shed
+ * and only audio is kept, plus the primary participant track while in Picture-in-Picture.
+ */
+enum class MediaMode {
+    FOREGROUND,
+    PICTURE_IN_PICTURE,
+    BACKGROUND
+}
@@ -7,17 +7,24 @@ import androidx.recyclerview.widget.DiffUtil
 import androidx.recyclerview.widget.ListAdapter
 import com.twilio.video.app.participant.ParticipantViewState
 
-internal class ParticipantAdapter : ListAdapter<ParticipantViewState, ParticipantViewHolder>(
-        ParticipantDiffCallback()) {
+internal class ParticipantAdapter(
+    private val localPreviewRenderer: LocalPreviewRenderer
+) : ListAdapter<ParticipantViewState, ParticipantViewHolder>(ParticipantDiffCallback()) {
 
     private val mutableViewHolderEvents = MutableLiveData<RoomViewEvent>()
     val viewHolderEvents: LiveData<RoomViewEvent> = mutableViewHolderEvents
+    var maxFrameRate = 0
+        set(value) {
+            if (field == value) return
+            field = value
+            notifyItemRangeChanged(0, itemCount)
+        }
 
     override fun onCreateViewHolder(parent: ViewGroup, viewType: Int): ParticipantViewHolder =
-            ParticipantViewHolder(ParticipantThumbView(parent.context))
+            ParticipantViewHolder(ParticipantThumbView(parent.context), localPreviewRenderer)
 
     override fun onBindViewHolder(holder: ParticipantViewHolder, position: Int) =
-            holder.bind(getItem(position)) { mutableViewHolderEvents.value = it }
+            holder.bind(getItem(position), maxFrameRate) { mutableViewHolderEvents.value = it }
 
     class ParticipantDiffCallback : DiffUtil.ItemCallback<ParticipantViewState>() {
         override fun areItemsTheSame(
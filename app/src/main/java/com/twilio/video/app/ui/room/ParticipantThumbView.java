@@ -36,6 +36,8 @@ public class ParticipantThumbView extends ParticipantView {
     @BindView(R.id.participant_track_switch_off_icon)
     ImageView trackSwitchOffImage;
 
+    private boolean speaking = false;
+
     public ParticipantThumbView(Context context) {
         super(context);
         init(context);
@@ -82,6 +84,18 @@ public class ParticipantThumbView extends ParticipantView {
         selectedLayout.setBackground(ContextCompat.getDrawable(getContext(), resId));
     }
 
+    /*
+     * Outlines the thumbnail while the participant is speaking, whatever its state.
+     */
+    public void setSpeaking(boolean speaking) {
+        if (this.speaking == speaking) return;
+        this.speaking = speaking;
+        setForeground(
+                speaking
+                        ? ContextCompat.getDrawable(getContext(), R.drawable.participant_speaking_border)
+                        : null);
+    }
+
     private int isSwitchOffViewVisible(int state) {
         return state == State.SWITCHED_OFF ? View.VISIBLE : View.GONE;
     }
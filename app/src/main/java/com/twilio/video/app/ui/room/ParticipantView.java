@@ -36,6 +36,7 @@ import com.twilio.video.VideoScaleType;
 import com.twilio.video.VideoTextureView;
 import com.twilio.video.VideoTrack;
 import com.twilio.video.app.R;
+import com.twilio.video.app.util.FrameRateLimiter;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import tvi.webrtc.VideoFrame;
@@ -52,6 +53,8 @@ abstract class ParticipantView extends FrameLayout implements VideoSink {
 
     VideoTrack videoTrack;
 
+    private final FrameRateLimiter frameRateLimiter = new FrameRateLimiter();
+
     @BindView(R.id.participant_video_layout)
     ConstraintLayout videoLayout;
 
@@ -164,9 +167,19 @@ abstract class ParticipantView extends FrameLayout implements VideoSink {
         if (pinImage != null) pinImage.setVisibility(pinned ? VISIBLE : GONE);
     }
 
+    /*
+     * Limits the rate at which frames are rendered by dropping frames that arrive sooner than
+     * the frame interval. A max frame rate of zero renders every frame.
+     */
+    public void setMaxFrameRate(int maxFrameRate) {
+        frameRateLimiter.setMaxFrameRate(maxFrameRate);
+    }
+
     @Override
     public void onFrame(VideoFrame videoFrame) {
-        videoView.onFrame(videoFrame);
+        if (frameRateLimiter.tryAcquire(videoFrame.getTimestampNs())) {
+            videoView.onFrame(videoFrame);
+        }
     }
 
     void initParams(Context context, AttributeSet attrs) {
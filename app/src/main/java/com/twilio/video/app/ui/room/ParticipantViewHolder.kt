@@ -10,21 +10,25 @@ import com.twilio.video.NetworkQualityLevel.NETWORK_QUALITY_LEVEL_ONE
 import com.twilio.video.NetworkQualityLevel.NETWORK_QUALITY_LEVEL_THREE
 import com.twilio.video.NetworkQualityLevel.NETWORK_QUALITY_LEVEL_TWO
 import com.twilio.video.NetworkQualityLevel.NETWORK_QUALITY_LEVEL_ZERO
-import com.twilio.video.VideoTrack
 import com.twilio.video.app.R
 import com.twilio.video.app.participant.ParticipantViewState
 import com.twilio.video.app.sdk.VideoTrackViewState
 import com.twilio.video.app.ui.room.RoomViewEvent.PinParticipant
-import timber.log.Timber
+import com.twilio.video.app.util.Logger
 
-internal class ParticipantViewHolder(private val thumb: ParticipantThumbView) :
-        RecyclerView.ViewHolder(thumb) {
+internal class ParticipantViewHolder(
+    private val thumb: ParticipantThumbView,
+    private val localPreviewRenderer: LocalPreviewRenderer
+) : RecyclerView.ViewHolder(thumb) {
 
     private val localParticipantIdentity = thumb.context.getString(R.string.you)
 
-    fun bind(participantViewState: ParticipantViewState, viewEventAction: (RoomViewEvent) -> Unit) {
-        Timber.d("bind ParticipantViewHolder with data item: %s", participantViewState)
-        Timber.d("thumb: %s", thumb)
+    fun bind(
+        participantViewState: ParticipantViewState,
+        maxFrameRate: Int,
+        viewEventAction: (RoomViewEvent) -> Unit
+    ) {
+        Logger.v { "bind ParticipantViewHolder with data item: $participantViewState" }
 
         thumb.run {
             participantViewState.sid?.let { sid ->
@@ -37,6 +41,8 @@ internal class ParticipantViewHolder(private val thumb: ParticipantThumbView) :
             setIdentity(identity)
             setMuted(participantViewState.isMuted)
             setPinned(participantViewState.isPinned)
+            setSpeaking(participantViewState.isSpeaking)
+            setMaxFrameRate(maxFrameRate)
 
             updateVideoTrack(participantViewState)
 
@@ -51,11 +57,11 @@ internal class ParticipantViewHolder(private val thumb: ParticipantThumbView) :
             val videoTrackViewState = participantViewState.videoTrack
             val newVideoTrack = videoTrackViewState?.let { it.videoTrack }
             if (videoTrack !== newVideoTrack) {
-                removeRender(videoTrack, this)
+                localPreviewRenderer.removeSink(videoTrack, this)
                 videoTrack = newVideoTrack
                 videoTrack?.let { videoTrack ->
                     setVideoState(videoTrackViewState)
-                    if (videoTrack.isEnabled) videoTrack.addSink(this)
+                    if (videoTrack.isEnabled) localPreviewRenderer.addSink(videoTrack, this)
                 } ?: setState(ParticipantView.State.NO_VIDEO)
             } else {
                 setVideoState(videoTrackViewState)
@@ -72,11 +78,6 @@ internal class ParticipantViewHolder(private val thumb: ParticipantThumbView) :
         }
     }
 
-    private fun removeRender(videoTrack: VideoTrack?, view: ParticipantView) {
-        if (videoTrack == null || !videoTrack.sinks.contains(view)) return
-        videoTrack.removeSink(view)
-    }
-
     private fun setNetworkQualityLevelImage(
         networkQualityImage: ImageView,
         networkQualityLevel: NetworkQualityLevel?
@@ -19,7 +19,8 @@ import com.twilio.video.VideoTrack
 import com.twilio.video.app.sdk.VideoTrackViewState
 
 internal class PrimaryParticipantController(
-    private val primaryView: ParticipantPrimaryView
+    private val primaryView: ParticipantPrimaryView,
+    private val localPreviewRenderer: LocalPreviewRenderer
 ) {
     private var primaryItem: Item? = null
 
@@ -36,7 +37,7 @@ internal class PrimaryParticipantController(
         val newItem = Item(identity, selectedTrack, muted, mirror)
 
         // clean old primary video renderings
-        old?.let { removeRender(it.videoTrack, primaryView) }
+        old?.let { localPreviewRenderer.removeSink(it.videoTrack, primaryView) }
 
         primaryItem = newItem
         primaryView.setIdentity(newItem.identity)
@@ -44,16 +45,11 @@ internal class PrimaryParticipantController(
         primaryView.setMuted(newItem.muted)
         primaryView.setMirror(newItem.mirror)
         newItem.videoTrack?.let { newVideoTrack ->
-            if (newVideoTrack.isEnabled) newVideoTrack.addSink(primaryView)
+            if (newVideoTrack.isEnabled) localPreviewRenderer.addSink(newVideoTrack, primaryView)
             primaryView.setState(ParticipantView.State.VIDEO)
         } ?: primaryView.setState(ParticipantView.State.NO_VIDEO)
     }
 
-    private fun removeRender(videoTrack: VideoTrack?, view: ParticipantView) {
-        if (videoTrack == null || !videoTrack.sinks.contains(view)) return
-        videoTrack.removeSink(view)
-    }
-
     internal class Item(
         var identity: String?,
         var videoTrack: VideoTrack?,
@@ -19,11 +19,13 @@ import android.Manifest
 import android.annotation.TargetApi
 import android.app.Activity
 import android.app.AlertDialog
+import android.app.PictureInPictureParams
 import android.content.Context
 import android.content.DialogInterface
 import android.content.Intent
 import android.content.SharedPreferences
 import android.content.pm.PackageManager
+import android.content.res.Configuration
 import android.media.AudioManager
 import android.media.projection.MediaProjectionManager
 import android.net.Uri
@@ -48,38 +50,47 @@ import butterknife.BindView
 import butterknife.ButterKnife
 import butterknife.OnClick
 import butterknife.OnTextChanged
+import com.google.android.material.appbar.AppBarLayout
 import com.google.android.material.snackbar.Snackbar
 import com.twilio.audioswitch.AudioDevice
 import com.twilio.audioswitch.AudioDevice.BluetoothHeadset
 import com.twilio.audioswitch.AudioDevice.Speakerphone
 import com.twilio.audioswitch.AudioDevice.WiredHeadset
-import com.twilio.audioswitch.AudioSwitch
 import com.twilio.video.app.R
 import com.twilio.video.app.adapter.StatsListAdapter
+import com.twilio.video.app.audio.AudioRouter
 import com.twilio.video.app.base.BaseActivity
 import com.twilio.video.app.data.Preferences
 import com.twilio.video.app.data.api.AuthServiceError
 import com.twilio.video.app.data.api.TokenService
+import com.twilio.video.app.jank.FrameMonitor
+import com.twilio.video.app.jank.JANK_LOG_FILE_NAME
+import com.twilio.video.app.jank.JankLog
+import com.twilio.video.app.jank.JankTracker
 import com.twilio.video.app.participant.ParticipantViewState
+import com.twilio.video.app.sdk.DegradationLevel
 import com.twilio.video.app.sdk.RoomManager
 import com.twilio.video.app.ui.room.RoomViewConfiguration.Connecting
 import com.twilio.video.app.ui.room.RoomViewConfiguration.Lobby
+import com.twilio.video.app.ui.room.RoomViewEffect.AutomaticAudioOnlyMode
 import com.twilio.video.app.ui.room.RoomViewEffect.Connected
 import com.twilio.video.app.ui.room.RoomViewEffect.Disconnected
 import com.twilio.video.app.ui.room.RoomViewEffect.PermissionsDenied
 import com.twilio.video.app.ui.room.RoomViewEffect.ShowConnectFailureDialog
 import com.twilio.video.app.ui.room.RoomViewEffect.ShowMaxParticipantFailureDialog
 import com.twilio.video.app.ui.room.RoomViewEffect.ShowTokenErrorDialog
-import com.twilio.video.app.ui.room.RoomViewEvent.ActivateAudioDevice
 import com.twilio.video.app.ui.room.RoomViewEvent.Connect
-import com.twilio.video.app.ui.room.RoomViewEvent.DeactivateAudioDevice
+import com.twilio.video.app.ui.room.RoomViewEvent.DisableAudioOnlyMode
 import com.twilio.video.app.ui.room.RoomViewEvent.DisableLocalAudio
 import com.twilio.video.app.ui.room.RoomViewEvent.DisableLocalVideo
 import com.twilio.video.app.ui.room.RoomViewEvent.Disconnect
+import com.twilio.video.app.ui.room.RoomViewEvent.EnableAudioOnlyMode
 import com.twilio.video.app.ui.room.RoomViewEvent.EnableLocalAudio
 import com.twilio.video.app.ui.room.RoomViewEvent.EnableLocalVideo
+import com.twilio.video.app.ui.room.RoomViewEvent.MediaModeChanged
 import com.twilio.video.app.ui.room.RoomViewEvent.OnPause
 import com.twilio.video.app.ui.room.RoomViewEvent.OnResume
+import com.twilio.video.app.ui.room.RoomViewEvent.ProbeNetwork
 import com.twilio.video.app.ui.room.RoomViewEvent.SelectAudioDevice
 import com.twilio.video.app.ui.room.RoomViewEvent.StartScreenCapture
 import com.twilio.video.app.ui.room.RoomViewEvent.StopScreenCapture
@@ -91,11 +102,14 @@ import com.twilio.video.app.ui.settings.SettingsActivity
 import com.twilio.video.app.util.InputUtils
 import com.twilio.video.app.util.PermissionUtil
 import io.uniflow.androidx.flow.onEvents
-import io.uniflow.androidx.flow.onStates
+import java.io.File
 import javax.inject.Inject
 import timber.log.Timber
 
 class RoomActivity : BaseActivity() {
+    @BindView(R.id.lobby_toolbar)
+    lateinit var appBarLayout: AppBarLayout
+
     @BindView(R.id.toolbar)
     lateinit var toolbar: Toolbar
 
@@ -111,6 +125,9 @@ class RoomActivity : BaseActivity() {
     @BindView(R.id.remote_video_thumbnails)
     lateinit var thumbnailRecyclerView: RecyclerView
 
+    @BindView(R.id.call_controls)
+    lateinit var callControlsLayout: LinearLayout
+
     @BindView(R.id.local_video_image_button)
     lateinit var localVideoImageButton: ImageButton
 
@@ -152,12 +169,15 @@ class RoomActivity : BaseActivity() {
     private lateinit var switchCameraMenuItem: MenuItem
     private lateinit var pauseVideoMenuItem: MenuItem
     private lateinit var pauseAudioMenuItem: MenuItem
+    private lateinit var audioOnlyMenuItem: MenuItem
     private lateinit var screenCaptureMenuItem: MenuItem
     private lateinit var settingsMenuItem: MenuItem
     private lateinit var deviceMenuItem: MenuItem
     private var savedVolumeControlStream = 0
     private var displayName: String? = null
     private var localParticipantSid = LOCAL_PARTICIPANT_STUB_SID
+    /** Set while the screen capture consent prompt is shown so that leaving for it skips PiP. */
+    private var isRequestingScreenCapture = false
     private lateinit var statsListAdapter: StatsListAdapter
 
     @Inject
@@ -170,17 +190,21 @@ class RoomActivity : BaseActivity() {
     lateinit var roomManager: RoomManager
 
     @Inject
-    lateinit var audioSwitch: AudioSwitch
+    lateinit var audioRouter: AudioRouter
 
     /** Coordinates participant thumbs and primary participant rendering.  */
     private lateinit var primaryParticipantController: PrimaryParticipantController
+    private val localPreviewRenderer = LocalPreviewRenderer()
     private lateinit var participantAdapter: ParticipantAdapter
     private lateinit var roomViewModel: RoomViewModel
+    private var frameMonitor: FrameMonitor? = null
 
     override fun onCreate(savedInstanceState: Bundle?) {
         super.onCreate(savedInstanceState)
-        val factory = RoomViewModelFactory(roomManager, audioSwitch, PermissionUtil(this))
+        val factory = RoomViewModelFactory(roomManager, audioRouter, PermissionUtil(this),
+                createJankTracker())
         roomViewModel = ViewModelProvider(this, factory).get(RoomViewModel::class.java)
+        frameMonitor = roomViewModel.jankTracker?.let { FrameMonitor(window, it::onFrame) }
 
         // So calls can be answered when screen is locked
         window.addFlags(WindowManager.LayoutParams.FLAG_DISMISS_KEYGUARD)
@@ -191,6 +215,7 @@ class RoomActivity : BaseActivity() {
         setContentView(R.layout.activity_room)
         ButterKnife.bind(this)
         setupThumbnailRecyclerView()
+        setupStatsRecyclerView()
 
         // Setup toolbar
         setSupportActionBar(toolbar)
@@ -199,34 +224,94 @@ class RoomActivity : BaseActivity() {
         savedVolumeControlStream = volumeControlStream
 
         // setup participant controller
-        primaryParticipantController = PrimaryParticipantController(primaryVideoView)
+        primaryParticipantController = PrimaryParticipantController(primaryVideoView,
+                localPreviewRenderer)
     }
 
     private fun setupThumbnailRecyclerView() {
         val layoutManager = LinearLayoutManager(this, LinearLayoutManager.HORIZONTAL, false)
         thumbnailRecyclerView.layoutManager = layoutManager
-        participantAdapter = ParticipantAdapter()
+        participantAdapter = ParticipantAdapter(localPreviewRenderer)
         participantAdapter
                 .viewHolderEvents
                 .observe(this, { viewEvent: RoomViewEvent -> roomViewModel.processInput(viewEvent) })
         thumbnailRecyclerView.adapter = participantAdapter
     }
 
+    private fun setupStatsRecyclerView() {
+        statsListAdapter = StatsListAdapter(this)
+        statsRecyclerView.adapter = statsListAdapter
+        statsRecyclerView.layoutManager = LinearLayoutManager(this)
+    }
+
     override fun onStart() {
         super.onStart()
         checkIntentURI()
+        roomViewModel.processInput(MediaModeChanged(MediaMode.FOREGROUND))
     }
 
     override fun onResume() {
         super.onResume()
         displayName = sharedPreferences.getString(Preferences.DISPLAY_NAME, null)
         setTitle(displayName)
+        localPreviewRenderer.maxFrameRate = sharedPreferences.getInt(
+                Preferences.LOCAL_PREVIEW_FRAME_RATE, Preferences.LOCAL_PREVIEW_FRAME_RATE_DEFAULT)
         roomViewModel.processInput(OnResume)
+        // Stats may have been enabled or disabled in the settings screen
+        roomViewModel.stats.value?.let { updateStatsUI(it) }
+        frameMonitor?.start()
     }
 
     override fun onPause() {
         super.onPause()
         roomViewModel.processInput(OnPause)
+        frameMonitor?.stop()
+    }
+
+    override fun onStop() {
+        super.onStop()
+        roomViewModel.processInput(MediaModeChanged(MediaMode.BACKGROUND))
+        // The participants observer is inactive once stopped, so the sinks are detached right away
+        roomViewModel.participants.value?.let {
+            renderParticipants(it.forMediaMode(MediaMode.BACKGROUND))
+        }
+        roomViewModel.jankTracker?.reportSummary()
+    }
+
+    override fun onUserLeaveHint() {
+        super.onUserLeaveHint()
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O &&
+                !isRequestingScreenCapture &&
+                roomViewModel.callControls.value?.configuration == RoomViewConfiguration.Connected &&
+                sharedPreferences.getBoolean(Preferences.PICTURE_IN_PICTURE,
+                        Preferences.PICTURE_IN_PICTURE_DEFAULT)) {
+            enterPictureInPictureMode(PictureInPictureParams.Builder().build())
+        }
+    }
+
+    @TargetApi(Build.VERSION_CODES.O)
+    override fun onPictureInPictureModeChanged(
+        isInPictureInPictureMode: Boolean,
+        newConfig: Configuration
+    ) {
+        super.onPictureInPictureModeChanged(isInPictureInPictureMode, newConfig)
+        val visibility = if (isInPictureInPictureMode) View.GONE else View.VISIBLE
+        appBarLayout.visibility = visibility
+        thumbnailRecyclerView.visibility = visibility
+        callControlsLayout.visibility = visibility
+        roomViewModel.processInput(MediaModeChanged(
+                if (isInPictureInPictureMode) MediaMode.PICTURE_IN_PICTURE else MediaMode.FOREGROUND))
+    }
+
+    /*
+     * The tracker is only used by the RoomViewModel created for the first instance of this
+     * Activity, so that it keeps measuring across configuration changes.
+     */
+    private fun createJankTracker(): JankTracker? {
+        return if (sharedPreferences.getBoolean(Preferences.ENABLE_JANK_MONITOR,
+                        Preferences.ENABLE_JANK_MONITOR_DEFAULT)) {
+            JankTracker(JankLog(File(filesDir, JANK_LOG_FILE_NAME))::report)
+        } else null
     }
 
     private fun checkIntentURI(): Boolean {
@@ -270,12 +355,14 @@ class RoomActivity : BaseActivity() {
         switchCameraMenuItem = menu.findItem(R.id.switch_camera_menu_item)
         pauseVideoMenuItem = menu.findItem(R.id.pause_video_menu_item)
         pauseAudioMenuItem = menu.findItem(R.id.pause_audio_menu_item)
+        audioOnlyMenuItem = menu.findItem(R.id.audio_only_menu_item)
         screenCaptureMenuItem = menu.findItem(R.id.share_screen_menu_item)
         deviceMenuItem = menu.findItem(R.id.device_menu_item)
 
-        onStates(roomViewModel) { state ->
-            if (state is RoomViewState) bindRoomViewState(state)
-        }
+        roomViewModel.participants.observe(this, { renderParticipants(it) })
+        roomViewModel.callControls.observe(this, { updateLayout(it) })
+        roomViewModel.audioDevices.observe(this, { updateAudioDevices(it) })
+        roomViewModel.stats.observe(this, { updateStatsUI(it) })
         onEvents(roomViewModel) { eventWrapper ->
             eventWrapper.take()?.let { event ->
                 if (event is RoomViewEffect) bindRoomViewEffects(event)
@@ -316,6 +403,13 @@ class RoomActivity : BaseActivity() {
                     roomViewModel.processInput(EnableLocalVideo)
                 true
             }
+            R.id.audio_only_menu_item -> {
+                if (roomViewModel.callControls.value?.isAudioOnly == true)
+                    roomViewModel.processInput(DisableAudioOnlyMode)
+                else
+                    roomViewModel.processInput(EnableAudioOnlyMode)
+                true
+            }
             R.id.settings_menu_item -> {
                 val intent = Intent(this@RoomActivity, SettingsActivity::class.java)
                 startActivity(intent)
@@ -328,6 +422,7 @@ class RoomActivity : BaseActivity() {
     public override fun onActivityResult(requestCode: Int, resultCode: Int, data: Intent?) {
         super.onActivityResult(requestCode, resultCode, data)
         if (requestCode == MEDIA_PROJECTION_REQUEST_CODE) {
+            isRequestingScreenCapture = false
             if (resultCode != RESULT_OK) {
                 Snackbar.make(
                         primaryVideoView,
@@ -350,6 +445,8 @@ class RoomActivity : BaseActivity() {
     @OnTextChanged(value = [R.id.room_edit_text], callback = OnTextChanged.Callback.AFTER_TEXT_CHANGED)
     fun onTextChanged(text: CharSequence?) {
         connect.isEnabled = !TextUtils.isEmpty(text)
+        // Estimate the network while the room name is typed to seed the call media settings
+        if (connect.isEnabled) roomViewModel.processInput(ProbeNetwork)
     }
 
     @OnClick(R.id.connect)
@@ -392,7 +489,7 @@ class RoomActivity : BaseActivity() {
         }
     }
 
-    private fun updateLayout(roomViewState: RoomViewState) {
+    private fun updateLayout(roomViewState: CallControlsViewState) {
         var disconnectButtonState = View.GONE
         var joinRoomLayoutState = View.VISIBLE
         var joinStatusLayoutState = View.GONE
@@ -438,14 +535,11 @@ class RoomActivity : BaseActivity() {
         val isCameraEnabled = roomViewState.isCameraEnabled
         val isLocalMediaEnabled = isMicEnabled && isCameraEnabled
         localAudioImageButton.isEnabled = isLocalMediaEnabled
-        localVideoImageButton.isEnabled = isLocalMediaEnabled
+        localVideoImageButton.isEnabled = isLocalMediaEnabled && !roomViewState.isAudioOnly
         val micDrawable = if (roomViewState.isAudioMuted || !isLocalMediaEnabled) R.drawable.ic_mic_off_gray_24px else R.drawable.ic_mic_white_24px
-        val videoDrawable = if (roomViewState.isVideoOff || !isLocalMediaEnabled) R.drawable.ic_videocam_off_gray_24px else R.drawable.ic_videocam_white_24px
+        val videoDrawable = if (roomViewState.isVideoOff || roomViewState.isAudioOnly || !isLocalMediaEnabled) R.drawable.ic_videocam_off_gray_24px else R.drawable.ic_videocam_white_24px
         localAudioImageButton.setImageResource(micDrawable)
         localVideoImageButton.setImageResource(videoDrawable)
-        statsListAdapter = StatsListAdapter(this)
-        statsRecyclerView.adapter = statsListAdapter
-        statsRecyclerView.layoutManager = LinearLayoutManager(this)
         disconnectButton.visibility = disconnectButtonState
         joinRoomLayout.visibility = joinRoomLayoutState
         joinStatusLayout.visibility = joinStatusLayoutState
@@ -458,6 +552,9 @@ class RoomActivity : BaseActivity() {
         val pauseVideoTitle = getString(if (roomViewState.isVideoEnabled) R.string.pause_video else R.string.resume_video)
         pauseAudioMenuItem.title = pauseAudioTitle
         pauseVideoMenuItem.title = pauseVideoTitle
+        pauseVideoMenuItem.isVisible = !roomViewState.isAudioOnly
+        switchCameraMenuItem.isVisible = !roomViewState.isAudioOnly
+        audioOnlyMenuItem.title = getString(if (roomViewState.isAudioOnly) R.string.disable_audio_only else R.string.enable_audio_only)
 
         // TODO: Remove when we use a Service to obtainTokenAndConnect to a room
         settingsMenuItem.isVisible = settingsMenuItemState
@@ -498,37 +595,32 @@ class RoomActivity : BaseActivity() {
         val mediaProjectionManager = getSystemService(MEDIA_PROJECTION_SERVICE) as MediaProjectionManager
 
         // This initiates a prompt dialog for the user to confirm screen projection.
+        isRequestingScreenCapture = true
         startActivityForResult(
                 mediaProjectionManager.createScreenCaptureIntent(), MEDIA_PROJECTION_REQUEST_CODE)
     }
 
-    private fun updateStatsUI(roomViewState: RoomViewState) {
+    private fun updateStatsUI(statsViewState: StatsViewState) {
         val enableStats = sharedPreferences.getBoolean(
                 Preferences.ENABLE_STATS, Preferences.ENABLE_STATS_DEFAULT)
         if (enableStats) {
-            when (roomViewState.configuration) {
-                RoomViewConfiguration.Connected -> {
-                    statsListAdapter.updateStatsData(roomViewState.roomStats)
-                    statsRecyclerView.visibility = View.VISIBLE
-                    statsDisabledLayout.visibility = View.GONE
-
-                    // disable stats if there is room but no participants (no media)
-                    val isStreamingMedia = roomViewState.participantThumbnails?.let { thumbnails ->
-                        thumbnails.size > 1
-                    } ?: false
-                    if (!isStreamingMedia) {
-                        statsDisabledTitleTextView.text = getString(R.string.stats_unavailable)
-                        statsDisabledDescTextView.text = getString(R.string.stats_description_media_not_shared)
-                        statsRecyclerView.visibility = View.GONE
-                        statsDisabledLayout.visibility = View.VISIBLE
-                    }
-                }
-                else -> {
+            if (statsViewState.isConnected) {
+                statsListAdapter.updateStatsData(statsViewState.roomStats)
+                statsRecyclerView.visibility = View.VISIBLE
+                statsDisabledLayout.visibility = View.GONE
+
+                // disable stats if there is room but no participants (no media)
+                if (!statsViewState.isStreamingMedia) {
                     statsDisabledTitleTextView.text = getString(R.string.stats_unavailable)
-                    statsDisabledDescTextView.text = getString(R.string.stats_description_join_room)
+                    statsDisabledDescTextView.text = getString(R.string.stats_description_media_not_shared)
                     statsRecyclerView.visibility = View.GONE
                     statsDisabledLayout.visibility = View.VISIBLE
                 }
+            } else {
+                statsDisabledTitleTextView.text = getString(R.string.stats_unavailable)
+                statsDisabledDescTextView.text = getString(R.string.stats_description_join_room)
+                statsRecyclerView.visibility = View.GONE
+                statsDisabledLayout.visibility = View.VISIBLE
             }
         } else {
             statsDisabledTitleTextView.text = getString(R.string.stats_gathering_disabled)
@@ -538,30 +630,26 @@ class RoomActivity : BaseActivity() {
         }
     }
 
-    private fun toggleAudioDevice(enableAudioDevice: Boolean) {
-        setVolumeControl(enableAudioDevice)
-        val viewEvent = if (enableAudioDevice) ActivateAudioDevice else DeactivateAudioDevice
-        roomViewModel.processInput(viewEvent)
+    private fun renderParticipants(participantsViewState: ParticipantsViewState) {
+        renderPrimaryView(participantsViewState.primaryParticipant)
+        renderThumbnails(participantsViewState)
     }
 
-    private fun bindRoomViewState(roomViewState: RoomViewState) {
-        deviceMenuItem.isVisible = roomViewState.availableAudioDevices?.isNotEmpty() ?: false
-        renderPrimaryView(roomViewState.primaryParticipant)
-        renderThumbnails(roomViewState)
-        updateLayout(roomViewState)
-        updateAudioDeviceIcon(roomViewState.selectedDevice)
-        updateStatsUI(roomViewState)
+    private fun updateAudioDevices(audioDevicesViewState: AudioDevicesViewState) {
+        deviceMenuItem.isVisible =
+                audioDevicesViewState.availableAudioDevices?.isNotEmpty() ?: false
+        updateAudioDeviceIcon(audioDevicesViewState.selectedDevice)
     }
 
     private fun bindRoomViewEffects(roomViewEffect: RoomViewEffect) {
         when (roomViewEffect) {
             is Connected -> {
-                toggleAudioDevice(true)
+                setVolumeControl(true)
             }
             Disconnected -> {
                 localParticipantSid = LOCAL_PARTICIPANT_STUB_SID
                 // TODO Update stats
-                toggleAudioDevice(false)
+                setVolumeControl(false)
             }
             ShowConnectFailureDialog, ShowMaxParticipantFailureDialog -> {
                 AlertDialog.Builder(this, R.style.AppTheme_Dialog)
@@ -569,13 +657,15 @@ class RoomActivity : BaseActivity() {
                         .setMessage(getConnectFailureMessage(roomViewEffect))
                         .setNeutralButton(getString(android.R.string.ok), null)
                         .show()
-                toggleAudioDevice(false)
+                setVolumeControl(false)
             }
             is ShowTokenErrorDialog -> {
                 val error = roomViewEffect.serviceError
                 handleTokenError(error)
             }
             PermissionsDenied -> requestPermissions()
+            AutomaticAudioOnlyMode -> Snackbar.make(primaryVideoView,
+                    R.string.automatic_audio_only, Snackbar.LENGTH_LONG).show()
         }
     }
 
@@ -609,14 +699,16 @@ class RoomActivity : BaseActivity() {
         }
     }
 
-    private fun renderThumbnails(roomViewState: RoomViewState) {
-        val newThumbnails = if (roomViewState.configuration is RoomViewConfiguration.Connected)
-            roomViewState.participantThumbnails else null
-        participantAdapter.submitList(newThumbnails)
+    private fun renderThumbnails(participantsViewState: ParticipantsViewState) {
+        participantAdapter.maxFrameRate =
+                if (participantsViewState.degradationLevel >= DegradationLevel.REDUCED_RENDERING) {
+                    DEGRADED_THUMBNAIL_FRAME_RATE
+                } else 0
+        participantAdapter.submitList(participantsViewState.participantThumbnails)
     }
 
     private fun displayAudioDeviceList() {
-        (roomViewModel.getCurrentState() as RoomViewState).let { viewState ->
+        roomViewModel.audioDevices.value?.let { viewState ->
             val selectedDevice = viewState.selectedDevice
             val audioDevices = viewState.availableAudioDevices
             if (selectedDevice != null && audioDevices != null) {
@@ -670,6 +762,8 @@ class RoomActivity : BaseActivity() {
         // This will be used instead of real local participant sid,
         // because that information is unknown until room connection is fully established
         private const val LOCAL_PARTICIPANT_STUB_SID = ""
+        private const val DEGRADED_THUMBNAIL_FRAME_RATE = 10
+
         fun startActivity(context: Context, appLink: Uri?) {
             val intent = Intent(context, RoomActivity::class.java)
             intent.data = appLink
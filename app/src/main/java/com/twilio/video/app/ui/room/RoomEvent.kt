@@ -5,6 +5,7 @@ import com.twilio.video.Participant
 import com.twilio.video.Room
 import com.twilio.video.VideoTrack
 import com.twilio.video.app.data.api.AuthServiceError
+import com.twilio.video.app.sdk.DegradationLevel
 import com.twilio.video.app.sdk.RoomStats
 
 sealed class RoomEvent {
@@ -20,7 +21,13 @@ sealed class RoomEvent {
     object MaxParticipantFailure : RoomEvent()
     data class TokenError(val serviceError: AuthServiceError? = null) : RoomEvent()
     data class DominantSpeakerChanged(val newDominantSpeakerSid: String?) : RoomEvent()
+    data class SpeakingParticipantsChanged(val speakingParticipantSids: Set<String>) : RoomEvent()
     data class StatsUpdate(val roomStats: RoomStats) : RoomEvent()
+    data class DegradationLevelChanged(val degradationLevel: DegradationLevel) : RoomEvent()
+    data class AudioOnlyModeChanged(
+        val isAudioOnly: Boolean,
+        val isAutomatic: Boolean = false
+    ) : RoomEvent()
 
     sealed class RemoteParticipantEvent : RoomEvent() {
 
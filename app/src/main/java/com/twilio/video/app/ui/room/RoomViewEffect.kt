@@ -9,6 +9,7 @@ sealed class RoomViewEffect : UIEvent() {
     object PermissionsDenied : RoomViewEffect()
     data class Connected(val room: Room) : RoomViewEffect()
     object Disconnected : RoomViewEffect()
+    object AutomaticAudioOnlyMode : RoomViewEffect()
 
     object ShowConnectFailureDialog : RoomViewEffect()
     object ShowMaxParticipantFailureDialog : RoomViewEffect()
@@ -15,9 +15,11 @@ sealed class RoomViewEvent {
     data class StartScreenCapture(val captureResultCode: Int, val captureIntent: Intent) : RoomViewEvent()
     object StopScreenCapture : RoomViewEvent()
     object SwitchCamera : RoomViewEvent()
+    object EnableAudioOnlyMode : RoomViewEvent()
+    object DisableAudioOnlyMode : RoomViewEvent()
     data class SelectAudioDevice(val device: AudioDevice) : RoomViewEvent()
-    object ActivateAudioDevice : RoomViewEvent()
-    object DeactivateAudioDevice : RoomViewEvent()
+    object ProbeNetwork : RoomViewEvent()
+    data class MediaModeChanged(val mediaMode: MediaMode) : RoomViewEvent()
     data class Connect(val identity: String, val roomName: String) : RoomViewEvent()
     data class PinParticipant(val sid: String) : RoomViewEvent()
     data class VideoTrackRemoved(val sid: String) : RoomViewEvent()
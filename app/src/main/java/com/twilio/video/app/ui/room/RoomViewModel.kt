@@ -1,17 +1,23 @@
 package com.twilio.video.app.ui.room
 
 import android.Manifest.permission
+import androidx.lifecycle.LiveData
 import androidx.lifecycle.ViewModel
 import androidx.lifecycle.ViewModelProvider
-import com.twilio.audioswitch.AudioSwitch
 import com.twilio.video.Participant
+import com.twilio.video.app.audio.AudioRouter
+import com.twilio.video.app.jank.JankTracker
 import com.twilio.video.app.participant.ParticipantManager
+import com.twilio.video.app.participant.ParticipantViewState
 import com.twilio.video.app.participant.buildParticipantViewState
 import com.twilio.video.app.sdk.RoomManager
+import com.twilio.video.app.sdk.RoomStats
 import com.twilio.video.app.sdk.VideoTrackViewState
+import com.twilio.video.app.ui.room.RoomEvent.AudioOnlyModeChanged
 import com.twilio.video.app.ui.room.RoomEvent.ConnectFailure
 import com.twilio.video.app.ui.room.RoomEvent.Connected
 import com.twilio.video.app.ui.room.RoomEvent.Connecting
+import com.twilio.video.app.ui.room.RoomEvent.DegradationLevelChanged
 import com.twilio.video.app.ui.room.RoomEvent.Disconnected
 import com.twilio.video.app.ui.room.RoomEvent.DominantSpeakerChanged
 import com.twilio.video.app.ui.room.RoomEvent.LocalParticipantEvent
@@ -32,24 +38,28 @@ import com.twilio.video.app.ui.room.RoomEvent.RemoteParticipantEvent.RemoteParti
 import com.twilio.video.app.ui.room.RoomEvent.RemoteParticipantEvent.ScreenTrackUpdated
 import com.twilio.video.app.ui.room.RoomEvent.RemoteParticipantEvent.TrackSwitchOff
 import com.twilio.video.app.ui.room.RoomEvent.RemoteParticipantEvent.VideoTrackUpdated
+import com.twilio.video.app.ui.room.RoomEvent.SpeakingParticipantsChanged
 import com.twilio.video.app.ui.room.RoomEvent.StatsUpdate
 import com.twilio.video.app.ui.room.RoomEvent.TokenError
 import com.twilio.video.app.ui.room.RoomViewConfiguration.Lobby
+import com.twilio.video.app.ui.room.RoomViewEffect.AutomaticAudioOnlyMode
 import com.twilio.video.app.ui.room.RoomViewEffect.PermissionsDenied
 import com.twilio.video.app.ui.room.RoomViewEffect.ShowConnectFailureDialog
 import com.twilio.video.app.ui.room.RoomViewEffect.ShowMaxParticipantFailureDialog
 import com.twilio.video.app.ui.room.RoomViewEffect.ShowTokenErrorDialog
-import com.twilio.video.app.ui.room.RoomViewEvent.ActivateAudioDevice
 import com.twilio.video.app.ui.room.RoomViewEvent.Connect
-import com.twilio.video.app.ui.room.RoomViewEvent.DeactivateAudioDevice
+import com.twilio.video.app.ui.room.RoomViewEvent.DisableAudioOnlyMode
 import com.twilio.video.app.ui.room.RoomViewEvent.DisableLocalAudio
 import com.twilio.video.app.ui.room.RoomViewEvent.DisableLocalVideo
 import com.twilio.video.app.ui.room.RoomViewEvent.Disconnect
+import com.twilio.video.app.ui.room.RoomViewEvent.EnableAudioOnlyMode
 import com.twilio.video.app.ui.room.RoomViewEvent.EnableLocalAudio
 import com.twilio.video.app.ui.room.RoomViewEvent.EnableLocalVideo
+import com.twilio.video.app.ui.room.RoomViewEvent.MediaModeChanged
 import com.twilio.video.app.ui.room.RoomViewEvent.OnPause
 import com.twilio.video.app.ui.room.RoomViewEvent.OnResume
 import com.twilio.video.app.ui.room.RoomViewEvent.PinParticipant
+import com.twilio.video.app.ui.room.RoomViewEvent.ProbeNetwork
 import com.twilio.video.app.ui.room.RoomViewEvent.ScreenTrackRemoved
 import com.twilio.video.app.ui.room.RoomViewEvent.SelectAudioDevice
 import com.twilio.video.app.ui.room.RoomViewEvent.StartScreenCapture
@@ -58,48 +68,82 @@ import com.twilio.video.app.ui.room.RoomViewEvent.SwitchCamera
 import com.twilio.video.app.ui.room.RoomViewEvent.ToggleLocalAudio
 import com.twilio.video.app.ui.room.RoomViewEvent.ToggleLocalVideo
 import com.twilio.video.app.ui.room.RoomViewEvent.VideoTrackRemoved
+import com.twilio.video.app.util.DistinctLiveData
+import com.twilio.video.app.util.Logger
 import com.twilio.video.app.util.PermissionUtil
 import com.twilio.video.app.util.plus
 import io.reactivex.Scheduler
-import io.reactivex.android.schedulers.AndroidSchedulers
 import io.reactivex.disposables.CompositeDisposable
+import io.reactivex.schedulers.Schedulers
 import io.uniflow.androidx.flow.AndroidDataFlow
 import io.uniflow.core.flow.actionOn
-import io.uniflow.core.flow.data.UIState
+import java.util.concurrent.Executors
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.launch
 import timber.log.Timber
 
+/*
+ * A single background thread that reduces RoomEvents into participant and view state so that the
+ * main thread only binds views. The thumbnail diff is computed off the main thread by the
+ * ParticipantAdapter.
+ */
+private val roomEventScheduler: Scheduler by lazy {
+    Schedulers.from(Executors.newSingleThreadExecutor { Thread(it, "RoomEventReducer") })
+}
+
 class RoomViewModel(
     private val roomManager: RoomManager,
-    private val audioSwitch: AudioSwitch,
+    private val audioRouter: AudioRouter,
     private val permissionUtil: PermissionUtil,
     private val participantManager: ParticipantManager = ParticipantManager(),
     private val backgroundScope: CoroutineScope = CoroutineScope(Dispatchers.IO),
     private val rxDisposables: CompositeDisposable = CompositeDisposable(),
-    scheduler: Scheduler = AndroidSchedulers.mainThread(),
+    private val scheduler: Scheduler = roomEventScheduler,
+    val jankTracker: JankTracker? = null,
     initialViewState: RoomViewState = RoomViewState(participantManager.primaryParticipant)
 ) : AndroidDataFlow(defaultState = initialViewState) {
 
     private var permissionCheckRetry = false
+    private var roomStats: RoomStats? = null
+    private val mutableParticipants = DistinctLiveData<ParticipantsViewState>()
+    private val mutableCallControls = DistinctLiveData<CallControlsViewState>()
+    private val mutableAudioDevices = DistinctLiveData<AudioDevicesViewState>()
+    private val mutableStats = DistinctLiveData<StatsViewState>()
+
+    /*
+     * Each region of the room screen binds to its own stream so that, for example, a StatsUpdate
+     * every second does not rebind the participant views and call controls.
+     */
+    val participants: LiveData<ParticipantsViewState> = mutableParticipants
+    val callControls: LiveData<CallControlsViewState> = mutableCallControls
+    val audioDevices: LiveData<AudioDevicesViewState> = mutableAudioDevices
+    val stats: LiveData<StatsViewState> = mutableStats
 
     init {
-        audioSwitch.start { audioDevices, selectedDevice ->
-            actionOn<RoomViewState> { currentState ->
-                setState {
-                    currentState.copy(
-                        selectedDevice = selectedDevice,
-                        availableAudioDevices = audioDevices
-                    )
-                }
+        publishRegions(initialViewState)
+
+        audioRouter.start()
+        rxDisposables + audioRouter.audioDeviceStates
+                .subscribe({ audioDeviceState ->
+            setState {
+                it.copy(
+                    selectedDevice = audioDeviceState.selectedDevice,
+                    availableAudioDevices = audioDeviceState.availableAudioDevices
+                )
             }
-        }
+        }, {
+            Timber.e(it, "Error in AudioRouter AudioDeviceState stream")
+        })
 
         rxDisposables + roomManager.roomEvents
                 .observeOn(scheduler)
-                .subscribe({
-            observeRoomEvents(it)
+                .subscribe({ roomEvent ->
+            if (jankTracker != null) {
+                jankTracker.measure(roomEvent.javaClass.simpleName) { observeRoomEvents(roomEvent) }
+            } else {
+                observeRoomEvents(roomEvent)
+            }
         }, {
             Timber.e(it, "Error in RoomManager RoomEvent stream")
         })
@@ -107,25 +151,28 @@ class RoomViewModel(
 
     override fun onCleared() {
         super.onCleared()
-        audioSwitch.stop()
         rxDisposables.clear()
     }
 
     fun processInput(viewEvent: RoomViewEvent) {
-        Timber.d("View Event: $viewEvent")
+        Logger.d { "View Event: $viewEvent" }
 
         when (viewEvent) {
             OnResume -> checkPermissions()
             OnPause -> roomManager.onPause()
             is SelectAudioDevice -> {
-                audioSwitch.selectDevice(viewEvent.device)
+                audioRouter.selectDevice(viewEvent.device)
+            }
+            ProbeNetwork -> roomManager.probeNetwork()
+            is MediaModeChanged -> reduce {
+                participantManager.changeMediaMode(viewEvent.mediaMode)
+                roomManager.changeMediaMode(viewEvent.mediaMode)
+                setState { it.copy(mediaMode = viewEvent.mediaMode) }
             }
-            ActivateAudioDevice -> { audioSwitch.activate() }
-            DeactivateAudioDevice -> { audioSwitch.deactivate() }
             is Connect -> {
                 connect(viewEvent.identity, viewEvent.roomName)
             }
-            is PinParticipant -> {
+            is PinParticipant -> reduce {
                 participantManager.changePinnedParticipant(viewEvent.sid)
                 updateParticipantViewState()
             }
@@ -139,11 +186,13 @@ class RoomViewModel(
                     viewEvent.captureResultCode, viewEvent.captureIntent)
             StopScreenCapture -> roomManager.stopScreenCapture()
             SwitchCamera -> roomManager.switchCamera()
-            is VideoTrackRemoved -> {
+            EnableAudioOnlyMode -> roomManager.enableAudioOnlyMode()
+            DisableAudioOnlyMode -> roomManager.disableAudioOnlyMode()
+            is VideoTrackRemoved -> reduce {
                 participantManager.updateParticipantVideoTrack(viewEvent.sid, null)
                 updateParticipantViewState()
             }
-            is ScreenTrackRemoved -> {
+            is ScreenTrackRemoved -> reduce {
                 participantManager.updateParticipantScreenTrack(viewEvent.sid, null)
                 updateParticipantViewState()
             }
@@ -173,7 +222,7 @@ class RoomViewModel(
     }
 
     private fun observeRoomEvents(roomEvent: RoomEvent) {
-        Timber.d("observeRoomEvents: %s", roomEvent)
+        Logger.d { "observeRoomEvents: $roomEvent" }
         when (roomEvent) {
             is Connecting -> {
                 showConnectingViewState()
@@ -188,27 +237,39 @@ class RoomViewModel(
                 participantManager.changeDominantSpeaker(roomEvent.newDominantSpeakerSid)
                 updateParticipantViewState()
             }
-            is ConnectFailure -> action {
-                sendEvent {
-                    showLobbyViewState()
-                    ShowConnectFailureDialog
-                }
+            is SpeakingParticipantsChanged -> {
+                participantManager.updateSpeakingParticipants(roomEvent.speakingParticipantSids)
+                updateParticipantViewState()
             }
-            is MaxParticipantFailure -> action {
-                sendEvent {
-                    showLobbyViewState()
-                    ShowMaxParticipantFailureDialog
-                }
+            is ConnectFailure -> {
+                showLobbyViewState()
+                action { sendEvent { ShowConnectFailureDialog } }
             }
-            is TokenError -> action {
-                sendEvent {
-                    showLobbyViewState()
-                    ShowTokenErrorDialog(roomEvent.serviceError)
-                }
+            is MaxParticipantFailure -> {
+                showLobbyViewState()
+                action { sendEvent { ShowMaxParticipantFailureDialog } }
+            }
+            is TokenError -> {
+                showLobbyViewState()
+                action { sendEvent { ShowTokenErrorDialog(roomEvent.serviceError) } }
             }
             is RemoteParticipantEvent -> handleRemoteParticipantEvent(roomEvent)
             is LocalParticipantEvent -> handleLocalParticipantEvent(roomEvent)
-            is StatsUpdate -> setState { it.copy(roomStats = roomEvent.roomStats) }
+            is StatsUpdate -> actionOn<RoomViewState> { currentState ->
+                roomStats = roomEvent.roomStats
+                mutableStats.post(currentState.statsViewState(roomStats))
+            }
+            is DegradationLevelChanged -> setState {
+                it.copy(degradationLevel = roomEvent.degradationLevel)
+            }
+            is AudioOnlyModeChanged -> {
+                participantManager.changeAudioOnly(roomEvent.isAudioOnly)
+                setState { it.copy(isAudioOnly = roomEvent.isAudioOnly) }
+                updateParticipantViewState()
+                if (roomEvent.isAudioOnly && roomEvent.isAutomatic) {
+                    action { sendEvent { AutomaticAudioOnlyMode } }
+                }
+            }
         }
     }
 
@@ -305,15 +366,29 @@ class RoomViewModel(
         updateParticipantViewState()
     }
 
+    /*
+     * The participants are copied on the reducer thread because the state is applied later on
+     * the Uniflow action thread.
+     */
     private fun updateParticipantViewState() {
+        val participantThumbnails = participantManager.participantThumbnails
+        val primaryParticipant = participantManager.primaryParticipant
         setState {
             it.copy(
-                    participantThumbnails = participantManager.participantThumbnails,
-                    primaryParticipant = participantManager.primaryParticipant
+                    participantThumbnails = participantThumbnails,
+                    primaryParticipant = primaryParticipant
             )
         }
     }
 
+    /*
+     * Runs view events that change the participants on the same thread as the RoomEvents so
+     * that the ParticipantManager is only ever accessed from the reducer thread.
+     */
+    private fun reduce(action: () -> Unit) {
+        scheduler.scheduleDirect(action)
+    }
+
     private fun connect(identity: String, roomName: String) =
         backgroundScope.launch {
             roomManager.connect(
@@ -321,17 +396,30 @@ class RoomViewModel(
                     roomName)
         }
 
-    private fun setState(action: (currentState: RoomViewState) -> UIState) =
-        actionOn<RoomViewState> { currentState -> setState { action(currentState) } }
+    private fun setState(action: (currentState: RoomViewState) -> RoomViewState) =
+        actionOn<RoomViewState> { currentState ->
+            val newState = action(currentState)
+            setState { newState }
+            publishRegions(newState)
+        }
+
+    private fun publishRegions(roomViewState: RoomViewState) {
+        mutableParticipants.post(roomViewState.participantsViewState)
+        mutableCallControls.post(roomViewState.callControlsViewState)
+        mutableAudioDevices.post(roomViewState.audioDevicesViewState)
+        mutableStats.post(roomViewState.statsViewState(roomStats))
+    }
 
     class RoomViewModelFactory(
         private val roomManager: RoomManager,
-        private val audioDeviceSelector: AudioSwitch,
-        private val permissionUtil: PermissionUtil
+        private val audioRouter: AudioRouter,
+        private val permissionUtil: PermissionUtil,
+        private val jankTracker: JankTracker? = null
     ) : ViewModelProvider.Factory {
 
         override fun <T : ViewModel> create(modelClass: Class<T>): T {
-            return RoomViewModel(roomManager, audioDeviceSelector, permissionUtil) as T
+            return RoomViewModel(roomManager, audioRouter, permissionUtil,
+                    jankTracker = jankTracker) as T
         }
     }
 }
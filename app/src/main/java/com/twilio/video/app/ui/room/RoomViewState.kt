@@ -2,6 +2,7 @@ package com.twilio.video.app.ui.room
 
 import com.twilio.audioswitch.AudioDevice
 import com.twilio.video.app.participant.ParticipantViewState
+import com.twilio.video.app.sdk.DegradationLevel
 import com.twilio.video.app.sdk.RoomStats
 import com.twilio.video.app.sdk.VideoTrackViewState
 import com.twilio.video.app.ui.room.RoomViewConfiguration.Lobby
@@ -22,8 +23,97 @@ data class RoomViewState(
     val isVideoEnabled: Boolean = true,
     val isVideoOff: Boolean = false,
     val isScreenCaptureOn: Boolean = false,
-    val roomStats: RoomStats? = null
-) : UIState()
+    val isAudioOnly: Boolean = false,
+    val degradationLevel: DegradationLevel = DegradationLevel.NONE,
+    val mediaMode: MediaMode = MediaMode.FOREGROUND
+) : UIState() {
+
+    val participantsViewState get() = ParticipantsViewState(
+            primaryParticipant,
+            if (configuration is RoomViewConfiguration.Connected) participantThumbnails else null,
+            degradationLevel).forMediaMode(mediaMode).forAudioOnly(isAudioOnly)
+
+    val callControlsViewState get() = CallControlsViewState(
+            configuration,
+            title,
+            isCameraEnabled,
+            isMicEnabled,
+            isAudioMuted,
+            isAudioEnabled,
+            isVideoEnabled,
+            isVideoOff,
+            isScreenCaptureOn,
+            isAudioOnly)
+
+    val audioDevicesViewState get() = AudioDevicesViewState(selectedDevice, availableAudioDevices)
+
+    fun statsViewState(roomStats: RoomStats?) = StatsViewState(
+            configuration is RoomViewConfiguration.Connected,
+            participantThumbnails?.let { it.size > 1 } ?: false,
+            roomStats)
+}
+
+/*
+ * The RoomViewState is split into the regions of the room screen so that each region is only
+ * bound when its own part of the state changes.
+ */
+data class ParticipantsViewState(
+    val primaryParticipant: ParticipantViewState,
+    val participantThumbnails: List<ParticipantViewState>?,
+    val degradationLevel: DegradationLevel
+)
+
+/*
+ * Video tracks are left out outside of the foreground so that the participant views detach
+ * their sinks. Only the primary participant keeps the track it shows while in Picture-in-Picture.
+ */
+fun ParticipantsViewState.forMediaMode(mediaMode: MediaMode) = when (mediaMode) {
+    MediaMode.FOREGROUND -> this
+    MediaMode.PICTURE_IN_PICTURE -> copy(
+            primaryParticipant = primaryParticipant.run {
+                if (screenTrack != null) copy(videoTrack = null) else this
+            },
+            participantThumbnails = participantThumbnails?.map { it.withoutVideo() })
+    MediaMode.BACKGROUND -> copy(
+            primaryParticipant = primaryParticipant.withoutVideo(),
+            participantThumbnails = participantThumbnails?.map { it.withoutVideo() })
+}
+
+/*
+ * Video tracks are left out in audio only mode so that the participant views detach their sinks
+ * and show the avatar instead, while the ParticipantManager sets the tracks to low priority.
+ */
+fun ParticipantsViewState.forAudioOnly(isAudioOnly: Boolean) = if (isAudioOnly) {
+    copy(
+            primaryParticipant = primaryParticipant.withoutVideo(),
+            participantThumbnails = participantThumbnails?.map { it.withoutVideo() })
+} else this
+
+private fun ParticipantViewState.withoutVideo() = copy(videoTrack = null, screenTrack = null)
+
+data class CallControlsViewState(
+    val configuration: RoomViewConfiguration,
+    val title: String?,
+    val isCameraEnabled: Boolean,
+    val isMicEnabled: Boolean,
+    val isAudioMuted: Boolean,
+    val isAudioEnabled: Boolean,
+    val isVideoEnabled: Boolean,
+    val isVideoOff: Boolean,
+    val isScreenCaptureOn: Boolean,
+    val isAudioOnly: Boolean
+)
+
+data class AudioDevicesViewState(
+    val selectedDevice: AudioDevice?,
+    val availableAudioDevices: List<AudioDevice>?
+)
+
+data class StatsViewState(
+    val isConnected: Boolean,
+    val isStreamingMedia: Boolean,
+    val roomStats: RoomStats?
+)
 
 sealed class RoomViewConfiguration {
     object Connecting : RoomViewConfiguration()
@@ -1,6 +1,8 @@
 package com.twilio.video.app.ui.settings
 
+import android.content.Context
 import android.os.Bundle
+import androidx.lifecycle.lifecycleScope
 import androidx.preference.EditTextPreference
 import androidx.preference.ListPreference
 import androidx.preference.Preference
@@ -18,14 +20,35 @@ import com.twilio.video.app.R
 import com.twilio.video.app.data.Preferences
 import com.twilio.video.app.data.Preferences.VIDEO_CAPTURE_RESOLUTION
 import com.twilio.video.app.data.Preferences.VIDEO_DIMENSIONS
+import com.twilio.video.app.sdk.CodecCapabilities
+import com.twilio.video.app.sdk.CodecCapabilityRepository
+import com.twilio.video.app.sdk.H264_MIME_TYPE
+import com.twilio.video.app.sdk.VP8_MIME_TYPE
+import com.twilio.video.app.sdk.VP9_MIME_TYPE
 import com.twilio.video.app.util.isInternalFlavor
+import dagger.android.support.AndroidSupportInjection
+import javax.inject.Inject
+import kotlinx.coroutines.flow.collect
+import kotlinx.coroutines.launch
 
 class AdvancedSettingsFragment : BaseSettingsFragment() {
 
+    @Inject
+    internal lateinit var codecCapabilityRepository: CodecCapabilityRepository
+
     private var identityPreference: EditTextPreference? = null
     private val videoCodecNames = arrayOf(Vp8Codec.NAME, H264Codec.NAME, Vp9Codec.NAME)
+    private val videoCodecMimeTypes = mapOf(
+            Vp8Codec.NAME to VP8_MIME_TYPE,
+            H264Codec.NAME to H264_MIME_TYPE,
+            Vp9Codec.NAME to VP9_MIME_TYPE)
     private val audioCodecNames = arrayOf(IsacCodec.NAME, OpusCodec.NAME, PcmaCodec.NAME, PcmuCodec.NAME, G722Codec.NAME)
 
+    override fun onAttach(context: Context) {
+        AndroidSupportInjection.inject(this)
+        super.onAttach(context)
+    }
+
     override fun onCreatePreferences(savedInstanceState: Bundle?, rootKey: String?) {
         addPreferencesFromResource(R.xml.advanced_preferences)
 
@@ -58,11 +81,10 @@ class AdvancedSettingsFragment : BaseSettingsFragment() {
                 findPreference(Preferences.AUDIO_CODEC) as ListPreference?)
 
         // Fill out the rest of settings
-        identityPreference = findPreference<EditTextPreference>(Preferences.DISPLAY_NAME)?.apply {
-            summary = sharedPreferences.getString(Preferences.DISPLAY_NAME, null)
-            setOnPreferenceChangeListener { _, newValue ->
-                summary = newValue as CharSequence?
-                true
+        identityPreference = findPreference(Preferences.DISPLAY_NAME)
+        lifecycleScope.launch {
+            sharedPreferences.observe(Preferences.DISPLAY_NAME, "").collect {
+                identityPreference?.summary = it
             }
         }
     }
@@ -78,17 +100,37 @@ class AdvancedSettingsFragment : BaseSettingsFragment() {
         }
 
         val codecEntries = if (codecClass == AudioCodec::class.java) audioCodecNames else videoCodecNames
-        // saved value
-        val value = sharedPreferences.getString(key, defaultValue)
+
+        // Label video codecs with their hardware support when the capability probe has completed
+        val codecCapabilities = codecCapabilityRepository.capabilities
+        val codecLabels = if (codecClass == VideoCodec::class.java && codecCapabilities != null) {
+            codecEntries.map { getVideoCodecLabel(it, codecCapabilities) }.toTypedArray()
+        } else codecEntries
 
         // bind values
-        preference.entries = codecEntries
+        preference.entries = codecLabels
         preference.entryValues = codecEntries
-        preference.value = value
-        preference.summary = value
+        lifecycleScope.launch {
+            val value = sharedPreferences.getValue(key, defaultValue)
+            preference.value = value
+            preference.summary = codecLabels.getOrNull(codecEntries.indexOf(value)) ?: value
+        }
         preference.setOnPreferenceChangeListener { changedPreference, newValue ->
-            changedPreference.summary = newValue.toString()
+            changedPreference.summary = codecLabels.getOrNull(codecEntries.indexOf(newValue))
+                    ?: newValue.toString()
             true
         }
     }
+
+    private fun getVideoCodecLabel(codecName: String, codecCapabilities: CodecCapabilities): String {
+        val hardwareEncoder = videoCodecMimeTypes[codecName]?.let {
+            codecCapabilities.find(it, isEncoder = true, isHardwareAccelerated = true)
+        }
+        return if (hardwareEncoder != null) {
+            getString(R.string.settings_screen_video_codec_hardware, codecName,
+                    hardwareEncoder.maxWidth, hardwareEncoder.maxHeight, hardwareEncoder.maxFrameRate)
+        } else {
+            getString(R.string.settings_screen_video_codec_software, codecName)
+        }
+    }
 }
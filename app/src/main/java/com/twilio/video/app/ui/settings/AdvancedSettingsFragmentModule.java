@@ -0,0 +1,16 @@
+package com.twilio.video.app.ui.settings;
+
+import dagger.Binds;
+import dagger.Module;
+import dagger.android.AndroidInjector;
+import dagger.multibindings.ClassKey;
+import dagger.multibindings.IntoMap;
+
+@Module(subcomponents = AdvancedSettingsFragmentSubcomponent.class)
+public abstract class AdvancedSettingsFragmentModule {
+    @Binds
+    @IntoMap
+    @ClassKey(AdvancedSettingsFragment.class)
+    abstract AndroidInjector.Factory<?> bindYourFragmentInjectorFactory(
+            AdvancedSettingsFragmentSubcomponent.Factory factory);
+}
@@ -0,0 +1,10 @@
+package com.twilio.video.app.ui.settings;
+
+import dagger.Subcomponent;
+import dagger.android.AndroidInjector;
+
+@Subcomponent
+public interface AdvancedSettingsFragmentSubcomponent extends AndroidInjector<AdvancedSettingsFragment> {
+    @Subcomponent.Factory
+    interface Factory extends AndroidInjector.Factory<AdvancedSettingsFragment> {}
+}
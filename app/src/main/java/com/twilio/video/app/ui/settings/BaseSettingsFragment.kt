@@ -1,18 +1,25 @@
 package com.twilio.video.app.ui.settings
 
-import android.content.SharedPreferences
 import android.view.MenuItem
+import androidx.lifecycle.lifecycleScope
 import androidx.preference.ListPreference
 import androidx.preference.Preference
 import androidx.preference.PreferenceFragmentCompat
+import com.twilio.video.app.android.SharedPreferencesWrapper
 import com.twilio.video.app.base.BaseActivity
 import com.twilio.video.app.data.NumberPreference
 import com.twilio.video.app.data.NumberPreferenceDialogFragmentCompat
-import com.twilio.video.app.util.get
+import kotlinx.coroutines.launch
 
 abstract class BaseSettingsFragment : PreferenceFragmentCompat() {
 
-    protected val sharedPreferences: SharedPreferences get() = preferenceManager.sharedPreferences
+    /*
+     * The values shown next to the preferences are read with the suspending and Flow APIs so that
+     * opening a settings screen never waits on the preferences file.
+     */
+    protected val sharedPreferences by lazy {
+        SharedPreferencesWrapper(preferenceManager.sharedPreferences)
+    }
 
     override fun onResume() {
         super.onResume()
@@ -53,9 +60,11 @@ abstract class BaseSettingsFragment : PreferenceFragmentCompat() {
      * value of the preference.
      */
     protected fun setListPreferenceValue(arrayId: Int, key: String, defaultValue: String) {
-        val valueIndex = resources
-            .getStringArray(arrayId).indexOf(sharedPreferences.get(key, defaultValue))
-        findPreference<ListPreference>(key)?.setValueIndex(valueIndex)
+        lifecycleScope.launch {
+            val valueIndex = resources
+                .getStringArray(arrayId).indexOf(sharedPreferences.getValue(key, defaultValue))
+            findPreference<ListPreference>(key)?.setValueIndex(valueIndex)
+        }
     }
 
     /*
@@ -63,10 +72,12 @@ abstract class BaseSettingsFragment : PreferenceFragmentCompat() {
      * of the preference.
      */
     protected fun setNumberPreferenceValue(key: String, defaultValue: Int) {
-        findPreference<NumberPreference>(key)?.apply {
-            val numberValue = sharedPreferences.get(key, defaultValue)
-            summary = numberValue.toString()
-            number = numberValue
+        lifecycleScope.launch {
+            val numberValue = sharedPreferences.getValue(key, defaultValue)
+            findPreference<NumberPreference>(key)?.apply {
+                summary = numberValue.toString()
+                number = numberValue
+            }
         }
     }
 }
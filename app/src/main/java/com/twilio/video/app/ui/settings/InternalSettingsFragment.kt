@@ -1,26 +1,29 @@
 package com.twilio.video.app.ui.settings
 
 import android.os.Bundle
+import androidx.lifecycle.lifecycleScope
 import androidx.preference.ListPreference
 import com.twilio.video.app.R
 import com.twilio.video.app.data.Preferences
 import com.twilio.video.app.data.api.model.Topology
+import kotlinx.coroutines.launch
 
 class InternalSettingsFragment : BaseSettingsFragment() {
 
     override fun onCreatePreferences(savedInstanceState: Bundle?, rootKey: String?) {
         addPreferencesFromResource(R.xml.internal_preferences)
 
-        findPreference<ListPreference>(Preferences.ENVIRONMENT)?.run {
-            value = sharedPreferences.getString(Preferences.ENVIRONMENT,
-                    Preferences.ENVIRONMENT_DEFAULT)
-        }
-
-        findPreference<ListPreference>(Preferences.TOPOLOGY)?.run {
+        val topologyPreference = findPreference<ListPreference>(Preferences.TOPOLOGY)?.apply {
             val roomTypes = Topology.values().map { it.value }.toTypedArray()
             entries = roomTypes
             entryValues = roomTypes
-            value = sharedPreferences.getString(Preferences.TOPOLOGY,
+        }
+
+        lifecycleScope.launch {
+            findPreference<ListPreference>(Preferences.ENVIRONMENT)?.value =
+                    sharedPreferences.getValue(Preferences.ENVIRONMENT,
+                            Preferences.ENVIRONMENT_DEFAULT)
+            topologyPreference?.value = sharedPreferences.getValue(Preferences.TOPOLOGY,
                     Preferences.TOPOLOGY_DEFAULT)
         }
 
@@ -18,11 +18,13 @@ package com.twilio.video.app.ui.splash
 
 import android.content.Intent
 import android.os.Bundle
+import androidx.lifecycle.lifecycleScope
 import com.twilio.video.app.auth.Authenticator
 import com.twilio.video.app.base.BaseActivity
 import com.twilio.video.app.ui.ScreenSelector
 import com.twilio.video.app.ui.room.RoomActivity
 import javax.inject.Inject
+import kotlinx.coroutines.launch
 
 class SplashActivity : BaseActivity() {
 
@@ -31,11 +33,13 @@ class SplashActivity : BaseActivity() {
 
     override fun onCreate(savedInstanceState: Bundle?) {
         super.onCreate(savedInstanceState)
-        val newIntent = if (authenticator.loggedIn())
-            Intent(this, RoomActivity::class.java)
-        else
-            Intent(this, screenSelector.loginScreen)
-        startActivity(newIntent.apply { data = intent.data })
-        finish()
+        lifecycleScope.launch {
+            val newIntent = if (authenticator.isLoggedIn())
+                Intent(this@SplashActivity, RoomActivity::class.java)
+            else
+                Intent(this@SplashActivity, screenSelector.loginScreen)
+            startActivity(newIntent.apply { data = intent.data })
+            finish()
+        }
     }
 }
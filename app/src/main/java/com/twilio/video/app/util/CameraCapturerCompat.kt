@@ -56,22 +56,27 @@ class CameraCapturerCompat(
     }
 
     companion object {
-        fun newInstance(context: Context): CameraCapturerCompat? {
+        /*
+         * Captures from the camera with the given id if it is the front or back camera, otherwise
+         * from the front camera if there is one.
+         */
+        fun newInstance(context: Context, cameraId: String? = null): CameraCapturerCompat? {
             return if (Camera2Capturer.isSupported(context)) {
                 Camera2Enumerator(context).getFrontAndBackCameraIds(context)?.let { cameraIds ->
-                    val cameraCapturer = Camera2Capturer(context, cameraIds.first
-                            ?: cameraIds.second ?: "")
+                    val cameraCapturer = Camera2Capturer(context, cameraIds.select(cameraId))
                     CameraCapturerCompat(cameraIds.first, cameraIds.second, camera2Capturer = cameraCapturer)
                 }
             } else {
                 Camera1Enumerator().getFrontAndBackCameraIds(context)?.let { cameraIds ->
-                    val cameraCapturer = CameraCapturer(context, cameraIds.first ?: cameraIds.second
-                    ?: "")
+                    val cameraCapturer = CameraCapturer(context, cameraIds.select(cameraId))
                     CameraCapturerCompat(cameraIds.first, cameraIds.second, cameraCapturer = cameraCapturer)
                 }
             }
         }
 
+        private fun Pair<String?, String?>.select(cameraId: String?): String =
+                cameraId?.takeIf { it == first || it == second } ?: first ?: second ?: ""
+
         private fun CameraEnumerator.getFrontAndBackCameraIds(context: Context): Pair<String?, String?>? {
             val cameraIds = deviceNames.find { isFrontFacing(it) && isCameraIdSupported(context, it) } to
                     deviceNames.find { isBackFacing(it) && isCameraIdSupported(context, it) }
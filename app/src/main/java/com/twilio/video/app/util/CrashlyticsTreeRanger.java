@@ -17,27 +17,74 @@
 package com.twilio.video.app.util;
 
 import com.google.firebase.crashlytics.FirebaseCrashlytics;
+import com.twilio.video.app.ApplicationScope;
+import java.util.ArrayDeque;
+import java.util.Queue;
 import javax.inject.Inject;
 
+/*
+ * Forwards log messages to Crashlytics. The tree is planted before Crashlytics is started, so
+ * messages logged until start() is called are kept and forwarded once it has been.
+ */
+@ApplicationScope
 public class CrashlyticsTreeRanger implements TreeRanger {
 
-    FirebaseCrashlytics crashlytics = FirebaseCrashlytics.getInstance();
+    private static final int MAX_PENDING = 64;
+
+    private final Queue<Object> pending = new ArrayDeque<>();
+    private volatile FirebaseCrashlytics crashlytics;
 
     @Inject
     public CrashlyticsTreeRanger() {}
 
+    public void start() {
+        FirebaseCrashlytics crashlytics = FirebaseCrashlytics.getInstance();
+        synchronized (this) {
+            for (Object breadcrumb : pending) {
+                forward(crashlytics, breadcrumb);
+            }
+            pending.clear();
+            this.crashlytics = crashlytics;
+        }
+    }
+
     @Override
     public void inform(String message) {
-        crashlytics.log(message);
+        record(message);
     }
 
     @Override
     public void caution(String message) {
-        crashlytics.log(message);
+        record(message);
     }
 
     @Override
     public void alert(Throwable throwable) {
-        crashlytics.recordException(throwable);
+        record(throwable);
+    }
+
+    private void record(Object breadcrumb) {
+        FirebaseCrashlytics crashlytics = this.crashlytics;
+        if (crashlytics == null) {
+            synchronized (this) {
+                crashlytics = this.crashlytics;
+                if (crashlytics == null) {
+                    if (pending.size() == MAX_PENDING) {
+                        pending.remove();
+                    }
+                    pending.add(breadcrumb);
+                    return;
+                }
+            }
+        }
+        forward(crashlytics, breadcrumb);
+    }
+
+    private static void forward(FirebaseCrashlytics crashlytics, Object breadcrumb) {
+        if (breadcrumb instanceof Throwable) {
+            crashlytics.recordException((Throwable) breadcrumb);
+        } else {
+            crashlytics.log((String) breadcrumb);
+        }
     }
 }
@@ -0,0 +1,23 @@
+package com.twilio.video.app.util
+
+import androidx.lifecycle.LiveData
+
+/*
+ * A LiveData that can be posted to from any thread and only dispatches values that differ from
+ * the last one posted. Unlike Transformations.distinctUntilChanged the comparison does not
+ * depend on the LiveData having active observers.
+ */
+class DistinctLiveData<T> : LiveData<T>() {
+
+    private var lastPosted: Any? = UNSET
+
+    fun post(value: T) {
+        synchronized(this) {
+            if (value == lastPosted) return
+            lastPosted = value
+        }
+        postValue(value)
+    }
+
+    private object UNSET
+}
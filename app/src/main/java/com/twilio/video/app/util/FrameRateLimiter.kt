@@ -0,0 +1,58 @@
+package com.twilio.video.app.util
+
+import java.util.concurrent.TimeUnit
+
+/*
+ * Limits a stream of video frames to maxFrameRate based on their timestamps. A max frame rate of
+ * zero lets every frame through. The first frame and a frame with a timestamp before the last one
+ * are always due since they come from a new source, such as a restarted capturer.
+ *
+ * The max frame rate can be changed from any thread, frames are passed from a single thread.
+ */
+class FrameRateLimiter @JvmOverloads constructor(maxFrameRate: Int = 0) {
+
+    var maxFrameRate = maxFrameRate
+        set(value) {
+            field = value
+            minFrameIntervalNs = toFrameIntervalNs(value)
+        }
+
+    @Volatile
+    private var minFrameIntervalNs = toFrameIntervalNs(maxFrameRate)
+    @Volatile
+    private var hasFrame = false
+    @Volatile
+    private var lastFrameTimestampNs = 0L
+
+    fun isNewSource(timestampNs: Long) = !hasFrame || timestampNs < lastFrameTimestampNs
+
+    fun elapsedNs(timestampNs: Long) = timestampNs - lastFrameTimestampNs
+
+    fun isFrameDue(timestampNs: Long) = minFrameIntervalNs == 0L ||
+            isNewSource(timestampNs) ||
+            elapsedNs(timestampNs) >= minFrameIntervalNs
+
+    /*
+     * Records a frame that was let through, which the following frames are limited against.
+     */
+    fun onFrame(timestampNs: Long) {
+        lastFrameTimestampNs = timestampNs
+        hasFrame = true
+    }
+
+    /*
+     * Returns true and records the frame if it is due.
+     */
+    fun tryAcquire(timestampNs: Long) = isFrameDue(timestampNs).also {
+        if (it) onFrame(timestampNs)
+    }
+
+    /*
+     * How long after the frame with the given timestamp the next frame is due.
+     */
+    fun delayNs(timestampNs: Long) =
+            (lastFrameTimestampNs + minFrameIntervalNs - timestampNs).coerceAtLeast(0)
+
+    private fun toFrameIntervalNs(maxFrameRate: Int) =
+            if (maxFrameRate > 0) TimeUnit.SECONDS.toNanos(1) / maxFrameRate else 0L
+}
@@ -0,0 +1,38 @@
+package com.twilio.video.app.util
+
+import android.util.Log
+import com.twilio.video.app.BuildConfig
+import timber.log.Timber
+
+/*
+ * Logging for hot paths. The priority is checked before the message is built and messages are
+ * supplied by inline lambdas, so a disabled call costs a field read and allocates nothing.
+ * Verbose and debug calls are only made in the builds that plant the DebugTree, see TreeModule,
+ * and are removed from community release builds.
+ */
+object Logger {
+
+    @JvmField
+    val isDebugLoggingEnabled = BuildConfig.DEBUG || isInternalFlavor
+
+    /*
+     * Messages below this priority are dropped before they are built.
+     */
+    @JvmField
+    @Volatile
+    var minPriority = if (isDebugLoggingEnabled) Log.VERBOSE else Log.INFO
+
+    fun isLoggable(priority: Int) = priority >= minPriority
+
+    inline fun v(message: () -> String) {
+        if (isDebugLoggingEnabled && isLoggable(Log.VERBOSE)) Timber.v(message())
+    }
+
+    inline fun d(message: () -> String) {
+        if (isDebugLoggingEnabled && isLoggable(Log.DEBUG)) Timber.d(message())
+    }
+
+    inline fun i(message: () -> String) {
+        if (isLoggable(Log.INFO)) Timber.i(message())
+    }
+}
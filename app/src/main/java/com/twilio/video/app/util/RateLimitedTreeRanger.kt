@@ -0,0 +1,46 @@
+package com.twilio.video.app.util
+
+import android.os.SystemClock
+
+private const val WINDOW_MS = 1000L
+
+/*
+ * Limits the informational breadcrumbs forwarded to the delegate to maxBreadcrumbsPerSecond so
+ * that bursts of events do not flood the crash reporter and push out the breadcrumbs that led to
+ * a crash. The number of dropped breadcrumbs is recorded with the next one that is let through.
+ * Cautions and alerts are always forwarded.
+ */
+class RateLimitedTreeRanger @JvmOverloads constructor(
+    private val delegate: TreeRanger,
+    private val maxBreadcrumbsPerSecond: Int = 10,
+    private val clock: () -> Long = SystemClock::elapsedRealtime
+) : TreeRanger {
+
+    private var windowStartMs = Long.MIN_VALUE / 2
+    private var windowCount = 0
+    private var droppedCount = 0
+
+    override fun inform(message: String) {
+        val now = clock()
+        val breadcrumb = synchronized(this) {
+            if (now - windowStartMs >= WINDOW_MS) {
+                windowStartMs = now
+                windowCount = 0
+            }
+            if (windowCount < maxBreadcrumbsPerSecond) {
+                windowCount++
+                if (droppedCount > 0) {
+                    "($droppedCount breadcrumbs dropped) $message".also { droppedCount = 0 }
+                } else message
+            } else {
+                droppedCount++
+                null
+            }
+        }
+        breadcrumb?.let { delegate.inform(it) }
+    }
+
+    override fun caution(message: String) = delegate.caution(message)
+
+    override fun alert(throwable: Throwable) = delegate.alert(throwable)
+}
@@ -18,6 +18,7 @@ package com.twilio.video.app.util;
 
 import android.util.Log;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import timber.log.Timber;
 
 public class ReleaseTree extends Timber.Tree {
@@ -27,12 +28,16 @@ public class ReleaseTree extends Timber.Tree {
         this.treeRanger = treeRanger;
     }
 
+    @Override
+    protected boolean isLoggable(@Nullable String tag, int priority) {
+        // Checked by Timber before formatting, so verbose and debug messages are never built
+        return priority >= Log.INFO;
+    }
+
     @Override
     protected void log(int priority, String tag, @NotNull String message, Throwable throwable) {
         // No logging in release, but we allow the ranger to still act
         switch (priority) {
-            case Log.VERBOSE:
-            case Log.DEBUG:
             case Log.INFO:
                 treeRanger.inform(message);
                 break;
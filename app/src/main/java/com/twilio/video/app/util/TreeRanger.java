@@ -16,7 +16,7 @@
 
 package com.twilio.video.app.util;
 
-interface TreeRanger {
+public interface TreeRanger {
     void inform(String message);
 
     void caution(String message);
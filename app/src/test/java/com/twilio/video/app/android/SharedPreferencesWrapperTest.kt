@@ -0,0 +1,50 @@
+package com.twilio.video.app.android
+
+import com.twilio.video.app.data.Preferences.DISPLAY_NAME
+import com.twilio.video.app.data.Preferences.EMAIL
+import com.twilio.video.app.util.FakeSharedPreferences
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.collect
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.TestCoroutineDispatcher
+import kotlinx.coroutines.test.runBlockingTest
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Test
+
+@ExperimentalCoroutinesApi
+class SharedPreferencesWrapperTest {
+
+    private val dispatcher = TestCoroutineDispatcher()
+    private val sharedPreferences = FakeSharedPreferences()
+    private val wrapper = SharedPreferencesWrapper(sharedPreferences, dispatcher)
+
+    @Test
+    fun `edit should write all values of the transaction`() {
+        dispatcher.runBlockingTest {
+            wrapper.edit {
+                putString(DISPLAY_NAME, "Alice")
+                putString(EMAIL, "alice@example.com")
+            }
+
+            assertThat(wrapper.getValue(DISPLAY_NAME, ""), equalTo("Alice"))
+            assertThat(wrapper.getValue(EMAIL, ""), equalTo("alice@example.com"))
+        }
+    }
+
+    @Test
+    fun `observe should emit the current value followed by changes to the key`() {
+        dispatcher.runBlockingTest {
+            wrapper.edit { putString(DISPLAY_NAME, "Alice") }
+            val values = mutableListOf<String>()
+
+            val job = launch { wrapper.observe(DISPLAY_NAME, "").collect { values.add(it) } }
+            wrapper.edit { putString(DISPLAY_NAME, "Bob") }
+            wrapper.edit { putString(EMAIL, "bob@example.com") }
+            wrapper.edit { putString(DISPLAY_NAME, "Bob") }
+            job.cancel()
+
+            assertThat(values, equalTo(listOf("Alice", "Bob")))
+        }
+    }
+}
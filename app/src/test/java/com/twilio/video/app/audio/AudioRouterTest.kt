@@ -0,0 +1,63 @@
+package com.twilio.video.app.audio
+
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.argumentCaptor
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.times
+import com.nhaarman.mockitokotlin2.verify
+import com.twilio.audioswitch.AudioDevice
+import com.twilio.audioswitch.AudioSwitch
+import com.twilio.video.app.ui.room.RoomEvent
+import io.reactivex.subjects.PublishSubject
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Test
+
+class AudioRouterTest {
+
+    private val audioSwitch = mock<AudioSwitch>()
+    private val roomEvents = PublishSubject.create<RoomEvent>()
+    private val audioRouter = AudioRouter(audioSwitch, roomEvents)
+
+    @Test
+    fun `start should only start the AudioSwitch once`() {
+        audioRouter.start()
+        audioRouter.start()
+
+        verify(audioSwitch, times(1)).start(any())
+    }
+
+    @Test
+    fun `a new subscriber should receive the latest device state`() {
+        val speakerphone = AudioDevice.Speakerphone()
+        val listenerCaptor = argumentCaptor<(List<AudioDevice>, AudioDevice?) -> Unit>()
+        audioRouter.start()
+        verify(audioSwitch).start(listenerCaptor.capture())
+
+        listenerCaptor.firstValue(listOf(speakerphone), speakerphone)
+
+        audioRouter.audioDeviceStates.test()
+                .assertValue(AudioRouter.AudioDeviceState(listOf(speakerphone), speakerphone))
+    }
+
+    @Test
+    fun `audio should be routed while connected to a room`() {
+        roomEvents.onNext(RoomEvent.Connected(emptyList(), mock(), "room"))
+        roomEvents.onNext(RoomEvent.Connected(emptyList(), mock(), "room"))
+
+        assertThat(audioRouter.isActivated, equalTo(true))
+        verify(audioSwitch, times(1)).activate()
+
+        roomEvents.onNext(RoomEvent.Disconnected)
+
+        assertThat(audioRouter.isActivated, equalTo(false))
+        verify(audioSwitch).deactivate()
+    }
+
+    @Test
+    fun `a failed connection should not deactivate audio that was never activated`() {
+        roomEvents.onNext(RoomEvent.ConnectFailure)
+
+        verify(audioSwitch, times(0)).deactivate()
+    }
+}
@@ -4,6 +4,7 @@ import android.content.SharedPreferences
 import com.nhaarman.mockitokotlin2.mock
 import com.nhaarman.mockitokotlin2.whenever
 import com.twilio.video.app.BaseUnitTest
+import com.twilio.video.app.android.SharedPreferencesWrapper
 import com.twilio.video.app.data.Preferences
 import com.twilio.video.app.data.Preferences.RECORD_PARTICIPANTS_ON_CONNECT
 import com.twilio.video.app.data.Preferences.RECORD_PARTICIPANTS_ON_CONNECT_DEFAULT
@@ -32,6 +33,8 @@ class VideoAppServiceDelegateTest : BaseUnitTest() {
         whenever(mock.getBoolean(RECORD_PARTICIPANTS_ON_CONNECT, Preferences
             .RECORD_PARTICIPANTS_ON_CONNECT_DEFAULT)).thenReturn(RECORD_PARTICIPANTS_ON_CONNECT_DEFAULT)
     }
+    private val sharedPreferencesWrapper =
+            SharedPreferencesWrapper(sharedPreferences, coroutineScope.dispatcher)
     private val videoAppServiceDev: VideoAppService = mock()
     private val videoAppServiceStage: VideoAppService = mock()
     private val videoAppServiceProd: VideoAppService = mock()
@@ -40,7 +43,7 @@ class VideoAppServiceDelegateTest : BaseUnitTest() {
     fun `getToken should retrieve production environment token successfully`() {
         coroutineScope.runBlockingTest {
             mockService(videoAppServiceProd, prodTestToken)
-            val videoAppServiceDelegate = VideoAppServiceDelegate(sharedPreferences, videoAppServiceDev, videoAppServiceStage, videoAppServiceProd)
+            val videoAppServiceDelegate = VideoAppServiceDelegate(sharedPreferencesWrapper, videoAppServiceDev, videoAppServiceStage, videoAppServiceProd)
             whenever(sharedPreferences.getString(Preferences.ENVIRONMENT, Preferences.ENVIRONMENT_DEFAULT))
                     .thenReturn("production")
 
@@ -54,7 +57,7 @@ class VideoAppServiceDelegateTest : BaseUnitTest() {
     fun `getToken should retrieve stage environment token successfully`() {
         coroutineScope.runBlockingTest {
             mockService(videoAppServiceStage, stageTestToken)
-            val videoAppServiceDelegate = VideoAppServiceDelegate(sharedPreferences, videoAppServiceDev, videoAppServiceStage, videoAppServiceProd)
+            val videoAppServiceDelegate = VideoAppServiceDelegate(sharedPreferencesWrapper, videoAppServiceDev, videoAppServiceStage, videoAppServiceProd)
             whenever(sharedPreferences.getString(Preferences.ENVIRONMENT, Preferences.ENVIRONMENT_DEFAULT))
                     .thenReturn(TWILIO_API_STAGE_ENV)
 
@@ -68,7 +71,7 @@ class VideoAppServiceDelegateTest : BaseUnitTest() {
     fun `getToken should retrieve dev environment token successfully`() {
         coroutineScope.runBlockingTest {
             mockService(videoAppServiceDev, devTestToken)
-            val videoAppServiceDelegate = VideoAppServiceDelegate(sharedPreferences, videoAppServiceDev, videoAppServiceStage, videoAppServiceProd)
+            val videoAppServiceDelegate = VideoAppServiceDelegate(sharedPreferencesWrapper, videoAppServiceDev, videoAppServiceStage, videoAppServiceProd)
             whenever(sharedPreferences.getString(Preferences.ENVIRONMENT, Preferences.ENVIRONMENT_DEFAULT))
                     .thenReturn(TWILIO_API_DEV_ENV)
 
@@ -0,0 +1,73 @@
+package com.twilio.video.app.jank
+
+import com.twilio.video.app.jank.JankReport.SlowEvent
+import com.twilio.video.app.jank.JankReport.SlowFrame
+import com.twilio.video.app.jank.JankReport.Summary
+import java.util.concurrent.TimeUnit
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Test
+
+class JankTrackerTest {
+
+    private val reports = mutableListOf<JankReport>()
+    private var now = 0L
+    private val jankTracker = JankTracker({ reports.add(it) }, clock = { now })
+
+    @Test
+    fun `events handled within the budget should not be reported`() {
+        jankTracker.measure("VideoTrackUpdated") { now += ms(2) }
+
+        assertThat(reports.isEmpty(), equalTo(true))
+    }
+
+    @Test
+    fun `events handled over the budget should be reported`() {
+        jankTracker.measure("RemoteParticipantConnected") { now += ms(12) }
+
+        assertThat(reports, equalTo(listOf<JankReport>(
+                SlowEvent("RemoteParticipantConnected", ms(12)))))
+    }
+
+    @Test
+    fun `slow frames should be attributed to the events handled since the previous frame`() {
+        jankTracker.onEventHandled("DominantSpeakerChanged", ms(1), ms(1))
+        jankTracker.onFrame(ms(16), ms(15), 0)
+        jankTracker.onEventHandled("NetworkQualityLevelChange", ms(20), ms(3))
+        jankTracker.onEventHandled("NetworkQualityLevelChange", ms(24), ms(3))
+        jankTracker.onEventHandled("VideoTrackUpdated", ms(28), ms(6))
+        jankTracker.onEventHandled("StatsUpdate", ms(60), ms(1))
+        jankTracker.onFrame(ms(50), ms(34), 2)
+
+        assertThat(reports, equalTo(listOf<JankReport>(SlowFrame(ms(34), 2,
+                mapOf("NetworkQualityLevelChange" to 2, "VideoTrackUpdated" to 1), ms(12)))))
+    }
+
+    @Test
+    fun `events should only be attributed to a single frame`() {
+        jankTracker.onEventHandled("VideoTrackUpdated", ms(1), ms(1))
+        jankTracker.onFrame(ms(40), ms(40), 2)
+        jankTracker.onFrame(ms(80), ms(40), 2)
+
+        assertThat((reports.last() as SlowFrame).eventCounts, equalTo(emptyMap<String, Int>()))
+    }
+
+    @Test
+    fun `the summary should aggregate per event type`() {
+        jankTracker.onEventHandled("VideoTrackUpdated", ms(1), ms(2))
+        jankTracker.onEventHandled("VideoTrackUpdated", ms(4), ms(4))
+        jankTracker.onEventHandled("StatsUpdate", ms(9), ms(1))
+        jankTracker.onFrame(ms(30), ms(30), 1)
+        jankTracker.onFrame(ms(46), ms(16), 0)
+        reports.clear()
+
+        jankTracker.reportSummary()
+
+        assertThat(reports, equalTo(listOf<JankReport>(Summary(2, 1, 1, listOf(
+                EventTypeSummary("VideoTrackUpdated", 2, ms(6), ms(4), 1),
+                EventTypeSummary("StatsUpdate", 1, ms(1), ms(1), 1))))))
+        assertThat((reports.single() as Summary).eventTypes.first().averageMs, equalTo(3.0))
+    }
+
+    private fun ms(millis: Long) = TimeUnit.MILLISECONDS.toNanos(millis)
+}
@@ -8,9 +8,11 @@ import com.nhaarman.mockitokotlin2.verifyZeroInteractions
 import com.twilio.video.LocalVideoTrack
 import com.twilio.video.RemoteVideoTrack
 import com.twilio.video.TrackPriority.HIGH
+import com.twilio.video.TrackPriority.LOW
 import com.twilio.video.VideoTrack
 import com.twilio.video.app.BaseUnitTest
 import com.twilio.video.app.sdk.VideoTrackViewState
+import com.twilio.video.app.ui.room.MediaMode
 import junitparams.JUnitParamsRunner
 import org.hamcrest.CoreMatchers.`is`
 import org.hamcrest.CoreMatchers.equalTo
@@ -49,6 +51,19 @@ class ParticipantManagerTest : BaseUnitTest() {
         assertThat(participantManager.primaryParticipant, equalTo(expectedParticipant))
     }
 
+    @Test
+    fun `updateSpeakingParticipants should mark the speaking participants without reordering the thumbnails`() {
+        setupThreeParticipantScenario()
+        val primaryParticipant = participantManager.primaryParticipant
+
+        participantManager.updateSpeakingParticipants(setOf("1", "3"))
+
+        val thumbnails = participantManager.participantThumbnails
+        assertThat(thumbnails.map { it.sid }, equalTo(listOf("1", "2", "3")))
+        assertThat(thumbnails.map { it.isSpeaking }, equalTo(listOf(true, false, true)))
+        assertThat(participantManager.primaryParticipant.sid, equalTo(primaryParticipant.sid))
+    }
+
     @Test
     fun `changeDominantSpeaker should set the dominant speaker to true for the new dominant speaker participant`() {
         setupThreeParticipantScenario()
@@ -276,6 +291,52 @@ class ParticipantManagerTest : BaseUnitTest() {
         }
     }
 
+    @Test
+    fun `only the primary participant VideoTrack should keep its priority in Picture-in-Picture`() {
+        val participant3 = setupThreeParticipantScenario()
+        participantManager.changePinnedParticipant(participant3.sid!!)
+
+        participantManager.changeMediaMode(MediaMode.PICTURE_IN_PICTURE)
+
+        val participant2VideoTrack = participantManager.getParticipant("2")!!.getRemoteVideoTrack()!!
+        val participant3VideoTrack = participant3.getRemoteVideoTrack()!!
+        verify(participant2VideoTrack).priority = LOW
+        inOrder(participant3VideoTrack).run {
+            verify(participant3VideoTrack).priority = HIGH
+            verify(participant3VideoTrack).priority = null
+        }
+    }
+
+    @Test
+    fun `a new primary participant VideoTrack priority should stay low in the background`() {
+        val participant3 = setupThreeParticipantScenario()
+        participantManager.changeMediaMode(MediaMode.BACKGROUND)
+
+        participantManager.changePinnedParticipant(participant3.sid!!)
+
+        val videoTrack = participant3.getRemoteVideoTrack()!!
+        verify(videoTrack, times(0)).priority = HIGH
+        verify(videoTrack, times(2)).priority = LOW
+    }
+
+    @Test
+    fun `audio only mode should set every remote VideoTrack to low priority until it is disabled`() {
+        val participant3 = setupThreeParticipantScenario()
+        val participant2VideoTrack = participantManager.getParticipant("2")!!.getRemoteVideoTrack()!!
+        val participant3VideoTrack = participant3.getRemoteVideoTrack()!!
+
+        participantManager.changeAudioOnly(true)
+        participantManager.changeAudioOnly(false)
+
+        verify(participant3VideoTrack).priority = LOW
+        inOrder(participant2VideoTrack).run {
+            verify(participant2VideoTrack).priority = HIGH
+            verify(participant2VideoTrack).priority = LOW
+            verify(participant2VideoTrack).priority = null
+            verify(participant2VideoTrack).priority = HIGH
+        }
+    }
+
     private fun setupExistingDominantSpeakerScenario() {
         val participant2 = ParticipantViewState("2", "Participant 2",
                 isDominantSpeaker = true)
@@ -0,0 +1,27 @@
+package com.twilio.video.app.sdk
+
+/*
+ * A recorded sequence of audio levels loaded from a CSV file in the test resources with rows in
+ * the format: timestampMs,trackSid,audioLevel. The rows sharing a timestamp form one stats report.
+ */
+class AudioLevelTrace(val reports: List<Pair<Long, List<Pair<String, Int>>>>) {
+
+    /*
+     * Replays every report through the detector and returns the speaking tracks keyed by the
+     * timestamp of the report that changed them.
+     */
+    fun replay(detector: SpeakerDetector): List<Pair<Long, Set<String>>> =
+            reports.mapNotNull { (timestamp, audioLevels) ->
+                audioLevels.forEach { (trackSid, audioLevel) ->
+                    detector.onAudioLevel(trackSid, audioLevel, timestamp)
+                }
+                if (detector.endUpdate()) timestamp to detector.speakingTrackSids.toSet() else null
+            }
+
+    companion object {
+        fun load(resourceName: String) = AudioLevelTrace(
+                CsvTrace.read("audio_level_traces/$resourceName") { columns ->
+                    Triple(columns[0].toLong(), columns[1], columns[2].toInt())
+                }.groupBy({ it.first }, { it.second to it.third }).toList())
+    }
+}
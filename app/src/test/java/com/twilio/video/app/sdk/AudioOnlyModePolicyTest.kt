@@ -0,0 +1,88 @@
+package com.twilio.video.app.sdk
+
+import com.twilio.video.NetworkQualityLevel
+import com.twilio.video.NetworkQualityLevel.NETWORK_QUALITY_LEVEL_FIVE
+import com.twilio.video.NetworkQualityLevel.NETWORK_QUALITY_LEVEL_FOUR
+import com.twilio.video.NetworkQualityLevel.NETWORK_QUALITY_LEVEL_ONE
+import com.twilio.video.NetworkQualityLevel.NETWORK_QUALITY_LEVEL_THREE
+import com.twilio.video.NetworkQualityLevel.NETWORK_QUALITY_LEVEL_TWO
+import com.twilio.video.NetworkQualityLevel.NETWORK_QUALITY_LEVEL_UNKNOWN
+import com.twilio.video.NetworkQualityLevel.NETWORK_QUALITY_LEVEL_ZERO
+import com.twilio.video.app.BaseUnitTest
+import junitparams.JUnitParamsRunner
+import junitparams.Parameters
+import org.hamcrest.CoreMatchers.`is`
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.CoreMatchers.nullValue
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(JUnitParamsRunner::class)
+class AudioOnlyModePolicyTest : BaseUnitTest() {
+
+    private val policy = AudioOnlyModePolicy(AudioOnlyModePolicy.Config(minDwellMs = 30_000))
+
+    @Test
+    @Parameters(method = "poorLevels")
+    fun `poor network quality should enter audio only mode`(level: NetworkQualityLevel) {
+        assertThat(policy.onNetworkQualityLevel(level, false, 0), equalTo(true))
+        assertThat(policy.isAutomaticallyEnabled, equalTo(true))
+    }
+
+    @Test
+    @Parameters(method = "acceptableLevels")
+    fun `acceptable network quality should not change the mode`(level: NetworkQualityLevel) {
+        assertThat(policy.onNetworkQualityLevel(level, false, 0), `is`(nullValue()))
+    }
+
+    @Test
+    fun `audio only mode should not be left before the dwell time has passed`() {
+        policy.onNetworkQualityLevel(NETWORK_QUALITY_LEVEL_ONE, false, 0)
+
+        assertThat(policy.onNetworkQualityLevel(NETWORK_QUALITY_LEVEL_FIVE, true, 29_999),
+                `is`(nullValue()))
+        assertThat(policy.onNetworkQualityLevel(NETWORK_QUALITY_LEVEL_FIVE, true, 30_000),
+                equalTo(false))
+        assertThat(policy.isAutomaticallyEnabled, equalTo(false))
+    }
+
+    @Test
+    fun `audio only mode should not be left while the network quality is still low`() {
+        policy.onNetworkQualityLevel(NETWORK_QUALITY_LEVEL_ZERO, false, 0)
+
+        assertThat(policy.onNetworkQualityLevel(NETWORK_QUALITY_LEVEL_TWO, true, 60_000),
+                `is`(nullValue()))
+    }
+
+    @Test
+    fun `audio only mode enabled by the user should not be left automatically`() {
+        policy.onManualChange()
+
+        assertThat(policy.onNetworkQualityLevel(NETWORK_QUALITY_LEVEL_FIVE, true, 60_000),
+                `is`(nullValue()))
+    }
+
+    @Test
+    fun `leaving audio only mode manually should prevent entering it again until reset`() {
+        policy.onNetworkQualityLevel(NETWORK_QUALITY_LEVEL_ONE, false, 0)
+        policy.onManualChange()
+
+        assertThat(policy.onNetworkQualityLevel(NETWORK_QUALITY_LEVEL_ZERO, false, 1_000),
+                `is`(nullValue()))
+
+        policy.reset()
+
+        assertThat(policy.onNetworkQualityLevel(NETWORK_QUALITY_LEVEL_ZERO, false, 2_000),
+                equalTo(true))
+    }
+
+    private fun poorLevels() = arrayOf(NETWORK_QUALITY_LEVEL_ZERO, NETWORK_QUALITY_LEVEL_ONE)
+
+    private fun acceptableLevels() = arrayOf(
+            NETWORK_QUALITY_LEVEL_UNKNOWN,
+            NETWORK_QUALITY_LEVEL_TWO,
+            NETWORK_QUALITY_LEVEL_THREE,
+            NETWORK_QUALITY_LEVEL_FOUR,
+            NETWORK_QUALITY_LEVEL_FIVE)
+}
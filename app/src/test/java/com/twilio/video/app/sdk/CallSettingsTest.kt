@@ -0,0 +1,83 @@
+package com.twilio.video.app.sdk
+
+import com.twilio.video.H264Codec
+import com.twilio.video.OpusCodec
+import com.twilio.video.TrackPriority
+import com.twilio.video.VideoDimensions
+import com.twilio.video.Vp8Codec
+import com.twilio.video.app.BaseUnitTest
+import com.twilio.video.app.data.Preferences
+import com.twilio.video.app.data.api.model.Topology
+import com.twilio.video.app.util.FakeSharedPreferences
+import org.hamcrest.CoreMatchers.`is`
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.CoreMatchers.instanceOf
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Test
+
+class CallSettingsTest : BaseUnitTest() {
+
+    private val sharedPreferences = FakeSharedPreferences()
+
+    @Test
+    fun `default preferences should be parsed into the default settings`() {
+        val callSettings = CallSettings.from(sharedPreferences)
+
+        assertThat(callSettings.topology, equalTo(Topology.GROUP))
+        assertThat(callSettings.videoCodec, `is`(instanceOf(Vp8Codec::class.java)))
+        assertThat(callSettings.audioCodec, `is`(instanceOf(OpusCodec::class.java)))
+        assertThat(callSettings.renderDimensions, equalTo(emptyMap()))
+        assertThat(callSettings.trackSwitchOffMode, equalTo(null))
+        assertThat(callSettings.videoCaptureDimensions,
+                equalTo(Preferences.VIDEO_DIMENSIONS[1]))
+    }
+
+    @Test
+    fun `render dimensions should be parsed for each track priority`() {
+        sharedPreferences.edit()
+                .putString(Preferences.BANDWIDTH_PROFILE_LOW_TRACK_PRIORITY_RENDER_DIMENSIONS, "352x288")
+                .putString(Preferences.BANDWIDTH_PROFILE_HIGH_TRACK_PRIORITY_RENDER_DIMENSIONS, "1280x720")
+                .apply()
+
+        val renderDimensions = CallSettings.from(sharedPreferences).renderDimensions
+
+        assertThat(renderDimensions.keys, equalTo(setOf(TrackPriority.LOW, TrackPriority.HIGH)))
+        assertThat(renderDimensions.getValue(TrackPriority.HIGH).let { it.width to it.height },
+                equalTo(1280 to 720))
+        assertThat(renderDimensions.getValue(TrackPriority.LOW).let { it.width to it.height },
+                equalTo(VideoDimensions.CIF_VIDEO_WIDTH to VideoDimensions.CIF_VIDEO_HEIGHT))
+    }
+
+    @Test
+    fun `an out of range capture resolution should be clamped to the highest resolution`() {
+        sharedPreferences.edit().putString(Preferences.VIDEO_CAPTURE_RESOLUTION, "42").apply()
+
+        val callSettings = CallSettings.from(sharedPreferences)
+
+        assertThat(callSettings.videoCaptureResolutionIndex,
+                equalTo(Preferences.VIDEO_DIMENSIONS.lastIndex))
+    }
+
+    @Test
+    fun `the provider should rebuild the snapshot when a preference changes`() {
+        val provider = CallSettingsProvider(sharedPreferences)
+
+        sharedPreferences.edit().putString(Preferences.VIDEO_CODEC, H264Codec.NAME).apply()
+
+        assertThat(provider.callSettings.videoCodec, `is`(instanceOf(H264Codec::class.java)))
+    }
+
+    /*
+     * The cost of assembling the ConnectOptions from the snapshot and from the preferences is
+     * measured by ConnectOptionsBenchmark.
+     */
+    @Test
+    fun `reading the snapshot should not read preferences`() {
+        val provider = CallSettingsProvider(sharedPreferences)
+        val readCount = sharedPreferences.readCount
+
+        repeat(100) { provider.callSettings.maxVideoBitrate }
+
+        assertThat(sharedPreferences.readCount, equalTo(readCount))
+    }
+}
@@ -0,0 +1,122 @@
+package com.twilio.video.app.sdk
+
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.times
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.whenever
+import com.twilio.video.app.BaseUnitTest
+import java.io.File
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.TestCoroutineScope
+import org.hamcrest.CoreMatchers.`is`
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.CoreMatchers.nullValue
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+private const val FINGERPRINT = "google/sargo/sargo:11/RP1A.201005.004/6782484:user/release-keys"
+
+@ExperimentalCoroutinesApi
+class CodecCapabilityRepositoryTest : BaseUnitTest() {
+
+    @get:Rule
+    val temporaryFolder = TemporaryFolder()
+
+    private val codecs = listOf(
+            CodecCapability(H264_MIME_TYPE, true, true, 1920, 1088, 60),
+            CodecCapability(H264_MIME_TYPE, false, true, 4096, 2176, 120),
+            CodecCapability(VP8_MIME_TYPE, true, false, 2048, 2048, 30),
+            CodecCapability(VP8_MIME_TYPE, false, true, 3840, 2160, 60))
+    private val probe: CodecCapabilityProbe = mock()
+    private lateinit var file: File
+
+    @Before
+    fun setUp() {
+        file = File(temporaryFolder.root, CODEC_CAPABILITIES_FILE_NAME)
+        whenever(probe.probe()).thenReturn(codecs)
+    }
+
+    @Test
+    fun `load should probe and persist the capabilities on first launch`() {
+        val capabilities = CodecCapabilityRepository(file, FINGERPRINT, probe).load()
+
+        assertThat(capabilities, equalTo(CodecCapabilities(FINGERPRINT, codecs)))
+        assertThat(CodecCapabilities.decode(file.readText()), equalTo(capabilities))
+    }
+
+    @Test
+    fun `load should read persisted capabilities without probing again`() {
+        CodecCapabilityRepository(file, FINGERPRINT, probe).load()
+
+        val capabilities = CodecCapabilityRepository(file, FINGERPRINT, probe).load()
+
+        assertThat(capabilities.codecs, equalTo(codecs))
+        verify(probe, times(1)).probe()
+    }
+
+    @Test
+    fun `load should probe again when the build fingerprint changes`() {
+        CodecCapabilityRepository(file, FINGERPRINT, probe).load()
+
+        val capabilities = CodecCapabilityRepository(file, "$FINGERPRINT-update", probe).load()
+
+        assertThat(capabilities.fingerprint, equalTo("$FINGERPRINT-update"))
+        verify(probe, times(2)).probe()
+    }
+
+    @Test
+    fun `load should probe again when the persisted capabilities are corrupt`() {
+        file.writeText("1\n$FINGERPRINT\nE,H,video/avc,1920\n")
+
+        val capabilities = CodecCapabilityRepository(file, FINGERPRINT, probe).load()
+
+        assertThat(capabilities.codecs, equalTo(codecs))
+        verify(probe).probe()
+    }
+
+    @Test
+    fun `a failed probe should not be persisted or kept`() {
+        whenever(probe.probe()).thenReturn(emptyList(), codecs)
+        val repository = CodecCapabilityRepository(file, FINGERPRINT, probe)
+
+        repository.load()
+
+        assertThat(file.exists(), equalTo(false))
+        assertThat(repository.capabilities, `is`(nullValue()))
+        assertThat(repository.load().codecs, equalTo(codecs))
+        verify(probe, times(2)).probe()
+    }
+
+    @Test
+    fun `hardware support should not block on the probe before the capabilities are loaded`() {
+        val repository = CodecCapabilityRepository(file, FINGERPRINT, probe, TestCoroutineScope())
+
+        assertThat(repository.isHardwareEncoderAvailable(H264_MIME_TYPE), equalTo(false))
+        assertThat(repository.isHardwareEncoderAvailable(H264_MIME_TYPE), equalTo(true))
+        verify(probe, times(1)).probe()
+    }
+
+    @Test
+    fun `capabilities should be null until loaded`() {
+        val repository = CodecCapabilityRepository(file, FINGERPRINT, probe)
+
+        assertThat(repository.capabilities, `is`(nullValue()))
+        repository.load()
+        assertThat(repository.capabilities?.codecs, equalTo(codecs))
+    }
+
+    @Test
+    fun `hardware support should require a hardware accelerated codec`() {
+        val repository = CodecCapabilityRepository(file, FINGERPRINT, probe)
+        repository.load()
+
+        assertThat(repository.isHardwareEncoderAvailable(H264_MIME_TYPE), equalTo(true))
+        assertThat(repository.isHardwareDecoderAvailable(H264_MIME_TYPE), equalTo(true))
+        assertThat(repository.isHardwareEncoderAvailable(VP8_MIME_TYPE), equalTo(false))
+        assertThat(repository.isHardwareDecoderAvailable(VP8_MIME_TYPE), equalTo(true))
+        assertThat(repository.isHardwareEncoderAvailable(VP9_MIME_TYPE), equalTo(false))
+    }
+}
@@ -0,0 +1,20 @@
+package com.twilio.video.app.sdk
+
+object CsvTrace {
+
+    /*
+     * Reads the rows of a CSV trace in the test resources, skipping blank lines and # comments,
+     * and parses each row from its trimmed columns.
+     */
+    fun <T> read(resourcePath: String, parseRow: (List<String>) -> T): List<T> {
+        val stream = requireNotNull(CsvTrace::class.java.classLoader
+                ?.getResourceAsStream(resourcePath)) {
+            "Trace $resourcePath not found"
+        }
+        return stream.bufferedReader().useLines { lines ->
+            lines.filter { it.isNotBlank() && !it.startsWith("#") }
+                    .map { line -> parseRow(line.split(",").map { it.trim() }) }
+                    .toList()
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.twilio.video.app.sdk
+
+import android.os.PowerManager.THERMAL_STATUS_CRITICAL
+import android.os.PowerManager.THERMAL_STATUS_EMERGENCY
+import android.os.PowerManager.THERMAL_STATUS_LIGHT
+import android.os.PowerManager.THERMAL_STATUS_MODERATE
+import android.os.PowerManager.THERMAL_STATUS_SEVERE
+import com.twilio.video.app.BaseUnitTest
+import com.twilio.video.app.sdk.DegradationLevel.AUDIO_ONLY
+import com.twilio.video.app.sdk.DegradationLevel.NONE
+import com.twilio.video.app.sdk.DegradationLevel.REDUCED_CAPTURE
+import com.twilio.video.app.sdk.DegradationLevel.REDUCED_RENDERING
+import com.twilio.video.app.sdk.DegradationLevel.REDUCED_STATS
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Test
+
+class DegradationControllerTest : BaseUnitTest() {
+
+    private val controller = DegradationController(DegradationController.Config(
+            minDegradeIntervalMs = 10_000,
+            minRecoverIntervalMs = 60_000))
+    private val harness = DeviceConditionsHarness(controller)
+
+    @Test
+    fun `normal device conditions should not degrade`() {
+        val transitions = harness.hold(300_000).replay()
+
+        assertThat(transitions, equalTo(emptyList()))
+    }
+
+    @Test
+    fun `a light thermal status should only reduce capture`() {
+        val transitions = harness.hold(120_000, THERMAL_STATUS_LIGHT).replay()
+
+        assertThat(transitions, equalTo(listOf(0L to REDUCED_CAPTURE)))
+    }
+
+    @Test
+    fun `a severe thermal status should climb the ladder one step at a time`() {
+        val transitions = harness
+                .hold(10_000)
+                .hold(120_000, THERMAL_STATUS_SEVERE)
+                .replay()
+
+        assertThat(transitions, equalTo(listOf(
+                10_000L to REDUCED_CAPTURE,
+                20_000L to REDUCED_RENDERING,
+                30_000L to REDUCED_STATS)))
+    }
+
+    @Test
+    fun `a worsening thermal status should keep climbing the ladder`() {
+        val transitions = harness
+                .hold(30_000, THERMAL_STATUS_LIGHT)
+                .hold(30_000, THERMAL_STATUS_MODERATE)
+                .hold(30_000, THERMAL_STATUS_SEVERE)
+                .replay()
+
+        assertThat(transitions, equalTo(listOf(
+                0L to REDUCED_CAPTURE,
+                30_000L to REDUCED_RENDERING,
+                60_000L to REDUCED_STATS)))
+    }
+
+    @Test
+    fun `a critical thermal status should fall back to audio only immediately`() {
+        val transitions = harness
+                .hold(10_000)
+                .hold(10_000, THERMAL_STATUS_CRITICAL)
+                .replay()
+
+        assertThat(transitions, equalTo(listOf(10_000L to AUDIO_ONLY)))
+    }
+
+    @Test
+    fun `recovering from an emergency should step down the ladder slowly`() {
+        val transitions = harness
+                .hold(20_000, THERMAL_STATUS_EMERGENCY)
+                .hold(300_000)
+                .replay()
+
+        assertThat(transitions, equalTo(listOf(
+                0L to AUDIO_ONLY,
+                60_000L to REDUCED_STATS,
+                120_000L to REDUCED_RENDERING,
+                180_000L to REDUCED_CAPTURE,
+                240_000L to NONE)))
+    }
+
+    @Test
+    fun `a brief thermal spike should not climb further than the first step`() {
+        val transitions = harness
+                .hold(5_000, THERMAL_STATUS_MODERATE)
+                .hold(120_000)
+                .replay()
+
+        assertThat(transitions, equalTo(listOf(
+                0L to REDUCED_CAPTURE,
+                60_000L to NONE)))
+    }
+
+    @Test
+    fun `battery saver should degrade up to stats polling but never to audio only`() {
+        val transitions = harness.hold(300_000, isPowerSaveMode = true).replay()
+
+        assertThat(transitions, equalTo(listOf(
+                0L to REDUCED_CAPTURE,
+                10_000L to REDUCED_RENDERING,
+                20_000L to REDUCED_STATS)))
+    }
+
+    @Test
+    fun `reset should return to the bottom of the ladder`() {
+        harness.hold(20_000, THERMAL_STATUS_CRITICAL).replay()
+
+        controller.reset()
+
+        assertThat(controller.level, equalTo(NONE))
+        assertThat(controller.update(DeviceConditions(THERMAL_STATUS_LIGHT), 25_000),
+                equalTo<DegradationLevel?>(REDUCED_CAPTURE))
+    }
+}
@@ -0,0 +1,41 @@
+package com.twilio.video.app.sdk
+
+import android.os.PowerManager.THERMAL_STATUS_NONE
+
+/*
+ * Feeds a synthetic sequence of device conditions through a DegradationController. Each segment
+ * is reported when it starts, as the thermal and battery saver listeners would, and then
+ * periodically at the same interval as the DeviceConditionsMonitor.
+ */
+class DeviceConditionsHarness(
+    private val controller: DegradationController,
+    private val updateIntervalMs: Long = 5000
+) {
+
+    private val segments = mutableListOf<Pair<Long, DeviceConditions>>()
+
+    fun hold(
+        durationMs: Long,
+        thermalStatus: Int = THERMAL_STATUS_NONE,
+        isPowerSaveMode: Boolean = false
+    ) = apply { segments.add(durationMs to DeviceConditions(thermalStatus, isPowerSaveMode)) }
+
+    /*
+     * Returns the ladder transitions keyed by the timestamp at which they happened.
+     */
+    fun replay(): List<Pair<Long, DegradationLevel>> {
+        val transitions = mutableListOf<Pair<Long, DegradationLevel>>()
+        var segmentStart = 0L
+        segments.forEach { (durationMs, deviceConditions) ->
+            var timestamp = segmentStart
+            while (timestamp < segmentStart + durationMs) {
+                controller.update(deviceConditions, timestamp)?.let {
+                    transitions.add(timestamp to it)
+                }
+                timestamp += updateIntervalMs
+            }
+            segmentStart += durationMs
+        }
+        return transitions
+    }
+}
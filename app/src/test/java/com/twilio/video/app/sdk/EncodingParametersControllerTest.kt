@@ -0,0 +1,102 @@
+package com.twilio.video.app.sdk
+
+import com.twilio.video.app.BaseUnitTest
+import org.hamcrest.CoreMatchers.`is`
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.CoreMatchers.nullValue
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Test
+
+private const val MAX_AUDIO_BITRATE = 16
+
+class EncodingParametersControllerTest : BaseUnitTest() {
+
+    private val healthyTrace = SenderStatsTrace.load("healthy_uplink.csv")
+    private val congestedTrace = SenderStatsTrace.load("congested_uplink.csv")
+
+    @Test
+    fun `a healthy uplink should never update the encoding parameters`() {
+        val controller = EncodingParametersController(MAX_AUDIO_BITRATE, 0)
+
+        val targets = healthyTrace.replay(controller)
+
+        assertThat(targets.isEmpty(), equalTo(true))
+        assertThat(controller.currentTarget, equalTo(EncodingTarget(MAX_AUDIO_BITRATE, 0)))
+    }
+
+    @Test
+    fun `the controller should start from the seeded initial video bitrate`() {
+        val controller = EncodingParametersController(MAX_AUDIO_BITRATE, 0,
+                initialVideoBitrate = 400)
+
+        assertThat(controller.currentTarget, equalTo(EncodingTarget(MAX_AUDIO_BITRATE, 400)))
+    }
+
+    @Test
+    fun `a congested uplink should back off the video bitrate down to the minimum`() {
+        val config = EncodingParametersController.Config()
+        val controller = EncodingParametersController(MAX_AUDIO_BITRATE, 0, config)
+
+        val targets = congestedTrace.replay(controller).filter { it.first <= 25000 }
+
+        assertThat(targets.first(), equalTo(13000L to EncodingTarget(MAX_AUDIO_BITRATE, 1500)))
+        assertThat(targets.last().second.maxVideoBitrate, equalTo(config.minVideoBitrate))
+        targets.zipWithNext().forEach { (previous, next) ->
+            assertThat(next.second.maxVideoBitrate < previous.second.maxVideoBitrate,
+                    equalTo(true))
+        }
+    }
+
+    @Test
+    fun `the audio bitrate should always be the configured maximum`() {
+        val controller = EncodingParametersController(MAX_AUDIO_BITRATE, 0)
+
+        congestedTrace.replay(controller).forEach { (_, target) ->
+            assertThat(target.maxAudioBitrate, equalTo(MAX_AUDIO_BITRATE))
+        }
+    }
+
+    @Test
+    fun `increases should be rate limited after congestion clears`() {
+        val config = EncodingParametersController.Config()
+        val controller = EncodingParametersController(MAX_AUDIO_BITRATE, 0, config)
+
+        val increases = congestedTrace.replay(controller).zipWithNext()
+                .filter { (previous, next) ->
+                    next.second.maxVideoBitrate > previous.second.maxVideoBitrate
+                }
+
+        assertThat(increases.isEmpty(), equalTo(false))
+        increases.forEach { (previous, next) ->
+            assertThat(next.first - previous.first >= config.minIncreaseIntervalMs,
+                    equalTo(true))
+        }
+    }
+
+    @Test
+    fun `recovery should restore the configured maximum video bitrate`() {
+        val controller = EncodingParametersController(MAX_AUDIO_BITRATE, 600)
+
+        val targets = congestedTrace.replay(controller)
+
+        assertThat(targets.last().second, equalTo(EncodingTarget(MAX_AUDIO_BITRATE, 600)))
+        assertThat(controller.currentTarget, equalTo(EncodingTarget(MAX_AUDIO_BITRATE, 600)))
+    }
+
+    @Test
+    fun `replaying the same trace should produce the same targets`() {
+        val firstRun = congestedTrace.replay(EncodingParametersController(MAX_AUDIO_BITRATE, 0))
+        val secondRun = congestedTrace.replay(EncodingParametersController(MAX_AUDIO_BITRATE, 0))
+
+        assertThat(firstRun, equalTo(secondRun))
+    }
+
+    @Test
+    fun `the first sample should only initialize the controller`() {
+        val controller = EncodingParametersController(MAX_AUDIO_BITRATE, 0)
+
+        val target = controller.onSenderStats(SenderStats(900, 500, 100, 30), 0)
+
+        assertThat(target, `is`(nullValue()))
+    }
+}
@@ -0,0 +1,67 @@
+package com.twilio.video.app.sdk
+
+import com.sun.net.httpserver.HttpServer
+import com.twilio.video.app.BaseUnitTest
+import java.net.InetSocketAddress
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.CoreMatchers.nullValue
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+
+private const val PAYLOAD_BYTES = 64 * 1024
+
+class HttpNetworkProbeTest : BaseUnitTest() {
+
+    private val server = HttpServer.create(InetSocketAddress("127.0.0.1", 0), 0)
+    private val requests = mutableListOf<String>()
+    private var uploadedBytes = 0
+    private val endpoint get() = "http://127.0.0.1:${server.address.port}/probe"
+
+    @Before
+    fun setUp() {
+        server.createContext("/probe") { exchange ->
+            requests.add(exchange.requestMethod)
+            when (exchange.requestMethod) {
+                "GET" -> {
+                    val bytes = exchange.requestURI.query.removePrefix("bytes=").toInt()
+                    exchange.sendResponseHeaders(200, bytes.toLong())
+                    exchange.responseBody.use { it.write(ByteArray(bytes)) }
+                }
+                "POST" -> {
+                    uploadedBytes = exchange.requestBody.use { it.readBytes().size }
+                    exchange.sendResponseHeaders(200, -1)
+                }
+                else -> exchange.sendResponseHeaders(200, -1)
+            }
+            exchange.close()
+        }
+        server.start()
+    }
+
+    @After
+    fun tearDown() {
+        server.stop(0)
+    }
+
+    @Test
+    fun `the probe should measure the round trip time and both directions`() {
+        val estimate = probe().probe(endpoint)
+
+        assertThat(requests, equalTo(listOf("HEAD", "HEAD", "GET", "POST")))
+        assertThat(uploadedBytes, equalTo(PAYLOAD_BYTES))
+        assertThat(estimate != null && estimate.downlinkKbps > 0 && estimate.uplinkKbps > 0,
+                equalTo(true))
+    }
+
+    @Test
+    fun `an unreachable endpoint should not produce an estimate`() {
+        val unreachableEndpoint = endpoint
+        server.stop(0)
+
+        assertThat(probe().probe(unreachableEndpoint), nullValue())
+    }
+
+    private fun probe() = HttpNetworkProbe(PAYLOAD_BYTES, 500, System::currentTimeMillis)
+}
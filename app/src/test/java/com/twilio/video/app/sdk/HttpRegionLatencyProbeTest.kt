@@ -0,0 +1,60 @@
+package com.twilio.video.app.sdk
+
+import com.sun.net.httpserver.HttpServer
+import com.twilio.video.app.BaseUnitTest
+import java.net.InetSocketAddress
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.CoreMatchers.notNullValue
+import org.hamcrest.CoreMatchers.nullValue
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+
+class HttpRegionLatencyProbeTest : BaseUnitTest() {
+
+    private val server = HttpServer.create(InetSocketAddress("127.0.0.1", 0), 0)
+    private var requestCount = 0
+
+    @Before
+    fun setUp() {
+        server.createContext("/") { exchange ->
+            requestCount++
+            exchange.sendResponseHeaders(200, -1)
+            exchange.close()
+        }
+        server.start()
+    }
+
+    @After
+    fun tearDown() {
+        server.stop(0)
+    }
+
+    @Test
+    fun `a reachable region should report its latency`() {
+        val probe = probe(mapOf("us1" to "http://127.0.0.1:${server.address.port}"))
+
+        assertThat(probe.probe("us1"), notNullValue())
+        assertThat(requestCount, equalTo(2))
+    }
+
+    @Test
+    fun `an unreachable region should not report a latency`() {
+        val port = server.address.port
+        server.stop(0)
+        val probe = probe(mapOf("us1" to "http://127.0.0.1:$port"))
+
+        assertThat(probe.probe("us1"), nullValue())
+    }
+
+    @Test
+    fun `a region without an endpoint should not report a latency`() {
+        val probe = probe(emptyMap())
+
+        assertThat(probe.probe("us1"), nullValue())
+    }
+
+    private fun probe(endpoints: Map<String, String>) =
+            HttpRegionLatencyProbe(endpoints, 500, System::currentTimeMillis)
+}
@@ -0,0 +1,48 @@
+package com.twilio.video.app.sdk
+
+import com.twilio.video.app.BaseUnitTest
+import com.twilio.video.app.data.Preferences
+import com.twilio.video.app.util.FakeSharedPreferences
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Test
+
+class InitialMediaSettingsTest : BaseUnitTest() {
+
+    private val sharedPreferences = FakeSharedPreferences()
+
+    @Test
+    fun `a fast uplink should keep the preferred resolution and allow simulcast`() {
+        assertThat(initialMediaSettings(NetworkEstimate(50, 20000, 5000)),
+                equalTo(InitialMediaSettings(3484, 1, true)))
+    }
+
+    @Test
+    fun `a slow uplink should lower the capture resolution and disable simulcast`() {
+        assertThat(initialMediaSettings(NetworkEstimate(80, 5000, 600)),
+                equalTo(InitialMediaSettings(404, 0, false)))
+    }
+
+    @Test
+    fun `a high round trip time should halve the video budget`() {
+        assertThat(initialMediaSettings(NetworkEstimate(400, 5000, 2000)),
+                equalTo(InitialMediaSettings(692, 1, false)))
+    }
+
+    @Test
+    fun `the configured max video bitrate should never be exceeded`() {
+        sharedPreferences.edit().putInt(Preferences.MAX_VIDEO_BITRATE, 500).apply()
+
+        assertThat(initialMediaSettings(NetworkEstimate(50, 20000, 5000)).maxVideoBitrate,
+                equalTo(500))
+    }
+
+    @Test
+    fun `the video bitrate should not drop below the minimum`() {
+        assertThat(initialMediaSettings(NetworkEstimate(50, 1000, 100)).maxVideoBitrate,
+                equalTo(150))
+    }
+
+    private fun initialMediaSettings(networkEstimate: NetworkEstimate) =
+            InitialMediaSettings.from(networkEstimate, CallSettings.from(sharedPreferences))
+}
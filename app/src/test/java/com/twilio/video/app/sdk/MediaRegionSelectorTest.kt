@@ -0,0 +1,97 @@
+package com.twilio.video.app.sdk
+
+import com.twilio.video.app.BaseUnitTest
+import com.twilio.video.app.util.FakeSharedPreferences
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.runBlocking
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.CoreMatchers.nullValue
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Test
+
+class MediaRegionSelectorTest : BaseUnitTest() {
+
+    private val latencies = mutableMapOf<String, Long?>("us1" to 120, "ie1" to 40, "de1" to 60)
+    private val probedRegions = mutableListOf<String>()
+    private val probe = object : RegionLatencyProbe {
+        override fun probe(region: String): Long? {
+            synchronized(probedRegions) { probedRegions.add(region) }
+            return latencies[region]
+        }
+    }
+    private var now = 0L
+    private val cache = MediaRegionCache(FakeSharedPreferences(), TimeUnit.HOURS.toMillis(1)) { now }
+    private var networkKey: String? = "wifi:office"
+    private val selector = MediaRegionSelector(probe, cache, { networkKey },
+            listOf("us1", "ie1", "de1"), ioDispatcher = Dispatchers.Unconfined)
+
+    @Test
+    fun `the region with the lowest latency should be selected`() {
+        assertThat(selectRegion(), equalTo("ie1"))
+    }
+
+    @Test
+    fun `the selected region should be cached per network`() {
+        selectRegion()
+        probedRegions.clear()
+        latencies["us1"] = 10
+
+        assertThat(selectRegion(), equalTo("ie1"))
+        assertThat(probedRegions.isEmpty(), equalTo(true))
+
+        networkKey = "cell:310260"
+        assertThat(selectRegion(), equalTo("us1"))
+    }
+
+    @Test
+    fun `the regions should be probed again once the cached region expires`() {
+        selectRegion()
+        latencies["us1"] = 10
+        now += TimeUnit.HOURS.toMillis(1)
+
+        assertThat(selectRegion(), equalTo("us1"))
+    }
+
+    @Test
+    fun `no region should be selected if none can be reached`() {
+        latencies.keys.forEach { latencies[it] = null }
+
+        assertThat(selectRegion(), nullValue())
+        assertThat(cache.get("wifi:office"), nullValue())
+    }
+
+    @Test
+    fun `no region should be selected without a network`() {
+        networkKey = null
+
+        assertThat(selectRegion(), nullValue())
+        assertThat(probedRegions.isEmpty(), equalTo(true))
+    }
+
+    @Test
+    fun `a probe that blocks past the budget should not delay the selection`() {
+        val release = CountDownLatch(1)
+        val blockingProbe = object : RegionLatencyProbe {
+            override fun probe(region: String): Long? {
+                if (region == "ie1") release.await(5, TimeUnit.SECONDS)
+                return latencies[region]
+            }
+        }
+        val selector = MediaRegionSelector(blockingProbe, cache, { networkKey },
+                listOf("us1", "ie1", "de1"), probeBudgetMs = 200, ioDispatcher = Dispatchers.IO)
+
+        try {
+            val startMs = System.currentTimeMillis()
+            val region = runBlocking { selector.selectRegion() }
+
+            assertThat(System.currentTimeMillis() - startMs < 2000, equalTo(true))
+            assertThat(region, equalTo("de1"))
+        } finally {
+            release.countDown()
+        }
+    }
+
+    private fun selectRegion() = runBlocking { selector.selectRegion() }
+}
@@ -0,0 +1,64 @@
+package com.twilio.video.app.sdk
+
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.times
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.whenever
+import java.util.concurrent.TimeUnit
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.TestCoroutineScope
+import org.junit.Test
+
+private const val ENDPOINT = "https://probe.example.com"
+
+@ExperimentalCoroutinesApi
+class PreConnectProbeTest {
+
+    private val callSettings = mock<CallSettings> {
+        whenever(mock.networkProbeUrl).thenReturn(ENDPOINT)
+    }
+    private val callSettingsProvider = mock<CallSettingsProvider> {
+        whenever(mock.callSettings).thenReturn(callSettings)
+    }
+    private val networkProbe = mock<NetworkProbe>()
+    private var networkKey: String? = "wifi"
+    private var nowMs = 0L
+    private val preConnectProbe = PreConnectProbe(
+            callSettingsProvider,
+            networkProbe,
+            { networkKey },
+            TestCoroutineScope(),
+            { nowMs })
+
+    @Test
+    fun `a failed probe should not be retried until the backoff has elapsed`() {
+        preConnectProbe.probeInBackground()
+        preConnectProbe.probeInBackground()
+        verify(networkProbe, times(1)).probe(ENDPOINT)
+
+        nowMs += TimeUnit.MINUTES.toMillis(1)
+        preConnectProbe.probeInBackground()
+        verify(networkProbe, times(2)).probe(ENDPOINT)
+    }
+
+    @Test
+    fun `a failed probe should be retried on a different network`() {
+        preConnectProbe.probeInBackground()
+
+        networkKey = "cellular"
+        preConnectProbe.probeInBackground()
+
+        verify(networkProbe, times(2)).probe(ENDPOINT)
+    }
+
+    @Test
+    fun `a successful probe should not be repeated while its estimate is fresh`() {
+        whenever(networkProbe.probe(ENDPOINT)).thenReturn(NetworkEstimate(50, 2000, 1000))
+
+        preConnectProbe.probeInBackground()
+        nowMs += TimeUnit.MINUTES.toMillis(4)
+        preConnectProbe.probeInBackground()
+
+        verify(networkProbe, times(1)).probe(ENDPOINT)
+    }
+}
@@ -0,0 +1,291 @@
+package com.twilio.video.app.sdk
+
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.anyOrNull
+import com.nhaarman.mockitokotlin2.doAnswer
+import com.nhaarman.mockitokotlin2.doReturn
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.whenever
+import com.twilio.video.LocalParticipant
+import com.twilio.video.NetworkQualityLevel
+import com.twilio.video.RemoteAudioTrack
+import com.twilio.video.RemoteAudioTrackPublication
+import com.twilio.video.RemoteParticipant
+import com.twilio.video.RemoteVideoTrack
+import com.twilio.video.RemoteVideoTrackPublication
+import com.twilio.video.Room
+import com.twilio.video.StatsReport
+import com.twilio.video.app.sdk.SimulatedEvent.AudioEnabled
+import com.twilio.video.app.sdk.SimulatedEvent.DominantSpeaker
+import com.twilio.video.app.sdk.SimulatedEvent.Join
+import com.twilio.video.app.sdk.SimulatedEvent.Leave
+import com.twilio.video.app.sdk.SimulatedEvent.NetworkQuality
+import com.twilio.video.app.sdk.SimulatedEvent.Stats
+import com.twilio.video.app.sdk.SimulatedEvent.SwitchOff
+import com.twilio.video.app.sdk.SimulatedEvent.VideoSubscribed
+import com.twilio.video.app.sdk.SimulatedEvent.VideoUnsubscribed
+import com.twilio.video.app.util.FakeSharedPreferences
+import com.twilio.video.app.util.VirtualClock
+import java.util.PriorityQueue
+import java.util.concurrent.TimeUnit
+import kotlin.random.Random
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.runBlocking
+
+const val SIMULATED_ROOM_NAME = "simulated-room"
+const val SIMULATED_LOCAL_PARTICIPANT_SID = "PA-local"
+
+sealed class SimulatedEvent {
+    data class Join(val sid: String) : SimulatedEvent()
+    data class Leave(val sid: String) : SimulatedEvent()
+    data class VideoSubscribed(val sid: String, val isScreen: Boolean = false) : SimulatedEvent()
+    data class VideoUnsubscribed(val sid: String, val isScreen: Boolean = false) : SimulatedEvent()
+    data class AudioEnabled(val sid: String, val isEnabled: Boolean) : SimulatedEvent()
+    data class SwitchOff(val sid: String, val isSwitchedOff: Boolean) : SimulatedEvent()
+    data class DominantSpeaker(val sid: String?) : SimulatedEvent()
+    data class NetworkQuality(val sid: String, val level: NetworkQualityLevel) : SimulatedEvent()
+    object Stats : SimulatedEvent()
+}
+
+data class TimedEvent(val timeNs: Long, val event: SimulatedEvent)
+
+/*
+ * Relative weights of the randomized events. Joins are capped at maxParticipants remote
+ * participants after which a participant leaves instead.
+ */
+data class EventMix(
+    val join: Int = 10,
+    val leave: Int = 8,
+    val videoSubscription: Int = 15,
+    val screenSubscription: Int = 2,
+    val audio: Int = 10,
+    val switchOff: Int = 20,
+    val dominantSpeaker: Int = 15,
+    val networkQuality: Int = 20,
+    val maxParticipants: Int = 50
+)
+
+/*
+ * Drives a RoomManager through the real Room.Listener and RemoteParticipant.Listener callbacks
+ * without the SDK or a network. Events are scripted at absolute virtual times or generated from
+ * a seeded Random at a fixed rate, and are dispatched in time order while advancing a
+ * VirtualClock that is also the RoomManager clock. The same seed and script always produce the
+ * same event sequence, so a simulation can be used for soak and performance tests of everything
+ * downstream of RoomManager.roomEvents.
+ */
+class RoomSimulator(
+    val clock: VirtualClock = VirtualClock(),
+    callSettingsProvider: CallSettingsProvider = CallSettingsProvider(FakeSharedPreferences()),
+    private val statsReports: List<StatsReport> = listOf(mock<StatsReport>()),
+    private val statsIntervalMs: Long = STATS_POLLING_INTERVAL_MS
+) {
+
+    private val participants = linkedMapOf<String, SimulatedParticipant>()
+    private val queue = PriorityQueue<ScheduledEvent>(
+            compareBy<ScheduledEvent> { it.timeNs }.thenBy { it.sequence })
+    private val localParticipant = mock<LocalParticipant> {
+        on { sid } doReturn SIMULATED_LOCAL_PARTICIPANT_SID
+    }
+    private val room = mock<Room> {
+        on { name } doReturn SIMULATED_ROOM_NAME
+        on { sid } doReturn "RM-simulated"
+        on { state } doReturn Room.State.CONNECTED
+        on { localParticipant } doReturn localParticipant
+        on { remoteParticipants } doAnswer { participants.values.map { it.remoteParticipant } }
+    }
+    private val videoClient = mock<VideoClient> {
+        onBlocking { connect(any(), any(), any(), anyOrNull(), any(), anyOrNull(), anyOrNull()) } doAnswer {
+            roomListener = it.getArgument(2)
+            room
+        }
+    }
+    private var roomListener: Room.Listener? = null
+    private var sequence = 0L
+    private var nextStatsNs = Long.MAX_VALUE
+    private var joinCount = 0
+
+    val roomManager = RoomManager(mock(), videoClient, callSettingsProvider,
+            { clock.elapsedRealtime }, Dispatchers.Unconfined).apply {
+        localParticipantManager = mock {
+            on { createConnectTracks(anyOrNull()) } doReturn LocalTracks()
+        }
+    }
+    val eventLog = mutableListOf<TimedEvent>()
+    val remoteParticipantSids: List<String> get() = participants.keys.toList()
+
+    fun connect() {
+        runBlocking { roomManager.connect(SIMULATED_LOCAL_PARTICIPANT_SID, SIMULATED_ROOM_NAME) }
+        listener.onConnected(room)
+        nextStatsNs = clock.nowNs + TimeUnit.MILLISECONDS.toNanos(statsIntervalMs)
+    }
+
+    fun disconnect() {
+        queue.clear()
+        nextStatsNs = Long.MAX_VALUE
+        listener.onDisconnected(room, null)
+    }
+
+    fun schedule(atMs: Long, event: SimulatedEvent) = apply {
+        enqueue(TimeUnit.MILLISECONDS.toNanos(atMs)) { event }
+    }
+
+    /*
+     * Schedules count random events evenly spaced at the given rate starting from the current
+     * virtual time. Each event is resolved against the state of the Room when it is dispatched
+     * so that random events interleave consistently with scripted ones.
+     */
+    fun scheduleRandomEvents(
+        count: Int,
+        eventsPerSecond: Int,
+        random: Random,
+        eventMix: EventMix = EventMix()
+    ) = apply {
+        val intervalNs = TimeUnit.SECONDS.toNanos(1) / eventsPerSecond
+        repeat(count) { index ->
+            enqueue(clock.nowNs + intervalNs * (index + 1)) { nextRandomEvent(random, eventMix) }
+        }
+    }
+
+    fun advanceBy(durationMs: Long) {
+        runUntilNs(clock.nowNs + TimeUnit.MILLISECONDS.toNanos(durationMs))
+    }
+
+    fun runUntilIdle() {
+        while (queue.isNotEmpty()) runUntilNs(queue.peek()!!.timeNs)
+    }
+
+    private fun runUntilNs(endNs: Long) {
+        while (queue.peek()?.let { it.timeNs <= endNs } == true) {
+            val scheduledEvent = queue.poll()!!
+            dispatchStatsUntil(scheduledEvent.timeNs)
+            clock.advanceTo(scheduledEvent.timeNs)
+            dispatch(scheduledEvent.resolve())
+        }
+        dispatchStatsUntil(endNs)
+        clock.advanceTo(endNs)
+    }
+
+    private fun dispatchStatsUntil(timeNs: Long) {
+        while (nextStatsNs <= timeNs) {
+            clock.advanceTo(nextStatsNs)
+            dispatch(Stats)
+            nextStatsNs += TimeUnit.MILLISECONDS.toNanos(statsIntervalMs)
+        }
+    }
+
+    private fun enqueue(timeNs: Long, resolve: () -> SimulatedEvent) {
+        queue.add(ScheduledEvent(timeNs, sequence++, resolve))
+    }
+
+    private fun dispatch(event: SimulatedEvent) {
+        eventLog.add(TimedEvent(clock.nowNs, event))
+        when (event) {
+            is Join -> {
+                val participant = SimulatedParticipant(event.sid)
+                participants[event.sid] = participant
+                listener.onParticipantConnected(room, participant.remoteParticipant)
+            }
+            is Leave -> participants.remove(event.sid)?.let {
+                listener.onParticipantDisconnected(room, it.remoteParticipant)
+            }
+            is VideoSubscribed -> participants[event.sid]?.run {
+                if (event.isScreen) isScreenSubscribed = true else isVideoSubscribed = true
+                this.listener.onVideoTrackSubscribed(remoteParticipant, videoPublication,
+                        if (event.isScreen) screenTrack else videoTrack)
+            }
+            is VideoUnsubscribed -> participants[event.sid]?.run {
+                if (event.isScreen) isScreenSubscribed = false else isVideoSubscribed = false
+                this.listener.onVideoTrackUnsubscribed(remoteParticipant, videoPublication,
+                        if (event.isScreen) screenTrack else videoTrack)
+            }
+            is AudioEnabled -> participants[event.sid]?.run {
+                isAudioEnabled = event.isEnabled
+                if (event.isEnabled) {
+                    this.listener.onAudioTrackEnabled(remoteParticipant, audioPublication)
+                } else {
+                    this.listener.onAudioTrackDisabled(remoteParticipant, audioPublication)
+                }
+            }
+            is SwitchOff -> participants[event.sid]?.run {
+                if (event.isSwitchedOff) {
+                    this.listener.onVideoTrackSwitchedOff(remoteParticipant, videoTrack)
+                } else {
+                    this.listener.onVideoTrackSwitchedOn(remoteParticipant, videoTrack)
+                }
+            }
+            is DominantSpeaker -> listener.onDominantSpeakerChanged(room,
+                    event.sid?.let { participants[it]?.remoteParticipant })
+            is NetworkQuality -> participants[event.sid]?.run {
+                this.listener.onNetworkQualityLevelChanged(remoteParticipant, event.level)
+            }
+            Stats -> roomManager.sendStatsUpdate(statsReports)
+        }
+    }
+
+    private fun nextRandomEvent(random: Random, eventMix: EventMix): SimulatedEvent {
+        val participant = participants.values.takeIf { it.isNotEmpty() }?.random(random)
+        if (participant == null) return Join(nextParticipantSid())
+        val weights = with(eventMix) {
+            listOf(join, leave, videoSubscription, screenSubscription, audio, switchOff,
+                    dominantSpeaker, networkQuality)
+        }
+        var pick = random.nextInt(weights.sum())
+        return when (weights.indexOfFirst { weight -> (pick < weight).also { pick -= weight } }) {
+            0 -> if (participants.size < eventMix.maxParticipants) {
+                Join(nextParticipantSid())
+            } else Leave(participant.sid)
+            1 -> Leave(participant.sid)
+            2 -> if (participant.isVideoSubscribed) {
+                VideoUnsubscribed(participant.sid)
+            } else VideoSubscribed(participant.sid)
+            3 -> if (participant.isScreenSubscribed) {
+                VideoUnsubscribed(participant.sid, isScreen = true)
+            } else VideoSubscribed(participant.sid, isScreen = true)
+            4 -> AudioEnabled(participant.sid, !participant.isAudioEnabled)
+            5 -> if (participant.isVideoSubscribed) {
+                SwitchOff(participant.sid, random.nextBoolean())
+            } else VideoSubscribed(participant.sid)
+            6 -> DominantSpeaker(participant.sid.takeIf { random.nextInt(10) > 0 })
+            else -> NetworkQuality(participant.sid,
+                    NetworkQualityLevel.values().random(random))
+        }
+    }
+
+    private fun nextParticipantSid() = "PA${joinCount++}"
+
+    private val listener: Room.Listener
+        get() = checkNotNull(roomListener) { "The simulated Room is not connected" }
+
+    private class ScheduledEvent(
+        val timeNs: Long,
+        val sequence: Long,
+        val resolve: () -> SimulatedEvent
+    )
+
+    private class SimulatedParticipant(val sid: String) {
+        var isVideoSubscribed = false
+        var isScreenSubscribed = false
+        var isAudioEnabled = true
+        lateinit var listener: RemoteParticipant.Listener
+        val videoTrack = mock<RemoteVideoTrack> {
+            on { sid } doReturn "MT-$sid-camera"
+            on { name } doReturn CAMERA_TRACK_NAME
+        }
+        val screenTrack = mock<RemoteVideoTrack> {
+            on { sid } doReturn "MT-$sid-screen"
+            on { name } doReturn SCREEN_TRACK_NAME
+        }
+        val videoPublication = mock<RemoteVideoTrackPublication>()
+        val audioPublication = mock<RemoteAudioTrackPublication> {
+            on { remoteAudioTrack } doReturn mock<RemoteAudioTrack>()
+        }
+        val remoteParticipant = mock<RemoteParticipant> {
+            on { sid } doReturn sid
+            on { identity } doReturn "participant-$sid"
+            on { networkQualityLevel } doReturn NetworkQualityLevel.NETWORK_QUALITY_LEVEL_UNKNOWN
+        }.also { remoteParticipant ->
+            doAnswer { listener = it.getArgument(0); null }
+                    .whenever(remoteParticipant).setListener(any())
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.twilio.video.app.sdk
+
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule
+import com.nhaarman.mockitokotlin2.anyOrNull
+import com.nhaarman.mockitokotlin2.inOrder
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.never
+import com.nhaarman.mockitokotlin2.verify
+import com.twilio.video.NetworkQualityLevel.NETWORK_QUALITY_LEVEL_TWO
+import com.twilio.video.app.BaseUnitTest
+import com.twilio.video.app.TestApp
+import com.twilio.video.app.audio.AudioRouter
+import com.twilio.video.app.data.Preferences
+import com.twilio.video.app.participant.ParticipantManager
+import com.twilio.video.app.sdk.SimulatedEvent.DominantSpeaker
+import com.twilio.video.app.sdk.SimulatedEvent.Join
+import com.twilio.video.app.sdk.SimulatedEvent.Leave
+import com.twilio.video.app.sdk.SimulatedEvent.NetworkQuality
+import com.twilio.video.app.sdk.SimulatedEvent.Stats
+import com.twilio.video.app.sdk.SimulatedEvent.VideoSubscribed
+import com.twilio.video.app.ui.room.RoomViewModel
+import com.twilio.video.app.ui.room.RoomViewState
+import com.twilio.video.app.util.FakeSharedPreferences
+import io.reactivex.schedulers.Schedulers
+import io.uniflow.test.rule.TestDispatchersRule
+import kotlin.random.Random
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.CoreMatchers.notNullValue
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.After
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+
+@RunWith(RobolectricTestRunner::class)
+@Config(application = TestApp::class)
+class RoomSimulatorTest : BaseUnitTest() {
+
+    @get:Rule
+    val rule = InstantTaskExecutorRule()
+
+    @ExperimentalCoroutinesApi
+    @get:Rule
+    val coroutineScope = TestDispatchersRule()
+
+    private val simulator = RoomSimulator()
+    private val participantManager = ParticipantManager()
+    private val viewModel = RoomViewModel(simulator.roomManager,
+            AudioRouter(mock(), simulator.roomManager.roomEvents), mock(),
+            participantManager, scheduler = Schedulers.trampoline())
+
+    @After
+    fun tearDown() {
+        simulator.disconnect()
+    }
+
+    @Test
+    fun `scripted events should be dispatched in virtual time order`() {
+        simulator.connect()
+        simulator.schedule(500, Leave("PA0"))
+                .schedule(100, Join("PA0"))
+                .schedule(100, Join("PA1"))
+                .schedule(200, VideoSubscribed("PA1"))
+                .schedule(300, DominantSpeaker("PA1"))
+                .schedule(400, NetworkQuality("PA1", NETWORK_QUALITY_LEVEL_TWO))
+                .runUntilIdle()
+
+        assertThat(simulator.clock.elapsedRealtime, equalTo(500L))
+        assertThat(simulator.eventLog.map { it.event }, equalTo(listOf(
+                Join("PA0"), Join("PA1"), VideoSubscribed("PA1"), DominantSpeaker("PA1"),
+                NetworkQuality("PA1", NETWORK_QUALITY_LEVEL_TWO), Leave("PA0"))))
+        val participant = participantManager.getParticipant("PA1")
+        assertThat(participant?.isDominantSpeaker, equalTo(true))
+        assertThat(participant?.videoTrack, notNullValue())
+        assertThat(participant?.networkQualityLevel, equalTo(NETWORK_QUALITY_LEVEL_TWO))
+        assertThat(participantManager.getParticipant("PA0"), equalTo(null))
+    }
+
+    @Test
+    fun `stats should be reported at the polling interval of virtual time`() {
+        simulator.connect()
+        simulator.advanceBy(5500)
+
+        assertThat(simulator.eventLog.count { it.event == Stats }, equalTo(5))
+        assertThat(viewModel.stats.value?.roomStats, notNullValue())
+    }
+
+    @Test
+    fun `the same seed should produce the same event sequence`() {
+        simulator.connect()
+        simulator.scheduleRandomEvents(2000, 1000, Random(42)).runUntilIdle()
+
+        val otherSimulator = RoomSimulator().apply {
+            connect()
+            scheduleRandomEvents(2000, 1000, Random(42)).runUntilIdle()
+            disconnect()
+        }
+
+        assertThat(simulator.eventLog, equalTo(otherSimulator.eventLog))
+    }
+
+    @Test
+    fun `the participant view states should match the room after a randomized soak`() {
+        simulator.connect()
+        simulator.scheduleRandomEvents(10_000, 2500, Random(7), EventMix(maxParticipants = 100))
+                .runUntilIdle()
+
+        assertThat(simulator.clock.elapsedRealtime, equalTo(4000L))
+        val roomViewState = viewModel.getCurrentState() as RoomViewState
+        assertThat(roomViewState.participantThumbnails?.mapNotNull { it.sid }?.sorted(),
+                equalTo((simulator.remoteParticipantSids + SIMULATED_LOCAL_PARTICIPANT_SID)
+                        .sorted()))
+    }
+
+    @Test
+    fun `the local tracks should only be published after onConnected by default`() {
+        simulator.connect()
+
+        verify(simulator.roomManager.localParticipantManager, never())
+                .createConnectTracks(anyOrNull())
+        verify(simulator.roomManager.localParticipantManager).publishLocalTracks()
+    }
+
+    @Test
+    fun `the local tracks should be created on connect when publishing them on connect`() {
+        val sharedPreferences = FakeSharedPreferences().apply {
+            edit().putBoolean(Preferences.PUBLISH_TRACKS_ON_CONNECT, true).apply()
+        }
+        val simulator = RoomSimulator(callSettingsProvider = CallSettingsProvider(sharedPreferences))
+
+        simulator.connect()
+
+        inOrder(simulator.roomManager.localParticipantManager) {
+            verify(simulator.roomManager.localParticipantManager).createConnectTracks(anyOrNull())
+            verify(simulator.roomManager.localParticipantManager).publishLocalTracks()
+        }
+        simulator.disconnect()
+    }
+}
@@ -0,0 +1,68 @@
+package com.twilio.video.app.sdk
+
+import com.twilio.video.app.sdk.ScreenFrameGate.Decision.DEFER
+import com.twilio.video.app.sdk.ScreenFrameGate.Decision.DROP
+import com.twilio.video.app.sdk.ScreenFrameGate.Decision.FORWARD
+import java.util.concurrent.TimeUnit
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.CoreMatchers.not
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Test
+
+private val FRAME_INTERVAL_NS = TimeUnit.SECONDS.toNanos(1) / 30
+
+class ScreenFrameGateTest {
+
+    private val frameGate = ScreenFrameGate(maxFrameRate = 15, keepAliveIntervalMs = 1000)
+
+    @Test
+    fun `static content should only forward a keep-alive frame every second`() {
+        val decisions = (0 until 300).map { frameGate.onFrame(1, it * FRAME_INTERVAL_NS) }
+
+        assertThat(decisions.count { it == FORWARD }, equalTo(10))
+        assertThat(decisions.count { it == DROP }, equalTo(290))
+    }
+
+    @Test
+    fun `changing content should be forwarded at the max frame rate`() {
+        val decisions = (0 until 30).map { frameGate.onFrame(it.toLong(), it * FRAME_INTERVAL_NS) }
+
+        assertThat(decisions.count { it == FORWARD }, equalTo(15))
+        assertThat(decisions.count { it == DEFER }, equalTo(15))
+    }
+
+    @Test
+    fun `a change after static content should be forwarded right away`() {
+        repeat(20) { frameGate.onFrame(1, it * FRAME_INTERVAL_NS) }
+
+        assertThat(frameGate.onFrame(2, 20 * FRAME_INTERVAL_NS), equalTo(FORWARD))
+    }
+
+    @Test
+    fun `a deferred frame should be forwardable once the frame interval has passed`() {
+        frameGate.onFrame(1, 0)
+
+        assertThat(frameGate.onFrame(2, FRAME_INTERVAL_NS), equalTo(DEFER))
+        assertThat(frameGate.deferralNs(FRAME_INTERVAL_NS), equalTo(FRAME_INTERVAL_NS))
+    }
+
+    @Test
+    fun `the luma hash should change when a character is typed`() {
+        val frame = I420Frame.allocate(640, 360)
+        val hash = frame.lumaHash()
+
+        for (y in 100 until 108) {
+            for (x in 200 until 204) frame.dataY.put(y * frame.strideY + x, 0xff.toByte())
+        }
+
+        assertThat(frame.lumaHash(), not(equalTo(hash)))
+    }
+
+    @Test
+    fun `the luma hash should not change for identical content`() {
+        val frame = I420Frame.allocate(640, 360)
+        val copy = I420Frame.allocate(640, 360)
+
+        assertThat(frame.lumaHash(), equalTo(copy.lumaHash()))
+    }
+}
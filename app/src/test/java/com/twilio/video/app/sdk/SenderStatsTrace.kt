@@ -0,0 +1,28 @@
+package com.twilio.video.app.sdk
+
+/*
+ * A recorded sequence of sender stats loaded from a CSV file in the test resources with rows in
+ * the format: timestampMs,roundTripTimeMs,packetsLost,packetsSent,frameRate
+ */
+class SenderStatsTrace(val samples: List<Pair<Long, SenderStats>>) {
+
+    /*
+     * Replays every sample through the controller and returns the emitted targets keyed by the
+     * timestamp of the sample that triggered them.
+     */
+    fun replay(controller: EncodingParametersController): List<Pair<Long, EncodingTarget>> =
+            samples.mapNotNull { (timestamp, senderStats) ->
+                controller.onSenderStats(senderStats, timestamp)?.let { timestamp to it }
+            }
+
+    companion object {
+        fun load(resourceName: String) = SenderStatsTrace(
+                CsvTrace.read("stats_traces/$resourceName") { columns ->
+                    columns[0].toLong() to SenderStats(
+                            roundTripTime = columns[1].toLong(),
+                            packetsLost = columns[2].toInt(),
+                            packetsSent = columns[3].toInt(),
+                            frameRate = columns[4].toInt())
+                })
+    }
+}
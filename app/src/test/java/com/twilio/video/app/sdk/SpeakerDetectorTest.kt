@@ -0,0 +1,74 @@
+package com.twilio.video.app.sdk
+
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Test
+
+class SpeakerDetectorTest {
+
+    private val speakerDetector = SpeakerDetector()
+
+    @Test
+    fun `speech should be detected within 300 ms of its onset`() {
+        val changes = AudioLevelTrace.load("speech_onset.csv").replay(speakerDetector)
+
+        val (startMs, speakingTrackSids) = changes.first()
+        assertThat(speakingTrackSids, equalTo(setOf("MT1")))
+        assertThat(startMs - 1000 < 300, equalTo(true))
+    }
+
+    @Test
+    fun `speech should stop being detected shortly after it ends`() {
+        val changes = AudioLevelTrace.load("speech_onset.csv").replay(speakerDetector)
+
+        val (stopMs, speakingTrackSids) = changes.last()
+        assertThat(changes.size, equalTo(2))
+        assertThat(speakingTrackSids, equalTo(emptySet()))
+        assertThat(stopMs - 3000 <= 800, equalTo(true))
+    }
+
+    @Test
+    fun `pauses between words should not end the speech`() {
+        val changes = AudioLevelTrace.load("word_pauses.csv").replay(speakerDetector)
+
+        assertThat(changes.map { it.second }, equalTo(listOf(setOf("MT1"), emptySet())))
+    }
+
+    @Test
+    fun `constant background noise should be ignored while speech over it is detected`() {
+        val changes = AudioLevelTrace.load("background_noise.csv").replay(speakerDetector)
+
+        val noiseStopMs = changes[1].first
+        assertThat(changes[1].second, equalTo(emptySet()))
+        assertThat(noiseStopMs < 6000, equalTo(true))
+        assertThat(changes[2], equalTo(6000L to setOf("MT1")))
+    }
+
+    @Test
+    fun `an answering speaker should be detected while the previous one trails off`() {
+        val changes = AudioLevelTrace.load("turn_taking.csv").replay(speakerDetector)
+
+        assertThat(changes.map { it.second }, equalTo(listOf(
+                setOf("MT1"),
+                setOf("MT1", "MT2"),
+                setOf("MT2"))))
+        assertThat(changes[1].first, equalTo(1500L))
+    }
+
+    @Test
+    fun `levels below the noise floor should never be seen as speech`() {
+        repeat(50) {
+            speakerDetector.onAudioLevel("MT1", 350, it * 100L)
+            assertThat(speakerDetector.endUpdate(), equalTo(false))
+        }
+    }
+
+    @Test
+    fun `a track missing from a report should stop speaking`() {
+        speakerDetector.onAudioLevel("MT1", 8000, 0)
+        speakerDetector.endUpdate()
+
+        assertThat(speakerDetector.endUpdate(), equalTo(true))
+        assertThat(speakerDetector.speakingTrackSids, equalTo(emptySet()))
+    }
+}
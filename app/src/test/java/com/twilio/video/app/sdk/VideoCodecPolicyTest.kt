@@ -0,0 +1,101 @@
+package com.twilio.video.app.sdk
+
+import com.twilio.video.H264Codec
+import com.twilio.video.VideoCodec
+import com.twilio.video.Vp8Codec
+import com.twilio.video.Vp9Codec
+import com.twilio.video.app.BaseUnitTest
+import com.twilio.video.app.data.api.model.Topology
+import com.twilio.video.app.data.api.model.Topology.GO
+import com.twilio.video.app.data.api.model.Topology.GROUP
+import com.twilio.video.app.data.api.model.Topology.GROUP_SMALL
+import com.twilio.video.app.data.api.model.Topology.PEER_TO_PEER
+import junitparams.JUnitParamsRunner
+import junitparams.Parameters
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Test
+import org.junit.runner.RunWith
+
+@RunWith(JUnitParamsRunner::class)
+class VideoCodecPolicyTest : BaseUnitTest() {
+
+    @Test
+    @Parameters(method = "sfuTopologies")
+    fun `SFU rooms with enough participants should prefer VP8 simulcast`(topology: Topology) {
+        val policy = VideoCodecPolicy(FakeHardwareCodecSupport())
+
+        val codecs = policy.getPreferredVideoCodecs(topology, SIMULCAST_MIN_PARTICIPANTS)
+
+        assertThat(codecs.describe(), equalTo(listOf("VP8 simulcast")))
+    }
+
+    @Test
+    fun `SFU rooms should prefer VP8 simulcast when the participant count is unknown`() {
+        val policy = VideoCodecPolicy(FakeHardwareCodecSupport(H264_MIME_TYPE))
+
+        val codecs = policy.getPreferredVideoCodecs(GROUP)
+
+        assertThat(codecs.describe(), equalTo(listOf("VP8 simulcast", H264Codec.NAME)))
+    }
+
+    @Test
+    @Parameters(method = "peerToPeerTopologies")
+    fun `peer to peer rooms should never use simulcast`(topology: Topology) {
+        val policy = VideoCodecPolicy(FakeHardwareCodecSupport())
+
+        val codecs = policy.getPreferredVideoCodecs(topology, 10)
+
+        assertThat(codecs.describe(), equalTo(listOf(Vp8Codec.NAME, H264Codec.NAME)))
+    }
+
+    @Test
+    fun `small SFU rooms should prefer hardware accelerated codecs over simulcast`() {
+        val policy = VideoCodecPolicy(FakeHardwareCodecSupport(H264_MIME_TYPE))
+
+        val codecs = policy.getPreferredVideoCodecs(GROUP_SMALL, 2)
+
+        assertThat(codecs.describe(), equalTo(listOf(H264Codec.NAME, Vp8Codec.NAME)))
+    }
+
+    @Test
+    fun `VP9 should only be preferred with hardware support`() {
+        val policy = VideoCodecPolicy(FakeHardwareCodecSupport(VP9_MIME_TYPE, VP8_MIME_TYPE))
+
+        val codecs = policy.getPreferredVideoCodecs(PEER_TO_PEER)
+
+        assertThat(codecs.describe(),
+                equalTo(listOf(Vp8Codec.NAME, Vp9Codec.NAME, H264Codec.NAME)))
+    }
+
+    @Test
+    fun `a codec should not be considered hardware accelerated without a hardware decoder`() {
+        val hardwareCodecSupport = FakeHardwareCodecSupport(H264_MIME_TYPE,
+                decoders = emptySet())
+        val policy = VideoCodecPolicy(hardwareCodecSupport)
+
+        val codecs = policy.getPreferredVideoCodecs(GO)
+
+        assertThat(codecs.describe(), equalTo(listOf(Vp8Codec.NAME, H264Codec.NAME)))
+    }
+
+    private fun sfuTopologies() = arrayOf(GROUP, GROUP_SMALL)
+
+    private fun peerToPeerTopologies() = arrayOf(PEER_TO_PEER, GO)
+
+    private fun List<VideoCodec>.describe() = map {
+        if (it is Vp8Codec && it.simulcast) "${it.name} simulcast" else it.name
+    }
+
+    private class FakeHardwareCodecSupport(
+        vararg encoders: String,
+        private val decoders: Set<String>? = null
+    ) : HardwareCodecSupport {
+        private val encoders = encoders.toSet()
+
+        override fun isHardwareEncoderAvailable(mimeType: String) = encoders.contains(mimeType)
+
+        override fun isHardwareDecoderAvailable(mimeType: String) =
+                (decoders ?: encoders).contains(mimeType)
+    }
+}
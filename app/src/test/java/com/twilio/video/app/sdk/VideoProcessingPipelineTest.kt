@@ -0,0 +1,61 @@
+package com.twilio.video.app.sdk
+
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.CoreMatchers.sameInstance
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Test
+
+class VideoProcessingPipelineTest {
+
+    private val frame = I420Frame.allocate(1280, 720).apply {
+        for (y in 0 until height) {
+            for (x in 0 until width) dataY.put(y * strideY + x, x.toByte())
+        }
+    }
+
+    @Test
+    fun `frames that need no processing should be passed through`() {
+        val pipeline = VideoProcessingPipeline(listOf(
+                CenterCropProcessor(16, 9),
+                DownscaleProcessor(1280, 720)))
+
+        assertThat(pipeline.process(frame), sameInstance(frame))
+        assertThat(pipeline.framePool.allocatedFrameCount, equalTo(0))
+    }
+
+    @Test
+    fun `center crop should keep the middle of the frame`() {
+        val pipeline = VideoProcessingPipeline(listOf(CenterCropProcessor(4, 3)))
+
+        val output = pipeline.process(frame)
+
+        assertThat(output.width, equalTo(960))
+        assertThat(output.height, equalTo(720))
+        assertThat(output.dataY.get(0), equalTo(160.toByte()))
+        assertThat(output.dataU.capacity(), equalTo(480 * 360))
+    }
+
+    @Test
+    fun `downscale should fit the frame within the max size and keep its aspect`() {
+        val pipeline = VideoProcessingPipeline(listOf(DownscaleProcessor(640, 480)))
+
+        val output = pipeline.process(frame)
+
+        assertThat(output.width, equalTo(640))
+        assertThat(output.height, equalTo(360))
+        // The average of source columns 2 and 3
+        assertThat(output.dataY.get(1), equalTo(3.toByte()))
+    }
+
+    @Test
+    fun `the pipeline should not allocate frames once the pool is warm`() {
+        val pipeline = VideoProcessingPipeline(listOf(
+                CenterCropProcessor(4, 3),
+                DownscaleProcessor(640, 480)))
+
+        repeat(30) { pipeline.framePool.release(pipeline.process(frame)) }
+
+        assertThat(pipeline.framePool.allocatedFrameCount, equalTo(2))
+        assertThat(pipeline.stageMetrics.map { it.frameCount }, equalTo(listOf(30L, 30L)))
+    }
+}
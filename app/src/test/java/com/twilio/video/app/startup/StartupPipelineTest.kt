@@ -0,0 +1,55 @@
+package com.twilio.video.app.startup
+
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.TestCoroutineScope
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Test
+
+@ExperimentalCoroutinesApi
+class StartupPipelineTest {
+
+    private val backgroundScope = TestCoroutineScope()
+    private val idleActions = mutableListOf<() -> Unit>()
+    private var now = 0L
+    private val executed = mutableListOf<String>()
+    private val pipeline = StartupPipeline(backgroundScope, { idleActions.add(it) }, { now })
+
+    @Test
+    fun `main initializers should run before start returns and deferred ones after`() {
+        backgroundScope.pauseDispatcher()
+        pipeline.add("idle", StartupPhase.IDLE) { executed.add("idle") }
+                .add("background", StartupPhase.BACKGROUND) { executed.add("background") }
+                .add("main", StartupPhase.MAIN) { executed.add("main") }
+                .start()
+
+        assertThat(executed, equalTo(listOf("main")))
+
+        backgroundScope.resumeDispatcher()
+        idleActions.forEach { it() }
+
+        assertThat(executed, equalTo(listOf("main", "background", "idle")))
+    }
+
+    @Test
+    fun `background initializers should run in the order they were added`() {
+        pipeline.add("first", StartupPhase.BACKGROUND) { executed.add("first") }
+                .add("second", StartupPhase.BACKGROUND) { executed.add("second") }
+                .start()
+
+        assertThat(executed, equalTo(listOf("first", "second")))
+    }
+
+    @Test
+    fun `each initializer should be timed`() {
+        pipeline.add("main", StartupPhase.MAIN) { now += 5_000_000 }
+                .add("idle", StartupPhase.IDLE) { now += 2_000_000 }
+                .start()
+        idleActions.forEach { it() }
+
+        assertThat(pipeline.initializerTimings, equalTo(listOf(
+                InitializerTiming("main", StartupPhase.MAIN, 5_000_000),
+                InitializerTiming("idle", StartupPhase.IDLE, 2_000_000))))
+        assertThat(pipeline.initializerTimings.first().durationMs, equalTo(5.0))
+    }
+}
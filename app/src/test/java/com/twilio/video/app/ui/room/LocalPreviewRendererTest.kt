@@ -0,0 +1,86 @@
+package com.twilio.video.app.ui.room
+
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.times
+import com.nhaarman.mockitokotlin2.verify
+import com.nhaarman.mockitokotlin2.whenever
+import com.twilio.video.LocalVideoTrack
+import com.twilio.video.RemoteVideoTrack
+import java.util.concurrent.TimeUnit
+import org.junit.Test
+import tvi.webrtc.VideoFrame
+
+class LocalPreviewRendererTest {
+
+    private val localVideoTrack = mock<LocalVideoTrack>()
+    private val primaryView = mockView(width = 1080, height = 1920)
+    private val thumbView = mockView(width = 96, height = 96)
+    private val localPreviewRenderer = LocalPreviewRenderer(maxFrameRate = 10)
+
+    @Test
+    fun `the local track should only have the renderer as a sink`() {
+        localPreviewRenderer.addSink(localVideoTrack, primaryView)
+        localPreviewRenderer.addSink(localVideoTrack, thumbView)
+
+        verify(localVideoTrack).addSink(localPreviewRenderer)
+        verify(localVideoTrack, times(0)).addSink(primaryView)
+        verify(localVideoTrack, times(0)).addSink(thumbView)
+    }
+
+    @Test
+    fun `frames should be rendered by the largest view at the max frame rate`() {
+        localPreviewRenderer.addSink(localVideoTrack, primaryView)
+        localPreviewRenderer.addSink(localVideoTrack, thumbView)
+        val frames = (0 until 40).map { mockFrame(TimeUnit.MILLISECONDS.toNanos(25L * it)) }
+
+        frames.forEach { localPreviewRenderer.onFrame(it) }
+
+        verify(primaryView, times(10)).onFrame(any())
+        verify(thumbView).onFrame(frames[0])
+        verify(thumbView, times(1)).onFrame(any())
+    }
+
+    @Test
+    fun `the remaining view should render every due frame once the largest view is removed`() {
+        localPreviewRenderer.addSink(localVideoTrack, primaryView)
+        localPreviewRenderer.addSink(localVideoTrack, thumbView)
+        localPreviewRenderer.onFrame(mockFrame(0))
+
+        localPreviewRenderer.removeSink(localVideoTrack, primaryView)
+        localPreviewRenderer.onFrame(mockFrame(TimeUnit.MILLISECONDS.toNanos(100)))
+        localPreviewRenderer.onFrame(mockFrame(TimeUnit.MILLISECONDS.toNanos(200)))
+
+        verify(thumbView, times(3)).onFrame(any())
+    }
+
+    @Test
+    fun `the renderer should be removed from the local track with the last view`() {
+        whenever(localVideoTrack.sinks).thenReturn(listOf(localPreviewRenderer))
+        localPreviewRenderer.addSink(localVideoTrack, primaryView)
+        localPreviewRenderer.addSink(localVideoTrack, thumbView)
+
+        localPreviewRenderer.removeSink(localVideoTrack, primaryView)
+        localPreviewRenderer.removeSink(localVideoTrack, thumbView)
+
+        verify(localVideoTrack).removeSink(localPreviewRenderer)
+    }
+
+    @Test
+    fun `remote tracks should be attached to the view directly`() {
+        val remoteVideoTrack = mock<RemoteVideoTrack>()
+
+        localPreviewRenderer.addSink(remoteVideoTrack, primaryView)
+
+        verify(remoteVideoTrack).addSink(primaryView)
+    }
+
+    private fun mockView(width: Int, height: Int) = mock<ParticipantView>().apply {
+        whenever(this.width).thenReturn(width)
+        whenever(this.height).thenReturn(height)
+    }
+
+    private fun mockFrame(timestampNs: Long) = mock<VideoFrame>().apply {
+        whenever(this.timestampNs).thenReturn(timestampNs)
+    }
+}
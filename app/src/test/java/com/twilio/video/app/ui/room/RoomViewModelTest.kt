@@ -2,26 +2,37 @@ package com.twilio.video.app.ui.room
 
 import android.Manifest
 import androidx.arch.core.executor.testing.InstantTaskExecutorRule
+import com.nhaarman.mockitokotlin2.inOrder
 import com.nhaarman.mockitokotlin2.mock
 import com.nhaarman.mockitokotlin2.verify
 import com.nhaarman.mockitokotlin2.whenever
 import com.twilio.video.RemoteVideoTrack
+import com.twilio.video.TrackPriority.HIGH
+import com.twilio.video.TrackPriority.LOW
 import com.twilio.video.app.BaseUnitTest
+import com.twilio.video.app.audio.AudioRouter
 import com.twilio.video.app.participant.ParticipantManager
 import com.twilio.video.app.participant.ParticipantViewState
 import com.twilio.video.app.sdk.LocalParticipantManager
 import com.twilio.video.app.sdk.RoomManager
+import com.twilio.video.app.sdk.RoomStats
 import com.twilio.video.app.sdk.VideoClient
 import com.twilio.video.app.sdk.VideoTrackViewState
+import com.twilio.video.app.ui.room.RoomEvent.AudioOnlyModeChanged
 import com.twilio.video.app.ui.room.RoomEvent.ConnectFailure
 import com.twilio.video.app.ui.room.RoomEvent.MaxParticipantFailure
 import com.twilio.video.app.ui.room.RoomEvent.RemoteParticipantEvent.TrackSwitchOff
+import com.twilio.video.app.ui.room.RoomEvent.StatsUpdate
 import com.twilio.video.app.ui.room.RoomViewConfiguration.Lobby
+import com.twilio.video.app.ui.room.RoomViewEffect.AutomaticAudioOnlyMode
 import com.twilio.video.app.ui.room.RoomViewEffect.Disconnected
 import com.twilio.video.app.ui.room.RoomViewEffect.PermissionsDenied
 import com.twilio.video.app.ui.room.RoomViewEffect.ShowConnectFailureDialog
+import com.twilio.video.app.ui.room.RoomViewEvent.MediaModeChanged
 import com.twilio.video.app.ui.room.RoomViewEvent.OnResume
+import com.twilio.video.app.ui.room.RoomViewEvent.PinParticipant
 import com.twilio.video.app.util.PermissionUtil
+import io.reactivex.Observable
 import io.reactivex.schedulers.TestScheduler
 import io.uniflow.android.test.TestViewObserver
 import io.uniflow.android.test.createTestObserver
@@ -58,6 +69,7 @@ class RoomViewModelTest : BaseUnitTest() {
     }
     val permissionUtil = mock<PermissionUtil>()
     private lateinit var testObserver: TestViewObserver
+    private val audioRouter = AudioRouter(mock(), Observable.never())
     private lateinit var viewModel: RoomViewModel
     private val localParticipantViewState = ParticipantViewState(isLocalParticipant = true)
     private val initialRoomViewState = RoomViewState(participantManager.primaryParticipant)
@@ -66,7 +78,7 @@ class RoomViewModelTest : BaseUnitTest() {
     fun setUp() {
         viewModel = RoomViewModel(
                 roomManager,
-                mock(),
+                audioRouter,
                 permissionUtil,
                 participantManager,
                 scheduler = scheduler)
@@ -89,6 +101,20 @@ class RoomViewModelTest : BaseUnitTest() {
         assertThat(updatedParticipant, equalTo(expectedParticipantViewState))
     }
 
+    @Test
+    fun `The PinParticipant view event should be reduced on the RoomEvent scheduler`() {
+        viewModel.processInput(PinParticipant(PARTICIPANT_SID))
+
+        assertThat(participantManager.getParticipant(PARTICIPANT_SID)?.isPinned, equalTo(false))
+
+        scheduler.triggerActions()
+
+        val updatedParticipant = (viewModel.getCurrentState() as RoomViewState).participantThumbnails?.find {
+            it.sid == PARTICIPANT_SID
+        }
+        assertThat(updatedParticipant?.isPinned, equalTo(true))
+    }
+
     @Test
     fun `The TrackSwitchOff event should create a new VideoTrackViewState for an existing ParticipantViewState with the switch off set to true`() {
         val expectedVideoTrack = mock<RemoteVideoTrack>()
@@ -105,6 +131,25 @@ class RoomViewModelTest : BaseUnitTest() {
         assertThat(updatedParticipant, equalTo(expectedParticipantViewState))
     }
 
+    @Test
+    fun `The AudioOnlyModeChanged event should detach the remote video and restore it afterwards`() {
+        val videoTrack = mock<RemoteVideoTrack>()
+        roomManager.sendRoomEvent(TrackSwitchOff(PARTICIPANT_SID, videoTrack, false))
+        roomManager.sendRoomEvent(AudioOnlyModeChanged(isAudioOnly = true, isAutomatic = true))
+        scheduler.triggerActions()
+
+        val roomViewState = viewModel.getCurrentState() as RoomViewState
+        assertThat(roomViewState.isAudioOnly, equalTo(true))
+        assertThat(viewModel.participants.value?.primaryParticipant?.videoTrack, `is`(nullValue()))
+        assertThat(testObserver.lastEventOrNull, equalTo<Any?>(AutomaticAudioOnlyMode))
+
+        roomManager.sendRoomEvent(AudioOnlyModeChanged(isAudioOnly = false))
+        scheduler.triggerActions()
+
+        assertThat(viewModel.participants.value?.primaryParticipant?.videoTrack,
+                equalTo(VideoTrackViewState(videoTrack)))
+    }
+
     @Test
     fun `The OnResume event should set the isCameraEnabled view state property to true if camera permission is allowed`() {
         whenever(permissionUtil.isPermissionGranted(Manifest.permission.CAMERA))
@@ -119,7 +164,7 @@ class RoomViewModelTest : BaseUnitTest() {
     fun `The OnResume event should set the isCameraEnabled view state property to false if camera permission is denied`() {
         viewModel = RoomViewModel(
                 roomManager,
-                mock(),
+                audioRouter,
                 permissionUtil,
                 participantManager,
                 scheduler = scheduler,
@@ -150,7 +195,7 @@ class RoomViewModelTest : BaseUnitTest() {
     fun `The OnResume event should set the isMicEnabled view state property to false if camera permission is denied`() {
         viewModel = RoomViewModel(
                 roomManager,
-                mock(),
+                audioRouter,
                 permissionUtil,
                 participantManager,
                 scheduler = scheduler,
@@ -185,12 +230,12 @@ class RoomViewModelTest : BaseUnitTest() {
 
         testObserver.verifySequence(
                 initialRoomViewState,
-                ShowConnectFailureDialog,
                 Disconnected,
                 initialRoomViewState.copy(configuration = Lobby),
                 initialRoomViewState.copy(configuration = Lobby,
-                primaryParticipant = localParticipantViewState,
-                participantThumbnails = listOf(localParticipantViewState)))
+                        primaryParticipant = localParticipantViewState,
+                        participantThumbnails = listOf(localParticipantViewState)),
+                ShowConnectFailureDialog)
     }
 
     @Test
@@ -200,11 +245,66 @@ class RoomViewModelTest : BaseUnitTest() {
 
         testObserver.verifySequence(
                 initialRoomViewState,
-                RoomViewEffect.ShowMaxParticipantFailureDialog,
                 Disconnected,
                 initialRoomViewState.copy(configuration = Lobby),
                 initialRoomViewState.copy(configuration = Lobby,
                         primaryParticipant = localParticipantViewState,
-                        participantThumbnails = listOf(localParticipantViewState)))
+                        participantThumbnails = listOf(localParticipantViewState)),
+                RoomViewEffect.ShowMaxParticipantFailureDialog)
+    }
+
+    @Test
+    fun `A StatsUpdate should only be published to the stats stream`() {
+        val participants = mutableListOf<ParticipantsViewState>()
+        val callControls = mutableListOf<CallControlsViewState>()
+        val stats = mutableListOf<StatsViewState>()
+        viewModel.participants.observeForever { participants.add(it) }
+        viewModel.callControls.observeForever { callControls.add(it) }
+        viewModel.stats.observeForever { stats.add(it) }
+        val roomStats = RoomStats(emptyList(), emptyMap())
+
+        roomManager.sendRoomEvent(StatsUpdate(roomStats))
+        scheduler.triggerActions()
+
+        assertThat(participants.size, equalTo(1))
+        assertThat(callControls.size, equalTo(1))
+        assertThat(stats.map { it.roomStats }, equalTo(listOf(null, roomStats)))
     }
+
+    @Test
+    fun `The call controls stream should not be published when only the participants change`() {
+        val callControls = mutableListOf<CallControlsViewState>()
+        viewModel.callControls.observeForever { callControls.add(it) }
+
+        roomManager.sendRoomEvent(TrackSwitchOff(PARTICIPANT_SID, mock(), false))
+        scheduler.triggerActions()
+
+        assertThat(callControls, equalTo(listOf(initialRoomViewState.callControlsViewState)))
+        assertThat(viewModel.participants.value,
+                equalTo((viewModel.getCurrentState() as RoomViewState).participantsViewState))
+    }
+
+    @Test
+    fun `The background media mode should detach the remote video and restore it in the foreground`() {
+        val videoTrack = mock<RemoteVideoTrack>()
+        roomManager.sendRoomEvent(TrackSwitchOff(PARTICIPANT_SID, videoTrack, false))
+        scheduler.triggerActions()
+
+        viewModel.processInput(MediaModeChanged(MediaMode.BACKGROUND))
+        scheduler.triggerActions()
+
+        assertThat(viewModel.participants.value?.primaryParticipant?.videoTrack, `is`(nullValue()))
+
+        viewModel.processInput(MediaModeChanged(MediaMode.FOREGROUND))
+        scheduler.triggerActions()
+
+        assertThat(viewModel.participants.value?.primaryParticipant?.videoTrack,
+                equalTo(VideoTrackViewState(videoTrack)))
+        inOrder(videoTrack) {
+            verify(videoTrack).priority = LOW
+            verify(videoTrack).priority = null
+            verify(videoTrack).priority = HIGH
+        }
+    }
+
 }
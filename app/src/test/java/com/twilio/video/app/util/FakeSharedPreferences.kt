@@ -0,0 +1,91 @@
+package com.twilio.video.app.util
+
+import android.content.SharedPreferences
+
+/*
+ * An in memory SharedPreferences that counts reads so tests can verify how often preferences are
+ * accessed.
+ */
+class FakeSharedPreferences : SharedPreferences {
+
+    private val values = mutableMapOf<String, Any?>()
+    private val listeners = mutableSetOf<SharedPreferences.OnSharedPreferenceChangeListener>()
+    var readCount = 0
+        private set
+
+    override fun getAll(): Map<String, *> = values.toMap()
+
+    override fun getString(key: String, defValue: String?) = read(key, defValue)
+
+    override fun getStringSet(key: String, defValues: MutableSet<String>?) = read(key, defValues)
+
+    override fun getInt(key: String, defValue: Int) = read(key, defValue)
+
+    override fun getLong(key: String, defValue: Long) = read(key, defValue)
+
+    override fun getFloat(key: String, defValue: Float) = read(key, defValue)
+
+    override fun getBoolean(key: String, defValue: Boolean) = read(key, defValue)
+
+    override fun contains(key: String) = values.containsKey(key)
+
+    override fun edit(): SharedPreferences.Editor = Editor()
+
+    override fun registerOnSharedPreferenceChangeListener(
+        listener: SharedPreferences.OnSharedPreferenceChangeListener
+    ) {
+        listeners.add(listener)
+    }
+
+    override fun unregisterOnSharedPreferenceChangeListener(
+        listener: SharedPreferences.OnSharedPreferenceChangeListener
+    ) {
+        listeners.remove(listener)
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private fun <T> read(key: String, defValue: T): T {
+        readCount++
+        return if (values.containsKey(key)) values[key] as T else defValue
+    }
+
+    private inner class Editor : SharedPreferences.Editor {
+        private val changes = mutableMapOf<String, Any?>()
+        private var clear = false
+
+        override fun putString(key: String, value: String?) = put(key, value)
+
+        override fun putStringSet(key: String, values: MutableSet<String>?) = put(key, values)
+
+        override fun putInt(key: String, value: Int) = put(key, value)
+
+        override fun putLong(key: String, value: Long) = put(key, value)
+
+        override fun putFloat(key: String, value: Float) = put(key, value)
+
+        override fun putBoolean(key: String, value: Boolean) = put(key, value)
+
+        override fun remove(key: String) = put(key, null)
+
+        override fun clear() = apply { clear = true }
+
+        override fun commit(): Boolean {
+            apply()
+            return true
+        }
+
+        override fun apply() {
+            if (clear) values.clear()
+            changes.forEach { (key, value) ->
+                if (value == null) values.remove(key) else values[key] = value
+            }
+            changes.keys.forEach { key ->
+                listeners.toList().forEach {
+                    it.onSharedPreferenceChanged(this@FakeSharedPreferences, key)
+                }
+            }
+        }
+
+        private fun put(key: String, value: Any?) = apply { changes[key] = value }
+    }
+}
@@ -0,0 +1,44 @@
+package com.twilio.video.app.util
+
+import java.util.concurrent.TimeUnit
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Test
+
+private val FRAME_INTERVAL_NS = TimeUnit.SECONDS.toNanos(1) / 30
+
+class FrameRateLimiterTest {
+
+    private val frameRateLimiter = FrameRateLimiter(maxFrameRate = 15)
+
+    @Test
+    fun `frames should be let through at the max frame rate`() {
+        val acquiredCount = (0 until 30).count { frameRateLimiter.tryAcquire(it * FRAME_INTERVAL_NS) }
+
+        assertThat(acquiredCount, equalTo(15))
+    }
+
+    @Test
+    fun `every frame should be let through without a max frame rate`() {
+        frameRateLimiter.maxFrameRate = 0
+
+        val acquiredCount = (0 until 30).count { frameRateLimiter.tryAcquire(it * FRAME_INTERVAL_NS) }
+
+        assertThat(acquiredCount, equalTo(30))
+    }
+
+    @Test
+    fun `a frame from a new source should be let through right away`() {
+        frameRateLimiter.tryAcquire(TimeUnit.SECONDS.toNanos(10))
+
+        assertThat(frameRateLimiter.isNewSource(FRAME_INTERVAL_NS), equalTo(true))
+        assertThat(frameRateLimiter.tryAcquire(FRAME_INTERVAL_NS), equalTo(true))
+    }
+
+    @Test
+    fun `the delay should be the remainder of the frame interval`() {
+        frameRateLimiter.tryAcquire(0)
+
+        assertThat(frameRateLimiter.delayNs(FRAME_INTERVAL_NS), equalTo(FRAME_INTERVAL_NS))
+    }
+}
@@ -0,0 +1,40 @@
+package com.twilio.video.app.util
+
+import android.util.Log
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.After
+import org.junit.Test
+
+class LoggerTest {
+
+    private val previousMinPriority = Logger.minPriority
+    private var messageCount = 0
+
+    @After
+    fun tearDown() {
+        Logger.minPriority = previousMinPriority
+    }
+
+    @Test
+    fun `messages below the minimum priority should not be built`() {
+        Logger.minPriority = Log.INFO
+
+        Logger.v { message() }
+        Logger.d { message() }
+
+        assertThat(messageCount, equalTo(0))
+    }
+
+    @Test
+    fun `messages at or above the minimum priority should be built`() {
+        Logger.minPriority = Log.DEBUG
+
+        Logger.d { message() }
+        Logger.i { message() }
+
+        assertThat(messageCount, equalTo(2))
+    }
+
+    private fun message() = "message ${++messageCount}"
+}
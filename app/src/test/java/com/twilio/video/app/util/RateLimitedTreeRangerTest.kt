@@ -0,0 +1,41 @@
+package com.twilio.video.app.util
+
+import com.nhaarman.mockitokotlin2.any
+import com.nhaarman.mockitokotlin2.inOrder
+import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.times
+import com.nhaarman.mockitokotlin2.verify
+import org.junit.Test
+
+class RateLimitedTreeRangerTest {
+
+    private val delegate = mock<TreeRanger>()
+    private var now = 0L
+    private val treeRanger = RateLimitedTreeRanger(delegate, 2) { now }
+
+    @Test
+    fun `breadcrumbs over the limit should be dropped until the next window`() {
+        repeat(5) { treeRanger.inform("breadcrumb $it") }
+        now += 1000
+        treeRanger.inform("next window")
+
+        inOrder(delegate) {
+            verify(delegate).inform("breadcrumb 0")
+            verify(delegate).inform("breadcrumb 1")
+            verify(delegate).inform("(3 breadcrumbs dropped) next window")
+        }
+        verify(delegate, times(3)).inform(any())
+    }
+
+    @Test
+    fun `cautions and alerts should never be dropped`() {
+        val throwable = Exception()
+        repeat(5) {
+            treeRanger.caution("caution")
+            treeRanger.alert(throwable)
+        }
+
+        verify(delegate, times(5)).caution("caution")
+        verify(delegate, times(5)).alert(throwable)
+    }
+}
@@ -0,0 +1,23 @@
+package com.twilio.video.app.util
+
+import java.util.concurrent.TimeUnit
+
+/*
+ * A monotonic clock that only moves when it is advanced so that time based logic can be driven
+ * deterministically and faster than real time. Time is kept in nanoseconds so that event rates
+ * above one event per millisecond can be represented.
+ */
+class VirtualClock(startNs: Long = 0) {
+
+    var nowNs = startNs
+        private set
+
+    val elapsedRealtime: Long get() = TimeUnit.NANOSECONDS.toMillis(nowNs)
+
+    fun advanceTo(timeNs: Long) {
+        require(timeNs >= nowNs) { "Cannot move the clock back from $nowNs to $timeNs" }
+        nowNs = timeNs
+    }
+
+    fun advanceBy(durationMs: Long) = advanceTo(nowNs + TimeUnit.MILLISECONDS.toNanos(durationMs))
+}
@@ -3,6 +3,7 @@ package com.twilio.video.app.data.api
 import android.content.SharedPreferences
 import com.nhaarman.mockitokotlin2.isA
 import com.nhaarman.mockitokotlin2.mock
+import com.nhaarman.mockitokotlin2.times
 import com.nhaarman.mockitokotlin2.verify
 import com.nhaarman.mockitokotlin2.verifyZeroInteractions
 import com.nhaarman.mockitokotlin2.whenever
@@ -214,6 +215,24 @@ class AuthServiceRepositoryTest {
         }
     }
 
+    @Test
+    fun `it should write the room type change in a single transaction`() {
+        runBlockingTest {
+            val sharedPreferences = mock<SharedPreferencesWrapper> {
+                whenever(mock.getString(TOPOLOGY, null)).thenReturn(GROUP.value)
+            }
+            authService = mock {
+                whenever(mock.getToken(isA(), isA()))
+                        .thenReturn(AuthServiceResponseDTO(token, PEER_TO_PEER))
+            }
+            val repository = AuthServiceRepository(authService, mock(), sharedPreferences)
+
+            repository.getToken(passcode = passcode)
+
+            verify(sharedPreferences, times(1)).edit(isA())
+        }
+    }
+
     @Test
     fun `it should not update the video codec, room type, and video dimensions if the room type has not changed`() {
         runBlockingTest {
@@ -9,4 +9,10 @@ class SecurePreferencesFake : SecurePreferences {
     }
 
     override fun getSecureString(key: String) = preferences[key]
+
+    override fun removeSecureString(key: String) {
+        preferences.remove(key)
+    }
+
+    override suspend fun loadSecureString(key: String) = getSecureString(key)
 }
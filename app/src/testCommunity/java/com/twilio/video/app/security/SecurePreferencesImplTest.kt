@@ -0,0 +1,101 @@
+package com.twilio.video.app.security
+
+import com.twilio.video.app.android.SharedPreferencesWrapper
+import com.twilio.video.app.data.PASSCODE
+import com.twilio.video.app.util.FakeSharedPreferences
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.TestCoroutineDispatcher
+import kotlinx.coroutines.test.runBlockingTest
+import org.hamcrest.CoreMatchers.equalTo
+import org.hamcrest.CoreMatchers.nullValue
+import org.hamcrest.MatcherAssert.assertThat
+import org.junit.Test
+
+@ExperimentalCoroutinesApi
+class SecurePreferencesImplTest {
+
+    private val dispatcher = TestCoroutineDispatcher()
+    private val sharedPreferences = FakeSharedPreferences()
+    private val cipher = CountingCipher()
+    private var cipherCreationCount = 0
+    private val securePreferences = SecurePreferencesImpl(
+            SharedPreferencesWrapper(sharedPreferences, dispatcher), dispatcher) {
+        cipherCreationCount++
+        cipher
+    }
+
+    @Test
+    fun `the cipher should be created once on the io dispatcher`() {
+        securePreferences.putSecureString(PASSCODE, "12345678901234")
+        securePreferences.getSecureString(PASSCODE)
+
+        assertThat(cipherCreationCount, equalTo(1))
+    }
+
+    @Test
+    fun `a written value should be read without decrypting it`() {
+        securePreferences.putSecureString(PASSCODE, "12345678901234")
+
+        repeat(10) {
+            assertThat(securePreferences.getSecureString(PASSCODE), equalTo("12345678901234"))
+        }
+        assertThat(cipher.decryptCount, equalTo(0))
+    }
+
+    @Test
+    fun `a stored value should only be decrypted on the first read`() {
+        sharedPreferences.edit().putString(PASSCODE, cipher.encrypt("12345678901234")).apply()
+
+        repeat(10) { securePreferences.getSecureString(PASSCODE) }
+
+        assertThat(cipher.decryptCount, equalTo(1))
+    }
+
+    @Test
+    fun `the cached value should be invalidated when the preference is removed elsewhere`() {
+        securePreferences.putSecureString(PASSCODE, "12345678901234")
+
+        sharedPreferences.edit().remove(PASSCODE).apply()
+
+        assertThat(securePreferences.getSecureString(PASSCODE), nullValue())
+    }
+
+    @Test
+    fun `the cached value should be invalidated when the preference is replaced elsewhere`() {
+        securePreferences.putSecureString(PASSCODE, "12345678901234")
+
+        sharedPreferences.edit().putString(PASSCODE, cipher.encrypt("43210987654321")).apply()
+
+        assertThat(securePreferences.getSecureString(PASSCODE), equalTo("43210987654321"))
+    }
+
+    @Test
+    fun `removeSecureString should remove the value`() {
+        securePreferences.putSecureString(PASSCODE, "12345678901234")
+
+        securePreferences.removeSecureString(PASSCODE)
+
+        assertThat(securePreferences.getSecureString(PASSCODE), nullValue())
+        assertThat(sharedPreferences.contains(PASSCODE), equalTo(false))
+    }
+
+    @Test
+    fun `loadSecureString should return the value`() {
+        dispatcher.runBlockingTest {
+            securePreferences.putSecureString(PASSCODE, "12345678901234")
+
+            assertThat(securePreferences.loadSecureString(PASSCODE), equalTo("12345678901234"))
+        }
+    }
+
+    private class CountingCipher : SecureCipher {
+        var decryptCount = 0
+
+        override fun encrypt(plainText: String) = plainText.reversed()
+
+        override fun decrypt(encryptedText: String): String {
+            decryptCount++
+            return encryptedText.reversed()
+        }
+    }
+}
@@ -41,6 +41,7 @@ import com.twilio.video.app.util.INVALID_PASSCODE_ERROR
 import com.twilio.video.app.util.MainCoroutineScopeRule
 import com.twilio.video.app.util.getMockHttpException
 import com.twilio.video.app.util.getSharedPreferences
+import dagger.Lazy
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.runBlockingTest
 import org.hamcrest.CoreMatchers.equalTo
@@ -84,7 +85,7 @@ class CommunityLoginActivityTest {
     private val authenticator = CommunityAuthenticator(
             preferences,
             securePreferences,
-            authServiceRepository,
+            Lazy { authServiceRepository },
             coroutineScope.coroutineContext)
     private val communityAuthModule: CommunityAuthModule = mock {
         whenever(mock.providesCommunityAuthenticator(any(), any(), any())).thenReturn(authenticator)
@@ -0,0 +1,57 @@
+package com.twilio.video.app.benchmark
+
+import android.os.SystemClock
+import androidx.test.platform.app.InstrumentationRegistry
+import androidx.test.uiautomator.By
+import androidx.test.uiautomator.UiDevice
+import androidx.test.uiautomator.Until
+
+private const val SPLASH_ACTIVITY = "com.twilio.video.app.ui.splash.SplashActivity"
+private const val UI_TIMEOUT_MS = 10_000L
+private val TOTAL_TIME_REGEX = Regex("TotalTime: (\\d+)")
+
+/*
+ * Drives the installed app under test through shell commands and UiAutomator.
+ */
+object AppDriver {
+
+    val targetPackage: String
+        get() = InstrumentationRegistry.getArguments().getString("targetPackage")
+                ?: error("The targetPackage instrumentation argument is required")
+
+    val device: UiDevice get() = UiDevice.getInstance(InstrumentationRegistry.getInstrumentation())
+
+    /*
+     * Grants the runtime permissions up front so that permission dialogs do not block the lobby.
+     */
+    fun grantPermissions() {
+        listOf("android.permission.CAMERA", "android.permission.RECORD_AUDIO").forEach {
+            device.executeShellCommand("pm grant $targetPackage $it")
+        }
+    }
+
+    fun killApp() {
+        device.executeShellCommand("am force-stop $targetPackage")
+    }
+
+    /*
+     * Launches the SplashActivity and returns the launch time reported by the ActivityManager,
+     * which ends when its first frame is drawn.
+     */
+    fun launch(): Long {
+        val output = device.executeShellCommand("am start -W -n $targetPackage/$SPLASH_ACTIVITY")
+        return TOTAL_TIME_REGEX.find(output)?.groupValues?.get(1)?.toLong()
+                ?: error("Unable to launch $targetPackage: $output")
+    }
+
+    /*
+     * Waits for the lobby of the RoomActivity to be rendered and returns the uptime at which it
+     * was found.
+     */
+    fun waitForLobby(): Long {
+        check(device.wait(Until.hasObject(By.res(targetPackage, "connect")), UI_TIMEOUT_MS)) {
+            "The lobby was not displayed. Make sure the app under test is logged in."
+        }
+        return SystemClock.uptimeMillis()
+    }
+}
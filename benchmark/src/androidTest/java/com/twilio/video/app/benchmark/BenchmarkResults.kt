@@ -0,0 +1,63 @@
+package com.twilio.video.app.benchmark
+
+import android.os.Build
+import android.os.Bundle
+import androidx.test.platform.app.InstrumentationRegistry
+import java.io.File
+import org.json.JSONArray
+import org.json.JSONObject
+
+/*
+ * A named measurement repeated over several runs, in milliseconds.
+ */
+data class BenchmarkMetric(val name: String, val runsMs: List<Long>) {
+    val minMs: Long get() = runsMs.minOrNull() ?: 0
+    val maxMs: Long get() = runsMs.maxOrNull() ?: 0
+    val medianMs: Long get() = runsMs.sorted().let { if (it.isEmpty()) 0 else it[it.size / 2] }
+
+    fun toJson(): JSONObject = JSONObject()
+            .put("name", name)
+            .put("unit", "ms")
+            .put("min", minMs)
+            .put("median", medianMs)
+            .put("max", maxMs)
+            .put("runs", JSONArray(runsMs))
+}
+
+/*
+ * Collects the metrics of all benchmarks in the instrumentation run and rewrites the results file
+ * after each one, so a partial run still leaves machine readable results behind. The file also
+ * records the device and app version so results can be compared between releases.
+ */
+object BenchmarkResults {
+
+    private val metrics = mutableMapOf<String, BenchmarkMetric>()
+
+    @Synchronized
+    fun report(metric: BenchmarkMetric) {
+        metrics[metric.name] = metric
+        InstrumentationRegistry.getInstrumentation().sendStatus(0, Bundle().apply {
+            putString("benchmark", metric.toJson().toString())
+        })
+        write()
+    }
+
+    private fun write() {
+        val instrumentation = InstrumentationRegistry.getInstrumentation()
+        val arguments = InstrumentationRegistry.getArguments()
+        val targetPackage = AppDriver.targetPackage
+        val targetVersion = instrumentation.context.packageManager
+                .getPackageInfo(targetPackage, 0).versionName
+        val json = JSONObject()
+                .put("targetPackage", targetPackage)
+                .put("targetVersionName", targetVersion)
+                .put("device", JSONObject()
+                        .put("manufacturer", Build.MANUFACTURER)
+                        .put("model", Build.MODEL)
+                        .put("sdkInt", Build.VERSION.SDK_INT))
+                .put("benchmarks", JSONArray(metrics.values.map { it.toJson() }))
+        val resultsFile = File(instrumentation.context.filesDir,
+                arguments.getString("resultsFileName", "benchmark-results.json"))
+        resultsFile.writeText(json.toString(2))
+    }
+}
@@ -0,0 +1,50 @@
+package com.twilio.video.app.benchmark
+
+import android.os.SystemClock
+import androidx.test.ext.junit.runners.AndroidJUnit4
+import androidx.test.filters.LargeTest
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+
+private const val ITERATIONS = 5
+
+@RunWith(AndroidJUnit4::class)
+@LargeTest
+class StartupBenchmark {
+
+    @Before
+    fun setUp() {
+        AppDriver.grantPermissions()
+    }
+
+    @Test
+    fun coldStartup() {
+        measureStartup("coldStartup") { AppDriver.killApp() }
+    }
+
+    @Test
+    fun warmStartup() {
+        AppDriver.launch()
+        AppDriver.waitForLobby()
+        measureStartup("warmStartup") { AppDriver.device.pressHome() }
+    }
+
+    /*
+     * Reports the time until the SplashActivity is drawn and the time until the lobby that it
+     * routes to is rendered.
+     */
+    private fun measureStartup(name: String, prepare: () -> Unit) {
+        val splashRuns = mutableListOf<Long>()
+        val lobbyRuns = mutableListOf<Long>()
+        repeat(ITERATIONS) {
+            prepare()
+            SystemClock.sleep(1000)
+            val start = SystemClock.uptimeMillis()
+            splashRuns.add(AppDriver.launch())
+            lobbyRuns.add(AppDriver.waitForLobby() - start)
+        }
+        BenchmarkResults.report(BenchmarkMetric("${name}ToSplash", splashRuns))
+        BenchmarkResults.report(BenchmarkMetric("${name}ToLobby", lobbyRuns))
+    }
+}